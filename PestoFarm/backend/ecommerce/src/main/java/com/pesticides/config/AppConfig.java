@@ -1,7 +1,13 @@
 package com.pesticides.config;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,6 +16,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
@@ -17,6 +24,12 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pesticides.service.impl.TokenRevocationList;
+import com.pesticides.utils.RateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 import jakarta.servlet.http.HttpServletRequest;
 
 @Configuration
@@ -24,10 +37,16 @@ import jakarta.servlet.http.HttpServletRequest;
 public class AppConfig {
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimiter rateLimiter,
+            RateLimitProperties rateLimitProperties, ObjectMapper objectMapper,
+            JwtProvider jwtProvider, TokenRevocationList tokenRevocationList) throws Exception {
         http.sessionManagement(management -> management.sessionCreationPolicy(
                 SessionCreationPolicy.STATELESS)).authorizeHttpRequests(authorize -> authorize
 
+                        // Async re-dispatches of streamed CSV exports and SSE streams were authorized on
+                        // the original request; re-checking them fails once the response has started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // --- PUBLIC ENDPOINTS (NO AUTH REQUIRED) ---
                         .requestMatchers("/auth/signing").permitAll()
                         .requestMatchers("/auth/signup").permitAll()
@@ -54,6 +73,10 @@ public class AppConfig {
 
                         // --- ADMIN ENDPOINTS (ROLE_ADMIN REQUIRED) ---
                         .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/transactions").hasAuthority("ROLE_ADMIN")
+
+                        // --- SELLER EXPORTS (ROLE_SELLER REQUIRED) ---
+                        .requestMatchers("/api/seller/orders/export", "/api/transactions/seller/export").hasAuthority("ROLE_SELLER")
 
                         // --- AUTHENTICATED ENDPOINTS ---
                         .requestMatchers("/api/**").authenticated()
@@ -61,7 +84,8 @@ public class AppConfig {
                         // --- EVERYTHING ELSE IS PUBLIC ---
                         .anyRequest().permitAll()
 
-                ).addFilterAfter(new JwtTokenValidator(), BasicAuthenticationFilter.class)
+                ).addFilterBefore(new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper), BasicAuthenticationFilter.class)
+                .addFilterAfter(new JwtTokenValidator(jwtProvider, tokenRevocationList), BasicAuthenticationFilter.class)
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
         return http.build();
@@ -84,9 +108,42 @@ public class AppConfig {
         };
     }
 
+    /**
+     * BCrypt behind a DelegatingPasswordEncoder so new hashes carry a {bcrypt} prefix while legacy
+     * unprefixed hashes still verify. Only a hash below the configured cost is flagged for rehash
+     * on the next successful login, so the default cost of 10 rehashes nobody.
+     */
+    @Bean
+    PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${security.password.hash-threads:0}") int hashThreads,
+            @Value("${security.password.hash-queue-capacity:64}") int hashQueueCapacity,
+            @Value("${security.password.hash-timeout:5s}") Duration hashTimeout) {
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders) {
+            @Override
+            public boolean upgradeEncoding(String prefixEncodedPassword) {
+                // a missing prefix alone is not worth a hash on the login path
+                if (prefixEncodedPassword != null && !prefixEncodedPassword.startsWith("{")) {
+                    return bcrypt.upgradeEncoding(prefixEncodedPassword);
+                }
+                return super.upgradeEncoding(prefixEncodedPassword);
+            }
+        };
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashThreads > 0 ? hashThreads
+                : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, threads, hashQueueCapacity, hashTimeout, meterRegistry);
+    }
+
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties.getMaxKeys(), properties.getIdleEviction());
     }
 
     @Bean
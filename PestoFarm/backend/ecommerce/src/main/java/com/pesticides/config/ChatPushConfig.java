@@ -0,0 +1,27 @@
+package com.pesticides.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pesticides.service.ChatEventHub;
+import com.pesticides.service.impl.InProcessChatEventHub;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The chat push hub. In-process for now; a multi-node deployment replaces this bean with a
+ * broker-backed {@link ChatEventHub}.
+ */
+@Configuration
+public class ChatPushConfig {
+
+    @Bean
+    ChatEventHub chatEventHub(MeterRegistry registry,
+            @Value("${chat.push.delivery-threads:4}") int deliveryThreads,
+            @Value("${chat.push.queue-capacity:64}") int queueCapacity,
+            @Value("${chat.push.max-subscribers:10000}") int maxSubscribers,
+            @Value("${chat.push.send-timeout-ms:5000}") long sendTimeoutMs) {
+        return new InProcessChatEventHub(deliveryThreads, queueCapacity, maxSubscribers, sendTimeoutMs, registry);
+    }
+}
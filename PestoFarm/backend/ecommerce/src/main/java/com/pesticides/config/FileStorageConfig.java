@@ -0,0 +1,35 @@
+package com.pesticides.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pesticides.service.FileStorage;
+import com.pesticides.service.impl.LocalDiskFileStorage;
+import com.pesticides.service.impl.ThumbnailGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Upload storage and its thumbnail pool. Replace the {@link FileStorage} bean to move uploads to
+ * an object store; the resource handlers in {@link WebMvcConfig} then need to point at its URLs.
+ */
+@Configuration
+public class FileStorageConfig {
+
+    @Bean
+    FileStorage fileStorage(@Value("${file-storage.root:uploads}") String root) throws IOException {
+        return new LocalDiskFileStorage(Path.of(root));
+    }
+
+    @Bean
+    ThumbnailGenerator thumbnailGenerator(FileStorage fileStorage, MeterRegistry registry,
+            @Value("${file-storage.thumbnail-width:320}") int width,
+            @Value("${file-storage.thumbnail-threads:2}") int threads,
+            @Value("${file-storage.thumbnail-queue-capacity:100}") int queueCapacity) {
+        return new ThumbnailGenerator(fileStorage, width, threads, queueCapacity, registry);
+    }
+}
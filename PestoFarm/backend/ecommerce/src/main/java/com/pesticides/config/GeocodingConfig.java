@@ -0,0 +1,58 @@
+package com.pesticides.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+
+import com.pesticides.service.GeocodingService;
+import com.pesticides.service.impl.GeocodingServiceImpl;
+import com.pesticides.service.impl.OfflineGeocodingServiceImpl;
+import com.pesticides.utils.PostalCodeIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline geocoding data. Point {@code geocode.offline.postal-codes} at a full copy of India
+ * Post's pincode directory (a file: or classpath: location); without one, every lookup goes to
+ * Nominatim, and {@code geocode.offline.required=true} refuses to start instead.
+ */
+@Slf4j
+@Configuration
+public class GeocodingConfig {
+
+    @Bean
+    PostalCodeIndex postalCodeIndex(@Value("${geocode.offline.postal-codes:classpath:geo/postal-codes.csv}") Resource file,
+            @Value("${geocode.offline.required:false}") boolean required) throws IOException {
+        PostalCodeIndex index = PostalCodeIndex.empty();
+        if (file.exists()) {
+            long start = System.nanoTime();
+            try (InputStream in = file.getInputStream()) {
+                index = PostalCodeIndex.load(in);
+            }
+            log.info("Loaded {} PIN codes and {} districts from {} in {} ms", index.size(), index.placeCount(), file,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        if (index.size() == 0) {
+            if (required) {
+                throw new IllegalStateException("No PIN codes in " + file
+                        + "; point geocode.offline.postal-codes at India Post's pincode directory");
+            }
+            log.warn("No PIN codes in {}: every address goes to Nominatim and buyers who only give a PIN code cannot"
+                    + " be placed. Point geocode.offline.postal-codes at India Post's pincode directory.", file);
+        }
+        return index;
+    }
+
+    /** The offline geocoder when it has PIN codes to work from, Nominatim otherwise. */
+    @Bean(destroyMethod = "")
+    @Primary
+    GeocodingService geocodingService(PostalCodeIndex postalCodeIndex, OfflineGeocodingServiceImpl offline,
+            GeocodingServiceImpl nominatim) {
+        return postalCodeIndex.size() > 0 ? offline : nominatim;
+    }
+}
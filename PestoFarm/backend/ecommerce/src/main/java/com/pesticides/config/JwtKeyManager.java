@@ -0,0 +1,251 @@
+package com.pesticides.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the ES256 (P-256) keys used to sign and verify access tokens.
+ *
+ * Exactly one key signs at a time; its id goes into the token's {@code kid} header. On rotation
+ * the previous key stops signing but stays in the verification set for one access-token lifetime
+ * (plus clock skew), so tokens it signed keep working until they expire on their own. The public
+ * half of every verification key is published at {@code /.well-known/jwks.json}.
+ *
+ * In production the keys come from a PKCS#12 keystore ({@code jwt.keystore.path}) shared by
+ * every node, so tokens survive restarts and any node accepts another's tokens. Each entry's
+ * alias is its {@code kid}; the entry named by {@code jwt.keystore.signing-alias} signs and the
+ * rest only verify. Keys are rotated by adding a new entry, switching the signing alias and
+ * dropping the old entry once its tokens have expired. Without a keystore a key is generated in
+ * memory and rotated on a schedule, which only suits a single development node.
+ *
+ * Tokens without a {@code kid} were signed with the old shared HMAC secret. They are accepted
+ * only while {@code jwt.accept-legacy-hmac} is on, which only needs to cover the rollout window.
+ */
+@Slf4j
+@Component
+public class JwtKeyManager extends SigningKeyResolverAdapter {
+
+    private static final String CURVE = "secp256r1";
+
+    private final Map<String, VerificationKey> verificationKeys = new ConcurrentHashMap<>();
+    private final Key legacyHmacKey = Keys.hmacShaKeyFor(JWT_CONSTANT.SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+
+    private final Duration retention;
+    private final boolean acceptLegacyHmac;
+    private final Clock clock;
+    private final boolean fromKeyStore;
+
+    private volatile SigningKey current;
+
+    @Autowired
+    public JwtKeyManager(@Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+            @Value("${jwt.key-clock-skew:1m}") Duration clockSkew,
+            @Value("${jwt.accept-legacy-hmac:false}") boolean acceptLegacyHmac,
+            @Value("${jwt.keystore.path:}") String keyStorePath,
+            @Value("${jwt.keystore.password:}") String keyStorePassword,
+            @Value("${jwt.keystore.signing-alias:}") String signingAlias) {
+        this(accessTokenTtl.plus(clockSkew), acceptLegacyHmac, Clock.systemUTC(),
+                keyStorePath.isBlank() ? null : loadKeyStore(Path.of(keyStorePath), keyStorePassword.toCharArray()),
+                keyStorePassword.toCharArray(), signingAlias);
+        if (!fromKeyStore) {
+            log.warn("jwt.keystore.path is not set: signing with an in-memory key, so tokens are lost on restart"
+                    + " and not accepted by other nodes");
+        }
+    }
+
+    /** Signs with keys generated in memory. */
+    JwtKeyManager(Duration retention, boolean acceptLegacyHmac, Clock clock) {
+        this(retention, acceptLegacyHmac, clock, null, null, null);
+    }
+
+    /** Signs with the keystore's keys, or with generated ones when keyStore is null. */
+    JwtKeyManager(Duration retention, boolean acceptLegacyHmac, Clock clock,
+            KeyStore keyStore, char[] password, String signingAlias) {
+        this.retention = retention;
+        this.acceptLegacyHmac = acceptLegacyHmac;
+        this.clock = clock;
+        this.fromKeyStore = keyStore != null;
+        if (fromKeyStore) {
+            load(keyStore, password, signingAlias == null ? "" : signingAlias);
+        } else {
+            rotate();
+        }
+    }
+
+    public SigningKey currentKey() {
+        return current;
+    }
+
+    /** Starts signing with a fresh key and drops retired keys that can no longer verify a live token. */
+    public synchronized void rotate() {
+        if (fromKeyStore) {
+            throw new IllegalStateException("Keystore keys are rotated by replacing the keystore");
+        }
+        Instant now = clock.instant();
+        SigningKey previous = current;
+        SigningKey next = generate();
+
+        verificationKeys.put(next.kid(), new VerificationKey(next.publicKey(), null));
+        current = next;
+        if (previous != null) {
+            verificationKeys.put(previous.kid(), new VerificationKey(previous.publicKey(), now));
+        }
+        verificationKeys.values().removeIf(k -> k.retiredAt() != null && k.retiredAt().plus(retention).isBefore(now));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-rotation-interval-ms:86400000}",
+            initialDelayString = "${jwt.key-rotation-interval-ms:86400000}")
+    void scheduledRotate() {
+        if (!fromKeyStore) {
+            rotate();
+        }
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (acceptLegacyHmac && SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+                return legacyHmacKey;
+            }
+            throw new SignatureException("JWT has no key id");
+        }
+        VerificationKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + kid);
+        }
+        return key.publicKey();
+    }
+
+    /** The verification keys as an RFC 7517 JWK set. */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+            jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+            jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+            keys.add(jwk);
+        });
+        return Map.of("keys", keys);
+    }
+
+    int verificationKeyCount() {
+        return verificationKeys.size();
+    }
+
+    // every entry with a P-256 public key verifies; the signing alias (or the only private key) signs
+    private void load(KeyStore keyStore, char[] password, String signingAlias) {
+        try {
+            SigningKey signing = null;
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (certificate == null || !(certificate.getPublicKey() instanceof ECPublicKey publicKey)
+                        || publicKey.getParams().getCurve().getField().getFieldSize() != 256) {
+                    throw new IllegalStateException("JWT keystore entry " + alias + " is not a P-256 key");
+                }
+                verificationKeys.put(alias, new VerificationKey(publicKey, null));
+
+                if (signingAlias.isEmpty() ? keyStore.isKeyEntry(alias) : alias.equals(signingAlias)) {
+                    if (signing != null) {
+                        throw new IllegalStateException("JWT keystore has several private keys; set jwt.keystore.signing-alias");
+                    }
+                    if (!(keyStore.getKey(alias, password) instanceof PrivateKey privateKey)) {
+                        throw new IllegalStateException("JWT keystore entry " + alias + " has no private key");
+                    }
+                    signing = new SigningKey(alias, privateKey, publicKey);
+                }
+            }
+            if (signing == null) {
+                throw new IllegalStateException("JWT keystore has no signing key"
+                        + (signingAlias.isEmpty() ? "" : " under alias " + signingAlias));
+            }
+            current = signing;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read the JWT keystore", e);
+        }
+    }
+
+    private static KeyStore loadKeyStore(Path path, char[] password) {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            return keyStore;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load the JWT keystore " + path, e);
+        }
+    }
+
+    private static SigningKey generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            KeyPair pair = generator.generateKeyPair();
+            return new SigningKey(UUID.randomUUID().toString(), pair.getPrivate(), (ECPublicKey) pair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + CURVE + " signing key", e);
+        }
+    }
+
+    // JWK coordinates are unsigned, big-endian and padded to the field size (32 bytes for P-256)
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int copy = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - copy, fixed, 32 - copy, copy);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    public record SigningKey(String kid, PrivateKey privateKey, ECPublicKey publicKey) {
+
+        // keep key material out of logs
+        @Override
+        public String toString() {
+            return "SigningKey[kid=" + kid + "]";
+        }
+    }
+
+    private record VerificationKey(ECPublicKey publicKey, Instant retiredAt) {
+    }
+}
@@ -1,47 +1,91 @@
 package com.pesticides.config;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.UUID;
 
-import javax.crypto.SecretKey;
-
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 
 @Service
 
 public class JwtProvider {
-    
-    SecretKey key = Keys.hmacShaKeyFor(JWT_CONSTANT.SECRET_KEY.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+    // iat has second precision; revocation cut-offs need the millisecond a token was issued
+    static final String ISSUED_AT_MILLIS = "iat_ms";
+
+    private final JwtKeyManager keyManager;
+
+    // parsers are immutable and thread-safe; the key manager resolves the key per token by kid
+    private final JwtParser parser;
+
+    public JwtProvider(JwtKeyManager keyManager) {
+        this.keyManager = keyManager;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyManager).build();
+    }
+
+    // access tokens are short-lived; clients renew them with a refresh token
+    @Value("${jwt.access-token-ttl:15m}")
+    private Duration accessTokenTtl;
 
     public String generateToken(Authentication auth){
         Collection<? extends GrantedAuthority> authorities =auth.getAuthorities();
         String roles = populatedAuthorities(authorities);
 
+        Date now = new Date();
+        JwtKeyManager.SigningKey signingKey = keyManager.currentKey();
         return Jwts.builder()
-        .setIssuedAt(new Date())
-        .setExpiration(new Date(new Date().getTime()+86400000))
+        .setHeaderParam("kid", signingKey.kid())
+        .setId(UUID.randomUUID().toString())
+        .setIssuedAt(now)
+        .claim(ISSUED_AT_MILLIS, now.getTime())
+        .setExpiration(new Date(now.getTime()+accessTokenTtl.toMillis()))
         .claim("email",auth.getName())
         .claim("authorities",roles)
-        .signWith(key, SignatureAlgorithm.HS256)
+        .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256)
         .compact();
     }
 
     public String getEmailFromJwtToken(String jwt){
-          Claims claims = Jwts.parserBuilder().setSigningKey(key).build().
-                parseClaimsJws(jwt).getBody();
+        Claims claims = getClaims(jwt);
 
         return String.valueOf(claims.get("email"));
     }
 
+    /**
+     * Verifies the signature and expiry and returns the claims.
+     * Accepts the raw token or the full "Bearer ..." header value.
+     */
+    public Claims getClaims(String jwt){
+        if (jwt.startsWith("Bearer ")) {
+            jwt = jwt.substring(7).trim();
+        }
+        return parser.parseClaimsJws(jwt).getBody();
+    }
+
+    /** When the token was issued, to the millisecond; tokens from before iat_ms fall back to iat. */
+    public static long issuedAtMillis(Claims claims) {
+        Object millis = claims.get(ISSUED_AT_MILLIS);
+        if (millis instanceof Number number) {
+            return number.longValue();
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
         private String populatedAuthorities (Collection<? extends GrantedAuthority> authorities){
             Set<String> auths = new HashSet<>();
 
@@ -49,6 +93,6 @@ public class JwtProvider {
                 auths.add(authority.getAuthority());
             }
             return String.join(",",auths);
-            
+
     }
 }
@@ -3,21 +3,18 @@ package com.pesticides.config;
 import java.io.IOException;
 import java.util.List;
 
-import javax.crypto.SecretKey;
-
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.pesticides.service.impl.TokenRevocationList;
+
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +25,14 @@ import jakarta.servlet.http.HttpServletResponse;
 // nio.file.DirectoryStream.
 public class JwtTokenValidator  extends OncePerRequestFilter{
 
+    private final JwtProvider jwtProvider;
+    private final TokenRevocationList revocationList;
+
+    public JwtTokenValidator(JwtProvider jwtProvider, TokenRevocationList revocationList) {
+        this.jwtProvider = jwtProvider;
+        this.revocationList = revocationList;
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
@@ -44,13 +49,20 @@ public class JwtTokenValidator  extends OncePerRequestFilter{
         if(jwt != null && jwt.startsWith("Bearer ")){
             jwt = jwt.substring(7);
             try{
-                SecretKey key = Keys.hmacShaKeyFor(JWT_CONSTANT.SECRET_KEY.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                Claims claims = Jwts.parserBuilder().setSigningKey(key).build().
-                parseClaimsJws(jwt).getBody();
+                Claims claims = jwtProvider.getClaims(jwt);
 
                 String email = String.valueOf(claims.get("email"));
 
-                List<GrantedAuthority> auths = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+                // in-memory check, so deleted accounts and logged-out tokens are refused without a DB hit
+                long issuedAt = JwtProvider.issuedAtMillis(claims);
+                if (revocationList.isRevoked(claims.getId(), email, issuedAt)) {
+                    throw new BadCredentialsException("JWT token has been revoked");
+                }
+
+                // the roles the token was issued with; a role change revokes the user's tokens
+                Object roles = claims.get("authorities");
+                List<GrantedAuthority> auths = roles == null ? List.of()
+                        : AuthorityUtils.commaSeparatedStringToAuthorityList(roles.toString());
                 Authentication authentication = new UsernamePasswordAuthenticationToken(email, null, auths);
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,50 @@
+package com.pesticides.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.service.PaymentGateway;
+import com.pesticides.service.impl.FakePaymentGateway;
+import com.pesticides.service.impl.GuardedPaymentGateway;
+import com.pesticides.service.impl.RazorpayPaymentGateway;
+import com.pesticides.service.impl.StripePaymentGateway;
+import com.pesticides.utils.CircuitBreaker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One long-lived, guarded gateway per provider. Each gets its own bulkhead and circuit breaker,
+ * so a slow Stripe cannot take Razorpay checkouts down with it.
+ */
+@Configuration
+public class PaymentGatewayConfig {
+
+    @Bean
+    GuardedPaymentGateway razorpayPaymentGateway(PaymentGatewayProperties props, MeterRegistry registry) throws Exception {
+        PaymentGateway gateway = isFake(props)
+                ? new FakePaymentGateway(PaymentMethod.RAZORPAY, props.getFakeLatency(), props.getFakeFailureRate())
+                : new RazorpayPaymentGateway(props.getRazorpayKeyId(), props.getRazorpayKeySecret(),
+                        props.getCallbackBaseUrl(), props.getLinkExpiry(), props.getTimeout());
+        return guard(gateway, props, registry);
+    }
+
+    @Bean
+    GuardedPaymentGateway stripePaymentGateway(PaymentGatewayProperties props, MeterRegistry registry) {
+        PaymentGateway gateway = isFake(props)
+                ? new FakePaymentGateway(PaymentMethod.STRIPE, props.getFakeLatency(), props.getFakeFailureRate())
+                : new StripePaymentGateway(props.getStripeSecretKey(), props.getCallbackBaseUrl(), props.getTimeout());
+        return guard(gateway, props, registry);
+    }
+
+    private static boolean isFake(PaymentGatewayProperties props) {
+        return "fake".equalsIgnoreCase(props.getMode());
+    }
+
+    private static GuardedPaymentGateway guard(PaymentGateway gateway, PaymentGatewayProperties props, MeterRegistry registry) {
+        CircuitBreaker breaker = new CircuitBreaker(props.getSlidingWindowSize(), props.getMinimumCalls(),
+                props.getFailureRateThreshold(), props.getOpenDuration(), props.getHalfOpenCalls());
+        return new GuardedPaymentGateway(gateway, breaker, props.getMaxConcurrentCalls(), props.getMaxQueuedCalls(),
+                props.getTimeout(), registry);
+    }
+}
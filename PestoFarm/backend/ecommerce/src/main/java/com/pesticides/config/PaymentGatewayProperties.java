@@ -0,0 +1,54 @@
+package com.pesticides.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Settings for the payment gateways, bound from the {@code payment.*} properties.
+ * The guard settings apply to each provider separately.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "payment")
+public class PaymentGatewayProperties {
+
+    // "live" talks to Razorpay/Stripe, "fake" answers locally for offline load tests
+    private String mode = "live";
+
+    private String callbackBaseUrl = "http://localhost:3000";
+
+    // Razorpay links expire after this (at least 15 minutes) so abandoned checkouts end up
+    // failed instead of pending forever; Stripe sessions expire after 24 hours on their own
+    private Duration linkExpiry = Duration.ofMinutes(30);
+
+    private String razorpayKeyId = "apikey";
+    private String razorpayKeySecret = "apisecret";
+    private String stripeSecretKey = "stripesecretkey";
+
+    // webhook signing secrets; webhooks are refused while these are blank
+    private String razorpayWebhookSecret = "";
+    private String stripeWebhookSecret = "";
+
+    // per call; covers connect, read and time spent waiting for a bulkhead slot
+    private Duration timeout = Duration.ofSeconds(10);
+
+    // bulkhead: calls running against one provider, plus calls allowed to wait for a slot
+    private int maxConcurrentCalls = 16;
+    private int maxQueuedCalls = 16;
+
+    // circuit breaker: open when failureRateThreshold percent of the last slidingWindowSize
+    // calls failed (once at least minimumCalls were made), then probe with halfOpenCalls calls
+    private int slidingWindowSize = 20;
+    private int minimumCalls = 10;
+    private int failureRateThreshold = 50;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenCalls = 3;
+
+    // fake mode only
+    private Duration fakeLatency = Duration.ofMillis(50);
+    private double fakeFailureRate = 0.0;
+}
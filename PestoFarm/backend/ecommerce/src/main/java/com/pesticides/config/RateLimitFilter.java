@@ -0,0 +1,95 @@
+package com.pesticides.config;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pesticides.exception.ErrorDetails;
+import com.pesticides.utils.RateLimiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles the login and OTP endpoints per client before any JWT parsing,
+ * BCrypt check or SMTP send happens. Rejected calls get 429 with Retry-After.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (properties.isEnabled() && !"OPTIONS".equals(request.getMethod())) {
+            RateLimitProperties.Route route = matchRoute(request);
+            if (route != null) {
+                long waitNanos = rateLimiter.tryAcquire(route.getName(), clientKey(request),
+                        route.getCapacity(), route.getPeriod());
+                if (waitNanos > 0) {
+                    reject(request, response, waitNanos);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitProperties.Route matchRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            for (String pattern : route.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        ErrorDetails errorDetails = new ErrorDetails();
+        errorDetails.setError("Too many requests. Please try again in " + retryAfterSeconds + " seconds.");
+        errorDetails.setDetails("uri=" + request.getRequestURI());
+        errorDetails.setTimestamp(LocalDateTime.now());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorDetails);
+    }
+}
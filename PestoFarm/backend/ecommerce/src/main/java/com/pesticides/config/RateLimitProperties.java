@@ -0,0 +1,63 @@
+package com.pesticides.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for {@link RateLimitFilter}, bound from the {@code ratelimit.*} properties.
+ * Routes default to the password-login and OTP-send endpoints; setting
+ * {@code ratelimit.routes[n].*} replaces the whole list.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // upper bound on tracked client buckets
+    private int maxKeys = 100_000;
+
+    // how long a full bucket may sit unused before it is dropped
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    // only enable behind a proxy that overwrites X-Forwarded-For
+    private boolean trustForwardedFor = false;
+
+    private List<Route> routes = new ArrayList<>(List.of(
+            new Route("login", List.of(
+                    "/api/users/auth/login",
+                    "/api/sellers/auth/login",
+                    "/api/scientists/auth/login",
+                    "/api/*/auth/verify-email",
+                    "/auth/signing"), 10, Duration.ofMinutes(1)),
+            new Route("otp", List.of(
+                    "/api/users/auth/send-otp",
+                    "/api/sellers/auth/send-otp",
+                    "/api/scientists/auth/send-otp",
+                    "/auth/sent/login-signup-otp"), 5, Duration.ofMinutes(10))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+
+        private String name;
+
+        // Ant-style patterns, e.g. /api/*/auth/login
+        private List<String> paths = new ArrayList<>();
+
+        // burst size; the bucket refills this many tokens per period
+        private int capacity;
+
+        private Duration period;
+    }
+}
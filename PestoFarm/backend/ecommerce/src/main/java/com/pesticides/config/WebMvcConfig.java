@@ -1,12 +1,22 @@
 // src/main/java/com/pesticides/config/WebMvcConfig.java
 package com.pesticides.config;
 
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.*;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    // same root as the FileStorage bean in FileStorageConfig
+    @Value("${file-storage.root:uploads}")
+    private String fileStorageRoot;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -22,8 +32,19 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/images/scientist/**")
                 .addResourceLocations("file:uploads/scientist/");
 
-        // serves chat message images under /images/chat/** from folder uploads/chat/
-        registry.addResourceHandler("/images/chat/**")
-                .addResourceLocations("file:uploads/chat/");
+        // serves chat message and review images under /images/{chat,reviews}/** from the upload
+        // storage. Names are content hashes, so a URL never changes content: cache it for a year
+        // and use the hash as a strong ETag.
+        for (String folder : new String[] { "chat", "reviews" }) {
+            registry.addResourceHandler("/images/" + folder + "/**")
+                    .addResourceLocations("file:" + Path.of(fileStorageRoot, folder).toAbsolutePath() + "/")
+                    .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .setEtagGenerator(WebMvcConfig::contentHash);
+        }
+    }
+
+    private static String contentHash(Resource resource) {
+        String name = resource.getFilename();
+        return name == null ? null : name.substring(0, name.indexOf('.') < 0 ? name.length() : name.indexOf('.'));
     }
 }
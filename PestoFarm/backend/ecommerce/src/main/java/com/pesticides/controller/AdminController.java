@@ -1,16 +1,31 @@
 package com.pesticides.controller;
 
+import com.pesticides.domain.USER_ROLE;
 import com.pesticides.modal.Product;
+import com.pesticides.dto.PageResponse;
+import com.pesticides.dto.PlatformKpis;
 import com.pesticides.dto.ProductDTO;
 import com.pesticides.modal.User;
+import com.pesticides.response.Apiresponse;
+import com.pesticides.service.AdminAnalyticsService;
 import com.pesticides.service.AdminService;
+import com.pesticides.service.ExportService;
+import com.pesticides.service.ScientistReportService;
+import com.pesticides.service.SellerReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,10 +35,32 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private SellerReportService sellerReportService;
+
+    @Autowired
+    private ScientistReportService scientistReportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AdminAnalyticsService adminAnalyticsService;
+
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = adminService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<PageResponse<User>> getAllUsers(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) USER_ROLE role,
+            @RequestParam(defaultValue = "0") Integer pageNumber,
+            @RequestParam(defaultValue = "20") Integer pageSize) {
+        Page<User> users = adminService.getUsers(query, role, pageNumber, pageSize);
+        return new ResponseEntity<>(PageResponse.of(users, users.getContent()), HttpStatus.OK);
+    }
+
+    // Platform KPIs from the last scheduled snapshot
+    @GetMapping("/kpis")
+    public ResponseEntity<PlatformKpis> getKpis() {
+        return new ResponseEntity<>(adminAnalyticsService.getKpis(), HttpStatus.OK);
     }
 
     @PutMapping("/users/{userId}/role")
@@ -39,10 +76,13 @@ public class AdminController {
     }
 
     @GetMapping("/products")
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<Product> products = adminService.getAllProducts();
+    public ResponseEntity<PageResponse<ProductDTO>> getAllProducts(
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "0") Integer pageNumber,
+            @RequestParam(defaultValue = "20") Integer pageSize) {
+        Page<Product> products = adminService.getProducts(query, pageNumber, pageSize);
 
-        List<ProductDTO> dtos = products.stream().map(p -> {
+        List<ProductDTO> dtos = products.getContent().stream().map(p -> {
             ProductDTO d = new ProductDTO();
             d.setId(p.getId());
             d.setTitle(p.getTitle());
@@ -67,6 +107,35 @@ public class AdminController {
             return d;
         }).collect(java.util.stream.Collectors.toList());
 
-        return new ResponseEntity<>(dtos, HttpStatus.OK);
+        return new ResponseEntity<>(PageResponse.of(products, dtos), HttpStatus.OK);
+    }
+
+    // CSV of every transaction, streamed as it is read
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportAllTransactions() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(out -> exportService.exportTransactions(null, out));
+    }
+
+    // Rebuilds the seller analytics rollups for past days from the orders table
+    @PostMapping("/seller-analytics/backfill")
+    public ResponseEntity<Apiresponse> backfillSellerAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int lines = sellerReportService.backfill(from, to);
+        Apiresponse res = new Apiresponse();
+        res.setMessage("Rebuilt seller analytics for " + from + " to " + to + " from " + lines + " order lines.");
+        return new ResponseEntity<>(res, HttpStatus.OK);
+    }
+
+    // Recomputes the scientist report totals from the chat and message tables
+    @PostMapping("/scientist-reports/rebuild")
+    public ResponseEntity<Apiresponse> rebuildScientistReports() {
+        int scientists = scientistReportService.rebuild();
+        Apiresponse res = new Apiresponse();
+        res.setMessage("Rebuilt the reports of " + scientists + " scientists with chats.");
+        return new ResponseEntity<>(res, HttpStatus.OK);
     }
 }
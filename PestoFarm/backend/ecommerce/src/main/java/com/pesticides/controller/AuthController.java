@@ -8,14 +8,17 @@ import org.springframework.web.bind.annotation.RestController;
 import com.pesticides.domain.USER_ROLE;
 import com.pesticides.request.LoginOtpRequest;
 import com.pesticides.request.LoginRequest;
+import com.pesticides.request.RefreshTokenRequest;
 import com.pesticides.response.Apiresponse;
 import com.pesticides.response.AuthResponse;
 import com.pesticides.response.SignupRequest;
 import com.pesticides.service.AuthService;
+import com.pesticides.service.TokenService;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 
 @RestController
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 public class AuthController {
     
     private final AuthService authService;
+    private final TokenService tokenService;
 
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> createUserHandler(@RequestBody SignupRequest req) throws Exception{
@@ -32,6 +36,7 @@ public class AuthController {
 
         AuthResponse res = new AuthResponse();
         res.setJwt(jwt);
+        res.setRefreshToken(tokenService.issueRefreshToken(req.getEmail(), USER_ROLE.ROLE_USER));
         res.setMessage("register success");
         res.setRole(USER_ROLE.ROLE_USER);
        
@@ -61,5 +66,28 @@ public class AuthController {
         return ResponseEntity.ok(authResponse);
     }
 
+    // exchanges a refresh token for a new access token; the presented refresh token is rotated
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refreshHandler(@RequestBody RefreshTokenRequest req) throws Exception{
+
+        AuthResponse res = tokenService.refresh(req.getRefreshToken());
+
+        return ResponseEntity.ok(res);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Apiresponse> logoutHandler(
+            @RequestHeader(value = "Authorization", required = false) String jwt,
+            @RequestBody(required = false) RefreshTokenRequest req) {
+
+        tokenService.logout(jwt, req != null ? req.getRefreshToken() : null);
+
+        Apiresponse res = new Apiresponse();
+        res.setMessage("logout success");
+        res.setStatus(true);
+
+        return ResponseEntity.ok(res);
+    }
+
 
 }
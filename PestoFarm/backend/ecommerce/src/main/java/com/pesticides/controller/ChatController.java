@@ -1,10 +1,15 @@
 package com.pesticides.controller;
 
+import com.pesticides.dto.ChatInboxEntry;
+import com.pesticides.dto.ChatMessagesDelta;
+import com.pesticides.dto.ChatReadResult;
 import com.pesticides.modal.Chat;
 import com.pesticides.modal.Message;
 import com.pesticides.modal.User;
 import com.pesticides.modal.Scientist;
 import com.pesticides.request.SendMessageRequest;
+import com.pesticides.response.Apiresponse;
+import com.pesticides.service.ChatEventHub;
 import com.pesticides.service.ChatService;
 import com.pesticides.service.MessageService;
 import com.pesticides.service.UserService;
@@ -13,12 +18,16 @@ import com.pesticides.service.FileService;
 
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @RestController
@@ -31,6 +40,11 @@ public class ChatController {
     private final UserService userService;
     private final ScientistService scientistService;
     private final FileService fileService; 
+    private final ChatEventHub chatEventHub;
+
+    // clients reconnect when a stream ends, resuming from their watermark
+    @Value("${chat.push.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
 
     /**
      * POST /api/chats/user/send - Handles multipart/form-data (text + optional image)
@@ -48,7 +62,7 @@ public class ChatController {
         
         // 1. Handle File Upload (if image exists)
         if (image != null && !image.isEmpty()) {
-            imageUrl = fileService.uploadFile(image, "chat_images");
+            imageUrl = fileService.uploadFile(image, "chat");
         }
 
         if (req.getChatId() == null && req.getScientistId() != null) {
@@ -63,8 +77,17 @@ public class ChatController {
             if (chat.getUser().getId().longValue() != user.getId().longValue()) {
                  return new ResponseEntity<>(HttpStatus.FORBIDDEN);
             }
+        } else if (req.getSpecialization() != null && !req.getSpecialization().isBlank()) {
+            // routed to whichever scientist of the specialization has the fewest open chats
+            chat = chatService.routeConsultation(user, req.getSpecialization());
+            req.setChatId(chat.getId());
         } else {
-            throw new Exception("To send a message, either chatId (existing) or scientistId (new) is required.");
+            throw new Exception("To send a message, either chatId (existing), scientistId or specialization (new) is required.");
+        }
+
+        // a user writing into a closed consultation opens it again
+        if (chat.getClosedAt() != null) {
+            chatService.reopenChat(chat);
         }
 
         Message message = messageService.sendMessage(req, imageUrl, jwt); 
@@ -89,7 +112,7 @@ public class ChatController {
         String imageUrl = null;
         // 1. Handle File Upload (if image exists)
         if (image != null && !image.isEmpty()) {
-            imageUrl = fileService.uploadFile(image, "chat_images");
+            imageUrl = fileService.uploadFile(image, "chat");
         }
         
         Scientist scientist = scientistService.findScientistByJwtToken(jwt);
@@ -135,39 +158,196 @@ public class ChatController {
     }
     
     /**
-     * GET /api/chats/{chatId}/messages
-     * Get all messages for a specific chat (accessible by either participant).
+     * GET /api/chats/user/inbox
+     * The authenticated User's chats with counterpart, last message preview and unread count.
+     */
+    @GetMapping("/user/inbox")
+    public ResponseEntity<List<ChatInboxEntry>> getUserInbox(
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        User user = userService.findUserByJwtToken(jwt);
+        return new ResponseEntity<>(chatService.getUserInbox(user), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/chats/scientist/inbox
+     * The authenticated Scientist's chats with counterpart, last message preview and unread count.
+     */
+    @GetMapping("/scientist/inbox")
+    public ResponseEntity<List<ChatInboxEntry>> getScientistInbox(
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        Scientist scientist = scientistService.findScientistByJwtToken(jwt);
+        return new ResponseEntity<>(chatService.getScientistInbox(scientist), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/chats/{chatId}/messages?before=&after=&limit=
+     * One page of a chat's history, oldest first (accessible by either participant).
+     * Without a cursor it returns the latest messages; {@code before}/{@code after} are message ids.
      */
     @GetMapping("/{chatId}/messages")
     public ResponseEntity<List<Message>> getChatMessages(
+        @PathVariable Long chatId,
+        @RequestParam(required = false) Long before,
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "50") int limit,
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        if (!isParticipant(chatService.findChatById(chatId), jwt)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        
+        List<Message> messages = messageService.getChatMessages(chatId, before, after, limit);
+        
+        return new ResponseEntity<>(messages, HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/chats/{chatId}/messages/since?since=
+     * Delta sync for polling clients: only the messages after the watermark message id.
+     */
+    @GetMapping("/{chatId}/messages/since")
+    public ResponseEntity<ChatMessagesDelta> getChatMessagesSince(
+        @PathVariable Long chatId,
+        @RequestParam(required = false) Long since,
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        if (!isParticipant(chatService.findChatById(chatId), jwt)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        
+        return new ResponseEntity<>(messageService.getMessagesSince(chatId, since), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/chats/{chatId}/stream
+     * Server-sent events with every new message of the chat, as it is committed. On connect (and
+     * reconnect) clients fetch /messages/since with their watermark to fill any gap.
+     */
+    @GetMapping(path = "/{chatId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChatMessages(
+        @PathVariable Long chatId,
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        if (!isParticipant(chatService.findChatById(chatId), jwt)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        ChatEventHub.Subscription subscription = chatEventHub.subscribe(chatId, new SseMessageSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+
+    private record SseMessageSink(SseEmitter emitter) implements ChatEventHub.MessageSink {
+
+        @Override
+        public void send(Message message) throws IOException {
+            emitter.send(SseEmitter.event().id(String.valueOf(message.getId())).name("message")
+                    .data(message, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("ping"));
+        }
+
+        @Override
+        public void close(boolean evicted) {
+            // an evicted client is too far behind to be sent anything; it resyncs on reconnect
+            emitter.complete();
+        }
+    }
+
+    /**
+     * POST /api/chats/{chatId}/close
+     * Ends the consultation (either participant), which frees the scientist for new ones.
+     */
+    @PostMapping("/{chatId}/close")
+    public ResponseEntity<Apiresponse> closeChat(
         @PathVariable Long chatId,
         @RequestHeader("Authorization") String jwt) throws Exception {
         
-        // The service layer should only return the messages if the authenticated user 
-        // is one of the participants. We validate the participant here.
         Chat chat = chatService.findChatById(chatId);
+        if (!isParticipant(chat, jwt)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
         
+        Apiresponse res = new Apiresponse();
+        res.setMessage(chatService.closeChat(chat) ? "Chat closed." : "Chat was already closed.");
+        return new ResponseEntity<>(res, HttpStatus.OK);
+    }
+
+    /**
+     * POST /api/chats/{chatId}/read?upTo={messageId}
+     * Read receipt: marks the other participant's messages up to upTo as read.
+     */
+    @PostMapping("/{chatId}/read")
+    public ResponseEntity<ChatReadResult> markChatRead(
+        @PathVariable Long chatId,
+        @RequestParam Long upTo,
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        String readerRole = participantRole(chatService.findChatById(chatId), jwt);
+        if (readerRole == null) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        
+        return new ResponseEntity<>(messageService.markRead(chatId, upTo, readerRole), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/chats/user/unread
+     * Total unread messages across the authenticated User's chats, for the badge.
+     */
+    @GetMapping("/user/unread")
+    public ResponseEntity<Long> getUserUnreadTotal(
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        User user = userService.findUserByJwtToken(jwt);
+        return new ResponseEntity<>(chatService.getUserUnreadTotal(user), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/chats/scientist/unread
+     * Total unread messages across the authenticated Scientist's chats, for the badge.
+     */
+    @GetMapping("/scientist/unread")
+    public ResponseEntity<Long> getScientistUnreadTotal(
+        @RequestHeader("Authorization") String jwt) throws Exception {
+        
+        Scientist scientist = scientistService.findScientistByJwtToken(jwt);
+        return new ResponseEntity<>(chatService.getScientistUnreadTotal(scientist), HttpStatus.OK);
+    }
+
+    private boolean isParticipant(Chat chat, String jwt) {
+        return participantRole(chat, jwt) != null;
+    }
+
+    // The service layer works on any chat; only its user or scientist may use it. Returns the
+    // caller's side of the chat (ROLE_USER / ROLE_SCIENTIST), or null for anyone else.
+    private String participantRole(Chat chat, String jwt) {
         try {
-            // Check if the sender is the User participant
+            // Check if the caller is the User participant
             User user = userService.findUserByJwtToken(jwt);
-            if (chat.getUser().getId().longValue() != user.getId().longValue()) {
-                throw new Exception("Not the chat user.");
+            if (chat.getUser().getId().longValue() == user.getId().longValue()) {
+                return "ROLE_USER";
             }
         } catch (Exception userAuthException) {
-            try {
-                // Check if the sender is the Scientist participant
-                Scientist scientist = scientistService.findScientistByJwtToken(jwt);
-                if (chat.getScientist().getId().longValue() != scientist.getId().longValue()) {
-                    throw new Exception("Not the chat scientist.");
-                }
-            } catch (Exception scientistAuthException) {
-                 return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-            }
+            // not a user token; try the scientist below
+        }
+        try {
+            // Check if the caller is the Scientist participant
+            Scientist scientist = scientistService.findScientistByJwtToken(jwt);
+            return chat.getScientist().getId().longValue() == scientist.getId().longValue()
+                    ? "ROLE_SCIENTIST" : null;
+        } catch (Exception scientistAuthException) {
+            return null;
         }
-        
-        List<Message> messages = messageService.getChatMessages(chatId);
-        
-        return new ResponseEntity<>(messages, HttpStatus.OK);
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.pesticides.controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -14,8 +15,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.pesticides.modal.User;
-import com.pesticides.modal.UserLocation;
+import com.pesticides.modal.UserCurrentLocation;
 import com.pesticides.modal.UserLocationPreference;
+import com.pesticides.request.LocationPingRequest;
+import com.pesticides.response.LocationBatchResponse;
 import com.pesticides.service.LocationService;
 import com.pesticides.service.UserService;
 
@@ -31,7 +34,8 @@ public class LocationController {
 
     /**
      * POST /api/users/location
-     * Save user's current location
+     * Save user's current location. A ping that barely moved since the last one is not stored
+     * and the stored location is returned instead.
      *
      * Request Body:
      * {
@@ -42,12 +46,10 @@ public class LocationController {
      *
      * Response (201 Created):
      * {
-     *   "id": 1,
      *   "userId": 5,
      *   "latitude": 28.6139,
      *   "longitude": 77.2090,
      *   "timestamp": 1699564800000,
-     *   "createdAt": "2024-01-15T10:30:00Z",
      *   "updatedAt": "2024-01-15T10:30:00Z"
      * }
      */
@@ -69,7 +71,7 @@ public class LocationController {
             Long timestamp = ((Number) request.get("timestamp")).longValue();
 
             // Save location
-            UserLocation location = locationService.saveLocation(user, latitude, longitude, timestamp);
+            UserCurrentLocation location = locationService.saveLocation(user, latitude, longitude, timestamp);
 
             // Return created location
             return ResponseEntity.status(HttpStatus.CREATED).body(location);
@@ -83,18 +85,54 @@ public class LocationController {
         }
     }
 
+    /**
+     * POST /api/users/user-location/batch
+     * Save points buffered on the device, e.g. while it had no connectivity
+     *
+     * Request Body (at most location.batch.max-points entries, any order):
+     * [
+     *   { "latitude": 28.6139, "longitude": 77.2090, "timestamp": 1699564800000 },
+     *   { "latitude": 28.6200, "longitude": 77.2100, "timestamp": 1699564860000 }
+     * ]
+     *
+     * Response (200 OK):
+     * {
+     *   "accepted": 2,
+     *   "deduplicated": 0,
+     *   "rejected": 0,
+     *   "current": { "userId": 5, "latitude": 28.62, "longitude": 77.21, "timestamp": 1699564860000, ... }
+     * }
+     */
+    @PostMapping("/user-location/batch")
+    public ResponseEntity<?> saveLocationBatch(
+            @RequestHeader("Authorization") String token,
+            @RequestBody List<LocationPingRequest> points) {
+        try {
+            User user = userService.findUserByJwtToken(token);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(createErrorResponse("Unauthorized"));
+            }
+
+            LocationBatchResponse result = locationService.saveLocations(user, points);
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/users/location
      * Get user's most recent location
      *
      * Response (200 OK):
      * {
-     *   "id": 1,
      *   "userId": 5,
      *   "latitude": 28.6139,
      *   "longitude": 77.2090,
      *   "timestamp": 1699564800000,
-     *   "createdAt": "2024-01-15T10:30:00Z",
      *   "updatedAt": "2024-01-15T10:30:00Z"
      * }
      *
@@ -114,7 +152,7 @@ public class LocationController {
             }
 
             // Get latest location
-            Optional<UserLocation> location = locationService.getLatestLocation(user);
+            Optional<UserCurrentLocation> location = locationService.getLatestLocation(user);
             if (location.isPresent()) {
                 return ResponseEntity.ok(location.get());
             } else {
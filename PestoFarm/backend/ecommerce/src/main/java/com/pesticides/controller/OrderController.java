@@ -10,18 +10,13 @@ import com.pesticides.modal.Cart;
 import com.pesticides.modal.Order;
 import com.pesticides.modal.OrderItem;
 import com.pesticides.modal.PaymentOrder;
-import com.pesticides.modal.Seller;
-import com.pesticides.modal.SellerReport;
 import com.pesticides.modal.User;
 import com.pesticides.repository.PaymentOrderRepository;
 import com.pesticides.response.PaymentLinkResponse;
 import com.pesticides.service.CartService;
 import com.pesticides.service.OrderService;
 import com.pesticides.service.PaymentService;
-import com.pesticides.service.SellerReportService;
-import com.pesticides.service.SellerService;
 import com.pesticides.service.UserService;
-import com.razorpay.PaymentLink;
 
 import lombok.RequiredArgsConstructor;
 
@@ -48,8 +43,6 @@ public class OrderController {
     private final OrderService orderService;
     private final UserService userService;
     private final CartService cartService;
-    private final SellerService sellerService;
-    private final SellerReportService sellerReportService;
     private final PaymentService paymentService;
     private final PaymentOrderRepository paymentOrderRepository;
 
@@ -66,26 +59,12 @@ public class OrderController {
 
             PaymentOrder paymentOrder=paymentService.createOrder(user,orders);
 
-            PaymentLinkResponse res = new PaymentLinkResponse();
-
-            if(paymentMethod.equals(PaymentMethod.RAZORPAY)){
-                PaymentLink payment = paymentService.createRazorPaymentLink(user,
+            PaymentLinkResponse res = paymentService.createPaymentLink(paymentMethod, user,
                  paymentOrder.getAmount(), paymentOrder.getId());
-                 String paymentUrl = payment.get("short_url");
-                 String paymentUrlId = payment.get("id");
-
-                 res.setPayment_link_url(paymentUrl);
 
-                 paymentOrder.setPaymentLinkId(paymentUrlId);
-                 paymentOrderRepository.save(paymentOrder);
-
-            }
-            else{
-                String paymentUrl = paymentService.createStripePaymentLink(user,
-                 paymentOrder.getAmount(), paymentOrder.getId());
-                res.setPayment_link_url(paymentUrl);
-
-            }
+            paymentOrder.setPaymentMethod(paymentMethod);
+            paymentOrder.setPaymentLinkId(res.getPayment_link_id());
+            paymentOrderRepository.save(paymentOrder);
 
             return new ResponseEntity<>(res,HttpStatus.OK);
 
@@ -131,13 +110,6 @@ public class OrderController {
         throws Exception {
             User user = userService.findUserByJwtToken(jwt);
             Order order = orderService.cancelOrder(orderId, user);
-
-            Seller seller = sellerService.getSellerById(order.getSellerId());
-            SellerReport report = sellerReportService.getSellerReport(seller);
-        
-            report.setCanceledOrders(report.getCanceledOrders()+1);
-            report.setTotalRefunds(report.getTotalRefunds()+order.getTotalSellingPrice());
-            sellerReportService.updateSellerReport(report);
             return ResponseEntity.ok(order);
     }
     
@@ -3,15 +3,10 @@ package com.pesticides.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.pesticides.modal.Order;
+import com.pesticides.domain.PaymentOrderStatus;
 import com.pesticides.modal.PaymentOrder;
-import com.pesticides.modal.Seller;
-import com.pesticides.modal.SellerReport;
 import com.pesticides.response.Apiresponse;
 import com.pesticides.service.PaymentService;
-import com.pesticides.service.SellerReportService;
-import com.pesticides.service.SellerService;
-import com.pesticides.service.TransactionService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,9 +24,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class PaymentController {
     
     private final PaymentService paymentService;
-    private final SellerService sellerService;
-    private final SellerReportService sellerReportService;
-    private final TransactionService transactionService;
 
     @GetMapping("/{paymentId}")
     public ResponseEntity<Apiresponse> paymentSuccessHandler(
@@ -42,26 +34,25 @@ public class PaymentController {
 
             PaymentOrder paymentOrder = paymentService.getPaymentOrderByPaymentId(paymentLinkId);
 
-            boolean paymentSuccess =paymentService.ProceedPaymentOrder
-            (paymentOrder, paymentId, paymentLinkId);
+            // settles the orders, transactions and seller report if the webhook has not already
+            boolean settled = paymentService.ProceedPaymentOrder(paymentOrder, paymentId, paymentLinkId);
 
-            if(paymentSuccess){
-                for(Order order: paymentOrder.getOrders()){
-                    transactionService.createTransaction(order);
-                    Seller seller = sellerService.getSellerById(order.getSellerId());
-                    SellerReport report = sellerReportService.getSellerReport(seller);
-                    report.setTotalOrders(report.getTotalOrders()+1);
-                    report.setTotalEarnings(report.getTotalEarnings()+order.getTotalSellingPrice());
-                    report.setTotalSales(report.getTotalSales()+order.getOrderItems().size());
-                    sellerReportService.updateSellerReport(report);
-
-                }
-            }
+            // false also when the webhook settled it first, so read back where the order ended up
+            PaymentOrderStatus status = settled ? PaymentOrderStatus.SUCCESS
+                    : paymentService.getPaymentOrderByPaymentId(paymentLinkId).getStatus();
 
             Apiresponse res = new Apiresponse();
-            res.setMessage("Payment successful");
-
-            return new ResponseEntity<>(res, HttpStatus.CREATED);
+            res.setStatus(status == PaymentOrderStatus.SUCCESS);
+            if (status == PaymentOrderStatus.SUCCESS) {
+                res.setMessage("Payment successful");
+                return new ResponseEntity<>(res, HttpStatus.CREATED);
+            }
+            if (status == PaymentOrderStatus.FAILED) {
+                res.setMessage("Payment failed");
+                return new ResponseEntity<>(res, HttpStatus.PAYMENT_REQUIRED);
+            }
+            res.setMessage("Payment not confirmed by the provider yet, please check again shortly");
+            return new ResponseEntity<>(res, HttpStatus.CONFLICT);
     }
     
 }
@@ -0,0 +1,51 @@
+package com.pesticides.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.response.Apiresponse;
+import com.pesticides.service.PaymentWebhookService;
+
+import lombok.RequiredArgsConstructor;
+
+// Called by the payment providers, not by users: no JWT, authenticated by the payload signature.
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/webhooks")
+public class PaymentWebhookController {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @PostMapping("/razorpay")
+    public ResponseEntity<Apiresponse> razorpayWebhookHandler(
+        @RequestBody String payload,
+        @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+        @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId)
+        throws Exception {
+
+            return accepted(paymentWebhookService.receive(PaymentMethod.RAZORPAY, payload, signature, eventId));
+    }
+
+    @PostMapping("/stripe")
+    public ResponseEntity<Apiresponse> stripeWebhookHandler(
+        @RequestBody String payload,
+        @RequestHeader(value = "Stripe-Signature", required = false) String signature)
+        throws Exception {
+
+            return accepted(paymentWebhookService.receive(PaymentMethod.STRIPE, payload, signature, null));
+    }
+
+    // duplicates are acknowledged too, otherwise the provider keeps retrying them
+    private ResponseEntity<Apiresponse> accepted(boolean stored) {
+        Apiresponse res = new Apiresponse();
+        res.setMessage(stored ? "event received" : "duplicate event");
+        res.setStatus(true);
+        return new ResponseEntity<>(res, HttpStatus.OK);
+    }
+}
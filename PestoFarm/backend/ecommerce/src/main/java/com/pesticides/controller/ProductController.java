@@ -56,13 +56,14 @@ public class ProductController {
         @RequestParam(required = false) String stock,
         @RequestParam(defaultValue = "0") Integer pageNumber,
         @RequestParam(required = false) Double userLat, // NEW: User's Latitude
-        @RequestParam(required = false) Double userLon // NEW: User's Longitude
+        @RequestParam(required = false) Double userLon, // NEW: User's Longitude
+        @RequestParam(required = false) String pincode
         ) {
 
         Page<Product> page = productService.getAllProducts(category,brand,
             size,minPrice,maxPrice,
             minDiscount,sort,stock,pageNumber,
-            userLat,userLon);
+            userLat,userLon,pincode);
 
         List<ProductDTO> dtos = page.getContent().stream().map(p -> {
             ProductDTO d = new ProductDTO();
@@ -8,6 +8,8 @@ import com.pesticides.modal.Review;
 import com.pesticides.modal.User;
 import com.pesticides.request.CreateReviewRequest;
 import com.pesticides.response.Apiresponse;
+import com.pesticides.response.FileUploadResponse;
+import com.pesticides.service.FileService;
 import com.pesticides.service.UserService;
 import com.pesticides.service.ProductService;
 import com.pesticides.service.ReviewService;
@@ -24,6 +26,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
 
 
@@ -35,6 +39,7 @@ public class ReviewController {
     private final ReviewService reviewService;
     private final UserService userService;
     private final ProductService productService;
+    private final FileService fileService;
 
     @GetMapping("/products/{productId}/reviews")
     public ResponseEntity<List<Review>> getReviewsByProduct(
@@ -57,6 +62,20 @@ public class ReviewController {
             return ResponseEntity.ok(review);
     }
     
+    /**
+     * Stores one review photo and returns its URL, to be sent in productImages.
+     */
+    @PostMapping("/reviews/images")
+    public ResponseEntity<FileUploadResponse> uploadReviewImage(
+        @RequestParam("image") MultipartFile image,
+        @RequestHeader("Authorization")String jwt)throws Exception {
+
+            userService.findUserByJwtToken(jwt);
+
+            String url = fileService.uploadFile(image, "reviews");
+            return ResponseEntity.ok(new FileUploadResponse(url, fileService.thumbnailUrl(url)));
+    }
+
     @PatchMapping("/reviews/{reviewId}")
     public ResponseEntity<Review> updateReview(
         @RequestBody CreateReviewRequest req,
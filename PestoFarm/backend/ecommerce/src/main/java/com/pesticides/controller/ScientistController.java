@@ -1,13 +1,14 @@
 package com.pesticides.controller;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.pesticides.domain.AccountStatus;
+import com.pesticides.dto.PageResponse;
+import com.pesticides.dto.ScientistDirectoryEntry;
 import com.pesticides.exception.CustomException;
 
 import com.pesticides.modal.Scientist;
@@ -16,6 +17,7 @@ import com.pesticides.modal.VerificationCode;
 import com.pesticides.repository.VerificationCodeRepository;
 import com.pesticides.request.LoginOtpRequest;
 import com.pesticides.request.LoginRequest;
+import com.pesticides.request.ScientistRequest;
 import com.pesticides.response.SignupRequest;
 import com.pesticides.response.Apiresponse;
 import com.pesticides.response.AuthResponse;
@@ -112,6 +114,7 @@ public class ScientistController {
             AuthResponse res = new AuthResponse();
             res.setMessage("Login successful via password.");
             res.setJwt(jwt);
+            res.setRefreshToken(authService.issueRefreshToken(scientist.getEmail(), scientist.getRole()));
             return ResponseEntity.ok(res);
         }
 
@@ -158,6 +161,7 @@ public class ScientistController {
         AuthResponse res = new AuthResponse();
         res.setMessage("OTP verified successfully! You are now logged in.");
         res.setJwt(jwt);
+        res.setRefreshToken(authService.issueRefreshToken(verifiedScientist.getEmail(), verifiedScientist.getRole()));
 
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
@@ -173,11 +177,11 @@ public class ScientistController {
     @PatchMapping
     public ResponseEntity<Scientist> updateScientist(
             @RequestHeader("Authorization") String jwt,
-            @RequestBody Scientist scientist
+            @RequestBody ScientistRequest req
     ) throws Exception {
 
         Scientist profile = scientistService.findScientistByJwtToken(jwt);
-        Scientist updated = scientistService.updateScientist(profile.getId(), null); // Placeholder, need to implement mapping
+        Scientist updated = scientistService.updateScientist(profile.getId(), req);
         return ResponseEntity.ok(updated);
     }
 
@@ -200,11 +204,20 @@ public class ScientistController {
         return ResponseEntity.ok(report);
     }
 
-    // 🧩 STEP 8: Admin or General Access (Optional)
+    // 🧩 STEP 8: Public directory, e.g. /api/scientists?specialization=Plant Pathology&userLat=18.5&userLon=73.8&radiusKm=50
     @GetMapping
-    public ResponseEntity<List<Scientist>> getAllScientists(@RequestParam(required = false) AccountStatus status) {
-        List<Scientist> scientists = scientistService.findAllScientists();
-        return ResponseEntity.ok(scientists);
+    public ResponseEntity<PageResponse<ScientistDirectoryEntry>> searchScientists(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String institution,
+            @RequestParam(required = false) Double userLat,
+            @RequestParam(required = false) Double userLon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "false") boolean available,
+            @RequestParam(defaultValue = "0") Integer pageNumber,
+            @RequestParam(defaultValue = "20") Integer pageSize) {
+        Page<ScientistDirectoryEntry> page = scientistService.searchDirectory(specialization, institution,
+                userLat, userLon, radiusKm, available, pageNumber, pageSize);
+        return ResponseEntity.ok(PageResponse.of(page, page.getContent()));
     }
 
     // 🧩 STEP 9: Change Password
@@ -1,13 +1,18 @@
 package com.pesticides.controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.pesticides.domain.AccountStatus;
+import com.pesticides.domain.AnalyticsGranularity;
+import com.pesticides.dto.SellerAnalytics;
+import com.pesticides.dto.SellerReportSummary;
 import com.pesticides.exception.CustomException;
 import com.pesticides.exception.SellerException;
 import com.pesticides.modal.Seller;
@@ -16,11 +21,15 @@ import com.pesticides.modal.VerificationCode;
 import com.pesticides.repository.VerificationCodeRepository;
 import com.pesticides.request.LoginOtpRequest;
 import com.pesticides.request.LoginRequest;
+import com.pesticides.request.ServiceAreaRequest;
 import com.pesticides.response.SignupRequest;
 import com.pesticides.response.Apiresponse;
 import com.pesticides.response.AuthResponse;
+import com.pesticides.response.ServiceAreaResponse;
 import com.pesticides.service.AuthService;
+import com.pesticides.service.DeliveryAreaService;
 import com.pesticides.service.EmailService;
+import com.pesticides.service.SellerAnalyticsService;
 import com.pesticides.service.SellerReportService;
 import com.pesticides.service.SellerService;
 import com.pesticides.utils.OtpUtil;
@@ -38,6 +47,8 @@ public class SellerController {
     private final AuthService authService;
     private final EmailService emailService;
     private final SellerReportService sellerReportService;
+    private final SellerAnalyticsService sellerAnalyticsService;
+    private final DeliveryAreaService deliveryAreaService;
 
     // 🧩 STEP 1: Send OTP for Seller Signup/Login
     @PostMapping("/auth/send-otp")
@@ -112,6 +123,7 @@ public class SellerController {
             AuthResponse res = new AuthResponse();
             res.setMessage("Login successful via password.");
             res.setJwt(jwt);
+            res.setRefreshToken(authService.issueRefreshToken(seller.getEmail(), seller.getRole()));
             return ResponseEntity.ok(res);
         }
 
@@ -158,6 +170,7 @@ public class SellerController {
         AuthResponse res = new AuthResponse();
         res.setMessage("OTP verified successfully! You are now logged in.");
         res.setJwt(jwt);
+        res.setRefreshToken(authService.issueRefreshToken(verifiedSeller.getEmail(), verifiedSeller.getRole()));
 
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
@@ -218,6 +231,42 @@ public class SellerController {
         return ResponseEntity.ok(report);
     }
 
+    // Seller report for a date range, e.g. /report/range?from=2025-01-01&to=2025-01-31
+    @GetMapping("/report/range")
+    public ResponseEntity<SellerReportSummary> getSellerReportForRange(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws Exception {
+        Seller seller = sellerService.getSellerProfile(jwt);
+        return ResponseEntity.ok(sellerReportService.getSellerReport(seller, from, to));
+    }
+
+    // Revenue, units and cancellations over time, e.g. /analytics?from=2025-01-01&to=2025-03-31&granularity=WEEK
+    @GetMapping("/analytics")
+    public ResponseEntity<SellerAnalytics> getSellerAnalytics(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") AnalyticsGranularity granularity) throws Exception {
+        Seller seller = sellerService.getSellerProfile(jwt);
+        return ResponseEntity.ok(sellerAnalyticsService.getAnalytics(seller, from, to, granularity));
+    }
+
+    // Delivery radius and service PIN codes of the logged-in seller
+    @GetMapping("/service-area")
+    public ResponseEntity<ServiceAreaResponse> getServiceArea(@RequestHeader("Authorization") String jwt) throws Exception {
+        Seller seller = sellerService.getSellerProfile(jwt);
+        return ResponseEntity.ok(deliveryAreaService.getServiceArea(seller));
+    }
+
+    @PutMapping("/service-area")
+    public ResponseEntity<ServiceAreaResponse> updateServiceArea(
+            @RequestHeader("Authorization") String jwt,
+            @RequestBody ServiceAreaRequest req) throws Exception {
+        Seller seller = sellerService.getSellerProfile(jwt);
+        return ResponseEntity.ok(deliveryAreaService.updateServiceArea(seller, req));
+    }
+
     // 🧩 STEP 8: Admin or General Access (Optional)
     @GetMapping
     public ResponseEntity<List<Seller>> getAllSellers(@RequestParam(required = false) AccountStatus status) {
@@ -6,19 +6,24 @@ import org.springframework.web.bind.annotation.RestController;
 import com.pesticides.domain.OrderStatus;
 import com.pesticides.modal.Order;
 import com.pesticides.modal.Seller;
+import com.pesticides.service.ExportService;
 import com.pesticides.service.OrderService;
 import com.pesticides.service.SellerService;
 
 import lombok.RequiredArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -28,6 +33,7 @@ public class SellerOrderController {
     
     private final OrderService orderService;
     private final SellerService sellerService;
+    private final ExportService exportService;
 
     @GetMapping()
     public ResponseEntity<List<Order>> getAllOrdersHandler(
@@ -37,6 +43,18 @@ public class SellerOrderController {
         return new ResponseEntity<>(orders,HttpStatus.ACCEPTED);
     }
     
+    // CSV of all the seller's orders, streamed as it is read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrdersHandler(
+        @RequestHeader("Authorization") String jwt) throws Exception {
+            Seller seller = sellerService.getSellerProfile(jwt);
+            Long sellerId = seller.getId();
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .body(out -> exportService.exportSellerOrders(sellerId, out));
+    }
+
     @PatchMapping("/{orderId}/status/{orderStatus}")
     public ResponseEntity<Order> updateOrderHandler(
         @RequestHeader("Authorization") String jwt,
@@ -3,18 +3,26 @@ package com.pesticides.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.pesticides.dto.PageResponse;
 import com.pesticides.modal.Seller;
 import com.pesticides.modal.Transaction;
+import com.pesticides.service.ExportService;
 import com.pesticides.service.SellerService;
 import com.pesticides.service.TransactionService;
 
 import lombok.RequiredArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -24,19 +32,38 @@ public class TransactionController {
  
     private final TransactionService transactionService;
     private final SellerService sellerService;
+    private final ExportService exportService;
 
     @GetMapping("/seller")
-    public ResponseEntity<List<Transaction>> getTransactionBySeller(
-        @RequestHeader("Authorization") String jwt)
+    public ResponseEntity<PageResponse<Transaction>> getTransactionBySeller(
+        @RequestHeader("Authorization") String jwt,
+        @RequestParam(defaultValue = "0") Integer pageNumber,
+        @RequestParam(defaultValue = "20") Integer pageSize)
         throws Exception {
 
             Seller seller = sellerService.getSellerProfile(jwt);
 
-            List<Transaction> transactions = transactionService.getTransactionsBySellerId(seller);
-            return ResponseEntity.ok(transactions);
+            Page<Transaction> page = transactionService.getTransactionsBySellerId(seller, pageNumber, pageSize);
+
+            return ResponseEntity.ok(PageResponse.of(page, page.getContent()));
             
     }
     
+    // CSV of all the seller's transactions, streamed as it is read
+    @GetMapping("/seller/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsBySeller(
+        @RequestHeader("Authorization") String jwt)
+        throws Exception {
+
+            Seller seller = sellerService.getSellerProfile(jwt);
+            Long sellerId = seller.getId();
+
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(out -> exportService.exportTransactions(sellerId, out));
+    }
+
     @GetMapping
     public ResponseEntity<List<Transaction>> getAllTransactions() {
 
@@ -84,6 +84,7 @@ public ResponseEntity<AuthResponse> loginUser(@RequestBody LoginRequest req) thr
         AuthResponse res = new AuthResponse();
         res.setMessage("Login successful!");
         res.setJwt(jwt);
+        res.setRefreshToken(authService.issueRefreshToken(user.getEmail(), user.getRole()));
         return ResponseEntity.ok(res);
     } else {
         String otp = OtpUtil.generateOtp();
@@ -116,6 +117,7 @@ public ResponseEntity<AuthResponse> verifyUserEmail(@RequestParam String email,
     AuthResponse res = new AuthResponse();
     res.setMessage("OTP verified successfully! You are now logged in.");
     res.setJwt(jwt);
+    res.setRefreshToken(authService.issueRefreshToken(verifiedUser.getEmail(), verifiedUser.getRole()));
     return new ResponseEntity<>(res, HttpStatus.OK);
 }
 
@@ -1,5 +1,8 @@
 package com.pesticides.domain;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum AccountStatus {
     
     PENDING_VERIFICATION,
@@ -7,5 +10,8 @@ public enum AccountStatus {
     SUSPENDED,
     DEACTIVATED,
     BANNED,
-    CLOSED
+    CLOSED;
+
+    // accounts shown to other users, e.g. in the scientist directory and chat routing
+    public static final Set<AccountStatus> LISTED = EnumSet.of(ACTIVE, PENDING_VERIFICATION);
 }
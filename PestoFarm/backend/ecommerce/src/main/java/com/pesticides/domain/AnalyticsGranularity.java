@@ -0,0 +1,8 @@
+package com.pesticides.domain;
+
+public enum AnalyticsGranularity {
+
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,9 @@
+package com.pesticides.domain;
+
+public enum GeocodeStatus {
+
+    PENDING,
+    RESOLVED,
+    NOT_FOUND,
+    FAILED
+}
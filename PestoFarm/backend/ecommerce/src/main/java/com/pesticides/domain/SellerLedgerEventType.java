@@ -0,0 +1,7 @@
+package com.pesticides.domain;
+
+public enum SellerLedgerEventType {
+
+    ORDER_PAID,
+    ORDER_CANCELED
+}
@@ -0,0 +1,9 @@
+package com.pesticides.domain;
+
+public enum WebhookEventStatus {
+
+    RECEIVED,
+    PROCESSED,
+    IGNORED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.pesticides.dto;
+
+import java.time.LocalDate;
+
+/** Totals for the period starting at {@code periodStart} (a day, a Monday or the 1st of a month). */
+public record AnalyticsPoint(LocalDate periodStart, long orders, long revenue, long unitsSold, long canceledOrders,
+        long canceledUnits, long refunds) {
+}
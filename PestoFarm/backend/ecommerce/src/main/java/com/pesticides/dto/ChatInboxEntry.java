@@ -0,0 +1,18 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a chat inbox: the other participant, a preview of the newest message and how many
+ * messages from the other participant are still unread.
+ */
+public record ChatInboxEntry(
+        Long chatId,
+        Long counterpartId,
+        String counterpartName,
+        String lastMessage,
+        String lastMessageImageUrl,
+        String lastSenderRole,
+        LocalDateTime updatedAt,
+        Integer unreadCount) {
+}
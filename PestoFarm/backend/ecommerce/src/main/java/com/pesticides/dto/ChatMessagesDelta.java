@@ -0,0 +1,12 @@
+package com.pesticides.dto;
+
+import java.util.List;
+
+import com.pesticides.modal.Message;
+
+/**
+ * Messages newer than a client's watermark. {@code watermark} is the id to send on the next
+ * poll; {@code hasMore} means the delta was capped and the client should poll again at once.
+ */
+public record ChatMessagesDelta(List<Message> messages, Long watermark, boolean hasMore) {
+}
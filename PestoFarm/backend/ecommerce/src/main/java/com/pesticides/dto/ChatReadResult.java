@@ -0,0 +1,5 @@
+package com.pesticides.dto;
+
+/** Outcome of marking a chat read: how many messages changed and the reader's remaining unread count. */
+public record ChatReadResult(Long chatId, Long readUpTo, int marked, int unreadCount) {
+}
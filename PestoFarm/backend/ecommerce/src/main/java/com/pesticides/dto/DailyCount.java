@@ -0,0 +1,6 @@
+package com.pesticides.dto;
+
+import java.time.LocalDate;
+
+public record DailyCount(LocalDate day, Long count) {
+}
@@ -0,0 +1,6 @@
+package com.pesticides.dto;
+
+import java.time.LocalDate;
+
+public record DailyUnits(LocalDate day, Long unitsSold, Long canceledUnits) {
+}
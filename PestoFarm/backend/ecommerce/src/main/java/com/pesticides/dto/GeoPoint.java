@@ -0,0 +1,4 @@
+package com.pesticides.dto;
+
+public record GeoPoint(double latitude, double longitude) {
+}
@@ -0,0 +1,10 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.SellerLedgerEventType;
+
+/** One order line behind a seller ledger entry. */
+public record LedgerItem(Long sellerId, SellerLedgerEventType type, LocalDateTime occurredAt, Long productId,
+        int quantity, Integer sellingPrice) {
+}
@@ -0,0 +1,6 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+
+public record LocationHistoryPoint(Long id, LocalDateTime createdAt) {
+}
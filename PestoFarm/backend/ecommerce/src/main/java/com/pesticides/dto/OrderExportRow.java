@@ -0,0 +1,12 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.OrderStatus;
+import com.pesticides.domain.PaymentStatus;
+
+/** One order flattened for CSV export. */
+public record OrderExportRow(Long orderId, String orderNumber, LocalDateTime orderDate, Long customerId,
+        String customerEmail, Integer totalItem, Double totalMrpPrice, Integer totalSellingPrice,
+        OrderStatus orderStatus, PaymentStatus paymentStatus, LocalDateTime deliveryDate) {
+}
@@ -0,0 +1,11 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.OrderStatus;
+import com.pesticides.domain.PaymentStatus;
+
+/** One order line with the order columns the rollup backfill needs. */
+public record OrderItemFact(Long orderId, Long sellerId, Long productId, LocalDateTime orderDate,
+        OrderStatus orderStatus, PaymentStatus paymentStatus, int quantity, Integer sellingPrice) {
+}
@@ -2,6 +2,8 @@ package com.pesticides.dto;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,4 +22,9 @@ public class PageResponse<T> {
     private boolean first;
     private boolean last;
     private int numberOfElements;
+
+    public static <T> PageResponse<T> of(Page<?> page, List<T> content) {
+        return new PageResponse<>(content, page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isFirst(), page.isLast(), page.getNumberOfElements());
+    }
 }
@@ -0,0 +1,14 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.pesticides.domain.AccountStatus;
+import com.pesticides.domain.OrderStatus;
+
+/** Platform-wide numbers for the admin dashboard, as of {@code generatedAt}. */
+public record PlatformKpis(LocalDateTime generatedAt, long gmv, Map<OrderStatus, Long> ordersByStatus,
+        Map<AccountStatus, Long> sellersByStatus, List<DailyCount> newUsersPerDay,
+        List<ScientistChatCount> chatsPerScientist) {
+}
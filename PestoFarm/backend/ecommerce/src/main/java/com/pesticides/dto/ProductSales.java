@@ -0,0 +1,4 @@
+package com.pesticides.dto;
+
+public record ProductSales(Long productId, String title, Long unitsSold, Long revenue) {
+}
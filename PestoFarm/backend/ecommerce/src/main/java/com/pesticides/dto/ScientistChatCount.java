@@ -0,0 +1,4 @@
+package com.pesticides.dto;
+
+public record ScientistChatCount(Long scientistId, String scientistName, Long chats) {
+}
@@ -0,0 +1,16 @@
+package com.pesticides.dto;
+
+// one row of the public scientist directory; distanceKm is only set for searches around a point
+public record ScientistDirectoryEntry(Long id, String scientistName, String specialization, String institution,
+        String city, String state, Double latitude, Double longitude, boolean available, Double distanceKm) {
+
+    public ScientistDirectoryEntry(Long id, String scientistName, String specialization, String institution,
+            String city, String state, Double latitude, Double longitude, boolean available) {
+        this(id, scientistName, specialization, institution, city, state, latitude, longitude, available, null);
+    }
+
+    public ScientistDirectoryEntry withDistance(double km) {
+        return new ScientistDirectoryEntry(id, scientistName, specialization, institution, city, state, latitude,
+                longitude, available, km);
+    }
+}
@@ -0,0 +1,10 @@
+package com.pesticides.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.pesticides.domain.AnalyticsGranularity;
+
+public record SellerAnalytics(Long sellerId, LocalDate from, LocalDate to, AnalyticsGranularity granularity,
+        List<AnalyticsPoint> series, List<ProductSales> topProducts) {
+}
@@ -0,0 +1,5 @@
+package com.pesticides.dto;
+
+// deliveryRadiusKm is null when the seller uses the default radius
+public record SellerLocation(Long sellerId, Double latitude, Double longitude, Double deliveryRadiusKm) {
+}
@@ -0,0 +1,11 @@
+package com.pesticides.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.pesticides.modal.SellerDailyReport;
+
+/** A seller's report for {@code from}..{@code to} inclusive, with the per-day rows it was summed from. */
+public record SellerReportSummary(Long sellerId, LocalDate from, LocalDate to, SellerReportTotals totals,
+        List<SellerDailyReport> days) {
+}
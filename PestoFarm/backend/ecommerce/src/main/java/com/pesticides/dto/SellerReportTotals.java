@@ -0,0 +1,5 @@
+package com.pesticides.dto;
+
+public record SellerReportTotals(Long totalOrders, Long totalEarnings, Long totalSales, Long canceledOrders,
+        Long totalRefunds) {
+}
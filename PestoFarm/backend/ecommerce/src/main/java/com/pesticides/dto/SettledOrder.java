@@ -0,0 +1,5 @@
+package com.pesticides.dto;
+
+/** The columns of an order that settlement needs, read in one query per batch. */
+public record SettledOrder(Long orderId, Long sellerId, Long userId, Integer totalSellingPrice, Integer itemCount) {
+}
@@ -0,0 +1,12 @@
+package com.pesticides.dto;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.OrderStatus;
+import com.pesticides.domain.PaymentStatus;
+
+/** One transaction flattened for CSV export; read as a projection so no entity graph is loaded. */
+public record TransactionExportRow(Long transactionId, LocalDateTime date, Long orderId, String orderNumber,
+        Long sellerId, String sellerName, Long customerId, String customerEmail, Integer amount,
+        PaymentStatus paymentStatus, OrderStatus orderStatus) {
+}
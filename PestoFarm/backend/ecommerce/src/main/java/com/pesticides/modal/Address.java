@@ -1,14 +1,21 @@
 package com.pesticides.modal;
 
+import java.time.LocalDateTime;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.pesticides.domain.GeocodeStatus;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,6 +24,9 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_address_geocode_queue", columnList = "geocode_status, geocode_next_attempt_at"),
+        @Index(name = "idx_address_lat_lon", columnList = "latitude, longitude") })
 public class Address {
 
 @Id
@@ -52,5 +62,23 @@ private String mobile;
 private Double latitude;
 private Double longitude;
 
+// Geocoding queue state, see GeocodeQueueService; null for addresses that are never geocoded
+@Enumerated(EnumType.STRING)
+@Column(name = "geocode_status", length = 16)
+private GeocodeStatus geocodeStatus;
+
+@JsonIgnore
+@Column(name = "geocode_attempts")
+private Integer geocodeAttempts = 0;
+
+// when the current address text was queued; a result is only written if this has not changed since
+@JsonIgnore
+@Column(name = "geocode_queued_at")
+private LocalDateTime geocodeQueuedAt;
+
+@JsonIgnore
+@Column(name = "geocode_next_attempt_at")
+private LocalDateTime geocodeNextAttemptAt;
+
 
 }
\ No newline at end of file
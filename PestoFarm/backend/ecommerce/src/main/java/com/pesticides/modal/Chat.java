@@ -4,13 +4,19 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -23,18 +29,28 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode
+@Table(indexes = {
+        // inboxes list a participant's chats by last activity
+        @Index(name = "idx_chat_user_updated_at", columnList = "user_id, updated_at"),
+        @Index(name = "idx_chat_scientist_updated_at", columnList = "scientist_id, updated_at"),
+        // open chats per scientist, counted when chat routing resyncs
+        @Index(name = "idx_chat_scientist_closed_at", columnList = "scientist_id, closed_at")
+})
 public class Chat {
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private long id;
 
-    // The user who initiated the chat
+    // The user who initiated the chat; messages carry the chat to the other participant,
+    // so leave out what only the user should see (and what is lazy outside a session)
     @ManyToOne
+    @JsonIgnoreProperties({"paymentInformation"})
     private User user; 
 
     // The scientist involved in the chat
     @ManyToOne
+    @JsonIgnoreProperties({"password"})
     private Scientist scientist; 
 
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -42,10 +58,30 @@ public class Chat {
     // Last activity in the chat for quick sorting
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    // Messages in this chat
+    // Newest message, kept by MessageService so the inbox joins one row by primary key
+    @JsonIgnore
+    @Column(updatable = false)
+    private Long lastMessageId;
+
+    // Unread messages for each participant. Like lastMessageId these only change through the
+    // in-place updates in ChatRepository, so a stale Chat being saved cannot overwrite them;
+    // null until counted for chats that predate the counters.
+    @Column(updatable = false)
+    private Integer userUnreadCount = 0;
+
+    @Column(updatable = false)
+    private Integer scientistUnreadCount = 0;
+
+    // Messages in this chat; served paged through /api/chats/{chatId}/messages, never inline
+    @JsonIgnore
     @OneToMany(mappedBy = "chat", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Message> messages = new ArrayList<>();
 
+    // When either participant closed the consultation; null while open. Only set and cleared by
+    // the in-place updates in ChatRepository, as these move the scientist's open-chat count.
+    @Column(updatable = false)
+    private LocalDateTime closedAt;
+
     // A brief subject or first message content
     private String subject; 
 }
\ No newline at end of file
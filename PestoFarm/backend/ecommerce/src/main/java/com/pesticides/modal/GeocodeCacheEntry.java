@@ -0,0 +1,47 @@
+package com.pesticides.modal;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A geocoder answer for one normalized address, shared by every address that normalizes to the
+ * same text. Null coordinates record that the geocoder found nothing; those rows are retried
+ * once they are older than the negative TTL.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "geocode_cache", uniqueConstraints = @UniqueConstraint(columnNames = "query_hash"))
+public class GeocodeCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 of the normalized query, so the unique key stays short whatever the address length
+    @Column(name = "query_hash", nullable = false, length = 64)
+    private String queryHash;
+
+    @Column(nullable = false, length = 1000)
+    private String query;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "resolved_at", nullable = false)
+    private LocalDateTime resolvedAt;
+}
@@ -1,5 +1,6 @@
 package com.pesticides.modal;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -38,6 +39,11 @@ public class PaymentOrder {
 
     private String paymentLinkId;
 
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // when the reconciler last asked the provider about this order, null if never
+    private LocalDateTime lastCheckedAt;
+
     @ManyToOne
     private User user;
 
@@ -0,0 +1,75 @@
+package com.pesticides.modal;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.domain.WebhookEventStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Inbox row for a verified provider webhook. Rows are written by the webhook endpoint and
+ * consumed in batches by the reconciler; the unique (provider, event_id) key makes provider
+ * retries harmless.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "payment_webhook_event",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"provider", "event_id"}),
+        indexes = @Index(name = "idx_webhook_event_status", columnList = "status, id"))
+public class PaymentWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentMethod provider;
+
+    @Column(name = "event_id", nullable = false, length = 100)
+    private String eventId;
+
+    private String eventType;
+
+    // Razorpay payment link id or Stripe checkout session id, i.e. PaymentOrder.paymentLinkId
+    private String paymentLinkId;
+
+    // what the event says about the payment order; PENDING for events we do not act on
+    @Enumerated(EnumType.STRING)
+    private PaymentOrderStatus outcome;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private WebhookEventStatus status = WebhookEventStatus.RECEIVED;
+
+    private int attempts;
+
+    private String lastError;
+
+    private LocalDateTime receivedAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+}
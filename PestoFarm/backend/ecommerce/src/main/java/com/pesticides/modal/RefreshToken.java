@@ -0,0 +1,58 @@
+package com.pesticides.modal;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.USER_ROLE;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Server-side record of an issued refresh token. Only the SHA-256 of the token is stored.
+ * Every rotation issues a new token in the same family; presenting an already rotated token
+ * revokes the whole family, since it means the token was copied.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_email", columnList = "email"),
+        @Index(name = "idx_refresh_token_family", columnList = "familyId")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    private USER_ROLE role;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+
+    private boolean revoked = false;
+}
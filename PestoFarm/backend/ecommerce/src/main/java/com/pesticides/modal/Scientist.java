@@ -9,7 +9,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -22,6 +24,11 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode
+@Table(indexes = {
+        // the directory filters by these and lists by name
+        @Index(name = "idx_scientist_specialization", columnList = "specialization, scientist_name"),
+        @Index(name = "idx_scientist_institution", columnList = "institution")
+})
 public class Scientist {
 
     @Id
@@ -49,4 +56,7 @@ public class Scientist {
     private boolean isEmailVerified = false;
 
     private AccountStatus accountStatus = AccountStatus.PENDING_VERIFICATION;
+
+    // whether the scientist takes new consultations; null for accounts that never set it, read as available
+    private Boolean available = true;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.pesticides.modal;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,4 +25,8 @@ public class ScientistReport {
     private Long totalMessages = 0L;
     private Long totalActiveChats = 0L;
     private Long totalCompletedChats = 0L;
+
+    // true once the totals include the chats and messages written before this row was kept current
+    @JsonIgnore
+    private Boolean totalsCounted;
 }
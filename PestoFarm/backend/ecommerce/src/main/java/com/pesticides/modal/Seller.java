@@ -55,4 +55,8 @@ public class Seller {
     private boolean isEmailVerified = false;
 
     private AccountStatus accountStatus = AccountStatus.PENDING_VERIFICATION;
+
+    // how far from the pickup address the seller delivers; null means the platform default.
+    // Ignored once the seller lists service PIN codes (SellerServicePin).
+    private Double deliveryRadiusKm;
 }
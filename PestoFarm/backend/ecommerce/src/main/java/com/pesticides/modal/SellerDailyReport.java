@@ -0,0 +1,46 @@
+package com.pesticides.modal;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** One seller's ledger totals for one day, so a report over any date range is a sum of rows. */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seller_daily_report",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"seller_id", "report_day"}))
+public class SellerDailyReport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "report_day", nullable = false)
+    private LocalDate day;
+
+    private long totalOrders;
+
+    private long totalEarnings;
+
+    private long totalSales;
+
+    private long canceledOrders;
+
+    private long totalRefunds;
+}
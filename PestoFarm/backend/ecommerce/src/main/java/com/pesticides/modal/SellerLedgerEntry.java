@@ -0,0 +1,65 @@
+package com.pesticides.modal;
+
+import java.time.LocalDateTime;
+
+import com.pesticides.domain.SellerLedgerEventType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Append-only record of something that moved a seller's numbers. {@link SellerReport} and
+ * {@link SellerDailyReport} are both derived from these rows; the unique (type, order_id) key
+ * means an order is counted as paid or canceled at most once.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seller_ledger_entry",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"type", "order_id"}),
+        indexes = {
+                @Index(name = "idx_seller_ledger_rolled_up", columnList = "rolled_up, id"),
+                @Index(name = "idx_seller_ledger_seller", columnList = "seller_id, occurred_at")
+        })
+public class SellerLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private SellerLedgerEventType type;
+
+    // selling price for ORDER_PAID, refunded amount for ORDER_CANCELED
+    private long amount;
+
+    private int items;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt = LocalDateTime.now();
+
+    // set once the entry's amounts have been added to the report tables
+    @Column(name = "rolled_up", nullable = false)
+    private boolean rolledUp;
+}
@@ -0,0 +1,50 @@
+package com.pesticides.modal;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Units and revenue of one product of one seller on one day; the per-product side of {@link SellerDailyReport}. */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seller_product_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"seller_id", "report_day", "product_id"}))
+public class SellerProductDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "report_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private long orders;
+
+    private long unitsSold;
+
+    private long revenue;
+
+    private long canceledUnits;
+
+    private long refunds;
+}
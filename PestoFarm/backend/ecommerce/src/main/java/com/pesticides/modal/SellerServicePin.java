@@ -0,0 +1,36 @@
+package com.pesticides.modal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One PIN code a seller delivers to. The unique (pin, seller_id) key doubles as the inverted
+ * index from a buyer's PIN to the sellers serving it.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seller_service_pins", uniqueConstraints = @UniqueConstraint(columnNames = {"pin", "seller_id"}))
+public class SellerServicePin {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(nullable = false)
+    private int pin;
+}
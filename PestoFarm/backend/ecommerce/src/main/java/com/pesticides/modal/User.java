@@ -22,8 +22,10 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -34,6 +36,10 @@ import lombok.ToString;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_user_email", columnList = "email"),
+        @Index(name = "idx_user_created_at", columnList = "created_at")
+})
 public class User implements UserDetails {
 
 @Id
@@ -84,7 +90,7 @@ private List<Review> reviews = new ArrayList<>();
 @EqualsAndHashCode.Exclude
 private List<Chat> chats = new ArrayList<>();
 
-private LocalDateTime createdAt;
+private LocalDateTime createdAt = LocalDateTime.now();
 
 @Override
 public Collection<? extends GrantedAuthority> getAuthorities() {
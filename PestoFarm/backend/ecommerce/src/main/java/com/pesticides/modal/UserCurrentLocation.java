@@ -0,0 +1,40 @@
+package com.pesticides.modal;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The latest accepted position of a user, one row per user keyed by the user id. Pings update
+ * this row in place; the trail of positions is kept separately in {@link UserLocation}.
+ */
+@Entity
+@Table(name = "user_current_locations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCurrentLocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "DECIMAL(10,8)")
+    private Double latitude;
+
+    @Column(nullable = false, columnDefinition = "DECIMAL(11,8)")
+    private Double longitude;
+
+    // client time of the ping, epoch millis
+    @Column
+    private Long timestamp;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
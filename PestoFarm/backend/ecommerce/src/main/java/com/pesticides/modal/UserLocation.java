@@ -10,7 +10,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_locations")
+@Table(name = "user_locations", indexes = {
+        @Index(name = "idx_user_locations_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_user_locations_created", columnList = "created_at") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
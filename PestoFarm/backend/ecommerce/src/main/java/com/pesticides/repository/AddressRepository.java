@@ -1,9 +1,51 @@
 package com.pesticides.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.pesticides.domain.GeocodeStatus;
 import com.pesticides.modal.Address;
 
 public interface AddressRepository extends JpaRepository<Address,Long> {
-    
+
+    @Query("SELECT a FROM Address a WHERE a.geocodeStatus = :status AND a.geocodeNextAttemptAt <= :now "
+            + "ORDER BY a.geocodeNextAttemptAt ASC")
+    List<Address> findDueForGeocoding(@Param("status") GeocodeStatus status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    // Moves the next attempt past the lease so no other worker picks the row up meanwhile; 0 if someone else has it
+    @Modifying
+    @Query("UPDATE Address a SET a.geocodeNextAttemptAt = :leaseUntil "
+            + "WHERE a.id = :id AND a.geocodeStatus = :status AND a.geocodeNextAttemptAt <= :now")
+    int claimForGeocoding(@Param("id") Long id, @Param("status") GeocodeStatus status,
+            @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Writes a geocoding outcome unless the address was edited and re-queued since it was claimed
+    @Modifying
+    @Query("UPDATE Address a SET a.latitude = :latitude, a.longitude = :longitude, a.geocodeStatus = :status, "
+            + "a.geocodeAttempts = a.geocodeAttempts + 1, a.geocodeNextAttemptAt = :nextAttemptAt "
+            + "WHERE a.id = :id AND a.geocodeQueuedAt = :queuedAt")
+    int recordGeocodeAttempt(@Param("id") Long id, @Param("queuedAt") LocalDateTime queuedAt,
+            @Param("status") GeocodeStatus status, @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    long countByGeocodeStatus(GeocodeStatus status);
+
+    @Query("SELECT MIN(a.geocodeQueuedAt) FROM Address a WHERE a.geocodeStatus = :status")
+    LocalDateTime findOldestQueuedAt(@Param("status") GeocodeStatus status);
+
+    @Modifying
+    @Query("UPDATE Address a SET a.geocodeStatus = :pending, a.geocodeAttempts = 0, "
+            + "a.geocodeQueuedAt = :now, a.geocodeNextAttemptAt = :now "
+            + "WHERE (a.latitude IS NULL OR a.longitude IS NULL) "
+            + "AND (a.geocodeStatus IS NULL OR a.geocodeStatus = :failed) "
+            + "AND a.id IN (SELECT s.pickupAddress.id FROM Seller s)")
+    int enqueueUngeocodedSellerAddresses(@Param("pending") GeocodeStatus pending,
+            @Param("failed") GeocodeStatus failed, @Param("now") LocalDateTime now);
 }
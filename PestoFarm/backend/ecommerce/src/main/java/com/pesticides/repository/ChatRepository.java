@@ -1,12 +1,19 @@
 package com.pesticides.repository;
 
+import com.pesticides.dto.ChatInboxEntry;
+import com.pesticides.dto.ScientistChatCount;
 import com.pesticides.modal.Chat;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatRepository extends JpaRepository<Chat, Long> {
+
+    int INBOX_PREVIEW_LENGTH = 120;
     
     List<Chat> findByUserId(Long userId);
     
@@ -14,4 +21,97 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     
     @Query("SELECT c FROM Chat c WHERE c.user.id = :userId AND c.scientist.id = :scientistId")
     Chat findByUserAndScientist(@Param("userId") Long userId, @Param("scientistId") Long scientistId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.pesticides.dto.ScientistChatCount(s.id, s.scientistName, COUNT(c))"
+            + " FROM Chat c JOIN c.scientist s GROUP BY s.id, s.scientistName ORDER BY COUNT(c) DESC")
+    List<ScientistChatCount> countPerScientist(Pageable pageable);
+
+    // Inboxes: the newest message is joined by primary key through lastMessageId, and unread
+    // counts are the maintained per-participant counters.
+
+    @Query("SELECT new com.pesticides.dto.ChatInboxEntry(c.id, s.id, s.scientistName,"
+            + " SUBSTRING(lm.content, 1, " + INBOX_PREVIEW_LENGTH + "), lm.imageUrl, lm.senderRole, c.updatedAt,"
+            + " COALESCE(c.userUnreadCount, 0))"
+            + " FROM Chat c JOIN c.scientist s LEFT JOIN Message lm ON lm.id = c.lastMessageId"
+            + " WHERE c.user.id = :userId ORDER BY c.updatedAt DESC")
+    List<ChatInboxEntry> findUserInbox(@Param("userId") Long userId);
+
+    @Query("SELECT new com.pesticides.dto.ChatInboxEntry(c.id, u.id, u.fullname,"
+            + " SUBSTRING(lm.content, 1, " + INBOX_PREVIEW_LENGTH + "), lm.imageUrl, lm.senderRole, c.updatedAt,"
+            + " COALESCE(c.scientistUnreadCount, 0))"
+            + " FROM Chat c JOIN c.user u LEFT JOIN Message lm ON lm.id = c.lastMessageId"
+            + " WHERE c.scientist.id = :scientistId ORDER BY c.updatedAt DESC")
+    List<ChatInboxEntry> findScientistInbox(@Param("scientistId") Long scientistId);
+
+    @Query("SELECT COALESCE(SUM(c.userUnreadCount), 0) FROM Chat c WHERE c.user.id = :userId")
+    long sumUserUnread(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(c.scientistUnreadCount), 0) FROM Chat c WHERE c.scientist.id = :scientistId")
+    long sumScientistUnread(@Param("scientistId") Long scientistId);
+
+    /**
+     * Applies a new message in one statement: last activity, newest message (which never moves
+     * backwards under concurrent sends) and the recipient's unread counter.
+     */
+    @Modifying
+    @Query("UPDATE Chat c SET c.updatedAt = :at,"
+            + " c.lastMessageId = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageId < :messageId"
+            + " THEN :messageId ELSE c.lastMessageId END,"
+            + " c.userUnreadCount = c.userUnreadCount + :toUser,"
+            + " c.scientistUnreadCount = c.scientistUnreadCount + :toScientist"
+            + " WHERE c.id = :chatId")
+    int recordMessage(@Param("chatId") Long chatId, @Param("messageId") Long messageId,
+            @Param("at") LocalDateTime at, @Param("toUser") int toUser, @Param("toScientist") int toScientist);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Chat c SET c.userUnreadCount = CASE WHEN c.userUnreadCount > :read"
+            + " THEN c.userUnreadCount - :read ELSE 0 END WHERE c.id = :chatId")
+    int decrementUserUnread(@Param("chatId") Long chatId, @Param("read") int read);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Chat c SET c.scientistUnreadCount = CASE WHEN c.scientistUnreadCount > :read"
+            + " THEN c.scientistUnreadCount - :read ELSE 0 END WHERE c.id = :chatId")
+    int decrementScientistUnread(@Param("chatId") Long chatId, @Param("read") int read);
+
+    // One-off counts for chats whose messages predate the counters
+
+    @Modifying
+    @Query("UPDATE Chat c SET c.userUnreadCount = (SELECT COUNT(m) FROM Message m"
+            + " WHERE m.chat = c AND m.isRead = false AND m.senderRole <> 'ROLE_USER')"
+            + " WHERE c.userUnreadCount IS NULL")
+    int backfillUserUnread();
+
+    @Modifying
+    @Query("UPDATE Chat c SET c.scientistUnreadCount = (SELECT COUNT(m) FROM Message m"
+            + " WHERE m.chat = c AND m.isRead = false AND m.senderRole <> 'ROLE_SCIENTIST')"
+            + " WHERE c.scientistUnreadCount IS NULL")
+    int backfillScientistUnread();
+
+    /** Fills lastMessageId for chats whose messages predate the column. */
+    @Modifying
+    @Query("UPDATE Chat c SET c.lastMessageId = (SELECT MAX(m.id) FROM Message m WHERE m.chat = c)"
+            + " WHERE c.lastMessageId IS NULL AND EXISTS (SELECT m.id FROM Message m WHERE m.chat = c)")
+    int backfillLastMessageIds();
+
+    // Opening and closing only succeed on the state change, so each changes the open-chat count once
+
+    @Modifying
+    @Query("UPDATE Chat c SET c.closedAt = :at WHERE c.id = :chatId AND c.closedAt IS NULL")
+    int close(@Param("chatId") Long chatId, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Chat c SET c.closedAt = NULL WHERE c.id = :chatId AND c.closedAt IS NOT NULL")
+    int reopen(@Param("chatId") Long chatId);
+
+    @Query("SELECT c FROM Chat c WHERE c.closedAt IS NULL AND c.updatedAt < :idleSince ORDER BY c.id")
+    List<Chat> findIdleOpen(@Param("idleSince") LocalDateTime idleSince, Pageable pageable);
+
+    // [scientistId, chats, closed chats], for rebuilding ScientistReport
+    @Query("SELECT c.scientist.id, COUNT(c), SUM(CASE WHEN c.closedAt IS NOT NULL THEN 1 ELSE 0 END)"
+            + " FROM Chat c GROUP BY c.scientist.id")
+    List<Object[]> countPerScientistWithClosed();
+
+    // [scientistId, open chats]
+    @Query("SELECT c.scientist.id, COUNT(c) FROM Chat c WHERE c.closedAt IS NULL GROUP BY c.scientist.id")
+    List<Object[]> countOpenPerScientist();
+}
@@ -0,0 +1,12 @@
+package com.pesticides.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.pesticides.modal.GeocodeCacheEntry;
+
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, Long> {
+
+    Optional<GeocodeCacheEntry> findByQueryHash(String queryHash);
+}
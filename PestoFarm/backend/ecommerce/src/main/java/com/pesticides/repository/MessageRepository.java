@@ -1,10 +1,45 @@
 package com.pesticides.repository;
 
 import com.pesticides.modal.Message;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    
-    List<Message> findByChatIdOrderByTimestampAsc(Long chatId);
-}
\ No newline at end of file
+
+    Optional<Message> findByIdAndChatId(Long id, Long chatId);
+
+    // Keyset pages over (timestamp, id), served by idx_message_chat_timestamp_id.
+
+    @Query("SELECT m FROM Message m WHERE m.chat.id = :chatId ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findLatest(@Param("chatId") Long chatId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.chat.id = :chatId"
+            + " AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id))"
+            + " ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findBefore(@Param("chatId") Long chatId, @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") long id, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.chat.id = :chatId"
+            + " AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id))"
+            + " ORDER BY m.timestamp ASC, m.id ASC")
+    List<Message> findAfter(@Param("chatId") Long chatId, @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") long id, Pageable pageable);
+
+    /** Marks the other participant's messages up to {@code upTo} read; returns how many changed. */
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.chat.id = :chatId AND m.id <= :upTo"
+            + " AND m.senderRole <> :readerRole AND m.isRead = false")
+    int markRead(@Param("chatId") Long chatId, @Param("upTo") long upTo, @Param("readerRole") String readerRole);
+
+    // [scientistId, messages], for rebuilding ScientistReport
+    @Query("SELECT c.scientist.id, COUNT(m) FROM Message m JOIN m.chat c GROUP BY c.scientist.id")
+    List<Object[]> countPerScientist();
+}
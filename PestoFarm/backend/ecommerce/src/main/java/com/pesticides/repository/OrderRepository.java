@@ -1,14 +1,53 @@
 package com.pesticides.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.pesticides.domain.PaymentStatus;
+import com.pesticides.dto.OrderExportRow;
+import com.pesticides.dto.OrderItemFact;
 import com.pesticides.modal.Order;
 
+import jakarta.persistence.QueryHint;
+
 public interface OrderRepository extends JpaRepository<Order,Long>{
 
     List<Order> findByUserId(Long userId);
     List<Order> findBySellerId(Long sellerId);
-    
+
+    @Query("SELECT o.orderStatus, COUNT(o) FROM Order o GROUP BY o.orderStatus")
+    List<Object[]> countByOrderStatus();
+
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentStatus = :status WHERE o.id IN :ids")
+    int updatePaymentStatus(@Param("ids") Collection<Long> ids, @Param("status") PaymentStatus status);
+
+    // a fetch size of Integer.MIN_VALUE makes MySQL stream rows instead of buffering the whole result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.pesticides.dto.OrderItemFact(o.id, o.sellerId, p.id, o.orderDate, o.orderStatus,"
+            + " o.paymentStatus, i.quantity, i.sellingPrice)"
+            + " FROM OrderItem i JOIN i.order o JOIN i.product p"
+            + " WHERE o.sellerId IS NOT NULL AND o.orderDate >= :from AND o.orderDate < :to ORDER BY o.id")
+    Stream<OrderItemFact> streamItemFacts(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.pesticides.dto.OrderExportRow(o.id, o.orderId, o.orderDate, u.id, u.email, o.totalItem,"
+            + " o.totalMrpPrice, o.totalSellingPrice, o.orderStatus, o.paymentStatus, o.deliveryDate)"
+            + " FROM Order o LEFT JOIN o.user u WHERE o.sellerId = :sellerId ORDER BY o.id")
+    Stream<OrderExportRow> streamExportRowsBySellerId(@Param("sellerId") Long sellerId);
 }
@@ -1,10 +1,52 @@
 package com.pesticides.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.dto.SettledOrder;
 import com.pesticides.modal.PaymentOrder;
 
+import jakarta.persistence.LockModeType;
+
 public interface PaymentOrderRepository extends JpaRepository<PaymentOrder,Long> {
     
     PaymentOrder findByPaymentLinkId(String paymentId);
+
+    List<PaymentOrder> findByPaymentLinkIdIn(Collection<String> paymentLinkIds);
+
+    // row locks make concurrent settlements of the same payment order (webhook, sweep and
+    // browser redirect) serialize, and only the first sees it as still pending
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaymentOrder p WHERE p.id IN :ids AND p.status = com.pesticides.domain.PaymentOrderStatus.PENDING")
+    List<PaymentOrder> lockPending(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.status = :status WHERE p.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") PaymentOrderStatus status);
+
+    // never checked first, then least recently checked, so orders that stay pending cannot starve newer ones
+    @Query("SELECT p FROM PaymentOrder p WHERE p.status = com.pesticides.domain.PaymentOrderStatus.PENDING"
+            + " AND p.paymentLinkId IS NOT NULL AND (p.createdAt IS NULL OR p.createdAt < :cutoff)"
+            + " ORDER BY CASE WHEN p.lastCheckedAt IS NULL THEN 0 ELSE 1 END, p.lastCheckedAt, p.id")
+    List<PaymentOrder> findPendingCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.lastCheckedAt = :checkedAt WHERE p.id IN :ids")
+    int markChecked(@Param("ids") Collection<Long> ids, @Param("checkedAt") LocalDateTime checkedAt);
+
+    @Query("SELECT new com.pesticides.dto.SettledOrder(o.id, o.sellerId, u.id, o.totalSellingPrice, SIZE(o.orderItems))"
+            + " FROM PaymentOrder p JOIN p.orders o LEFT JOIN o.user u WHERE p.id IN :ids")
+    List<SettledOrder> findSettledOrders(@Param("ids") Collection<Long> paymentOrderIds);
+
+    @Query("SELECT o.id FROM PaymentOrder p JOIN p.orders o WHERE p.id IN :ids")
+    List<Long> findOrderIds(@Param("ids") Collection<Long> paymentOrderIds);
 }
@@ -0,0 +1,26 @@
+package com.pesticides.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.WebhookEventStatus;
+import com.pesticides.modal.PaymentWebhookEvent;
+
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    boolean existsByProviderAndEventId(PaymentMethod provider, String eventId);
+
+    List<PaymentWebhookEvent> findByStatusOrderByIdAsc(WebhookEventStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.processedAt = :now, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("status") WebhookEventStatus status, @Param("now") LocalDateTime now);
+}
@@ -2,6 +2,9 @@ package com.pesticides.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -18,4 +21,8 @@ public interface ProductRepository extends JpaRepository<Product,Long>,JpaSpecif
        "(:query IS NULL OR lower(p.title) LIKE lower(concat('%', :query, '%'))) OR " +
        "(:query IS NULL OR lower(p.category.name) LIKE lower(concat('%', :query, '%')))")
     List<Product> searchProduct(@Param("query")String query);
+
+    @EntityGraph(attributePaths = {"category", "seller"})
+    @Query("SELECT p FROM Product p WHERE :query IS NULL OR p.title LIKE CONCAT(:query, '%')")
+    Page<Product> searchByTitlePrefix(@Param("query") String query, Pageable pageable);
 }
@@ -1,10 +1,40 @@
 package com.pesticides.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.pesticides.modal.ScientistReport;
 
 public interface ScientistReportRepository extends JpaRepository<ScientistReport, Long> {
 
     ScientistReport findByScientistId(Long scientistId);
+
+    boolean existsByTotalsCountedTrue();
+
+    @Modifying
+    @Query("UPDATE ScientistReport r SET r.totalActiveChats = :active WHERE r.scientist.id = :scientistId")
+    int setActiveChats(@Param("scientistId") Long scientistId, @Param("active") long active);
+
+    // in-place increments, so a flush never overwrites another writer's totals
+    @Modifying
+    @Query("UPDATE ScientistReport r SET"
+            + " r.totalConsultations = COALESCE(r.totalConsultations, 0) + :consultations,"
+            + " r.totalMessages = COALESCE(r.totalMessages, 0) + :messages,"
+            + " r.totalCompletedChats = COALESCE(r.totalCompletedChats, 0) + :completed"
+            + " WHERE r.scientist.id = :scientistId")
+    int addTotals(@Param("scientistId") Long scientistId, @Param("consultations") long consultations,
+            @Param("messages") long messages, @Param("completed") long completed);
+
+    @Modifying
+    @Query("UPDATE ScientistReport r SET r.totalConsultations = :consultations, r.totalMessages = :messages,"
+            + " r.totalCompletedChats = :completed, r.totalsCounted = true WHERE r.scientist.id = :scientistId")
+    int setTotals(@Param("scientistId") Long scientistId, @Param("consultations") long consultations,
+            @Param("messages") long messages, @Param("completed") long completed);
+
+    @Modifying
+    @Query("UPDATE ScientistReport r SET r.totalConsultations = 0, r.totalMessages = 0, r.totalCompletedChats = 0,"
+            + " r.totalsCounted = true")
+    int clearTotals();
 }
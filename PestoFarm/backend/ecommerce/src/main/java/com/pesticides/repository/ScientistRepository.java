@@ -1,14 +1,46 @@
 package com.pesticides.repository;
 
+import com.pesticides.domain.AccountStatus;
+import com.pesticides.dto.ScientistDirectoryEntry;
 import com.pesticides.modal.Scientist;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ScientistRepository extends JpaRepository<Scientist,Long> {
     
     Scientist findByEmail(String email);
     
     List<Scientist> findBySpecialization(String specialization);
-}
\ No newline at end of file
+
+    // directory rows only, so passwords and whole addresses never leave the database
+    @Query(value = "SELECT new com.pesticides.dto.ScientistDirectoryEntry(s.id, s.scientistName, s.specialization,"
+            + " s.institution, a.city, a.state, a.latitude, a.longitude, COALESCE(s.available, true))"
+            + " FROM Scientist s LEFT JOIN s.officeAddress a WHERE s.accountStatus IN :listed"
+            + " AND (:specialization IS NULL OR s.specialization = :specialization)"
+            + " AND (:institution IS NULL OR s.institution = :institution)"
+            + " AND (:availableOnly = false OR s.available IS NULL OR s.available = true)"
+            + " ORDER BY s.scientistName, s.id",
+            countQuery = "SELECT COUNT(s) FROM Scientist s WHERE s.accountStatus IN :listed"
+            + " AND (:specialization IS NULL OR s.specialization = :specialization)"
+            + " AND (:institution IS NULL OR s.institution = :institution)"
+            + " AND (:availableOnly = false OR s.available IS NULL OR s.available = true)")
+    Page<ScientistDirectoryEntry> searchDirectory(@Param("listed") Collection<AccountStatus> listed,
+            @Param("specialization") String specialization, @Param("institution") String institution,
+            @Param("availableOnly") boolean availableOnly, Pageable pageable);
+
+    // callers apply the exact distance and the remaining filters
+    @Query("SELECT new com.pesticides.dto.ScientistDirectoryEntry(s.id, s.scientistName, s.specialization,"
+            + " s.institution, a.city, a.state, a.latitude, a.longitude, COALESCE(s.available, true))"
+            + " FROM Scientist s JOIN s.officeAddress a WHERE s.accountStatus IN :listed"
+            + " AND a.latitude BETWEEN :minLat AND :maxLat AND a.longitude BETWEEN :minLon AND :maxLon")
+    List<ScientistDirectoryEntry> findDirectoryWithin(@Param("listed") Collection<AccountStatus> listed,
+            @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+}
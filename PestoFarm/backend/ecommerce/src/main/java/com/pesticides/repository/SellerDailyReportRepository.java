@@ -0,0 +1,37 @@
+package com.pesticides.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.dto.SellerReportTotals;
+import com.pesticides.modal.SellerDailyReport;
+
+public interface SellerDailyReportRepository extends JpaRepository<SellerDailyReport, Long> {
+
+    List<SellerDailyReport> findBySellerIdAndDayBetweenOrderByDayAsc(Long sellerId, LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.pesticides.dto.SellerReportTotals(COALESCE(SUM(d.totalOrders), 0),"
+            + " COALESCE(SUM(d.totalEarnings), 0), COALESCE(SUM(d.totalSales), 0),"
+            + " COALESCE(SUM(d.canceledOrders), 0), COALESCE(SUM(d.totalRefunds), 0))"
+            + " FROM SellerDailyReport d WHERE d.sellerId = :sellerId AND d.day BETWEEN :from AND :to")
+    SellerReportTotals sumRange(@Param("sellerId") Long sellerId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("UPDATE SellerDailyReport d SET d.totalOrders = d.totalOrders + :orders,"
+            + " d.totalEarnings = d.totalEarnings + :earnings, d.totalSales = d.totalSales + :sales,"
+            + " d.canceledOrders = d.canceledOrders + :canceled, d.totalRefunds = d.totalRefunds + :refunds"
+            + " WHERE d.sellerId = :sellerId AND d.day = :day")
+    int addToDay(@Param("sellerId") Long sellerId, @Param("day") LocalDate day, @Param("orders") long orders,
+            @Param("earnings") long earnings, @Param("sales") long sales, @Param("canceled") long canceled,
+            @Param("refunds") long refunds);
+
+    @Modifying
+    @Query("DELETE FROM SellerDailyReport d WHERE d.day BETWEEN :from AND :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
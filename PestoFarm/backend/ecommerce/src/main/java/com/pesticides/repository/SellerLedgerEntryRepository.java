@@ -0,0 +1,32 @@
+package com.pesticides.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.domain.SellerLedgerEventType;
+import com.pesticides.dto.LedgerItem;
+import com.pesticides.modal.SellerLedgerEntry;
+
+public interface SellerLedgerEntryRepository extends JpaRepository<SellerLedgerEntry, Long> {
+
+    @Query("SELECT e.orderId FROM SellerLedgerEntry e WHERE e.type = :type AND e.orderId IN :orderIds")
+    List<Long> findRecordedOrderIds(@Param("type") SellerLedgerEventType type,
+            @Param("orderIds") Collection<Long> orderIds);
+
+    List<SellerLedgerEntry> findByRolledUpFalseOrderByIdAsc(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE SellerLedgerEntry e SET e.rolledUp = true WHERE e.id IN :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.pesticides.dto.LedgerItem(e.sellerId, e.type, e.occurredAt, p.id, i.quantity, i.sellingPrice)"
+            + " FROM SellerLedgerEntry e JOIN OrderItem i ON i.order.id = e.orderId JOIN i.product p"
+            + " WHERE e.id IN :ids")
+    List<LedgerItem> findItems(@Param("ids") Collection<Long> entryIds);
+}
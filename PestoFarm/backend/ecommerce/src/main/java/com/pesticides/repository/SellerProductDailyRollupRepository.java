@@ -0,0 +1,43 @@
+package com.pesticides.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.dto.DailyUnits;
+import com.pesticides.dto.ProductSales;
+import com.pesticides.modal.SellerProductDailyRollup;
+
+public interface SellerProductDailyRollupRepository extends JpaRepository<SellerProductDailyRollup, Long> {
+
+    @Query("SELECT new com.pesticides.dto.DailyUnits(r.day, SUM(r.unitsSold), SUM(r.canceledUnits))"
+            + " FROM SellerProductDailyRollup r WHERE r.sellerId = :sellerId AND r.day BETWEEN :from AND :to"
+            + " GROUP BY r.day")
+    List<DailyUnits> sumUnitsByDay(@Param("sellerId") Long sellerId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Query("SELECT new com.pesticides.dto.ProductSales(r.productId, p.title, SUM(r.unitsSold), SUM(r.revenue))"
+            + " FROM SellerProductDailyRollup r LEFT JOIN Product p ON p.id = r.productId"
+            + " WHERE r.sellerId = :sellerId AND r.day BETWEEN :from AND :to"
+            + " GROUP BY r.productId, p.title ORDER BY SUM(r.revenue) DESC")
+    List<ProductSales> findTopProducts(@Param("sellerId") Long sellerId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE SellerProductDailyRollup r SET r.orders = r.orders + :orders,"
+            + " r.unitsSold = r.unitsSold + :units, r.revenue = r.revenue + :revenue,"
+            + " r.canceledUnits = r.canceledUnits + :canceledUnits, r.refunds = r.refunds + :refunds"
+            + " WHERE r.sellerId = :sellerId AND r.day = :day AND r.productId = :productId")
+    int addToDay(@Param("sellerId") Long sellerId, @Param("day") LocalDate day, @Param("productId") Long productId,
+            @Param("orders") long orders, @Param("units") long units, @Param("revenue") long revenue,
+            @Param("canceledUnits") long canceledUnits, @Param("refunds") long refunds);
+
+    @Modifying
+    @Query("DELETE FROM SellerProductDailyRollup r WHERE r.day BETWEEN :from AND :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
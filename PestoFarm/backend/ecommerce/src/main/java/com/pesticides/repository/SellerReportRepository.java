@@ -1,10 +1,26 @@
 package com.pesticides.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.pesticides.modal.SellerReport;
 
 public interface SellerReportRepository extends JpaRepository<SellerReport,Long> {
     
     SellerReport findBySellerId(Long sellerId);
+
+    // gross value of paid orders, from one row per seller instead of the orders table
+    @Query("SELECT COALESCE(SUM(r.totalEarnings), 0) FROM SellerReport r")
+    long sumTotalEarnings();
+
+    // increments in place, so concurrent flushes cannot lose each other's counts
+    @Modifying
+    @Query("UPDATE SellerReport r SET r.totalOrders = r.totalOrders + :orders,"
+            + " r.totalEarnings = r.totalEarnings + :earnings, r.totalSales = r.totalSales + :sales,"
+            + " r.canceledOrders = r.canceledOrders + :canceled, r.totalRefunds = r.totalRefunds + :refunds"
+            + " WHERE r.seller.id = :sellerId")
+    int addTotals(@Param("sellerId") Long sellerId, @Param("orders") int orders, @Param("earnings") long earnings,
+            @Param("sales") long sales, @Param("canceled") int canceled, @Param("refunds") long refunds);
 }
@@ -1,10 +1,15 @@
 package com.pesticides.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import org.springframework.data.repository.query.Param;
 
 import com.pesticides.domain.AccountStatus;
+import com.pesticides.dto.SellerLocation;
 import com.pesticides.modal.Seller;
 // import java.util.List;
 
@@ -12,4 +17,19 @@ import com.pesticides.modal.Seller;
 public interface SellerRepository extends JpaRepository<Seller,Long>{
     Seller findByEmail(String email);
     List<Seller> findByAccountStatus(AccountStatus status);    
+
+    @Query("SELECT s.accountStatus, COUNT(s) FROM Seller s GROUP BY s.accountStatus")
+    List<Object[]> countByAccountStatus();
+
+    // Radius-based sellers whose pickup address lies in the bounding box; callers apply each seller's radius
+    @Query("SELECT new com.pesticides.dto.SellerLocation(s.id, a.latitude, a.longitude, s.deliveryRadiusKm) "
+            + "FROM Seller s JOIN s.pickupAddress a WHERE a.latitude BETWEEN :minLat AND :maxLat "
+            + "AND a.longitude BETWEEN :minLon AND :maxLon "
+            + "AND NOT EXISTS (SELECT 1 FROM SellerServicePin p WHERE p.sellerId = s.id)")
+    List<SellerLocation> findRadiusSellersWithin(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    @Query("SELECT new com.pesticides.dto.SellerLocation(s.id, a.latitude, a.longitude, s.deliveryRadiusKm) "
+            + "FROM Seller s LEFT JOIN s.pickupAddress a WHERE s.id IN :ids")
+    List<SellerLocation> findLocations(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,23 @@
+package com.pesticides.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.modal.SellerServicePin;
+
+public interface SellerServicePinRepository extends JpaRepository<SellerServicePin, Long> {
+
+    @Query("SELECT p.sellerId FROM SellerServicePin p WHERE p.pin = :pin")
+    List<Long> findSellerIdsByPin(@Param("pin") int pin);
+
+    @Query("SELECT p.pin FROM SellerServicePin p WHERE p.sellerId = :sellerId ORDER BY p.pin")
+    List<Integer> findPinsBySellerId(@Param("sellerId") Long sellerId);
+
+    @Modifying
+    @Query("DELETE FROM SellerServicePin p WHERE p.sellerId = :sellerId")
+    int deleteBySellerId(@Param("sellerId") Long sellerId);
+}
@@ -1,12 +1,40 @@
 package com.pesticides.repository;
 
-import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.pesticides.dto.TransactionExportRow;
 import com.pesticides.modal.Transaction;
 
+import jakarta.persistence.QueryHint;
+
 public interface TransactionRepository extends JpaRepository<Transaction,Long> {
     
-    List<Transaction> findBySellerId(Long sellerId);
+    Page<Transaction> findBySellerId(Long sellerId, Pageable pageable);
+
+    String EXPORT_ROW = "SELECT new com.pesticides.dto.TransactionExportRow(t.id, t.date, o.id, o.orderId, s.id,"
+            + " s.sellerName, c.id, c.email, o.totalSellingPrice, o.paymentStatus, o.orderStatus)"
+            + " FROM Transaction t LEFT JOIN t.order o LEFT JOIN t.seller s LEFT JOIN t.customer c";
+
+    // a fetch size of Integer.MIN_VALUE makes MySQL stream rows instead of buffering the whole result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_ROW + " ORDER BY t.id")
+    Stream<TransactionExportRow> streamExportRows();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_ROW + " WHERE s.id = :sellerId ORDER BY t.id")
+    Stream<TransactionExportRow> streamExportRowsBySellerId(@Param("sellerId") Long sellerId);
 }
@@ -0,0 +1,30 @@
+package com.pesticides.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.modal.UserCurrentLocation;
+
+public interface UserCurrentLocationRepository extends JpaRepository<UserCurrentLocation, Long> {
+
+    // Seeds the hot row of users who only have history, from their most recent history row
+    @Modifying
+    @Query("INSERT INTO UserCurrentLocation (userId, latitude, longitude, timestamp, updatedAt) "
+            + "SELECT l.user.id, l.latitude, l.longitude, l.timestamp, l.createdAt FROM UserLocation l "
+            + "WHERE l.id IN (SELECT MAX(h.id) FROM UserLocation h GROUP BY h.user.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM UserCurrentLocation c WHERE c.userId = l.user.id)")
+    int backfillFromHistory();
+
+    // a conditional write, so a delayed ping or batch cannot replace a newer position stored meanwhile
+    @Modifying
+    @Query("UPDATE UserCurrentLocation c SET c.latitude = :latitude, c.longitude = :longitude,"
+            + " c.timestamp = :timestamp, c.updatedAt = :updatedAt"
+            + " WHERE c.userId = :userId AND (c.timestamp IS NULL OR c.timestamp < :timestamp)")
+    int updateIfNewer(@Param("userId") Long userId, @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude, @Param("timestamp") Long timestamp,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
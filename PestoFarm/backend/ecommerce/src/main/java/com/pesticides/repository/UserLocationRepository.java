@@ -1,19 +1,25 @@
 package com.pesticides.repository;
 
+import com.pesticides.dto.LocationHistoryPoint;
 import com.pesticides.modal.User;
 import com.pesticides.modal.UserLocation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
+/**
+ * Location history. The current position lives in {@link UserCurrentLocationRepository};
+ * history rows are inserted in batches by LocationServiceImpl.
+ */
 @Repository
 public interface UserLocationRepository extends JpaRepository<UserLocation, Long> {
-    /**
-     * Find the most recent location for a user
-     */
-    Optional<UserLocation> findFirstByUserOrderByCreatedAtDesc(User user);
 
     /**
      * Find all locations for a user
@@ -21,7 +27,20 @@ public interface UserLocationRepository extends JpaRepository<UserLocation, Long
     List<UserLocation> findByUserOrderByCreatedAtDesc(User user);
 
     /**
-     * Delete old locations (for data cleanup)
+     * Users with history in the given window, for downsampling
      */
-    void deleteByUserAndIdNot(User user, Long latestId);
+    @Query("SELECT DISTINCT l.user.id FROM UserLocation l WHERE l.createdAt >= :from AND l.createdAt < :to")
+    List<Long> findUserIdsWithHistoryBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.pesticides.dto.LocationHistoryPoint(l.id, l.createdAt) FROM UserLocation l "
+            + "WHERE l.user.id = :userId AND l.createdAt >= :from AND l.createdAt < :to ORDER BY l.createdAt, l.id")
+    List<LocationHistoryPoint> findHistoryPoints(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT l.id FROM UserLocation l WHERE l.createdAt < :cutoff ORDER BY l.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UserLocation l WHERE l.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
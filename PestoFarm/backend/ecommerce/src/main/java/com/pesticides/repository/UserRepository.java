@@ -1,8 +1,27 @@
 package com.pesticides.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pesticides.domain.USER_ROLE;
+import com.pesticides.dto.DailyCount;
 import com.pesticides.modal.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
+
+    // prefix matches so the email index can be used; MySQL's default collation makes LIKE case-insensitive
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role)"
+            + " AND (:query IS NULL OR u.email LIKE CONCAT(:query, '%') OR u.fullname LIKE CONCAT(:query, '%'))")
+    Page<User> search(@Param("query") String query, @Param("role") USER_ROLE role, Pageable pageable);
+
+    @Query("SELECT new com.pesticides.dto.DailyCount(CAST(u.createdAt AS LocalDate), COUNT(u)) FROM User u"
+            + " WHERE u.createdAt >= :since GROUP BY CAST(u.createdAt AS LocalDate)")
+    List<DailyCount> countCreatedPerDay(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,12 @@
+package com.pesticides.request;
+
+import lombok.Data;
+
+@Data
+public class LocationPingRequest {
+
+    private Double latitude;
+    private Double longitude;
+    // client time of the fix, epoch millis
+    private Long timestamp;
+}
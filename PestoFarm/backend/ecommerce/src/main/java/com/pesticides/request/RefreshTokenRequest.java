@@ -0,0 +1,9 @@
+package com.pesticides.request;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+
+    private String refreshToken;
+}
@@ -12,6 +12,7 @@ public class ScientistRequest {
     private String specialization; 
     private String institution; 
     private Address officeAddress; 
+    private Boolean available;
     
    
 }
\ No newline at end of file
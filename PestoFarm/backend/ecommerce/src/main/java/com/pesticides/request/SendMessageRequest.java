@@ -10,6 +10,9 @@ public class SendMessageRequest {
     
     // Used by a User to initiate a *new* chat with a specific scientist
     private Long scientistId; 
+
+    // Or, without a scientistId, to be routed to the least busy scientist of this specialization
+    private String specialization;
     
     // The content of the message
     private String content; 
@@ -0,0 +1,14 @@
+package com.pesticides.request;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ServiceAreaRequest {
+
+    // km from the pickup address; null restores the platform default
+    private Double radiusKm;
+    // six-digit PINs; when non-empty the seller delivers to exactly these and the radius is ignored
+    private List<String> pinCodes;
+}
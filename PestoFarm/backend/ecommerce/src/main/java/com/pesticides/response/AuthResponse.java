@@ -8,6 +8,7 @@ import lombok.Data;
 public class AuthResponse {
 
     private String jwt;
+    private String refreshToken;
     private String message;
     private USER_ROLE role;
 }
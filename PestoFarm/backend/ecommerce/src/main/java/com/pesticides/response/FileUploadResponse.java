@@ -0,0 +1,14 @@
+package com.pesticides.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileUploadResponse {
+    private String url;
+    // written in the background; may 404 for a moment after upload
+    private String thumbnailUrl;
+}
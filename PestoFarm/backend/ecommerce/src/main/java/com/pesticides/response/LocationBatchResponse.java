@@ -0,0 +1,19 @@
+package com.pesticides.response;
+
+import com.pesticides.modal.UserCurrentLocation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocationBatchResponse {
+    private int accepted;
+    // too close in time and space to the point before them
+    private int deduplicated;
+    // missing or out-of-range coordinates, or a timestamp outside the accepted window
+    private int rejected;
+    private UserCurrentLocation current;
+}
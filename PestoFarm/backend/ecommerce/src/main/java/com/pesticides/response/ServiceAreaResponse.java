@@ -0,0 +1,17 @@
+package com.pesticides.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceAreaResponse {
+    // the radius in effect, the default when the seller has not set one
+    private double radiusKm;
+    private boolean defaultRadius;
+    private List<Integer> pinCodes;
+}
@@ -0,0 +1,11 @@
+package com.pesticides.service;
+
+import com.pesticides.dto.PlatformKpis;
+
+public interface AdminAnalyticsService {
+
+    /** The latest snapshot; it is recomputed on a schedule, never by the caller. */
+    PlatformKpis getKpis();
+
+    PlatformKpis refresh();
+}
@@ -1,12 +1,13 @@
 package com.pesticides.service;
 
+import com.pesticides.domain.USER_ROLE;
 import com.pesticides.modal.Product;
 import com.pesticides.modal.User;
-import java.util.List;
+import org.springframework.data.domain.Page;
 
 public interface AdminService {
-    List<User> getAllUsers();
+    Page<User> getUsers(String query, USER_ROLE role, int pageNumber, int pageSize);
     User updateUserRole(Long userId, String role);
     void deleteUser(Long userId);
-    List<Product> getAllProducts();
+    Page<Product> getProducts(String query, int pageNumber, int pageSize);
 }
@@ -13,4 +13,5 @@ public interface AuthService {
     String createScientist(SignupRequest req) throws Exception;
     AuthResponse signing(LoginRequest req);
     String generateToken(String email, USER_ROLE role);
+    String issueRefreshToken(String email, USER_ROLE role);
 }
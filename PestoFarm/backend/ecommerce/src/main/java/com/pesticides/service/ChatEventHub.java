@@ -0,0 +1,41 @@
+package com.pesticides.service;
+
+import java.io.IOException;
+
+import com.pesticides.modal.Message;
+
+/**
+ * Fan-out of new chat messages to the clients that have the chat open. The in-process
+ * implementation only reaches subscribers connected to this node; a broker-backed one
+ * (Redis pub/sub, RabbitMQ) can be swapped in behind this interface for multi-node setups.
+ */
+public interface ChatEventHub {
+
+    /**
+     * Registers {@code sink} for messages of {@code chatId}. Delivery is in publish order and off
+     * the caller's thread; a sink that falls too far behind is closed and must resync via
+     * {@code /api/chats/{chatId}/messages/since}.
+     */
+    Subscription subscribe(Long chatId, MessageSink sink);
+
+    /** Delivers a committed message to every subscriber of its chat. Never blocks on a subscriber. */
+    void publish(Message message);
+
+    /** A connected client, e.g. an SSE stream. Called from one delivery thread at a time. */
+    interface MessageSink {
+
+        void send(Message message) throws IOException;
+
+        /** Keeps idle connections open through proxies and surfaces dead ones. */
+        void heartbeat() throws IOException;
+
+        /** The hub dropped this subscriber; {@code evicted} is true if it was too slow to keep up. */
+        void close(boolean evicted);
+    }
+
+    interface Subscription {
+
+        /** Stops delivery; safe to call more than once. Does not call {@link MessageSink#close}. */
+        void cancel();
+    }
+}
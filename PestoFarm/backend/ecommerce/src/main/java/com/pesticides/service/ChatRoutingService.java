@@ -0,0 +1,37 @@
+package com.pesticides.service;
+
+import com.pesticides.modal.Scientist;
+
+/**
+ * Assigns new consultations to the least busy scientist of a specialization, by the number of
+ * open chats each has. Counts are kept in memory, moved by {@link ChatService} as chats open and
+ * close, and periodically resynced from the chat table.
+ */
+public interface ChatRoutingService {
+
+    /**
+     * Picks the scientist with the fewest open chats and counts one more for them. The caller
+     * opens the chat, or calls {@link #chatClosed} to hand the slot back if it opens none.
+     * @param specialization null to consider every routable scientist
+     * @return the scientist's id
+     */
+    Long assign(String specialization);
+
+    /**
+     * Refuses a chat with a scientist picked by the user once they are at the open chat limit.
+     * @throws com.pesticides.exception.ServiceBusyException if the scientist is at the limit
+     */
+    void checkCapacity(Long scientistId);
+
+    void chatOpened(Long scientistId);
+
+    void chatClosed(Long scientistId);
+
+    int openChats(Long scientistId);
+
+    /** Picks up a change of specialization, availability or account status. */
+    void refreshScientist(Scientist scientist);
+
+    /** Reloads every count and scientist from the database. */
+    void resync();
+}
@@ -1,6 +1,8 @@
 package com.pesticides.service;
 
+import com.pesticides.dto.ChatInboxEntry;
 import com.pesticides.modal.Chat;
+import com.pesticides.modal.Message;
 import com.pesticides.modal.User;
 import com.pesticides.modal.Scientist;
 import java.util.List;
@@ -8,6 +10,18 @@ import java.util.List;
 public interface ChatService {
     
     Chat createChat(User user, Scientist scientist);
+
+    /**
+     * Starts a consultation with the least busy scientist of the specialization, reusing the
+     * user's earlier chat with that scientist if there is one.
+     */
+    Chat routeConsultation(User user, String specialization) throws Exception;
+
+    /** @return false if the chat was already closed */
+    boolean closeChat(Chat chat);
+
+    /** @return false if the chat was already open */
+    boolean reopenChat(Chat chat);
     
     Chat save(Chat chat);
 
@@ -18,4 +32,16 @@ public interface ChatService {
     List<Chat> findScientistsChats(Scientist scientist);
     
     Chat findChatByUserAndScientist(Long userId, Long scientistId);
+
+    List<ChatInboxEntry> getUserInbox(User user);
+
+    List<ChatInboxEntry> getScientistInbox(Scientist scientist);
+
+    void recordMessage(Chat chat, Message message);
+
+    void recordRead(Long chatId, String readerRole, int read);
+
+    long getUserUnreadTotal(User user);
+
+    long getScientistUnreadTotal(Scientist scientist);
 }
\ No newline at end of file
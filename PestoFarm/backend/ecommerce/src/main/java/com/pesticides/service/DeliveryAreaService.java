@@ -0,0 +1,21 @@
+package com.pesticides.service;
+
+import java.util.List;
+
+import com.pesticides.modal.Seller;
+import com.pesticides.request.ServiceAreaRequest;
+import com.pesticides.response.ServiceAreaResponse;
+
+public interface DeliveryAreaService {
+
+    /**
+     * Ids of the sellers that deliver to the buyer, nearest first, then sellers matched only by
+     * PIN whose pickup point is unknown. Either the coordinates or the PIN may be null; a
+     * missing PIN is looked up from the coordinates.
+     */
+    List<Long> sellersDeliveringTo(Double latitude, Double longitude, String pinCode);
+
+    ServiceAreaResponse getServiceArea(Seller seller);
+
+    ServiceAreaResponse updateServiceArea(Seller seller, ServiceAreaRequest req);
+}
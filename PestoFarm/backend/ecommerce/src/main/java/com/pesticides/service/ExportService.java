@@ -0,0 +1,16 @@
+package com.pesticides.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * CSV exports that stream rows from the database to the response, so memory use does not
+ * depend on how many rows are exported.
+ */
+public interface ExportService {
+
+    /** @param sellerId only this seller's transactions, or all of them when null */
+    void exportTransactions(Long sellerId, OutputStream out) throws IOException;
+
+    void exportSellerOrders(Long sellerId, OutputStream out) throws IOException;
+}
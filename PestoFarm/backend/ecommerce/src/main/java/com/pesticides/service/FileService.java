@@ -7,4 +7,8 @@ public interface FileService {
     
     // Uploads a file and returns its public URL.
     String uploadFile(MultipartFile file, String folder) throws IOException;
-}
\ No newline at end of file
+
+    // Public URL of the thumbnail written asynchronously for an uploaded image, or the image's own
+    // URL when it gets no thumbnail.
+    String thumbnailUrl(String url);
+}
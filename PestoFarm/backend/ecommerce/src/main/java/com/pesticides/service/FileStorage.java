@@ -0,0 +1,26 @@
+package com.pesticides.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded bytes live. Keys are {@code folder/name} paths; objects are immutable once put,
+ * which is what lets them be content addressed and cached forever. The local-disk backend is used
+ * today; an S3/MinIO one only has to implement these calls.
+ */
+public interface FileStorage {
+
+    /** A fresh scratch file to stream an upload into before its key is known. */
+    Path createStagingFile() throws IOException;
+
+    boolean exists(String key);
+
+    /**
+     * Moves a fully written staging file in under {@code key}. If the key already exists the
+     * staging file is discarded: same key means same content.
+     */
+    void put(String key, Path stagingFile) throws IOException;
+
+    InputStream open(String key) throws IOException;
+}
@@ -0,0 +1,29 @@
+package com.pesticides.service;
+
+import com.pesticides.modal.Address;
+
+/**
+ * Background geocoding of seller pickup addresses. The queue is the address table itself:
+ * a PENDING address is picked up by the worker, so nothing is lost across restarts.
+ */
+public interface GeocodeQueueService {
+
+    /**
+     * Marks the address for geocoding and clears coordinates that belonged to its previous text.
+     * The caller saves the address.
+     */
+    void enqueue(Address address);
+
+    /**
+     * Geocodes the addresses that are due, one at a time under the geocoder's rate limit.
+     * @return the number of addresses attempted
+     */
+    int processQueue();
+
+    /**
+     * Queues seller pickup addresses that have no coordinates and are not waiting already,
+     * including ones that exhausted their retries.
+     * @return the number of addresses queued
+     */
+    int backfillSellerAddresses();
+}
@@ -1,5 +1,8 @@
 package com.pesticides.service;
 
+import java.util.Optional;
+
+import com.pesticides.dto.GeoPoint;
 import com.pesticides.modal.Address;
 
 public interface GeocodingService {
@@ -10,4 +13,11 @@ public interface GeocodingService {
      * @return The updated Address object with latitude and longitude set.
      */
     Address geocodeAddress(Address address);
-}
\ No newline at end of file
+
+    /**
+     * Looks the address up without modifying it.
+     * @return the coordinates, or empty when the geocoder knows no such place
+     * @throws com.pesticides.exception.ServiceBusyException when the geocoder could not be asked; worth retrying
+     */
+    Optional<GeoPoint> locate(Address address);
+}
@@ -1,21 +1,46 @@
 package com.pesticides.service;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.pesticides.modal.User;
-import com.pesticides.modal.UserLocation;
+import com.pesticides.modal.UserCurrentLocation;
 import com.pesticides.modal.UserLocationPreference;
+import com.pesticides.request.LocationPingRequest;
+import com.pesticides.response.LocationBatchResponse;
 
 public interface LocationService {
     /**
-     * Save user's current location
+     * Save user's current location. Pings close in time and space to the current one are
+     * dropped; accepted pings replace the current location and are added to the history.
+     * @return the user's current location after the ping
      */
-    UserLocation saveLocation(User user, Double latitude, Double longitude, Long timestamp) throws Exception;
+    UserCurrentLocation saveLocation(User user, Double latitude, Double longitude, Long timestamp) throws Exception;
+
+    /**
+     * Save a batch of timestamped points, e.g. collected while the client was offline. Invalid
+     * points are counted and skipped rather than failing the batch; the rest go to the history in
+     * one batch insert and the newest becomes the current location if it is newer than the stored one.
+     */
+    LocationBatchResponse saveLocations(User user, List<LocationPingRequest> points) throws Exception;
 
     /**
      * Get user's most recent location
      */
-    Optional<UserLocation> getLatestLocation(User user) throws Exception;
+    Optional<UserCurrentLocation> getLatestLocation(User user) throws Exception;
+
+    /**
+     * Writes buffered history points.
+     * @return the number of points written
+     */
+    int flushHistory();
+
+    /**
+     * Thins history older than the downsampling age to one point per bucket and deletes history
+     * past the retention period.
+     * @return the number of history rows deleted
+     */
+    int maintainHistory();
 
     /**
      * Save user's location permission choice
@@ -1,5 +1,7 @@
 package com.pesticides.service;
 
+import com.pesticides.dto.ChatMessagesDelta;
+import com.pesticides.dto.ChatReadResult;
 import com.pesticides.modal.Message;
 import com.pesticides.request.SendMessageRequest;
 import java.util.List;
@@ -8,5 +10,9 @@ public interface MessageService {
     
     Message sendMessage(SendMessageRequest req, String imageUrl, String jwt) throws Exception; 
     
-    List<Message> getChatMessages(Long chatId) throws Exception;
+    List<Message> getChatMessages(Long chatId, Long before, Long after, int limit) throws Exception;
+
+    ChatMessagesDelta getMessagesSince(Long chatId, Long since) throws Exception;
+
+    ChatReadResult markRead(Long chatId, Long upTo, String readerRole) throws Exception;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.pesticides.service;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.modal.User;
+import com.pesticides.response.PaymentLinkResponse;
+
+/**
+ * One payment provider. Implementations are long-lived and thread-safe; callers go through the
+ * guarded wrapper built in {@code PaymentGatewayConfig}, which adds the timeout, bulkhead and
+ * circuit breaker.
+ */
+public interface PaymentGateway {
+
+    PaymentMethod getMethod();
+
+    /** Creates a hosted payment page for {@code amount} (in rupees) and returns its id and url. */
+    PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) throws Exception;
+
+    /**
+     * State of a link created by {@link #createPaymentLink}: SUCCESS once paid, FAILED once it
+     * can no longer be paid (expired/cancelled), PENDING otherwise.
+     */
+    PaymentOrderStatus fetchPaymentLinkStatus(String paymentLinkId) throws Exception;
+
+    /**
+     * Whether a failed call was refused by the provider as a bad request (4xx). Those say nothing
+     * about the provider's health, so the circuit breaker does not count them as failures.
+     */
+    default boolean isClientError(Exception e) {
+        return false;
+    }
+}
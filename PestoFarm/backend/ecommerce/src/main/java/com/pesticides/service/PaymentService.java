@@ -2,18 +2,16 @@ package com.pesticides.service;
 
 import java.util.Set;
 
+import com.pesticides.domain.PaymentMethod;
 import com.pesticides.modal.Order;
 import com.pesticides.modal.PaymentOrder;
 import com.pesticides.modal.User;
-import com.razorpay.PaymentLink;
-import com.razorpay.RazorpayException;
-import com.stripe.exception.StripeException;
+import com.pesticides.response.PaymentLinkResponse;
 
 public interface PaymentService {
     PaymentOrder createOrder(User user,Set<Order> orders);
     PaymentOrder getPaymentOrderById(Long orderId) throws Exception;
     PaymentOrder getPaymentOrderByPaymentId(String orderId) throws Exception;
-    Boolean ProceedPaymentOrder(PaymentOrder paymentOrder,String paymentId,String paymentLinkId) throws RazorpayException;
-    PaymentLink createRazorPaymentLink(User user,Long amount,Long orderId) throws RazorpayException;
-    String createStripePaymentLink(User user, Long amount,Long orderId) throws StripeException;
+    Boolean ProceedPaymentOrder(PaymentOrder paymentOrder,String paymentId,String paymentLinkId) throws Exception;
+    PaymentLinkResponse createPaymentLink(PaymentMethod paymentMethod,User user,Long amount,Long orderId) throws Exception;
 }
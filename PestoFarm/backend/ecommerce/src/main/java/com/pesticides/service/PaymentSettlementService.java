@@ -0,0 +1,16 @@
+package com.pesticides.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface PaymentSettlementService {
+
+    /**
+     * Moves the given payment orders out of PENDING in one transaction. Orders already settled
+     * by an earlier call are skipped, so webhooks, the pending sweep and the browser redirect
+     * can all report the same payment.
+     *
+     * @return ids of the payment orders this call moved to SUCCESS
+     */
+    Set<Long> settle(Collection<Long> paidPaymentOrderIds, Collection<Long> failedPaymentOrderIds);
+}
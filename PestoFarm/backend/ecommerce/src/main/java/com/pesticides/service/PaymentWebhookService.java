@@ -0,0 +1,21 @@
+package com.pesticides.service;
+
+import com.pesticides.domain.PaymentMethod;
+
+public interface PaymentWebhookService {
+
+    /**
+     * Verifies the provider signature and stores the event in the inbox.
+     *
+     * @param eventId the delivery's event id from a request header, for providers that send it
+     *                outside the payload (Razorpay); null otherwise
+     * @return false if the event was already received
+     */
+    boolean receive(PaymentMethod provider, String payload, String signature, String eventId) throws Exception;
+
+    /** Settles a batch of received events; returns how many events were consumed. */
+    int processInbox();
+
+    /** Asks the gateways about payment orders that stayed PENDING; returns how many were checked. */
+    int sweepPendingOrders();
+}
@@ -27,7 +27,8 @@ public interface ProductService {
         String stock,
         Integer pageNumber,
         Double userLat,
-        Double userLon 
+        Double userLon,
+        String pincode
     );
 
     List<Product> getProductBySellerId(Long sellerId);
@@ -1,5 +1,7 @@
 package com.pesticides.service;
 
+import java.util.Map;
+
 import com.pesticides.modal.Scientist;
 import com.pesticides.modal.ScientistReport;
 
@@ -7,4 +9,29 @@ public interface ScientistReportService {
     
     ScientistReport getScientistReport(Scientist scientist);
     ScientistReport updateScientistReport(ScientistReport scientistReport);
+
+    // Chat and message writes call these inside their transaction; the counts apply once it commits
+
+    void recordConsultation(Long scientistId);
+
+    void recordMessage(Long scientistId);
+
+    /** @param delta +1 when a chat closes, -1 when a closed chat is reopened */
+    void recordCompletedChats(Long scientistId, int delta);
+
+    /** Writes the open-chat counts kept by chat routing. */
+    void setActiveChats(Map<Long, Long> activeChats);
+
+    /**
+     * Adds the counts recorded since the last flush to the report rows.
+     * @return the number of scientists whose report changed
+     */
+    int flush();
+
+    /**
+     * Recomputes the totals from the chat and message tables, e.g. after a crash lost counts
+     * that were not flushed yet.
+     * @return the number of scientists with chats
+     */
+    int rebuild();
 }
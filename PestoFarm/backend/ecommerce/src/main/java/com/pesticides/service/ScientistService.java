@@ -1,9 +1,12 @@
 package com.pesticides.service;
 
+import com.pesticides.dto.ScientistDirectoryEntry;
 import com.pesticides.modal.Scientist;
 import com.pesticides.request.ScientistRequest; 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+
 public interface ScientistService {
     
 
@@ -22,6 +25,13 @@ public interface ScientistService {
     Scientist verifyEmail(String email, String otp) throws Exception;
 
     List<Scientist> findAllScientists();
+
+    /**
+     * Public directory of listed scientists, by name or, around a point, nearest first. Every
+     * filter is optional; a point without a radius uses the configured default radius.
+     */
+    Page<ScientistDirectoryEntry> searchDirectory(String specialization, String institution, Double latitude,
+            Double longitude, Double radiusKm, boolean availableOnly, int pageNumber, int pageSize);
     
     
     void deleteScientist(Long scientistId) throws Exception;
@@ -0,0 +1,12 @@
+package com.pesticides.service;
+
+import java.time.LocalDate;
+
+import com.pesticides.domain.AnalyticsGranularity;
+import com.pesticides.dto.SellerAnalytics;
+import com.pesticides.modal.Seller;
+
+public interface SellerAnalyticsService {
+
+    SellerAnalytics getAnalytics(Seller seller, LocalDate from, LocalDate to, AnalyticsGranularity granularity);
+}
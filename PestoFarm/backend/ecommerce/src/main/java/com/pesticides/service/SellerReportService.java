@@ -1,10 +1,29 @@
 package com.pesticides.service;
 
+import java.time.LocalDate;
+import java.util.Collection;
+
+import com.pesticides.dto.SellerReportSummary;
+import com.pesticides.dto.SettledOrder;
+import com.pesticides.modal.Order;
 import com.pesticides.modal.Seller;
 import com.pesticides.modal.SellerReport;
 
 public interface SellerReportService {
     
     SellerReport getSellerReport(Seller seller);
-    SellerReport updateSellerReport(SellerReport sellerReport);
+    SellerReportSummary getSellerReport(Seller seller, LocalDate from, LocalDate to) throws Exception;
+
+    /**
+     * Appends ledger entries in the caller's transaction; the report tables pick them up on the
+     * next flush after it commits. Orders that already have an entry of the same type are skipped.
+     */
+    void recordOrdersPaid(Collection<SettledOrder> orders);
+    void recordOrderCanceled(Order order);
+
+    /** Adds everything recorded since the last flush to the report tables. @return entries flushed */
+    int flush();
+
+    /** Rebuilds the daily and per-product rollups for past days from the orders. @return order lines read */
+    int backfill(LocalDate from, LocalDate to);
 }
@@ -0,0 +1,29 @@
+package com.pesticides.service;
+
+import com.pesticides.domain.USER_ROLE;
+import com.pesticides.response.AuthResponse;
+
+public interface TokenService {
+
+    /**
+     * Starts a new refresh-token family for a fresh login and returns the opaque token.
+     */
+    String issueRefreshToken(String email, USER_ROLE role);
+
+    /**
+     * Rotates a refresh token: the presented token is retired and a new access token plus
+     * refresh token are returned. Reusing a retired token revokes its whole family.
+     */
+    AuthResponse refresh(String refreshToken) throws Exception;
+
+    /**
+     * Logs out one session: revokes the access token and the refresh-token family.
+     */
+    void logout(String accessToken, String refreshToken);
+
+    /**
+     * Invalidates every access and refresh token of a principal, e.g. after the account is
+     * deleted or its role changes.
+     */
+    void revokeAllTokens(String email);
+}
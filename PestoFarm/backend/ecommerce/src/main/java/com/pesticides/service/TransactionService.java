@@ -2,6 +2,8 @@ package com.pesticides.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+
 import com.pesticides.modal.Order;
 import com.pesticides.modal.Seller;
 import com.pesticides.modal.Transaction;
@@ -9,6 +11,6 @@ import com.pesticides.modal.Transaction;
 public interface TransactionService {
     
     Transaction createTransaction(Order order);
-    List<Transaction> getTransactionsBySellerId(Seller seller);
+    Page<Transaction> getTransactionsBySellerId(Seller seller, int pageNumber, int pageSize);
     List<Transaction> getAllTransactions();
 }
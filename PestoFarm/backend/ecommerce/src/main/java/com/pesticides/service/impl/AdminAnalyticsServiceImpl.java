@@ -0,0 +1,86 @@
+package com.pesticides.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pesticides.domain.AccountStatus;
+import com.pesticides.domain.OrderStatus;
+import com.pesticides.dto.DailyCount;
+import com.pesticides.dto.PlatformKpis;
+import com.pesticides.repository.ChatRepository;
+import com.pesticides.repository.OrderRepository;
+import com.pesticides.repository.SellerReportRepository;
+import com.pesticides.repository.SellerRepository;
+import com.pesticides.repository.UserRepository;
+import com.pesticides.service.AdminAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes the dashboard KPIs with a handful of grouped queries on a schedule and serves the
+ * last result from memory, so opening or refreshing the dashboard never runs them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminAnalyticsServiceImpl implements AdminAnalyticsService {
+
+    private static final int TOP_SCIENTISTS = 100;
+
+    private final OrderRepository orderRepository;
+    private final SellerRepository sellerRepository;
+    private final SellerReportRepository sellerReportRepository;
+    private final UserRepository userRepository;
+    private final ChatRepository chatRepository;
+
+    @Value("${admin.kpi.new-users-days:30}")
+    private int newUsersDays;
+
+    private volatile PlatformKpis snapshot;
+
+    @Override
+    public PlatformKpis getKpis() {
+        PlatformKpis current = snapshot;
+        // only before the first scheduled run has finished
+        return current != null ? current : refresh();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${admin.kpi.refresh-interval-ms:60000}")
+    public synchronized PlatformKpis refresh() {
+        long start = System.nanoTime();
+
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : orderRepository.countByOrderStatus()) {
+            if (row[0] != null) ordersByStatus.put((OrderStatus) row[0], (Long) row[1]);
+        }
+        Map<AccountStatus, Long> sellersByStatus = new EnumMap<>(AccountStatus.class);
+        for (Object[] row : sellerRepository.countByAccountStatus()) {
+            if (row[0] != null) sellersByStatus.put((AccountStatus) row[0], (Long) row[1]);
+        }
+
+        LocalDate since = LocalDate.now().minusDays(newUsersDays - 1L);
+        List<DailyCount> newUsers = new ArrayList<>(userRepository.countCreatedPerDay(since.atStartOfDay()));
+        newUsers.sort(Comparator.comparing(DailyCount::day));
+
+        PlatformKpis kpis = new PlatformKpis(LocalDateTime.now(), sellerReportRepository.sumTotalEarnings(),
+                ordersByStatus, sellersByStatus, newUsers,
+                chatRepository.countPerScientist(PageRequest.of(0, TOP_SCIENTISTS)));
+        snapshot = kpis;
+        log.debug("Refreshed admin KPIs in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return kpis;
+    }
+}
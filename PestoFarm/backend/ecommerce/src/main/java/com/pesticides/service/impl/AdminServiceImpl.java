@@ -4,20 +4,27 @@ import com.pesticides.domain.USER_ROLE;
 import com.pesticides.exception.UserException;
 import com.pesticides.modal.Product;
 import com.pesticides.modal.User;
+import com.pesticides.repository.ProductRepository;
 import com.pesticides.repository.UserRepository;
 import com.pesticides.service.AdminService;
+import com.pesticides.service.TokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements AdminService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final ProductRepository productRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
 
     public User createAdminUser(User adminUser) {
         // Handle potential error with RuntimeException since Interface doesn't allow Checked Exception
@@ -31,14 +38,19 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public Page<User> getUsers(String query, USER_ROLE role, int pageNumber, int pageSize) {
+        return userRepository.search(blankToNull(query), role,
+                PageRequest.of(pageNumber, Math.min(pageSize, MAX_PAGE_SIZE), Sort.by(Sort.Direction.DESC, "id")));
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        // Returning empty list to satisfy interface
-        return List.of(); 
+    public Page<Product> getProducts(String query, int pageNumber, int pageSize) {
+        return productRepository.searchByTitlePrefix(blankToNull(query),
+                PageRequest.of(pageNumber, Math.min(pageSize, MAX_PAGE_SIZE), Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    private static String blankToNull(String query) {
+        return query == null || query.isBlank() ? null : query.trim();
     }
 
     // Helper method (Not overridden) - Can throw Exception internally
@@ -60,6 +72,7 @@ public class AdminServiceImpl implements AdminService {
         try {
             User user = findUserById(userId);
             userRepository.delete(user);
+            tokenService.revokeAllTokens(user.getEmail());
         } catch (UserException e) {
             throw new RuntimeException(e.getMessage());
         }
@@ -78,6 +91,8 @@ public class AdminServiceImpl implements AdminService {
             } else {
                 user.setRole(USER_ROLE.ROLE_USER);
             }
+            // tokens carry the old role; make the user sign in again to pick up the new one
+            tokenService.revokeAllTokens(user.getEmail());
             return userRepository.save(user);
 
         } catch (UserException e) {
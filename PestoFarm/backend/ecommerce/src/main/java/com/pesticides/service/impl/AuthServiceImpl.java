@@ -35,6 +35,7 @@ import com.pesticides.response.AuthResponse;
 import com.pesticides.response.SignupRequest;
 import com.pesticides.service.AuthService;
 import com.pesticides.service.EmailService;
+import com.pesticides.service.TokenService;
 import com.pesticides.utils.OtpUtil;
 
 import jakarta.mail.MessagingException;
@@ -53,6 +54,7 @@ public class AuthServiceImpl implements AuthService {
     private final CustomUserServiceImpl customUserService; // Assuming CustomUserServiceImpl exists
     private final SellerRepository sellerRepository;
     private final ScientistRepository scientistRepository;
+    private final TokenService tokenService;
 
     @Override
     public String createUser(SignupRequest req) throws Exception {
@@ -177,6 +179,7 @@ public class AuthServiceImpl implements AuthService {
         String roleName = authorities.isEmpty() ? null : authorities.iterator().next().getAuthority();
 
         authResponse.setRole(USER_ROLE.valueOf(roleName));
+        authResponse.setRefreshToken(tokenService.issueRefreshToken(authentication.getName(), authResponse.getRole()));
         return authResponse;
     }
 
@@ -324,4 +327,9 @@ public String generateToken(String email, USER_ROLE role) {
     return jwtProvider.generateToken(authentication);
 }
 
+    @Override
+    public String issueRefreshToken(String email, USER_ROLE role) {
+        return tokenService.issueRefreshToken(email, role);
+    }
+
 }
@@ -0,0 +1,164 @@
+package com.pesticides.service.impl;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.pesticides.domain.AccountStatus;
+import com.pesticides.dto.ScientistDirectoryEntry;
+import com.pesticides.exception.CustomException;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.Scientist;
+import com.pesticides.repository.ChatRepository;
+import com.pesticides.repository.ScientistRepository;
+import com.pesticides.service.ChatRoutingService;
+import com.pesticides.service.ScientistReportService;
+import com.pesticides.utils.ScientistLoadIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routing over a {@link ScientistLoadIndex}. The counts are per node: with several nodes each
+ * one routes on its own view, and the periodic resync from the chat table pulls them back
+ * together. The same counts keep {@code ScientistReport.totalActiveChats} current, written
+ * through {@link ScientistReportService} for the scientists whose count changed since the last
+ * flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatRoutingServiceImpl implements ChatRoutingService {
+
+    private final ScientistRepository scientistRepository;
+    private final ChatRepository chatRepository;
+    private final ScientistReportService scientistReportService;
+    private final MeterRegistry meterRegistry;
+
+    private final ScientistLoadIndex index = new ScientistLoadIndex();
+    // scientists whose count the report does not show yet
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // a scientist at this many open chats gets no new ones until some close
+    @Value("${chat.routing.max-open-chats:25}")
+    private int maxOpenChats;
+
+    @Override
+    public Long assign(String specialization) {
+        long scientistId = index.assign(specialization, maxOpenChats);
+        if (scientistId == -1) {
+            meterRegistry.counter("chat.routing.assignments", "outcome", "none").increment();
+            throw new CustomException(specialization == null ? "No scientist is available right now."
+                    : "No scientist is available for " + specialization + ".");
+        }
+        if (scientistId == -2) {
+            meterRegistry.counter("chat.routing.assignments", "outcome", "busy").increment();
+            throw new ServiceBusyException("All scientists are busy, please try again later.");
+        }
+        meterRegistry.counter("chat.routing.assignments", "outcome", "assigned").increment();
+        dirty.add(scientistId);
+        return scientistId;
+    }
+
+    @Override
+    public void checkCapacity(Long scientistId) {
+        if (index.load(scientistId) >= maxOpenChats) {
+            meterRegistry.counter("chat.routing.assignments", "outcome", "busy").increment();
+            throw new ServiceBusyException("This scientist is busy, please try again later.");
+        }
+    }
+
+    @Override
+    public void chatOpened(Long scientistId) {
+        index.adjust(scientistId, 1);
+        dirty.add(scientistId);
+    }
+
+    @Override
+    public void chatClosed(Long scientistId) {
+        index.adjust(scientistId, -1);
+        dirty.add(scientistId);
+    }
+
+    @Override
+    public int openChats(Long scientistId) {
+        return index.load(scientistId);
+    }
+
+    @Override
+    public void refreshScientist(Scientist scientist) {
+        index.put(scientist.getId(), scientist.getSpecialization(), isRoutable(scientist.getAccountStatus(),
+                scientist.getAvailable() == null || scientist.getAvailable()));
+        registerGauge(scientist.getId());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${chat.routing.resync-interval-ms:300000}",
+            initialDelayString = "${chat.routing.resync-interval-ms:300000}")
+    public void resync() {
+        Set<Long> known = index.scientistIds();
+        for (ScientistDirectoryEntry scientist : scientistRepository
+                .searchDirectory(AccountStatus.LISTED, null, null, false, Pageable.unpaged()).getContent()) {
+            index.put(scientist.id(), scientist.specialization(), scientist.available());
+            registerGauge(scientist.id());
+            known.remove(scientist.id());
+        }
+        // anyone left is no longer listed, but may still have open chats
+        for (Long scientistId : known) {
+            index.put(scientistId, null, false);
+        }
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : chatRepository.countOpenPerScientist()) {
+            counts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        Map<Long, Integer> before = index.loads();
+        index.resetLoads(counts);
+        for (Long scientistId : before.keySet()) {
+            if (!before.get(scientistId).equals(counts.get(scientistId))) dirty.add(scientistId);
+        }
+        for (Long scientistId : counts.keySet()) {
+            if (!counts.get(scientistId).equals(before.get(scientistId))) dirty.add(scientistId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.routing.report-flush-ms:10000}")
+    public void flushReports() {
+        Map<Long, Long> active = new HashMap<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext();) {
+            Long scientistId = it.next();
+            it.remove();
+            active.put(scientistId, (long) index.load(scientistId));
+        }
+        if (active.isEmpty()) return;
+        try {
+            scientistReportService.setActiveChats(active);
+        } catch (RuntimeException e) {
+            dirty.addAll(active.keySet());
+            log.warn("Could not update the active chats of {} scientists: {}", active.size(), e.getMessage());
+        }
+    }
+
+    private static boolean isRoutable(AccountStatus status, boolean available) {
+        return available && AccountStatus.LISTED.contains(status);
+    }
+
+    // registering the same name and tags again returns the existing gauge
+    private void registerGauge(long scientistId) {
+        Gauge.builder("chat.routing.open.chats", index, i -> i.load(scientistId))
+                .tag("scientist", Long.toString(scientistId))
+                .register(meterRegistry);
+    }
+}
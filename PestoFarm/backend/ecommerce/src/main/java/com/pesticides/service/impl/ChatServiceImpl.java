@@ -1,27 +1,133 @@
 package com.pesticides.service.impl;
 
+import com.pesticides.dto.ChatInboxEntry;
+import com.pesticides.domain.USER_ROLE;
 import com.pesticides.modal.Chat;
+import com.pesticides.modal.Message;
 import com.pesticides.modal.User;
 import com.pesticides.modal.Scientist;
 import com.pesticides.repository.ChatRepository;
+import com.pesticides.service.ChatRoutingService;
 import com.pesticides.service.ChatService;
+import com.pesticides.service.ScientistReportService;
+import com.pesticides.service.ScientistService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatServiceImpl implements ChatService {
 
     private final ChatRepository chatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ChatRoutingService chatRoutingService;
+    private final ScientistService scientistService;
+    private final ScientistReportService scientistReportService;
+
+    // open chats without a message for this long are closed
+    @Value("${chat.idle-close-after:14d}")
+    private Duration idleCloseAfter;
+
+    @Value("${chat.idle-close-batch-size:500}")
+    private int idleCloseBatchSize;
 
     @Override
+    @Transactional
     public Chat createChat(User user, Scientist scientist) {
+        chatRoutingService.checkCapacity(scientist.getId());
+        Chat chat = newChat(user, scientist);
+        Long scientistId = scientist.getId();
+        afterCommit(() -> chatRoutingService.chatOpened(scientistId));
+        return chat;
+    }
+
+    @Override
+    @Transactional
+    public Chat routeConsultation(User user, String specialization) throws Exception {
+        // the assignment already counts the chat; it is handed back unless a chat is opened here
+        Long scientistId = chatRoutingService.assign(specialization);
+        boolean opened = false;
+        try {
+            Chat chat = chatRepository.findByUserAndScientist(user.getId(), scientistId);
+            if (chat == null) {
+                chat = newChat(user, scientistService.findScientistById(scientistId));
+                opened = true;
+            } else if (chat.getClosedAt() != null && chatRepository.reopen(chat.getId()) == 1) {
+                chat.setClosedAt(null);
+                scientistReportService.recordCompletedChats(scientistId, -1);
+                opened = true;
+            }
+            return chat;
+        } finally {
+            if (!opened) {
+                chatRoutingService.chatClosed(scientistId);
+            } else {
+                afterRollback(() -> chatRoutingService.chatClosed(scientistId));
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean closeChat(Chat chat) {
+        if (chatRepository.close(chat.getId(), LocalDateTime.now()) == 0) return false;
+        Long scientistId = chat.getScientist().getId();
+        afterCommit(() -> chatRoutingService.chatClosed(scientistId));
+        scientistReportService.recordCompletedChats(chat.getScientist().getId(), 1);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean reopenChat(Chat chat) {
+        if (chatRepository.reopen(chat.getId()) == 0) return false;
+        chat.setClosedAt(null);
+        Long scientistId = chat.getScientist().getId();
+        afterCommit(() -> chatRoutingService.chatOpened(scientistId));
+        scientistReportService.recordCompletedChats(chat.getScientist().getId(), -1);
+        return true;
+    }
+
+    // closed one by one so that each closure moves the routing and report counts exactly once
+    @Scheduled(fixedDelayString = "${chat.idle-close-interval-ms:3600000}")
+    public int closeIdleChats() {
+        LocalDateTime idleSince = LocalDateTime.now().minus(idleCloseAfter);
+        int closed = 0;
+        List<Chat> idle;
+        do {
+            idle = chatRepository.findIdleOpen(idleSince, PageRequest.of(0, idleCloseBatchSize));
+            for (Chat chat : idle) {
+                if (transactionTemplate.execute(status -> closeChat(chat))) closed++;
+            }
+        } while (idle.size() == idleCloseBatchSize);
+        if (closed > 0) {
+            log.info("Closed {} chats idle for more than {}", closed, idleCloseAfter);
+        }
+        return closed;
+    }
+
+    private Chat newChat(User user, Scientist scientist) {
         Chat chat = new Chat();
         chat.setUser(user);
         chat.setScientist(scientist);
-        return chatRepository.save(chat);
+        Chat saved = chatRepository.save(chat);
+        scientistReportService.recordConsultation(scientist.getId());
+        return saved;
     }
 
     @Override
@@ -52,4 +158,91 @@ public class ChatServiceImpl implements ChatService {
     public Chat findChatByUserAndScientist(Long userId, Long scientistId) {
         return chatRepository.findByUserAndScientist(userId, scientistId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Inbox for a user or scientist in one query, newest activity first. The rows come straight
+     * from the chat table plus a primary-key join for the last message, never a chat's messages.
+     */
+    @Override
+    public List<ChatInboxEntry> getUserInbox(User user) {
+        return chatRepository.findUserInbox(user.getId());
+    }
+
+    @Override
+    public List<ChatInboxEntry> getScientistInbox(Scientist scientist) {
+        return chatRepository.findScientistInbox(scientist.getId());
+    }
+
+    /**
+     * Applies a saved message to its chat with one in-place update, so concurrent sends neither
+     * lose counter increments nor move the last message backwards.
+     */
+    @Override
+    @Transactional
+    public void recordMessage(Chat chat, Message message) {
+        boolean fromUser = USER_ROLE.ROLE_USER.name().equals(message.getSenderRole());
+        chatRepository.recordMessage(chat.getId(), message.getId(), message.getTimestamp(),
+                fromUser ? 0 : 1, fromUser ? 1 : 0);
+    }
+
+    @Override
+    @Transactional
+    public void recordRead(Long chatId, String readerRole, int read) {
+        if (read <= 0) return;
+        if (USER_ROLE.ROLE_USER.name().equals(readerRole)) {
+            chatRepository.decrementUserUnread(chatId, read);
+        } else {
+            chatRepository.decrementScientistUnread(chatId, read);
+        }
+    }
+
+    @Override
+    public long getUserUnreadTotal(User user) {
+        return chatRepository.sumUserUnread(user.getId());
+    }
+
+    @Override
+    public long getScientistUnreadTotal(Scientist scientist) {
+        return chatRepository.sumScientistUnread(scientist.getId());
+    }
+
+    // chats created before lastMessageId and the unread counters existed get them once; afterwards
+    // only chats without messages match the lastMessageId update
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillChatSummaries() {
+        int updated = chatRepository.backfillLastMessageIds();
+        int counted = chatRepository.backfillUserUnread() + chatRepository.backfillScientistUnread();
+        if (updated > 0 || counted > 0) {
+            log.info("Backfilled last message of {} chats and {} unread counters", updated, counted);
+        }
+    }
+
+    // the load index must never count a chat that could still roll back
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // for slots counted up front by assign, handed back if the chat they were for never commits
+    private static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.pesticides.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pesticides.dto.GeoPoint;
+import com.pesticides.dto.SellerLocation;
+import com.pesticides.exception.CustomException;
+import com.pesticides.modal.Seller;
+import com.pesticides.modal.SellerServicePin;
+import com.pesticides.repository.SellerRepository;
+import com.pesticides.repository.SellerServicePinRepository;
+import com.pesticides.request.ServiceAreaRequest;
+import com.pesticides.response.ServiceAreaResponse;
+import com.pesticides.service.DeliveryAreaService;
+import com.pesticides.utils.LocationUtil;
+import com.pesticides.utils.PostalCodeIndex;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Which sellers deliver to a buyer. A seller serves either a radius around its pickup address or,
+ * once it lists service PINs, exactly those PINs.
+ *
+ * Radius sellers come from one bounding-box query sized by the largest radius a seller may set,
+ * then each is checked against its own radius. PIN sellers come from the (pin, seller_id) index,
+ * probed with the buyer's PIN or, for a GPS-only buyer, the PIN whose centroid is nearest.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeliveryAreaServiceImpl implements DeliveryAreaService {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final SellerRepository sellerRepository;
+    private final SellerServicePinRepository sellerServicePinRepository;
+    private final PostalCodeIndex postalCodeIndex;
+
+    @Value("${delivery.default-radius-km:50}")
+    private double defaultRadiusKm;
+
+    @Value("${delivery.max-radius-km:200}")
+    private double maxRadiusKm;
+
+    @Value("${delivery.max-pin-codes:500}")
+    private int maxPinCodes;
+
+    // how far a GPS fix may be from a PIN centroid and still be taken to lie in that PIN
+    @Value("${delivery.pin-lookup-radius-km:10}")
+    private double pinLookupRadiusKm;
+
+    @Override
+    public List<Long> sellersDeliveringTo(Double latitude, Double longitude, String pinCode) {
+        int pin = PostalCodeIndex.parsePin(pinCode);
+        if (latitude == null || longitude == null) {
+            // a PIN alone still places the buyer at its centroid for radius sellers
+            GeoPoint centroid = postalCodeIndex.find(pin);
+            latitude = centroid != null ? centroid.latitude() : null;
+            longitude = centroid != null ? centroid.longitude() : null;
+        } else if (pin < 0) {
+            pin = postalCodeIndex.nearestPin(latitude, longitude, pinLookupRadiusKm);
+        }
+
+        Map<Long, Double> distances = new HashMap<>();
+        List<Long> unlocated = new ArrayList<>();
+        if (latitude != null) {
+            double lat = latitude;
+            double lon = longitude;
+            double latDelta = maxRadiusKm / KM_PER_DEGREE;
+            double lonDelta = maxRadiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+            for (SellerLocation seller : sellerRepository.findRadiusSellersWithin(lat - latDelta, lat + latDelta,
+                    lon - lonDelta, lon + lonDelta)) {
+                double distance = LocationUtil.calculateDistanceInKilometers(lat, lon, seller.latitude(),
+                        seller.longitude());
+                if (distance <= radiusOf(seller.deliveryRadiusKm())) {
+                    distances.put(seller.sellerId(), distance);
+                }
+            }
+        }
+
+        if (pin > 0) {
+            List<Long> pinSellers = sellerServicePinRepository.findSellerIdsByPin(pin);
+            if (!pinSellers.isEmpty()) {
+                for (SellerLocation seller : sellerRepository.findLocations(pinSellers)) {
+                    if (latitude != null && seller.latitude() != null && seller.longitude() != null) {
+                        distances.put(seller.sellerId(), LocationUtil.calculateDistanceInKilometers(latitude,
+                                longitude, seller.latitude(), seller.longitude()));
+                    } else {
+                        unlocated.add(seller.sellerId());
+                    }
+                }
+            }
+        }
+
+        List<Long> sellers = new ArrayList<>(distances.keySet());
+        sellers.sort(Comparator.comparing(distances::get));
+        unlocated.sort(null);
+        sellers.addAll(unlocated);
+        return sellers;
+    }
+
+    @Override
+    public ServiceAreaResponse getServiceArea(Seller seller) {
+        return toResponse(seller, sellerServicePinRepository.findPinsBySellerId(seller.getId()));
+    }
+
+    @Override
+    @Transactional
+    public ServiceAreaResponse updateServiceArea(Seller seller, ServiceAreaRequest req) {
+        Double radius = req.getRadiusKm();
+        if (radius != null && !(radius > 0 && radius <= maxRadiusKm)) {
+            throw new CustomException("Delivery radius must be more than 0 and at most " + maxRadiusKm + " km");
+        }
+
+        TreeSet<Integer> pins = new TreeSet<>();
+        if (req.getPinCodes() != null) {
+            for (String pinCode : req.getPinCodes()) {
+                int pin = PostalCodeIndex.parsePin(pinCode);
+                if (pin < 0) {
+                    throw new CustomException("Invalid PIN code: " + pinCode);
+                }
+                pins.add(pin);
+            }
+        }
+        if (pins.size() > maxPinCodes) {
+            throw new CustomException("At most " + maxPinCodes + " service PIN codes are allowed");
+        }
+
+        seller.setDeliveryRadiusKm(radius);
+        sellerRepository.save(seller);
+        sellerServicePinRepository.deleteBySellerId(seller.getId());
+        List<SellerServicePin> rows = new ArrayList<>(pins.size());
+        for (int pin : pins) {
+            rows.add(new SellerServicePin(null, seller.getId(), pin));
+        }
+        sellerServicePinRepository.saveAll(rows);
+        return toResponse(seller, new ArrayList<>(pins));
+    }
+
+    private double radiusOf(Double deliveryRadiusKm) {
+        return deliveryRadiusKm != null ? deliveryRadiusKm : defaultRadiusKm;
+    }
+
+    private ServiceAreaResponse toResponse(Seller seller, List<Integer> pins) {
+        return new ServiceAreaResponse(radiusOf(seller.getDeliveryRadiusKm()), seller.getDeliveryRadiusKm() == null,
+                pins);
+    }
+}
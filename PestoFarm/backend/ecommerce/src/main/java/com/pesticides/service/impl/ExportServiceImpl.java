@@ -0,0 +1,91 @@
+package com.pesticides.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pesticides.dto.OrderExportRow;
+import com.pesticides.dto.TransactionExportRow;
+import com.pesticides.repository.OrderRepository;
+import com.pesticides.repository.TransactionRepository;
+import com.pesticides.service.ExportService;
+import com.pesticides.utils.CsvWriter;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rows are read as DTO projections from a forward-only stream and written out one at a time.
+ * Projections are not managed entities, so the persistence context stays empty; the entity
+ * manager is still cleared every {@value #CLEAR_EVERY} rows in case a provider decides otherwise.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CLEAR_EVERY = 10_000;
+
+    private final TransactionRepository transactionRepository;
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(Long sellerId, OutputStream out) throws IOException {
+        try (Stream<TransactionExportRow> rows = sellerId == null
+                ? transactionRepository.streamExportRows()
+                : transactionRepository.streamExportRowsBySellerId(sellerId)) {
+            writeTransactions(rows, writer(out), entityManager::clear);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSellerOrders(Long sellerId, OutputStream out) throws IOException {
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRowsBySellerId(sellerId)) {
+            writeOrders(rows, writer(out), entityManager::clear);
+        }
+    }
+
+    static void writeTransactions(Stream<TransactionExportRow> rows, Writer out, Runnable clear) throws IOException {
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRow("transaction_id", "date", "order_id", "order_number", "seller_id", "seller_name",
+                "customer_id", "customer_email", "amount", "payment_status", "order_status");
+        long written = 0;
+        for (Iterator<TransactionExportRow> it = rows.iterator(); it.hasNext(); ) {
+            TransactionExportRow r = it.next();
+            csv.writeRow(r.transactionId(), r.date(), r.orderId(), r.orderNumber(), r.sellerId(), r.sellerName(),
+                    r.customerId(), r.customerEmail(), r.amount(), r.paymentStatus(), r.orderStatus());
+            if (++written % CLEAR_EVERY == 0) clear.run();
+        }
+        csv.flush();
+    }
+
+    static void writeOrders(Stream<OrderExportRow> rows, Writer out, Runnable clear) throws IOException {
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRow("order_id", "order_number", "order_date", "customer_id", "customer_email", "total_items",
+                "total_mrp_price", "total_selling_price", "order_status", "payment_status", "delivery_date");
+        long written = 0;
+        for (Iterator<OrderExportRow> it = rows.iterator(); it.hasNext(); ) {
+            OrderExportRow r = it.next();
+            csv.writeRow(r.orderId(), r.orderNumber(), r.orderDate(), r.customerId(), r.customerEmail(),
+                    r.totalItem(), r.totalMrpPrice(), r.totalSellingPrice(), r.orderStatus(), r.paymentStatus(),
+                    r.deliveryDate());
+            if (++written % CLEAR_EVERY == 0) clear.run();
+        }
+        csv.flush();
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,58 @@
+package com.pesticides.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.modal.User;
+import com.pesticides.response.PaymentLinkResponse;
+import com.pesticides.service.PaymentGateway;
+
+/**
+ * In-process stand-in for a provider, used when {@code payment.mode=fake} so load tests run
+ * offline. Every call sleeps for the configured latency and fails with the configured
+ * probability; otherwise links are created and every link reports as paid.
+ */
+public class FakePaymentGateway implements PaymentGateway {
+
+    private final PaymentMethod method;
+    private final Duration latency;
+    private final double failureRate;
+
+    public FakePaymentGateway(PaymentMethod method, Duration latency, double failureRate) {
+        this.method = method;
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) throws Exception {
+        simulateCall();
+        String id = "fake_" + method.name().toLowerCase() + "_" + orderId;
+        PaymentLinkResponse res = new PaymentLinkResponse();
+        res.setPayment_link_id(id);
+        res.setPayment_link_url("http://localhost/fake-pay/" + id);
+        return res;
+    }
+
+    @Override
+    public PaymentOrderStatus fetchPaymentLinkStatus(String paymentLinkId) throws Exception {
+        simulateCall();
+        return PaymentOrderStatus.SUCCESS;
+    }
+
+    private void simulateCall() throws Exception {
+        if (!latency.isZero()) {
+            Thread.sleep(latency.toMillis());
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated " + method + " gateway failure");
+        }
+    }
+}
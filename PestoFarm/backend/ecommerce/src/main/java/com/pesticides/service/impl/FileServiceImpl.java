@@ -1,34 +1,130 @@
 package com.pesticides.service.impl;
 
+import com.pesticides.exception.CustomException;
 import com.pesticides.service.FileService;
+import com.pesticides.service.FileStorage;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.util.UUID;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
 
+/**
+ * Stores uploaded images under content-addressed names: {@code <folder>/<sha256>.<ext>}.
+ *
+ * The request body is streamed into a staging file with {@link FileChannel#transferFrom} while
+ * the digest is computed, so memory use does not depend on the file size; the same photo uploaded
+ * twice ends up as one object and one URL. The type comes from the file's magic bytes, never from
+ * the client's filename or content type.
+ */
 @Service
+@RequiredArgsConstructor
 public class FileServiceImpl implements FileService {
 
+    private static final Set<String> FOLDERS = Set.of("chat", "reviews");
+    private static final long CHUNK = 1 << 20;
+
+    private final FileStorage fileStorage;
+    private final ThumbnailGenerator thumbnailGenerator;
+
+    @Value("${file-storage.max-upload-size:10MB}")
+    private DataSize maxUploadSize;
+
+    // uploads are served by WebMvcConfig under this prefix
+    @Value("${file-storage.public-url-prefix:/images}")
+    private String publicUrlPrefix;
+
     @Override
     public String uploadFile(MultipartFile file, String folder) throws IOException {
         if (file == null || file.isEmpty()) {
             return null;
         }
-        
-        // --- Placeholder Logic for File Upload ---
-        // In a real application, you would save the file content to persistent storage.
-        
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        // Simulating the accessible public URL
-        String imageUrl = "https://your-storage-domain.com/" + folder + "/" + uniqueFilename;
-        
-        // For production, the file saving logic would go here:
-        // Path destination = Paths.get("/path/to/storage/" + folder, uniqueFilename);
-        // Files.copy(file.getInputStream(), destination, StandardCopyOption.REPLACE_EXISTING);
-        
-        return imageUrl;
+        if (!FOLDERS.contains(folder)) {
+            throw new IllegalArgumentException("Unknown upload folder: " + folder);
+        }
+        if (file.getSize() > maxUploadSize.toBytes()) {
+            throw new CustomException("File is larger than " + maxUploadSize.toMegabytes() + " MB.");
+        }
+
+        Path staging = fileStorage.createStagingFile();
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            in.mark(16);
+            String extension = imageExtension(in.readNBytes(12));
+            in.reset();
+            if (extension == null) {
+                throw new CustomException("Only JPEG, PNG, GIF and WebP images can be uploaded.");
+            }
+
+            MessageDigest sha256 = sha256();
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(in, sha256));
+                    FileChannel target = FileChannel.open(staging, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, CHUNK)) > 0) {
+                    position += transferred;
+                    // the multipart size can be absent or wrong; the bytes on disk are what count
+                    if (position > maxUploadSize.toBytes()) {
+                        throw new CustomException("File is larger than " + maxUploadSize.toMegabytes() + " MB.");
+                    }
+                }
+            }
+
+            String key = folder + "/" + HexFormat.of().formatHex(sha256.digest()) + "." + extension;
+            fileStorage.put(key, staging);
+            thumbnailGenerator.submit(key);
+            return publicUrlPrefix + "/" + key;
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    /** The thumbnail's URL, or the original's when no thumbnail is or will be written (WebP, skipped). */
+    @Override
+    public String thumbnailUrl(String url) {
+        String prefix = publicUrlPrefix + "/";
+        if (url == null || !url.startsWith(prefix)) return url;
+        return thumbnailGenerator.hasThumbnail(url.substring(prefix.length())) ? ThumbnailGenerator.thumbnailKey(url) : url;
+    }
+
+    static String imageExtension(byte[] head) {
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) return "jpg";
+        if (startsWith(head, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return "png";
+        if (startsWith(head, 'G', 'I', 'F', '8')) return "gif";
+        if (head.length >= 12 && startsWith(head, 'R', 'I', 'F', 'F')
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "webp";
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int... prefix) {
+        if (head.length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if ((head[i] & 0xFF) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package com.pesticides.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pesticides.domain.GeocodeStatus;
+import com.pesticides.dto.GeoPoint;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.Address;
+import com.pesticides.repository.AddressRepository;
+import com.pesticides.service.GeocodeQueueService;
+import com.pesticides.service.GeocodingService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains PENDING addresses through {@link GeocodingService}, which owns the cache and the
+ * Nominatim rate limit, so the worker simply goes one address at a time.
+ *
+ * Each address is claimed with a short lease before the remote call and no transaction is held
+ * while waiting on the geocoder, so several nodes can run the worker side by side. When the
+ * geocoder is unavailable the address is retried with exponential backoff until
+ * {@code geocode.queue.max-attempts}, and the rest of the batch waits for the next run.
+ *
+ * Batches run on a dedicated worker thread: waiting for a rate-limit slot can take up to
+ * {@code geocode.max-wait} per address, which must not hold up the shared scheduler.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeocodeQueueServiceImpl implements GeocodeQueueService {
+
+    private final AddressRepository addressRepository;
+    private final GeocodingService geocodingService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${geocode.queue.batch-size:20}")
+    private int batchSize;
+
+    @Value("${geocode.queue.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${geocode.queue.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${geocode.queue.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    // how long a claimed address stays hidden from other workers
+    @Value("${geocode.queue.lease:2m}")
+    private Duration lease;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicBoolean batchRunning = new AtomicBoolean();
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "geocode-worker");
+                t.setDaemon(true);
+                return t;
+            });
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("geocode.queue.depth", depth, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("geocode.queue.lag", lagSeconds, AtomicLong::get).baseUnit("seconds").register(meterRegistry);
+    }
+
+    @Override
+    public void enqueue(Address address) {
+        LocalDateTime now = now();
+        address.setLatitude(null);
+        address.setLongitude(null);
+        address.setGeocodeStatus(GeocodeStatus.PENDING);
+        address.setGeocodeAttempts(0);
+        address.setGeocodeQueuedAt(now);
+        address.setGeocodeNextAttemptAt(now);
+    }
+
+    @PreDestroy
+    void stopWorker() {
+        worker.shutdownNow();
+    }
+
+    /** Hands the next batch to the worker thread unless one is still running. */
+    @Scheduled(fixedDelayString = "${geocode.queue.interval-ms:1000}")
+    public void scheduleBatch() {
+        if (!batchRunning.compareAndSet(false, true)) return;
+        worker.execute(() -> {
+            try {
+                processQueue();
+            } catch (Exception e) {
+                log.warn("Geocode batch failed: {}", e.getMessage());
+            } finally {
+                batchRunning.set(false);
+            }
+        });
+    }
+
+    @Override
+    public int processQueue() {
+        List<Address> due = addressRepository.findDueForGeocoding(GeocodeStatus.PENDING, now(),
+                PageRequest.of(0, batchSize));
+        int attempted = 0;
+        for (Address address : due) {
+            LocalDateTime claimedAt = now();
+            Integer claimed = transactionTemplate.execute(tx -> addressRepository.claimForGeocoding(
+                    address.getId(), GeocodeStatus.PENDING, claimedAt, claimedAt.plus(lease)));
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            attempted++;
+            if (!attempt(address)) {
+                break;
+            }
+        }
+        return attempted;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfillSellerAddresses() {
+        Integer queued = transactionTemplate.execute(tx -> addressRepository.enqueueUngeocodedSellerAddresses(
+                GeocodeStatus.PENDING, GeocodeStatus.FAILED, now()));
+        if (queued != null && queued > 0) {
+            log.info("Queued {} seller addresses without coordinates for geocoding", queued);
+        }
+        return queued == null ? 0 : queued;
+    }
+
+    @Scheduled(fixedDelayString = "${geocode.queue.stats-interval-ms:15000}")
+    public void refreshMetrics() {
+        depth.set(addressRepository.countByGeocodeStatus(GeocodeStatus.PENDING));
+        LocalDateTime oldest = addressRepository.findOldestQueuedAt(GeocodeStatus.PENDING);
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, now()).toSeconds()));
+    }
+
+    // Returns false when the geocoder could not be reached.
+    private boolean attempt(Address address) {
+        Optional<GeoPoint> point;
+        try {
+            point = geocodingService.locate(address);
+        } catch (ServiceBusyException e) {
+            int attempts = (address.getGeocodeAttempts() == null ? 0 : address.getGeocodeAttempts()) + 1;
+            boolean exhausted = attempts >= maxAttempts;
+            log.warn("Geocoding address {} failed (attempt {}): {}", address.getId(), attempts, e.getMessage());
+            record(address, exhausted ? GeocodeStatus.FAILED : GeocodeStatus.PENDING, null,
+                    exhausted ? null : now().plus(backoff(attempts)));
+            return false;
+        }
+        record(address, point.isPresent() ? GeocodeStatus.RESOLVED : GeocodeStatus.NOT_FOUND, point.orElse(null), null);
+        return true;
+    }
+
+    private void record(Address address, GeocodeStatus status, GeoPoint point, LocalDateTime nextAttemptAt) {
+        transactionTemplate.executeWithoutResult(tx -> addressRepository.recordGeocodeAttempt(address.getId(),
+                address.getGeocodeQueuedAt(), status, point == null ? null : point.latitude(),
+                point == null ? null : point.longitude(), nextAttemptAt));
+        meterRegistry.counter("geocode.queue.attempts", "outcome", status.name()).increment();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // millisecond precision so the queued-at stamp compares equal after a round trip through the database
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
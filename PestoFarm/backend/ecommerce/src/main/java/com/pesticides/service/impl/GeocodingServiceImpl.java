@@ -1,28 +1,68 @@
 package com.pesticides.service.impl;
 
+import com.pesticides.dto.GeoPoint;
+import com.pesticides.exception.ServiceBusyException;
 import com.pesticides.modal.Address;
+import com.pesticides.modal.GeocodeCacheEntry;
+import com.pesticides.repository.GeocodeCacheRepository;
 import com.pesticides.service.GeocodingService;
+import com.pesticides.utils.RateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-@RestController
+/**
+ * Geocodes addresses through Nominatim, behind three layers so that a given address is looked
+ * up at most once: an in-memory LRU, the persistent {@code geocode_cache} table, and a map of
+ * in-flight lookups that concurrent callers for the same address join instead of repeating.
+ *
+ * Remote calls have connect/read timeouts and share one client-side token bucket at Nominatim's
+ * usage policy of one request per second. A caller that would wait longer than
+ * {@code geocode.max-wait} for its slot gives up; failures are not cached.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GeocodingServiceImpl implements GeocodingService {
 
-        // NOTE: In a real app, RestTemplate should be injected or used via WebClient
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final String RATE_LIMIT_ROUTE = "nominatim";
+
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
 
     @Value("${osm.nominatim.base-url}")
     private String nominatimBaseUrl;
@@ -33,58 +73,225 @@ public class GeocodingServiceImpl implements GeocodingService {
     @Value("${osm.nominatim.email}")
     private String contactEmail;
 
+    @Value("${geocode.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${geocode.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${geocode.requests-per-second:1}")
+    private int requestsPerSecond;
+
+    @Value("${geocode.max-wait:10s}")
+    private Duration maxWait;
+
+    @Value("${geocode.cache.max-entries:10000}")
+    private int maxCacheEntries;
+
+    // how long "not found" is trusted before the address is tried again
+    @Value("${geocode.negative-ttl:7d}")
+    private Duration negativeTtl;
+
+    private RestTemplate restTemplate;
+    private Map<String, Cached> lru;
+    private final ConcurrentHashMap<String, CompletableFuture<Cached>> inFlight = new ConcurrentHashMap<>();
+
+    /** A cached answer; null coordinates mean the geocoder found nothing. */
+    record Cached(Double latitude, Double longitude, LocalDateTime resolvedAt) {
+
+        boolean found() {
+            return latitude != null && longitude != null;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        restTemplate = restTemplateBuilder.connectTimeout(connectTimeout).readTimeout(readTimeout).build();
+        lru = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxCacheEntries;
+            }
+        });
+    }
+
     @Override
     public Address geocodeAddress(Address address) {
         if (address == null) return null;
 
-        // Construct the full address string for the query
-        final String fullAddress = String.format("%s, %s, %s, %s", 
-            address.getStreetAddress(), address.getCity(), address.getState(), address.getZipCode());
+        GeoPoint point = null;
+        try {
+            point = locate(address).orElse(null);
+        } catch (ServiceBusyException e) {
+            log.warn("Geocoding failed for address {}: {}", address.getId(), e.getMessage());
+        }
+        address.setLatitude(point != null ? point.latitude() : null);
+        address.setLongitude(point != null ? point.longitude() : null);
+        return address;
+    }
+
+    @Override
+    public Optional<GeoPoint> locate(Address address) {
+        String query = normalize(address);
+        if (query.isEmpty()) return Optional.empty();
+
+        Cached result = resolve(query);
+        return result.found() ? Optional.of(new GeoPoint(result.latitude(), result.longitude())) : Optional.empty();
+    }
+
+    /**
+     * Lower-cased, accent-folded address parts with punctuation collapsed, so that
+     * "12, M.G. Road , Pune" and "12 mg road, pune" share a cache entry. Missing parts are skipped.
+     */
+    static String normalize(Address address) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (String part : new String[] { address.getStreetAddress(), address.getCity(), address.getState(),
+                address.getZipCode() }) {
+            if (part == null) continue;
+            String normalized = Normalizer.normalize(part, Normalizer.Form.NFKD)
+                    .replaceAll("\\p{M}+", "")
+                    .toLowerCase(Locale.ROOT)
+                    .replaceAll("[.'’]", "")
+                    .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                    .trim();
+            if (!normalized.isEmpty()) {
+                joiner.add(normalized);
+            }
+        }
+        return joiner.toString();
+    }
+
+    private Cached resolve(String query) {
+        Cached cached = lru.get(query);
+        if (cached != null && !isStale(cached)) {
+            count("memory");
+            return cached;
+        }
+
+        CompletableFuture<Cached> mine = new CompletableFuture<>();
+        CompletableFuture<Cached> running = inFlight.putIfAbsent(query, mine);
+        if (running != null) {
+            count("coalesced");
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Cached loaded = load(query);
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(query, mine);
+        }
+    }
+
+    private Cached load(String query) {
+        String hash = sha256(query);
+        GeocodeCacheEntry row = geocodeCacheRepository.findByQueryHash(hash).orElse(null);
+        if (row != null) {
+            Cached stored = new Cached(row.getLatitude(), row.getLongitude(), row.getResolvedAt());
+            if (!isStale(stored)) {
+                count("database");
+                lru.put(query, stored);
+                return stored;
+            }
+        }
+
+        Cached fetched;
+        try {
+            fetched = fetch(query);
+        } catch (ServiceBusyException e) {
+            count("failed");
+            throw e;
+        }
+        count("remote");
+
+        if (row == null) {
+            row = new GeocodeCacheEntry(null, hash, query, null, null, null);
+        }
+        row.setLatitude(fetched.latitude());
+        row.setLongitude(fetched.longitude());
+        row.setResolvedAt(fetched.resolvedAt());
+        try {
+            geocodeCacheRepository.save(row);
+        } catch (DataIntegrityViolationException e) {
+            // another node stored the same query first; its answer is as good as ours
+        }
+        lru.put(query, fetched);
+        return fetched;
+    }
+
+    /** One Nominatim search; throws ServiceBusyException on timeout, error or when no rate-limit slot came up in time. */
+    private Cached fetch(String query) {
+        if (!acquireSlot()) {
+            throw new ServiceBusyException("Geocoder rate limit reached");
+        }
 
         // Build the URI with query parameters
-        String uri = UriComponentsBuilder.fromHttpUrl(nominatimBaseUrl)
-                .queryParam("q", fullAddress)
+        String uri = UriComponentsBuilder.fromUriString(nominatimBaseUrl)
+                .queryParam("q", query)
                 .queryParam("format", "json")
-                .queryParam("limit", 1) 
+                .queryParam("limit", 1)
+                .queryParam("countrycodes", "in")
                 .queryParam("email", contactEmail) // Required by policy
                 .toUriString();
 
         // Set the REQUIRED User-Agent header
         HttpHeaders headers = new HttpHeaders();
-        headers.set("User-Agent", userAgent); 
-        
-        HttpEntity<String> entity = new HttpEntity<>("parameters", headers);
+        headers.set("User-Agent", userAgent);
 
         try {
             // Execute the API call (Nominatim returns a JSON array)
-            ResponseEntity<List> response = restTemplate.exchange(
-                    uri, 
-                    HttpMethod.GET, 
-                    entity, 
-                    List.class
-            );
-
+            ResponseEntity<List> response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers),
+                    List.class);
             List<Map<String, Object>> results = response.getBody();
 
-            // Parse the response
             if (results != null && !results.isEmpty()) {
                 Map<String, Object> bestMatch = results.get(0);
-                
-                Double lat = Double.parseDouble((String) bestMatch.get("lat"));
-                Double lon = Double.parseDouble((String) bestMatch.get("lon"));
-                
-                address.setLatitude(lat);
-                address.setLongitude(lon);
-            } else {
-                address.setLatitude(null); 
-                address.setLongitude(null);
+                return new Cached(Double.parseDouble((String) bestMatch.get("lat")),
+                        Double.parseDouble((String) bestMatch.get("lon")), LocalDateTime.now());
             }
+            return new Cached(null, null, LocalDateTime.now());
         } catch (Exception e) {
-            System.err.println("Geocoding failed for address: " + fullAddress + ". Error: " + e.getMessage());
-            address.setLatitude(null);
-            address.setLongitude(null);
+            throw new ServiceBusyException("Geocoder unavailable: " + e.getMessage(), e);
         }
+    }
 
-        return address;
+    // Waits for this node's share of the Nominatim quota, up to maxWait.
+    private boolean acquireSlot() {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            long wait = rateLimiter.tryAcquire(RATE_LIMIT_ROUTE, RATE_LIMIT_ROUTE, requestsPerSecond, Duration.ofSeconds(1));
+            if (wait == 0) return true;
+            if (System.nanoTime() + wait > deadline) return false;
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private boolean isStale(Cached cached) {
+        return !cached.found() && cached.resolvedAt().isBefore(LocalDateTime.now().minus(negativeTtl));
+    }
+
+    private void count(String source) {
+        meterRegistry.counter("geocode.lookups", "source", source).increment();
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package com.pesticides.service.impl;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.User;
+import com.pesticides.response.PaymentLinkResponse;
+import com.pesticides.service.PaymentGateway;
+import com.pesticides.utils.CircuitBreaker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs every call to one provider on its own bounded pool (the bulkhead) with a deadline, behind
+ * a circuit breaker. Only timeouts and provider-side errors count as breaker failures; a request
+ * the provider rejects as invalid does not. A provider that hangs can tie up at most its own pool; request threads wait
+ * no longer than the timeout and, once the breaker opens, fail fast with 503 instead of waiting.
+ *
+ * Latency goes to {@code payment.gateway.duration{provider,op,outcome}} as a histogram.
+ */
+public class GuardedPaymentGateway implements PaymentGateway, DisposableBean {
+
+    private final PaymentGateway delegate;
+    private final CircuitBreaker breaker;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final MeterRegistry registry;
+    private final String provider;
+
+    public GuardedPaymentGateway(PaymentGateway delegate, CircuitBreaker breaker, int maxConcurrentCalls,
+            int maxQueuedCalls, Duration timeout, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.timeoutNanos = timeout.toNanos();
+        this.registry = registry;
+        this.provider = delegate.getMethod().name().toLowerCase(Locale.ROOT);
+
+        BlockingQueue<Runnable> queue = maxQueuedCalls > 0
+                ? new ArrayBlockingQueue<>(maxQueuedCalls)
+                : new SynchronousQueue<>();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 0L, TimeUnit.MILLISECONDS,
+                queue,
+                r -> {
+                    Thread t = new Thread(r, "payment-" + provider + "-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("payment.gateway.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("provider", provider).register(registry);
+        Gauge.builder("payment.gateway.bulkhead.queued", executor, e -> e.getQueue().size())
+                .tag("provider", provider).register(registry);
+        Gauge.builder("payment.gateway.circuit.state", breaker, b -> b.getState().ordinal())
+                .tag("provider", provider).register(registry);
+    }
+
+    @Override
+    public PaymentMethod getMethod() {
+        return delegate.getMethod();
+    }
+
+    @Override
+    public boolean isClientError(Exception e) {
+        return delegate.isClientError(e);
+    }
+
+    @Override
+    public PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) throws Exception {
+        return call("create_link", () -> delegate.createPaymentLink(user, amount, orderId));
+    }
+
+    @Override
+    public PaymentOrderStatus fetchPaymentLinkStatus(String paymentLinkId) throws Exception {
+        return call("fetch_link", () -> delegate.fetchPaymentLinkStatus(paymentLinkId));
+    }
+
+    private <T> T call(String op, Callable<T> work) throws Exception {
+        long start = System.nanoTime();
+        if (!breaker.tryAcquire()) {
+            record(op, "short_circuited", start);
+            throw new ServiceBusyException("Payment provider " + provider + " is temporarily unavailable. Please try again shortly.");
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            breaker.onIgnored();
+            record(op, "rejected", start);
+            throw new ServiceBusyException("Too many payments in progress. Please try again shortly.");
+        }
+
+        try {
+            T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            breaker.onSuccess();
+            record(op, "success", start);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            breaker.onFailure();
+            record(op, "timeout", start);
+            throw new ServiceBusyException("Payment provider " + provider + " did not respond in time.", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            breaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Payment call was interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex && delegate.isClientError(ex)) {
+                // the provider answered; only the request was wrong
+                breaker.onSuccess();
+                record(op, "client_error", start);
+                throw ex;
+            }
+            breaker.onFailure();
+            record(op, "error", start);
+            if (cause instanceof Exception ex) {
+                throw ex;
+            }
+            throw new IllegalStateException("Payment call failed", cause);
+        }
+    }
+
+    private void record(String op, String outcome, long start) {
+        Timer.builder("payment.gateway.duration")
+                .tag("provider", provider)
+                .tag("op", op)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
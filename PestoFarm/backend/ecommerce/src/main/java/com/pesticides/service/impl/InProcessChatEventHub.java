@@ -0,0 +1,283 @@
+package com.pesticides.service.impl;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.Message;
+import com.pesticides.service.ChatEventHub;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ChatEventHub} for a single node.
+ *
+ * Every subscriber owns a bounded queue and is drained by at most one task at a time on a small
+ * delivery pool, so publish() only does a non-blocking offer per subscriber. A subscriber whose
+ * queue is full is evicted rather than allowed to hold memory or stall the others; its client
+ * reconnects and catches up from its watermark.
+ *
+ * A send can still block on a client that stopped reading. Once a send has run longer than the
+ * send timeout the subscriber is abandoned: it is evicted, its thread is interrupted, and the pool
+ * gets a spare thread until the stuck one returns, so a few stalled clients cannot stop delivery
+ * for every other chat. Sinks are only ever closed from the delivery side, because closing an
+ * SSE emitter waits for the send that holds its write lock.
+ */
+@Slf4j
+public class InProcessChatEventHub implements ChatEventHub, DisposableBean {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // subscribers with a drain running, including evicted ones still stuck in a send
+    private final Set<Subscriber> delivering = ConcurrentHashMap.newKeySet();
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor executor;
+    private final Counter evicted;
+    private final Counter abandoned;
+
+    public InProcessChatEventHub(int deliveryThreads, int queueCapacity, int maxSubscribers, long sendTimeoutMs,
+            MeterRegistry registry) {
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        // one pending drain task per subscriber at most, so the work queue is bounded by maxSubscribers
+        this.executor = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "chat-push-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        this.evicted = Counter.builder("chat.push.evicted").register(registry);
+        this.abandoned = Counter.builder("chat.push.abandoned").register(registry);
+        Gauge.builder("chat.push.subscribers", subscriberCount, AtomicInteger::get).register(registry);
+        Gauge.builder("chat.push.pending", executor, e -> e.getQueue().size()).register(registry);
+    }
+
+    @Override
+    public Subscription subscribe(Long chatId, MessageSink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many open chat streams, retry shortly.");
+        }
+        Subscriber subscriber = new Subscriber(chatId, sink);
+        subscribers.computeIfAbsent(chatId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return subscriber;
+    }
+
+    @Override
+    public void publish(Message message) {
+        Set<Subscriber> chatSubscribers = subscribers.get(message.getChat().getId());
+        if (chatSubscribers == null) return;
+        for (Subscriber subscriber : chatSubscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    /** Marks every subscriber for a heartbeat; slow ones are evicted by the same path as messages. */
+    @Scheduled(fixedDelayString = "${chat.push.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        for (Set<Subscriber> chatSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : chatSubscribers) {
+                subscriber.heartbeatDue.set(true);
+                subscriber.schedule();
+            }
+        }
+    }
+
+    /** Abandons subscribers whose current send or heartbeat has outlived the send timeout. */
+    @Scheduled(fixedDelayString = "${chat.push.stall-check-interval-ms:1000}")
+    public void abandonStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : delivering) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                subscriber.abandon(started);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    int getDeliveryThreads() {
+        return executor.getCorePoolSize();
+    }
+
+    // a stuck thread keeps its pool slot, so lend the pool another one until it comes back
+    private synchronized void addSpareThread() {
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+        executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+    }
+
+    private synchronized void releaseSpareThread() {
+        executor.setCorePoolSize(executor.getCorePoolSize() - 1);
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() - 1);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) return;
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.chatId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber implements Subscription {
+        final Long chatId;
+        final MessageSink sink;
+        final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        // guarded by this subscriber's monitor, together with the end of a drain
+        boolean holdsSpare;
+        // set by drop(); the delivery side closes the sink, since a close waits for a send in progress
+        final AtomicReference<Boolean> pendingClose = new AtomicReference<>();
+        volatile long sendStartedAt;
+        volatile Thread deliveryThread;
+
+        Subscriber(Long chatId, MessageSink sink) {
+            this.chatId = chatId;
+            this.sink = sink;
+        }
+
+        void offer(Message message) {
+            if (closed.get()) return;
+            if (!queue.offer(message)) {
+                evicted.increment();
+                log.info("Evicting slow chat subscriber on chat {}", chatId);
+                drop(true);
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) return;
+            submit();
+        }
+
+        private void submit() {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                scheduled.set(false);
+                remove(this);
+                pendingClose.compareAndSet(null, false);
+                closeIfPending();
+            }
+        }
+
+        void drain() {
+            deliveryThread = Thread.currentThread();
+            delivering.add(this);
+            try {
+                while (!closed.get()) {
+                    if (heartbeatDue.getAndSet(false)) {
+                        sendStartedAt = System.nanoTime();
+                        sink.heartbeat();
+                        sendStartedAt = 0;
+                    }
+                    Message message = queue.poll();
+                    if (message == null) break;
+                    sendStartedAt = System.nanoTime();
+                    sink.send(message);
+                    sendStartedAt = 0;
+                }
+            } catch (Exception e) {
+                // the client went away; nothing to tell it
+                log.debug("Chat subscriber on chat {} failed: {}", chatId, e.getMessage());
+                remove(this);
+            } finally {
+                synchronized (this) {
+                    sendStartedAt = 0;
+                    delivering.remove(this);
+                    deliveryThread = null;
+                    if (holdsSpare) {
+                        holdsSpare = false;
+                        releaseSpareThread();
+                    }
+                }
+                // an interrupt from abandon() must not leak into the next task on this thread
+                Thread.interrupted();
+                scheduled.set(false);
+            }
+            if (closeIfPending()) return;
+            // an offer may have landed between the last poll and clearing the flag
+            if (!queue.isEmpty() || heartbeatDue.get()) {
+                schedule();
+            }
+        }
+
+        void drop(boolean slow) {
+            remove(this);
+            queue.clear();
+            pendingClose.compareAndSet(null, slow);
+            // idle: close on the pool; mid-send: the running drain closes once the send returns
+            if (scheduled.compareAndSet(false, true)) {
+                submit();
+            }
+        }
+
+        void abandon(long stalledSendStartedAt) {
+            synchronized (this) {
+                // the send may have returned since it was seen, or already been abandoned
+                if (holdsSpare || deliveryThread == null || sendStartedAt != stalledSendStartedAt) return;
+                holdsSpare = true;
+                addSpareThread();
+                // best effort; a blocking socket write may only return at the container's write timeout
+                deliveryThread.interrupt();
+            }
+            abandoned.increment();
+            log.info("Abandoning stalled chat subscriber on chat {}", chatId);
+            drop(true);
+        }
+
+        private boolean closeIfPending() {
+            Boolean slow = pendingClose.getAndSet(null);
+            if (slow == null) return false;
+            try {
+                sink.close(slow);
+            } catch (Exception e) {
+                log.debug("Closing chat subscriber on chat {} failed: {}", chatId, e.getMessage());
+            }
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            remove(this);
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.pesticides.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.pesticides.exception.CustomException;
+import com.pesticides.service.FileStorage;
+
+/**
+ * {@link FileStorage} on the local filesystem under one root directory, served back by the
+ * {@code /images/**} resource handlers. Uploads are staged inside the root so the final rename is
+ * an atomic move on the same filesystem; a concurrent upload of the same content loses the race
+ * harmlessly.
+ */
+public class LocalDiskFileStorage implements FileStorage {
+
+    private final Path root;
+    private final Path staging;
+
+    public LocalDiskFileStorage(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.staging = this.root.resolve(".staging");
+        Files.createDirectories(staging);
+    }
+
+    @Override
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile(staging, "upload-", ".part");
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void put(String key, Path stagingFile) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(stagingFile);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(stagingFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(stagingFile);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(stagingFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.startsWith(staging)) {
+            throw new CustomException("Invalid file key: " + key);
+        }
+        return path;
+    }
+}
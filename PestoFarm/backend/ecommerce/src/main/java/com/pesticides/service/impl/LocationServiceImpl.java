@@ -1,30 +1,139 @@
 package com.pesticides.service.impl;
 
+import com.pesticides.dto.LocationHistoryPoint;
 import com.pesticides.modal.User;
-import com.pesticides.modal.UserLocation;
+import com.pesticides.modal.UserCurrentLocation;
 import com.pesticides.modal.UserLocationPreference;
+import com.pesticides.repository.UserCurrentLocationRepository;
 import com.pesticides.repository.UserLocationRepository;
 import com.pesticides.repository.UserLocationPreferenceRepository;
+import com.pesticides.request.LocationPingRequest;
+import com.pesticides.response.LocationBatchResponse;
 import com.pesticides.service.LocationService;
+import com.pesticides.utils.LocationUtil;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * Location pings update one row per user ({@link UserCurrentLocation}) in place, so reading a
+ * user's position is a primary-key lookup. A ping within {@code location.dedup-distance-meters}
+ * of the current position and less than {@code location.dedup-interval} after it is dropped.
+ *
+ * Accepted pings are also buffered in memory and written to the {@code user_locations} history
+ * as JDBC batches every couple of seconds; points still buffered when the process dies are lost,
+ * the current position is not. A nightly job thins old history to one point per user and bucket
+ * and deletes what is past retention.
+ *
+ * Batches from {@link #saveLocations} skip the buffer: their points are deduplicated against
+ * each other by client time and inserted in one JDBC batch within the request.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class LocationServiceImpl implements LocationService {
 
+    // how far ahead of the server clock a batched point's timestamp may be
+    private static final long MAX_CLOCK_SKEW_MS = 5 * 60 * 1000;
+
+    private static final String INSERT_CURRENT = "INSERT INTO user_current_locations "
+            + "(user_id, latitude, longitude, timestamp, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_HISTORY = "INSERT INTO user_locations "
+            + "(user_id, latitude, longitude, timestamp, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
     private final UserLocationRepository userLocationRepository;
+    private final UserCurrentLocationRepository currentLocationRepository;
     private final UserLocationPreferenceRepository preferenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${location.dedup-distance-meters:25}")
+    private double dedupDistanceMeters;
+
+    @Value("${location.dedup-interval:60s}")
+    private Duration dedupInterval;
+
+    @Value("${location.batch.max-points:500}")
+    private int maxBatchPoints;
+
+    @Value("${location.history.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${location.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${location.history.retention:90d}")
+    private Duration retention;
+
+    @Value("${location.history.downsample-after:7d}")
+    private Duration downsampleAfter;
+
+    @Value("${location.history.downsample-bucket:1h}")
+    private Duration downsampleBucket;
+
+    // each run thins this much history ending downsample-after ago; runs overlap, so a missed night is caught up
+    @Value("${location.history.downsample-window:3d}")
+    private Duration downsampleWindow;
+
+    private BlockingQueue<HistoryPoint> buffer;
+
+    private record HistoryPoint(long userId, double latitude, double longitude, Long timestamp,
+            LocalDateTime recordedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        Gauge.builder("location.history.buffered", buffer, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Gives users who only have history a current location, so lookups need not fall back to it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCurrentLocations() {
+        Integer seeded = transactionTemplate.execute(tx -> currentLocationRepository.backfillFromHistory());
+        if (seeded != null && seeded > 0) {
+            log.info("Seeded the current location of {} users from their location history", seeded);
+        }
+    }
 
     /**
      * Save user's current location to database
      */
     @Override
-    public UserLocation saveLocation(User user, Double latitude, Double longitude, Long timestamp) throws Exception {
+    public UserCurrentLocation saveLocation(User user, Double latitude, Double longitude, Long timestamp) throws Exception {
         if (user == null) {
             throw new Exception("User not found");
         }
@@ -33,30 +142,261 @@ public class LocationServiceImpl implements LocationService {
             throw new Exception("Latitude and longitude are required");
         }
 
-        // Validate coordinates (rough bounds for Earth)
-        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+        if (!isValidCoordinate(latitude, longitude)) {
             throw new Exception("Invalid latitude or longitude values");
         }
 
-        UserLocation location = new UserLocation(user, latitude, longitude, timestamp);
-        return userLocationRepository.save(location);
+        LocalDateTime now = LocalDateTime.now();
+        UserCurrentLocation current = currentLocationRepository.findById(user.getId()).orElse(null);
+        if (current != null) {
+            // a retried or delayed ping older than what we have
+            if (timestamp != null && current.getTimestamp() != null && timestamp < current.getTimestamp()) {
+                countPing("stale");
+                return current;
+            }
+            if (Duration.between(current.getUpdatedAt(), now).compareTo(dedupInterval) < 0
+                    && isNear(current.getLatitude(), current.getLongitude(), latitude, longitude)) {
+                countPing("deduplicated");
+                return current;
+            }
+        }
+
+        UserCurrentLocation next = saveIfNewer(new UserCurrentLocation(user.getId(), latitude, longitude, timestamp, now));
+        if (!buffer.offer(new HistoryPoint(user.getId(), latitude, longitude, timestamp, now))) {
+            meterRegistry.counter("location.history.dropped").increment();
+        }
+        countPing("accepted");
+        return next;
+    }
+
+    @Override
+    public LocationBatchResponse saveLocations(User user, List<LocationPingRequest> points) throws Exception {
+        if (user == null) {
+            throw new Exception("User not found");
+        }
+        if (points == null || points.isEmpty()) {
+            throw new Exception("At least one location point is required");
+        }
+        if (points.size() > maxBatchPoints) {
+            throw new Exception("At most " + maxBatchPoints + " location points can be sent at once");
+        }
+
+        long now = System.currentTimeMillis();
+        long oldest = now - retention.toMillis();
+        List<LocationPingRequest> valid = new ArrayList<>(points.size());
+        for (LocationPingRequest point : points) {
+            if (point != null && point.getLatitude() != null && point.getLongitude() != null
+                    && isValidCoordinate(point.getLatitude(), point.getLongitude())
+                    && point.getTimestamp() != null && point.getTimestamp() >= oldest
+                    && point.getTimestamp() <= now + MAX_CLOCK_SKEW_MS) {
+                valid.add(point);
+            }
+        }
+        int rejected = points.size() - valid.size();
+        valid.sort(Comparator.comparing(LocationPingRequest::getTimestamp));
+
+        // each point is compared with the last one kept, starting from the stored location
+        UserCurrentLocation current = currentLocationRepository.findById(user.getId()).orElse(null);
+        Double lastLatitude = current == null ? null : current.getLatitude();
+        Double lastLongitude = current == null ? null : current.getLongitude();
+        Long lastTimestamp = current == null ? null : current.getTimestamp();
+        List<HistoryPoint> kept = new ArrayList<>(valid.size());
+        for (LocationPingRequest point : valid) {
+            if (lastTimestamp != null && Math.abs(point.getTimestamp() - lastTimestamp) < dedupInterval.toMillis()
+                    && isNear(lastLatitude, lastLongitude, point.getLatitude(), point.getLongitude())) {
+                continue;
+            }
+            kept.add(new HistoryPoint(user.getId(), point.getLatitude(), point.getLongitude(), point.getTimestamp(),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.min(point.getTimestamp(), now)),
+                            ZoneId.systemDefault())));
+            lastLatitude = point.getLatitude();
+            lastLongitude = point.getLongitude();
+            lastTimestamp = point.getTimestamp();
+        }
+
+        if (!kept.isEmpty()) {
+            transactionTemplate.executeWithoutResult(tx -> insertHistory(kept));
+            HistoryPoint newest = kept.get(kept.size() - 1);
+            if (current == null || current.getTimestamp() == null || newest.timestamp() > current.getTimestamp()) {
+                current = saveIfNewer(new UserCurrentLocation(user.getId(), newest.latitude(), newest.longitude(),
+                        newest.timestamp(), LocalDateTime.now()));
+            }
+        }
+
+        int deduplicated = valid.size() - kept.size();
+        meterRegistry.counter("location.pings", "outcome", "accepted").increment(kept.size());
+        meterRegistry.counter("location.pings", "outcome", "deduplicated").increment(deduplicated);
+        meterRegistry.counter("location.pings", "outcome", "rejected").increment(rejected);
+        return new LocationBatchResponse(kept.size(), deduplicated, rejected, current);
     }
 
     /**
      * Get user's most recent location from database
      */
     @Override
-    public Optional<UserLocation> getLatestLocation(User user) throws Exception {
+    public Optional<UserCurrentLocation> getLatestLocation(User user) throws Exception {
         if (user == null) {
             throw new Exception("User not found");
         }
-        return userLocationRepository.findFirstByUserOrderByCreatedAtDesc(user);
+        return currentLocationRepository.findById(user.getId());
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${location.history.flush-interval-ms:2000}")
+    public synchronized int flushHistory() {
+        int written = 0;
+        List<HistoryPoint> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> insertHistory(batch));
+            } catch (RuntimeException e) {
+                log.warn("Writing {} location history points failed, retrying on the next run: {}", batch.size(),
+                        e.getMessage());
+                for (HistoryPoint point : batch) {
+                    if (!buffer.offer(point)) {
+                        meterRegistry.counter("location.history.dropped").increment();
+                    }
+                }
+                return written;
+            }
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    @Override
+    @Scheduled(cron = "${location.history.maintenance-cron:0 30 3 * * *}")
+    public int maintainHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime downsampleUntil = now.minus(downsampleAfter);
+        int thinned = downsample(downsampleUntil.minus(downsampleWindow), downsampleUntil);
+        int expired = expire(now.minus(retention));
+        if (thinned + expired > 0) {
+            log.info("Location history maintenance removed {} downsampled and {} expired points", thinned, expired);
+        }
+        return thinned + expired;
+    }
+
+    // Keeps the first point of every user and bucket in [from, to), both rounded down to a bucket boundary
+    private int downsample(LocalDateTime from, LocalDateTime to) {
+        long bucketSeconds = Math.max(1, downsampleBucket.toSeconds());
+        from = bucketStart(from, bucketSeconds);
+        to = bucketStart(to, bucketSeconds);
+
+        int deleted = 0;
+        for (Long userId : userLocationRepository.findUserIdsWithHistoryBetween(from, to)) {
+            List<Long> extra = new ArrayList<>();
+            long lastBucket = Long.MIN_VALUE;
+            for (LocationHistoryPoint point : userLocationRepository.findHistoryPoints(userId, from, to)) {
+                long bucket = Math.floorDiv(point.createdAt().toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+                if (bucket == lastBucket) {
+                    extra.add(point.id());
+                } else {
+                    lastBucket = bucket;
+                }
+            }
+            deleted += delete(extra);
+        }
+        return deleted;
+    }
+
+    private int expire(LocalDateTime cutoff) {
+        int deleted = 0;
+        List<Long> ids;
+        while (!(ids = userLocationRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize))).isEmpty()) {
+            deleted += delete(ids);
+        }
+        return deleted;
+    }
+
+    // one short transaction per chunk, so maintenance never holds locks on much of the table
+    private int delete(List<Long> ids) {
+        int deleted = 0;
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + batchSize));
+            Integer count = transactionTemplate.execute(tx -> userLocationRepository.deleteByIdIn(chunk));
+            deleted += count == null ? 0 : count;
+        }
+        return deleted;
+    }
+
+    private void insertHistory(List<HistoryPoint> points) {
+        jdbcTemplate.batchUpdate(INSERT_HISTORY, points, points.size(), (ps, point) -> {
+            ps.setLong(1, point.userId());
+            ps.setDouble(2, point.latitude());
+            ps.setDouble(3, point.longitude());
+            ps.setObject(4, point.timestamp(), Types.BIGINT);
+            ps.setTimestamp(5, Timestamp.valueOf(point.recordedAt()));
+            ps.setTimestamp(6, Timestamp.valueOf(point.recordedAt()));
+        });
+    }
+
+    /**
+     * Stores the point as the user's current location unless a newer one is stored by now: the
+     * check and the write are one conditional UPDATE, so a single ping and a batch racing for the
+     * same user cannot leave the older of the two behind. Returns the row as stored.
+     */
+    private UserCurrentLocation saveIfNewer(UserCurrentLocation location) {
+        if (location.getTimestamp() == null) {
+            return saveCurrent(location);
+        }
+        if (updateIfNewer(location) > 0) {
+            return location;
+        }
+        try {
+            // the user's first point; a plain insert fails instead of overwriting a row created meanwhile
+            jdbcTemplate.update(INSERT_CURRENT, location.getUserId(), location.getLatitude(),
+                    location.getLongitude(), location.getTimestamp(), Timestamp.valueOf(location.getUpdatedAt()));
+            return location;
+        } catch (DataIntegrityViolationException e) {
+            if (updateIfNewer(location) > 0) {
+                return location;
+            }
+        }
+        return currentLocationRepository.findById(location.getUserId()).orElse(location);
+    }
+
+    private int updateIfNewer(UserCurrentLocation location) {
+        Integer updated = transactionTemplate.execute(tx -> currentLocationRepository.updateIfNewer(
+                location.getUserId(), location.getLatitude(), location.getLongitude(), location.getTimestamp(),
+                location.getUpdatedAt()));
+        return updated == null ? 0 : updated;
+    }
+
+    private UserCurrentLocation saveCurrent(UserCurrentLocation location) {
+        try {
+            return currentLocationRepository.save(location);
+        } catch (DataIntegrityViolationException e) {
+            // the user's first pings raced and the row exists now, so this save updates it
+            return currentLocationRepository.save(location);
+        }
+    }
+
+    private boolean isNear(double lat1, double lon1, double lat2, double lon2) {
+        return LocationUtil.calculateDistanceInKilometers(lat1, lon1, lat2, lon2) * 1000 < dedupDistanceMeters;
+    }
+
+    // rough bounds for Earth
+    private static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private void countPing(String outcome) {
+        meterRegistry.counter("location.pings", "outcome", outcome).increment();
+    }
+
+    private static LocalDateTime bucketStart(LocalDateTime time, long bucketSeconds) {
+        long epoch = time.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epoch, bucketSeconds) * bucketSeconds, 0, ZoneOffset.UTC);
     }
 
     /**
      * Save or update user's location permission preference
      */
     @Override
+    @Transactional
     public UserLocationPreference saveLocationPreference(User user, String choice) throws Exception {
         if (user == null) {
             throw new Exception("User not found");
@@ -1,28 +1,47 @@
 package com.pesticides.service.impl;
 
+import com.pesticides.domain.USER_ROLE;
+import com.pesticides.dto.ChatMessagesDelta;
+import com.pesticides.dto.ChatReadResult;
+import com.pesticides.exception.CustomException;
 import com.pesticides.modal.Chat;
 import com.pesticides.modal.Message;
 import com.pesticides.modal.User;
 import com.pesticides.modal.Scientist;
 import com.pesticides.repository.MessageRepository;
 import com.pesticides.request.SendMessageRequest;
+import com.pesticides.service.ChatEventHub;
 import com.pesticides.service.ChatService;
 import com.pesticides.service.MessageService;
+import com.pesticides.service.ScientistReportService;
 import com.pesticides.service.UserService;
 import com.pesticides.service.ScientistService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class MessageServiceImpl implements MessageService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_DELTA_SIZE = 200;
+
     private final MessageRepository messageRepository;
     private final ChatService chatService;
     private final UserService userService;
     private final ScientistService scientistService;
+    private final ChatEventHub chatEventHub;
+    private final ScientistReportService scientistReportService;
 
     /**
      * Handles sending a message, which may include text content, an image URL, or both.
@@ -34,6 +53,7 @@ public class MessageServiceImpl implements MessageService {
      * @throws Exception if sender is not authenticated, chat is not found, or sender is not a participant.
      */
     @Override
+    @Transactional
     public Message sendMessage(SendMessageRequest req, String imageUrl, String jwt) throws Exception { 
         
         Long senderId;
@@ -82,23 +102,95 @@ public class MessageServiceImpl implements MessageService {
         message.setTimestamp(LocalDateTime.now());
         message.setIsRead(false);
 
-        // Update Chat's last activity timestamp and save the chat
-        chat.setUpdatedAt(LocalDateTime.now());
-        chatService.save(chat);
+        Message saved = messageRepository.save(message);
+
+        // Update Chat's last activity, newest message and the recipient's unread counter
+        chatService.recordMessage(chat, saved);
+        scientistReportService.recordMessage(chat.getScientist().getId());
 
-        return messageRepository.save(message);
+        // subscribers must never see a message that could still roll back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    chatEventHub.publish(saved);
+                }
+            });
+        } else {
+            chatEventHub.publish(saved);
+        }
+        return saved;
     }
 
     /**
-     * Retrieves all messages for a specific chat, ordered chronologically.
+     * Retrieves one page of a chat's history in chronological order.
+     * With no cursor this is the latest {@code limit} messages; {@code before} pages back from
+     * that message and {@code after} pages forward from it. Both cursors are message ids of this chat.
      * * @param chatId The ID of the chat thread.
-     * @return A list of Message objects.
+     * @return A list of Message objects, oldest first.
      * @throws Exception if the chat is not found.
      */
     @Override
-    public List<Message> getChatMessages(Long chatId) throws Exception {
+    public List<Message> getChatMessages(Long chatId, Long before, Long after, int limit) throws Exception {
+        if (before != null && after != null) {
+            throw new CustomException("Use either before or after, not both.");
+        }
         // Ensures the chat exists before attempting to retrieve messages
         chatService.findChatById(chatId); 
-        return messageRepository.findByChatIdOrderByTimestampAsc(chatId);
+        return load(chatId, before, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Delta sync for polling clients: everything after the watermark message, capped at
+     * {@link #MAX_DELTA_SIZE}. Without a watermark it returns the latest page to start from.
+     */
+    @Override
+    public ChatMessagesDelta getMessagesSince(Long chatId, Long since) throws Exception {
+        chatService.findChatById(chatId); 
+        List<Message> messages = since == null
+                ? load(chatId, null, null, DEFAULT_PAGE_SIZE)
+                : load(chatId, null, since, MAX_DELTA_SIZE + 1);
+        boolean hasMore = since != null && messages.size() > MAX_DELTA_SIZE;
+        if (hasMore) {
+            messages = messages.subList(0, MAX_DELTA_SIZE);
+        }
+        Long watermark = messages.isEmpty() ? since : messages.get(messages.size() - 1).getId();
+        return new ChatMessagesDelta(messages, watermark, hasMore);
+    }
+
+    /**
+     * Marks every message of the other participant up to and including {@code upTo} read with one
+     * UPDATE, and takes exactly the number of rows it changed off the reader's unread counter.
+     * Re-sending the same receipt changes nothing.
+     */
+    @Override
+    @Transactional
+    public ChatReadResult markRead(Long chatId, Long upTo, String readerRole) throws Exception {
+        int marked = messageRepository.markRead(chatId, findCursor(chatId, upTo).getId(), readerRole);
+        chatService.recordRead(chatId, readerRole, marked);
+
+        Chat chat = chatService.findChatById(chatId);
+        Integer unread = USER_ROLE.ROLE_USER.name().equals(readerRole) ? chat.getUserUnreadCount() : chat.getScientistUnreadCount();
+        return new ChatReadResult(chatId, upTo, marked, unread == null ? 0 : unread);
+    }
+
+    private List<Message> load(Long chatId, Long before, Long after, int size) {
+        Pageable page = PageRequest.of(0, size);
+        if (after != null) {
+            Message cursor = findCursor(chatId, after);
+            return messageRepository.findAfter(chatId, cursor.getTimestamp(), cursor.getId(), page);
+        }
+        List<Message> messages = before != null
+                ? messageRepository.findBefore(chatId, findCursor(chatId, before).getTimestamp(), before, page)
+                : messageRepository.findLatest(chatId, page);
+        // newest-first from the index walk; clients render oldest-first
+        List<Message> chronological = new ArrayList<>(messages);
+        Collections.reverse(chronological);
+        return chronological;
+    }
+
+    private Message findCursor(Long chatId, Long messageId) {
+        return messageRepository.findByIdAndChatId(messageId, chatId)
+                .orElseThrow(() -> new CustomException("Message " + messageId + " is not part of chat " + chatId));
     }
 }
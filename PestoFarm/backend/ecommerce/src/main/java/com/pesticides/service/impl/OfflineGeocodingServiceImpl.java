@@ -0,0 +1,72 @@
+package com.pesticides.service.impl;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pesticides.dto.GeoPoint;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.Address;
+import com.pesticides.service.GeocodingService;
+import com.pesticides.utils.PostalCodeIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Geocodes from the bundled postal-code centroids: the address's PIN code first, then its city
+ * as a district within its state. Only addresses neither resolves go to Nominatim through
+ * {@link GeocodingServiceImpl}, and not even those when {@code geocode.offline.fallback} is off.
+ *
+ * A PIN centroid is within a few kilometres for most of rural India, which is all the
+ * distance filters need. GeocodingConfig only makes this the primary {@link GeocodingService}
+ * when the index has PIN codes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OfflineGeocodingServiceImpl implements GeocodingService {
+
+    private final PostalCodeIndex postalCodeIndex;
+    private final GeocodingServiceImpl nominatim;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${geocode.offline.fallback:true}")
+    private boolean fallback;
+
+    @Override
+    public Address geocodeAddress(Address address) {
+        if (address == null) return null;
+
+        GeoPoint point = null;
+        try {
+            point = locate(address).orElse(null);
+        } catch (ServiceBusyException e) {
+            log.warn("Geocoding failed for address {}: {}", address.getId(), e.getMessage());
+        }
+        address.setLatitude(point != null ? point.latitude() : null);
+        address.setLongitude(point != null ? point.longitude() : null);
+        return address;
+    }
+
+    @Override
+    public Optional<GeoPoint> locate(Address address) {
+        GeoPoint point = postalCodeIndex.find(PostalCodeIndex.parsePin(address.getZipCode()));
+        if (point != null) {
+            count("postal_code");
+            return Optional.of(point);
+        }
+        point = postalCodeIndex.findPlace(address.getCity(), address.getState());
+        if (point != null) {
+            count("district");
+            return Optional.of(point);
+        }
+        return fallback ? nominatim.locate(address) : Optional.empty();
+    }
+
+    private void count(String source) {
+        meterRegistry.counter("geocode.lookups", "source", source).increment();
+    }
+}
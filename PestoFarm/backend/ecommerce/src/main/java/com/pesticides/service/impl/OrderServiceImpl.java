@@ -8,6 +8,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.pesticides.domain.OrderStatus;
 import com.pesticides.domain.PaymentStatus;
@@ -18,6 +19,7 @@ import com.pesticides.modal.Order;
 import com.pesticides.modal.OrderItem;
 import com.pesticides.modal.User;
 import com.pesticides.service.OrderService;
+import com.pesticides.service.SellerReportService;
 import com.pesticides.repository.AddressRepository;
 import com.pesticides.repository.OrderItemRepository;
 import com.pesticides.repository.OrderRepository;
@@ -31,6 +33,7 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final AddressRepository addressRepository;
     private final OrderItemRepository orderItemRepository;
+    private final SellerReportService sellerReportService;
 
     @Override
     public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) {
@@ -123,6 +126,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public Order cancelOrder(Long orderId, User user) throws Exception {
         // TODO Auto-generated method stub
         // throw new UnsupportedOperationException("Unimplemented method 'cancelOrder'");
@@ -131,8 +135,13 @@ public class OrderServiceImpl implements OrderService {
         if(!user.getId().equals(order.getUser().getId())){
             throw new Exception("You don't have access to this order");
         }
+        if (order.getOrderStatus() == OrderStatus.CANCELLED) {
+            return order;
+        }
         order.setOrderStatus(OrderStatus.CANCELLED);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        sellerReportService.recordOrderCanceled(saved);
+        return saved;
     }
 
     @Override
@@ -1,27 +1,20 @@
 package com.pesticides.service.impl;
 
+import java.util.List;
 import java.util.Set;
 
-import org.json.JSONObject;
 import org.springframework.stereotype.Service;
 
+import com.pesticides.domain.PaymentMethod;
 import com.pesticides.domain.PaymentOrderStatus;
-import com.pesticides.domain.PaymentStatus;
 import com.pesticides.modal.Order;
 import com.pesticides.modal.PaymentOrder;
 import com.pesticides.modal.User;
-import com.pesticides.repository.OrderRepository;
 import com.pesticides.repository.PaymentOrderRepository;
+import com.pesticides.response.PaymentLinkResponse;
+import com.pesticides.service.PaymentGateway;
 import com.pesticides.service.PaymentService;
-import com.razorpay.Payment;
-import com.razorpay.PaymentLink;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import com.stripe.Stripe;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
-import com.stripe.param.checkout.SessionCreateParams.PaymentMethodType;
+import com.pesticides.service.PaymentSettlementService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -31,13 +24,10 @@ import lombok.RequiredArgsConstructor;
 public class PaymentServiceImpl implements PaymentService{
 
     private final PaymentOrderRepository paymentOrderRepository;
-    private final OrderRepository orderRepository;
 
-
-    
-    private final String apiKey = "apikey";
-    private final String apiSecret = "apisecret";
-    private final String stripeSecretKey = "stripesecretkey";
+    // one guarded gateway per provider, see PaymentGatewayConfig
+    private final List<PaymentGateway> gateways;
+    private final PaymentSettlementService paymentSettlementService;
 
     @Override
     public PaymentOrder createOrder(User user, Set<Order> orders) {
@@ -75,95 +65,41 @@ public class PaymentServiceImpl implements PaymentService{
     }
 
     @Override
-    public Boolean ProceedPaymentOrder(PaymentOrder paymentOrder, String paymentId, String paymentLinkId) throws RazorpayException {
+    public Boolean ProceedPaymentOrder(PaymentOrder paymentOrder, String paymentId, String paymentLinkId) throws Exception {
         // TODO Auto-generated method stub
         // throw new UnsupportedOperationException("Unimplemented method 'ProceedPaymentOrder'");
         if(paymentOrder.getStatus().equals(PaymentOrderStatus.PENDING)){
-            RazorpayClient razorpay = new RazorpayClient(apiKey,apiSecret);
-
-            Payment payment = razorpay.payments.fetch(paymentId);
-
-            String status = payment.get("status");
-            if(status.equals("captured")){
-                Set<Order> orders = paymentOrder.getOrders();
-                for(Order order :orders){
-                    order.setPaymentStatus(PaymentStatus.COMPLETED);
-                    orderRepository.save(order);
-                }
-                paymentOrder.setStatus(PaymentOrderStatus.SUCCESS);
-                paymentOrderRepository.save(paymentOrder);
-                return true;
+            // orders created before the payment method was recorded all went through Razorpay
+            PaymentMethod method = paymentOrder.getPaymentMethod() != null
+                    ? paymentOrder.getPaymentMethod() : PaymentMethod.RAZORPAY;
+
+            // ask about our own link rather than trusting the payment id the browser sent
+            PaymentOrderStatus status = gateway(method).fetchPaymentLinkStatus(paymentOrder.getPaymentLinkId());
+            if(status == PaymentOrderStatus.SUCCESS){
+                return paymentSettlementService.settle(List.of(paymentOrder.getId()), List.of())
+                        .contains(paymentOrder.getId());
+            }
+            if(status == PaymentOrderStatus.FAILED){
+                paymentSettlementService.settle(List.of(), List.of(paymentOrder.getId()));
             }
-            paymentOrder.setStatus(PaymentOrderStatus.FAILED);
-            paymentOrderRepository.save(paymentOrder);
+            // still PENDING: the webhook or the pending sweep settles it once the provider does
             return false;
         }
         return false;
     }
 
     @Override
-    public PaymentLink createRazorPaymentLink(User user, Long amount, Long orderId) throws RazorpayException {
-        // TODO Auto-generated method stub
-        // throw new UnsupportedOperationException("Unimplemented method 'createRazorPaymentLink'");
-        
-        amount = amount*100;
-
-        try{               
-            RazorpayClient razorpay = new RazorpayClient(apiKey,apiSecret);
-
-            JSONObject paymentLinkRequest = new JSONObject();
-            paymentLinkRequest.put("amount",amount);
-            paymentLinkRequest.put("currency","INR");
-
-            JSONObject customer = new JSONObject();
-            customer.put("name",user.getFullname());
-            customer.put("email",user.getEmail());
-            paymentLinkRequest.put("customer",customer);
-
-            JSONObject notify = new JSONObject();
-            notify.put("email",true);
-            paymentLinkRequest.put("notify",notify);
-
-            paymentLinkRequest.put("callback_url","http://localhost:3000/payment-success/"+orderId);
-            paymentLinkRequest.put("callback_method","get");
-
-            PaymentLink paymentLink = razorpay.paymentLink.create(paymentLinkRequest);
-
-            // Payment link created successfully
+    public PaymentLinkResponse createPaymentLink(PaymentMethod paymentMethod, User user, Long amount, Long orderId) throws Exception {
+        return gateway(paymentMethod).createPaymentLink(user, amount, orderId);
+    }
 
-            return paymentLink;
-        }catch(Exception e){
-            System.out.println(e.getMessage());
-            throw new RazorpayException(e.getMessage());
+    private PaymentGateway gateway(PaymentMethod method) {
+        for (PaymentGateway gateway : gateways) {
+            if (gateway.getMethod() == method) {
+                return gateway;
+            }
         }
+        throw new IllegalArgumentException("No payment gateway configured for " + method);
     }
 
-    @Override
-    public String createStripePaymentLink(User user, Long amount, Long orderId) throws StripeException {
-        // TODO Auto-generated method stub
-        // throw new UnsupportedOperationException("Unimplemented method 'createStripePaymentLink'");
-
-        Stripe.apiKey = stripeSecretKey;
-
-        SessionCreateParams params = SessionCreateParams.builder()
-        .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
-        .setMode(SessionCreateParams.Mode.PAYMENT)
-        .setSuccessUrl("http://localhost:3000/payment-success/")
-        .setCancelUrl("http://localhost:3000/payment-cancel/")
-        .addLineItem(SessionCreateParams.LineItem.builder()
-        .setQuantity(1L)
-        .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
-        .setCurrency("usd")
-        .setUnitAmount(amount*100)
-        .setProductData(
-            SessionCreateParams.LineItem.PriceData.ProductData.builder().setName("pestofarm payment")
-            .build()
-        ).build()
-        ).build()
-        ).build();
-
-        Session session = Session.create(params);
-        return session.getUrl();
-    }
-    
 }
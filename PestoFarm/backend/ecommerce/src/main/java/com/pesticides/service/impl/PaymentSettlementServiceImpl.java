@@ -0,0 +1,92 @@
+package com.pesticides.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.domain.PaymentStatus;
+import com.pesticides.dto.SettledOrder;
+import com.pesticides.modal.PaymentOrder;
+import com.pesticides.modal.Transaction;
+import com.pesticides.repository.OrderRepository;
+import com.pesticides.repository.PaymentOrderRepository;
+import com.pesticides.repository.SellerRepository;
+import com.pesticides.repository.TransactionRepository;
+import com.pesticides.repository.UserRepository;
+import com.pesticides.service.PaymentSettlementService;
+import com.pesticides.service.SellerReportService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Settles a batch with a fixed number of statements regardless of its size: one locking read of
+ * the payment orders, one UPDATE each for payment orders and orders, one batched insert of
+ * transactions and one append to the seller ledger.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentSettlementServiceImpl implements PaymentSettlementService {
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionRepository transactionRepository;
+    private final SellerReportService sellerReportService;
+    private final SellerRepository sellerRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public Set<Long> settle(Collection<Long> paidPaymentOrderIds, Collection<Long> failedPaymentOrderIds) {
+        Set<Long> requested = new HashSet<>(paidPaymentOrderIds);
+        requested.addAll(failedPaymentOrderIds);
+        if (requested.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> paid = new HashSet<>();
+        Set<Long> failed = new HashSet<>();
+        for (PaymentOrder pending : paymentOrderRepository.lockPending(requested)) {
+            // a payment reported as paid wins over a stale failure in the same batch
+            if (paidPaymentOrderIds.contains(pending.getId())) {
+                paid.add(pending.getId());
+            } else {
+                failed.add(pending.getId());
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            paymentOrderRepository.updateStatus(failed, PaymentOrderStatus.FAILED);
+        }
+        if (paid.isEmpty()) {
+            return Set.of();
+        }
+        paymentOrderRepository.updateStatus(paid, PaymentOrderStatus.SUCCESS);
+
+        List<SettledOrder> orders = paymentOrderRepository.findSettledOrders(paid);
+        orderRepository.updatePaymentStatus(orders.stream().map(SettledOrder::orderId).toList(), PaymentStatus.COMPLETED);
+
+        List<Transaction> transactions = new ArrayList<>(orders.size());
+        for (SettledOrder order : orders) {
+            Transaction transaction = new Transaction();
+            transaction.setOrder(orderRepository.getReferenceById(order.orderId()));
+            if (order.userId() != null) {
+                transaction.setCustomer(userRepository.getReferenceById(order.userId()));
+            }
+            if (order.sellerId() != null) {
+                transaction.setSeller(sellerRepository.getReferenceById(order.sellerId()));
+            }
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+
+        sellerReportService.recordOrdersPaid(orders);
+
+        return paid;
+    }
+}
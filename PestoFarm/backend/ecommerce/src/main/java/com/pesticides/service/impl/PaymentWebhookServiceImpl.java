@@ -0,0 +1,320 @@
+package com.pesticides.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pesticides.config.PaymentGatewayProperties;
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.domain.WebhookEventStatus;
+import com.pesticides.exception.CustomException;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.PaymentOrder;
+import com.pesticides.modal.PaymentWebhookEvent;
+import com.pesticides.repository.PaymentOrderRepository;
+import com.pesticides.repository.PaymentWebhookEventRepository;
+import com.pesticides.service.PaymentGateway;
+import com.pesticides.service.PaymentSettlementService;
+import com.pesticides.service.PaymentWebhookService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Webhook inbox plus the two jobs that drain it.
+ *
+ * The endpoint only verifies and stores, so providers get a fast 200. {@link #processInbox()}
+ * settles received events in batches through {@link PaymentSettlementService}; if a batch
+ * fails, its events are retried one by one so a single bad event cannot block the rest.
+ * {@link #sweepPendingOrders()} catches payments whose webhook never arrived, checking the
+ * least recently checked orders first so abandoned checkouts cannot hold up newer ones.
+ *
+ * Both jobs may run on several nodes at once; settlement skips payment orders that are no
+ * longer pending, so the worst case is a wasted provider call.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+
+    // Stripe's own libraries reject signatures older than this
+    private static final long STRIPE_TOLERANCE_SECONDS = 300;
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentSettlementService paymentSettlementService;
+    private final PaymentGatewayProperties paymentProperties;
+    private final List<PaymentGateway> gateways;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payment.reconcile.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payment.reconcile.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${payment.reconcile.pending-min-age:15m}")
+    private Duration pendingMinAge;
+
+    @Override
+    public boolean receive(PaymentMethod provider, String payload, String signature, String eventId) throws Exception {
+        PaymentWebhookEvent event = provider == PaymentMethod.RAZORPAY
+                ? parseRazorpay(payload, signature, eventId)
+                : parseStripe(payload, signature);
+
+        if (webhookEventRepository.existsByProviderAndEventId(provider, event.getEventId())) {
+            return false;
+        }
+        try {
+            webhookEventRepository.save(event);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // the same delivery raced in on another thread or node
+            return false;
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.reconcile.inbox-interval-ms:2000}")
+    public int processInbox() {
+        List<PaymentWebhookEvent> events = webhookEventRepository.findByStatusOrderByIdAsc(
+                WebhookEventStatus.RECEIVED, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> settleEvents(events));
+        } catch (RuntimeException batchFailure) {
+            log.warn("Webhook batch of {} failed, retrying events one by one", events.size(), batchFailure);
+            for (PaymentWebhookEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> settleEvents(List.of(event)));
+                } catch (RuntimeException e) {
+                    recordFailure(event, e);
+                }
+            }
+        }
+        return events.size();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.reconcile.sweep-interval-ms:300000}",
+            initialDelayString = "${payment.reconcile.sweep-interval-ms:300000}")
+    public int sweepPendingOrders() {
+        List<PaymentOrder> pending = paymentOrderRepository.findPendingCreatedBefore(
+                LocalDateTime.now().minus(pendingMinAge), PageRequest.of(0, batchSize));
+
+        List<Long> paid = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        List<Long> attempted = new ArrayList<>();
+        Set<PaymentMethod> unavailable = new HashSet<>();
+        int checked = 0;
+        for (PaymentOrder order : pending) {
+            PaymentMethod method = order.getPaymentMethod() != null ? order.getPaymentMethod() : PaymentMethod.RAZORPAY;
+            if (unavailable.contains(method)) {
+                continue;
+            }
+            attempted.add(order.getId());
+            try {
+                PaymentOrderStatus status = gateway(method).fetchPaymentLinkStatus(order.getPaymentLinkId());
+                checked++;
+                if (status == PaymentOrderStatus.SUCCESS) {
+                    paid.add(order.getId());
+                } else if (status == PaymentOrderStatus.FAILED) {
+                    failed.add(order.getId());
+                }
+            } catch (ServiceBusyException e) {
+                // breaker open or bulkhead full: leave this provider alone until the next sweep
+                unavailable.add(method);
+            } catch (Exception e) {
+                log.warn("Could not check payment order {} with {}", order.getId(), method, e);
+            }
+        }
+        paymentSettlementService.settle(paid, failed);
+        if (!attempted.isEmpty()) {
+            // moves them behind every order not checked since, so the next sweep reaches those first
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(tx -> paymentOrderRepository.markChecked(attempted, now));
+        }
+        return checked;
+    }
+
+    private void settleEvents(List<PaymentWebhookEvent> events) {
+        Set<String> linkIds = new HashSet<>();
+        for (PaymentWebhookEvent event : events) {
+            if (event.getPaymentLinkId() != null) {
+                linkIds.add(event.getPaymentLinkId());
+            }
+        }
+        Map<String, Long> orderIdsByLink = new HashMap<>();
+        if (!linkIds.isEmpty()) {
+            for (PaymentOrder order : paymentOrderRepository.findByPaymentLinkIdIn(linkIds)) {
+                orderIdsByLink.put(order.getPaymentLinkId(), order.getId());
+            }
+        }
+
+        Set<Long> paid = new HashSet<>();
+        Set<Long> failed = new HashSet<>();
+        List<Long> processed = new ArrayList<>();
+        List<Long> ignored = new ArrayList<>();
+        for (PaymentWebhookEvent event : events) {
+            Long paymentOrderId = orderIdsByLink.get(event.getPaymentLinkId());
+            if (paymentOrderId == null || event.getOutcome() == null || event.getOutcome() == PaymentOrderStatus.PENDING) {
+                ignored.add(event.getId());
+                continue;
+            }
+            (event.getOutcome() == PaymentOrderStatus.SUCCESS ? paid : failed).add(paymentOrderId);
+            processed.add(event.getId());
+        }
+
+        paymentSettlementService.settle(paid, failed);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!processed.isEmpty()) {
+            webhookEventRepository.markDone(processed, WebhookEventStatus.PROCESSED, now);
+        }
+        if (!ignored.isEmpty()) {
+            webhookEventRepository.markDone(ignored, WebhookEventStatus.IGNORED, now);
+        }
+    }
+
+    private void recordFailure(PaymentWebhookEvent event, RuntimeException e) {
+        log.warn("Webhook event {} ({} {}) failed", event.getId(), event.getProvider(), event.getEventId(), e);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(abbreviate(String.valueOf(e.getMessage())));
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(WebhookEventStatus.FAILED);
+        }
+        webhookEventRepository.save(event);
+    }
+
+    private PaymentWebhookEvent parseRazorpay(String payload, String signature, String eventId) throws Exception {
+        String secret = paymentProperties.getRazorpayWebhookSecret();
+        if (secret == null || secret.isBlank() || signature == null
+                || !constantTimeEquals(hmacSha256Hex(secret, payload), signature.trim())) {
+            throw new CustomException("Invalid webhook signature");
+        }
+
+        JsonNode root = objectMapper.readTree(payload);
+        String type = root.path("event").asText();
+        PaymentWebhookEvent event = new PaymentWebhookEvent();
+        event.setProvider(PaymentMethod.RAZORPAY);
+        event.setEventType(type);
+        event.setPayload(payload);
+        // Razorpay sends the id in the X-Razorpay-Event-Id header only, the same on every retry;
+        // the body hash stands in when a delivery comes without it
+        event.setEventId(eventId != null && !eventId.isBlank() ? eventId.trim() : sha256Hex(payload));
+
+        JsonNode link = root.path("payload").path("payment_link").path("entity");
+        if (!link.isMissingNode()) {
+            event.setPaymentLinkId(link.path("id").asText(null));
+        }
+        event.setOutcome(switch (type) {
+            case "payment_link.paid" -> PaymentOrderStatus.SUCCESS;
+            case "payment_link.expired", "payment_link.cancelled" -> PaymentOrderStatus.FAILED;
+            default -> PaymentOrderStatus.PENDING;
+        });
+        return event;
+    }
+
+    private PaymentWebhookEvent parseStripe(String payload, String signature) throws Exception {
+        String secret = paymentProperties.getStripeWebhookSecret();
+        if (secret == null || secret.isBlank() || signature == null || !validStripeSignature(secret, payload, signature)) {
+            throw new CustomException("Invalid webhook signature");
+        }
+
+        JsonNode root = objectMapper.readTree(payload);
+        String type = root.path("type").asText();
+        JsonNode session = root.path("data").path("object");
+        PaymentWebhookEvent event = new PaymentWebhookEvent();
+        event.setProvider(PaymentMethod.STRIPE);
+        event.setEventId(root.path("id").asText(sha256Hex(payload)));
+        event.setEventType(type);
+        event.setPayload(payload);
+        if ("checkout.session".equals(session.path("object").asText())) {
+            event.setPaymentLinkId(session.path("id").asText(null));
+        }
+        event.setOutcome(switch (type) {
+            case "checkout.session.completed", "checkout.session.async_payment_succeeded" ->
+                    StripePaymentGateway.sessionStatus(session.path("status").asText(), session.path("payment_status").asText());
+            case "checkout.session.expired", "checkout.session.async_payment_failed" -> PaymentOrderStatus.FAILED;
+            default -> PaymentOrderStatus.PENDING;
+        });
+        return event;
+    }
+
+    // header format: t=<unix seconds>,v1=<hex hmac of "t.payload">[,v1=...]
+    private static boolean validStripeSignature(String secret, String payload, String header) throws Exception {
+        String timestamp = null;
+        List<String> signatures = new ArrayList<>();
+        for (String part : header.split(",")) {
+            String[] kv = part.trim().split("=", 2);
+            if (kv.length != 2) continue;
+            if ("t".equals(kv[0])) timestamp = kv[1];
+            else if ("v1".equals(kv[0])) signatures.add(kv[1]);
+        }
+        if (timestamp == null || signatures.isEmpty()) {
+            return false;
+        }
+        long age = System.currentTimeMillis() / 1000 - Long.parseLong(timestamp);
+        if (Math.abs(age) > STRIPE_TOLERANCE_SECONDS) {
+            return false;
+        }
+        String expected = hmacSha256Hex(secret, timestamp + "." + payload);
+        for (String candidate : signatures) {
+            if (constantTimeEquals(expected, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String hmacSha256Hex(String secret, String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String sha256Hex(String data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() <= 250 ? s : s.substring(0, 250);
+    }
+
+    private PaymentGateway gateway(PaymentMethod method) {
+        for (PaymentGateway gateway : gateways) {
+            if (gateway.getMethod() == method) {
+                return gateway;
+            }
+        }
+        throw new IllegalArgumentException("No payment gateway configured for " + method);
+    }
+}
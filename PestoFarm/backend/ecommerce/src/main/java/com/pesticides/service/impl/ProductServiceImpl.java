@@ -3,29 +3,31 @@ package com.pesticides.service.impl;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
 import com.pesticides.exception.ProductException;
 import com.pesticides.modal.Address;
 import com.pesticides.modal.Category;
 import com.pesticides.modal.Product;
 import com.pesticides.modal.Seller;
+import com.pesticides.modal.SellerServicePin;
 import com.pesticides.repository.CategoryRepository;
 import com.pesticides.repository.ProductRepository;
 import com.pesticides.request.CreateProductRequest;
+import com.pesticides.service.DeliveryAreaService;
 import com.pesticides.service.ProductService;
-import com.pesticides.utils.LocationUtil;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,8 +39,9 @@ public class ProductServiceImpl implements ProductService {
 
 private final ProductRepository productRepository;
 private final CategoryRepository categoryRepository;
+private final DeliveryAreaService deliveryAreaService;
 
-private static final Double SEARCH_RADIUS_KM = 50.0; 
+private static final int PAGE_SIZE = 10;
 
 @Override
 public Product createProduct(CreateProductRequest req, Seller seller) {
@@ -137,7 +140,8 @@ public Page<Product> getAllProducts(
     String stock, 
     Integer pageNumber,
     Double userLat, 
-    Double userLon
+    Double userLon,
+    String pincode
     ) {
 
     Specification<Product> spec = (root,query,criteriaBuilder)->{
@@ -164,70 +168,70 @@ public Page<Product> getAllProducts(
             predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("discountPercent"), minDiscount));
         }
 
-        if(stock != null){
-            predicates.add(criteriaBuilder.equal(root.get("stock"),stock));
+        if("in_stock".equals(stock)){
+            predicates.add(criteriaBuilder.greaterThan(root.get("quantity"), 0));
+        } else if("out_of_stock".equals(stock)){
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("quantity"), 0));
         }
         
         return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
     };
-    
-    // 1. Fetch all products matching standard criteria
-    Pageable initialPageable = PageRequest.of(0, 1000, Sort.unsorted());
-    List<Product> productsToFilter = productRepository.findAll(spec, initialPageable).getContent();
-
-    // 2. Apply Location Filter ONLY if userLat and userLon are provided
-    if (userLat != null && userLon != null) {
-        final double uLat = userLat;
-        final double uLon = userLon;
-        productsToFilter = productsToFilter.stream()
-            .filter(product -> {
-                if (product == null || product.getSeller() == null || product.getSeller().getPickupAddress() == null) {
-                    // If seller data is incomplete, decide: Show or Hide?
-                    // Defaulting to SHOW if data is messy to avoid empty lists during dev
-                    return true; 
-                }
-                Address sellerAddress = product.getSeller().getPickupAddress();
-                Double sellerLat = sellerAddress.getLatitude();
-                Double sellerLon = sellerAddress.getLongitude();
-
-                if (sellerLat == null || sellerLon == null) {
-                    return true; // Show if coordinates missing
-                }
-
-                double distance = LocationUtil.calculateDistanceInKilometers(uLat, uLon, sellerLat, sellerLon);
-                return distance <= SEARCH_RADIUS_KM;
-            })
-            .collect(Collectors.toList());
+
+    int page = pageNumber != null ? pageNumber : 0;
+
+    // Location filter ONLY if the buyer's coordinates or PIN code are provided
+    if ((userLat != null && userLon != null) || (pincode != null && !pincode.isBlank())) {
+        List<Long> nearbySellers = deliveryAreaService.sellersDeliveringTo(userLat, userLon, pincode);
+        boolean byDistance = "distance".equals(sort);
+        spec = spec.and(withinReach(nearbySellers, byDistance));
+        if (byDistance) {
+            // the specification orders by distance; a sorted Pageable would replace that order
+            return productRepository.findAll(spec, PageRequest.of(page, PAGE_SIZE));
+        }
     }
-    
-    // 3. Pagination logic
-    Pageable pageable;
+
     Sort springSort = Sort.unsorted();
-    int finalPageSize = 10; 
-    
     if(sort!= null && !sort.isEmpty()){
         switch (sort){
-            case "price_low": springSort = Sort.by("sellingPrice").ascending(); break;
-            case "price_high": springSort = Sort.by("sellingPrice").descending(); break;
+            case "price_low": springSort = Sort.by("sellingPrice").ascending().and(Sort.by("id")); break;
+            case "price_high": springSort = Sort.by("sellingPrice").descending().and(Sort.by("id")); break;
         }
     }
-    
-    pageable = PageRequest.of(pageNumber!=null?pageNumber:0, finalPageSize, springSort);
 
-    int pageSize = pageable.getPageSize();
-    int currentPage = pageable.getPageNumber();
-    int startItem = currentPage * pageSize;
+    return productRepository.findAll(spec, PageRequest.of(page, PAGE_SIZE, springSort));
+}
 
-    List<Product> pageList;
+/**
+ * Products of the given sellers, or of sellers not yet located and without service PINs.
+ * With {@code byDistance} rows follow the sellers' order in the list.
+ */
+private static Specification<Product> withinReach(List<Long> sellerIds, boolean byDistance) {
+    return (root, query, cb) -> {
+        Join<Product, Seller> seller = root.join("seller", JoinType.LEFT);
+        Join<Seller, Address> address = seller.join("pickupAddress", JoinType.LEFT);
+
+        Subquery<Long> servicePins = query.subquery(Long.class);
+        Root<SellerServicePin> pin = servicePins.from(SellerServicePin.class);
+        servicePins.select(pin.get("id")).where(cb.equal(pin.get("sellerId"), seller.get("id")));
+
+        List<Predicate> reach = new ArrayList<>();
+        reach.add(cb.isNull(seller.get("id")));
+        reach.add(cb.and(cb.or(cb.isNull(address.get("latitude")), cb.isNull(address.get("longitude"))),
+                cb.not(cb.exists(servicePins))));
+        if (!sellerIds.isEmpty()) {
+            reach.add(seller.get("id").in(sellerIds));
+        }
 
-    if (productsToFilter.size() < startItem) {
-        pageList = List.of();
-    } else {
-        int endItem = Math.min(startItem + pageSize, productsToFilter.size());
-        pageList = productsToFilter.subList(startItem, endItem);
-    }
-    
-    return new PageImpl<>(pageList, pageable, productsToFilter.size());
+        // count queries have their ordering stripped by Spring Data
+        if (byDistance && !sellerIds.isEmpty()) {
+            CriteriaBuilder.SimpleCase<Long, Integer> rank = cb.selectCase(seller.get("id"));
+            for (int i = 0; i < sellerIds.size(); i++) {
+                rank.when(sellerIds.get(i), i);
+            }
+            query.orderBy(cb.asc(rank.otherwise(sellerIds.size())), cb.asc(root.get("id")));
+        }
+        return cb.or(reach.toArray(new Predicate[0]));
+    };
 }
 
 @Override
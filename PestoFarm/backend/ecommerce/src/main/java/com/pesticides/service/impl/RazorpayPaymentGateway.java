@@ -0,0 +1,110 @@
+package com.pesticides.service.impl;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.modal.User;
+import com.pesticides.response.PaymentLinkResponse;
+import com.pesticides.service.PaymentGateway;
+import com.razorpay.PaymentLink;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+
+import okhttp3.OkHttpClient;
+
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    // The SDK keeps a single static OkHttp client (and its connection pool) that every
+    // RazorpayClient constructor rebuilds, so the application builds exactly one.
+    private final RazorpayClient razorpay;
+    private final String callbackBaseUrl;
+    private final Duration linkExpiry;
+
+    public RazorpayPaymentGateway(String keyId, String keySecret, String callbackBaseUrl, Duration linkExpiry,
+            Duration timeout) throws RazorpayException {
+        this.razorpay = new RazorpayClient(keyId, keySecret);
+        this.callbackBaseUrl = callbackBaseUrl;
+        this.linkExpiry = linkExpiry;
+        applyTimeouts(timeout);
+    }
+
+    @Override
+    public PaymentMethod getMethod() {
+        return PaymentMethod.RAZORPAY;
+    }
+
+    @Override
+    public PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) throws RazorpayException {
+        JSONObject paymentLinkRequest = new JSONObject();
+        paymentLinkRequest.put("amount", amount * 100);
+        paymentLinkRequest.put("currency", "INR");
+
+        JSONObject customer = new JSONObject();
+        customer.put("name", user.getFullname());
+        customer.put("email", user.getEmail());
+        paymentLinkRequest.put("customer", customer);
+
+        JSONObject notify = new JSONObject();
+        notify.put("email", true);
+        paymentLinkRequest.put("notify", notify);
+
+        paymentLinkRequest.put("callback_url", callbackBaseUrl + "/payment-success/" + orderId);
+        paymentLinkRequest.put("callback_method", "get");
+        // an abandoned link turns "expired", which settles the order as failed
+        paymentLinkRequest.put("expire_by", Instant.now().plus(linkExpiry).getEpochSecond());
+
+        PaymentLink paymentLink = razorpay.paymentLink.create(paymentLinkRequest);
+
+        PaymentLinkResponse res = new PaymentLinkResponse();
+        res.setPayment_link_id(paymentLink.get("id"));
+        res.setPayment_link_url(paymentLink.get("short_url"));
+        return res;
+    }
+
+    @Override
+    public PaymentOrderStatus fetchPaymentLinkStatus(String paymentLinkId) throws RazorpayException {
+        PaymentLink paymentLink = razorpay.paymentLink.fetch(paymentLinkId);
+        return linkStatus(paymentLink.get("status"));
+    }
+
+    // the SDK reports API errors as "<code>:<description>"; 4xx responses carry BAD_REQUEST_ERROR
+    @Override
+    public boolean isClientError(Exception e) {
+        return e instanceof RazorpayException && e.getMessage() != null
+                && e.getMessage().startsWith("BAD_REQUEST_ERROR");
+    }
+
+    // The SDK builds its client with 60s read/write timeouts and no connect timeout, and has no
+    // setter, so the shared client is replaced with a copy using ours.
+    private static void applyTimeouts(Duration timeout) {
+        long millis = timeout.toMillis();
+        try {
+            Field field = Class.forName("com.razorpay.ApiUtils").getDeclaredField("client");
+            field.setAccessible(true);
+            OkHttpClient client = (OkHttpClient) field.get(null);
+            field.set(null, client.newBuilder()
+                    .connectTimeout(millis, TimeUnit.MILLISECONDS)
+                    .readTimeout(millis, TimeUnit.MILLISECONDS)
+                    .writeTimeout(millis, TimeUnit.MILLISECONDS)
+                    .build());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Cannot set timeouts on the Razorpay HTTP client", e);
+        }
+    }
+
+    static PaymentOrderStatus linkStatus(String status) {
+        if ("paid".equals(status)) {
+            return PaymentOrderStatus.SUCCESS;
+        }
+        if ("expired".equals(status) || "cancelled".equals(status)) {
+            return PaymentOrderStatus.FAILED;
+        }
+        return PaymentOrderStatus.PENDING;
+    }
+}
@@ -1,19 +1,71 @@
 package com.pesticides.service.impl;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.pesticides.modal.Scientist;
 import com.pesticides.modal.ScientistReport;
+import com.pesticides.repository.ChatRepository;
+import com.pesticides.repository.MessageRepository;
 import com.pesticides.repository.ScientistReportRepository;
+import com.pesticides.repository.ScientistRepository;
 import com.pesticides.service.ScientistReportService;
+import com.pesticides.utils.ReportAccumulator;
+import com.pesticides.utils.ReportAccumulator.Delta;
+import com.pesticides.utils.ReportAccumulator.Drained;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Scientist numbers are counted as chats and messages are written rather than when the report is
+ * read. After the writing transaction commits, its counts go into an in-memory
+ * {@link ReportAccumulator}, and a scheduled flush adds them to each scientist's
+ * {@link ScientistReport} with one in-place increment per scientist; shutdown flushes too.
+ *
+ * The first start with these reports counts everything already in the chat and message tables
+ * once. Counts still in memory when the process dies are lost; after a crash an admin recomputes
+ * them with {@link #rebuild()}, or sets {@code scientist-report.rebuild-on-startup} for one start.
+ * Like the seller report this assumes a single node writes to these tables.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ScientistReportServiceImpl implements ScientistReportService {
 
     private final ScientistReportRepository scientistReportRepository;
+    private final ScientistRepository scientistRepository;
+    private final ChatRepository chatRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // consultations, messages, completed chats per scientist
+    private final ReportAccumulator<Long> accumulator = new ReportAccumulator<>(3);
+    // recording transactions hold the read lock from before their commit until their counts are
+    // in the accumulator, so a rebuild holding the write lock sees every write in exactly one place
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Value("${scientist-report.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    // before the scheduled flushes start, so rows they create cannot pass for counted ones
+    @PostConstruct
+    void rebuildOnStartup() {
+        if (rebuildOnStartup || !scientistReportRepository.existsByTotalsCountedTrue()) {
+            rebuild();
+        }
+    }
 
     @Override
     public ScientistReport getScientistReport(Scientist scientist) {
@@ -22,6 +74,7 @@ public class ScientistReportServiceImpl implements ScientistReportService {
         if(sr == null) {
             ScientistReport newReport = new ScientistReport();
             newReport.setScientist(scientist);
+            newReport.setTotalsCounted(true);
             return scientistReportRepository.save(newReport);
         }
         return sr;
@@ -32,4 +85,152 @@ public class ScientistReportServiceImpl implements ScientistReportService {
         return scientistReportRepository.save(scientistReport);
     }
 
+    @Override
+    public void recordConsultation(Long scientistId) {
+        afterCommit(() -> accumulator.add(scientistId, null, 1, 0, 0));
+    }
+
+    @Override
+    public void recordMessage(Long scientistId) {
+        afterCommit(() -> accumulator.add(scientistId, null, 0, 1, 0));
+    }
+
+    @Override
+    public void recordCompletedChats(Long scientistId, int delta) {
+        afterCommit(() -> accumulator.add(scientistId, null, 0, 0, delta));
+    }
+
+    @Override
+    public synchronized void setActiveChats(Map<Long, Long> activeChats) {
+        transactionTemplate.executeWithoutResult(status -> activeChats.forEach((scientistId, active) -> {
+            if (scientistReportRepository.setActiveChats(scientistId, active) == 0) {
+                ScientistReport report = newReport(scientistId);
+                if (report != null) {
+                    report.setTotalActiveChats(active);
+                    scientistReportRepository.save(report);
+                }
+            }
+        }));
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${scientist-report.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        Drained<Long> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        List<Delta<Long>> deltas = drained.deltas();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Delta<Long> delta : deltas) {
+                    long[] d = delta.counts();
+                    int updated = scientistReportRepository.addTotals(delta.key(), d[0], d[1], d[2]);
+                    if (updated == 0) {
+                        // flushes are serialized, so nobody else can be inserting this row
+                        ScientistReport report = newReport(delta.key());
+                        if (report != null) {
+                            report.setTotalConsultations(d[0]);
+                            report.setTotalMessages(d[1]);
+                            report.setTotalCompletedChats(d[2]);
+                            scientistReportRepository.save(report);
+                        }
+                    }
+                }
+            });
+            return deltas.size();
+        } catch (RuntimeException e) {
+            accumulator.restore(drained);
+            log.warn("Scientist report flush of {} scientists failed, retrying on the next run: {}",
+                    deltas.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            // no recording transaction is between its commit and its add now, so everything
+            // drained here is also in the tables, and anything committed later is not counted below
+            accumulator.drain();
+            return recount();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private int recount() {
+        Map<Long, long[]> totals = new HashMap<>();
+        for (Object[] row : chatRepository.countPerScientistWithClosed()) {
+            long[] t = totals.computeIfAbsent((Long) row[0], id -> new long[3]);
+            t[0] = ((Number) row[1]).longValue();
+            t[2] = row[2] != null ? ((Number) row[2]).longValue() : 0;
+        }
+        for (Object[] row : messageRepository.countPerScientist()) {
+            totals.computeIfAbsent((Long) row[0], id -> new long[3])[1] = ((Number) row[1]).longValue();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            scientistReportRepository.clearTotals();
+            totals.forEach((scientistId, t) -> {
+                if (scientistReportRepository.setTotals(scientistId, t[0], t[1], t[2]) == 0) {
+                    ScientistReport report = newReport(scientistId);
+                    if (report != null) {
+                        report.setTotalConsultations(t[0]);
+                        report.setTotalMessages(t[1]);
+                        report.setTotalCompletedChats(t[2]);
+                        scientistReportRepository.save(report);
+                    }
+                }
+            });
+        });
+        log.info("Rebuilt the reports of {} scientists with chats", totals.size());
+        return totals.size();
+    }
+
+    // null if the scientist no longer exists
+    private ScientistReport newReport(Long scientistId) {
+        if (!scientistRepository.existsById(scientistId)) return null;
+        ScientistReport report = new ScientistReport();
+        report.setScientist(scientistRepository.getReferenceById(scientistId));
+        report.setTotalsCounted(true);
+        return report;
+    }
+
+    // counts must never include a write that could still roll back
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    rebuildLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            action.run();
+                        }
+                    } finally {
+                        if (locked) {
+                            rebuildLock.readLock().unlock();
+                        }
+                    }
+                }
+            });
+        } else {
+            rebuildLock.readLock().lock();
+            try {
+                action.run();
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+        }
+    }
 }
@@ -1,24 +1,44 @@
 package com.pesticides.service.impl;
 import com.pesticides.modal.Scientist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder; // NEW IMPORT
 import com.pesticides.config.JwtProvider;
+import com.pesticides.dto.ScientistDirectoryEntry;
 import com.pesticides.modal.Address; // NEW IMPORT
 
 import com.pesticides.modal.VerificationCode;
 import com.pesticides.repository.ScientistRepository;
 import com.pesticides.repository.VerificationCodeRepository;
 import com.pesticides.request.ScientistRequest; // NEW IMPORT
+import com.pesticides.service.ChatRoutingService;
+import com.pesticides.service.GeocodeQueueService;
 import com.pesticides.service.ScientistService;
+import com.pesticides.service.TokenService;
+import com.pesticides.utils.LocationUtil;
 import com.pesticides.domain.AccountStatus; // NEW IMPORT
 import com.pesticides.domain.USER_ROLE; // NEW IMPORT
 import com.pesticides.exception.CustomException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +48,46 @@ public class ScientistServiceImpl implements ScientistService {
     private final JwtProvider jwtProvider;
     private final PasswordEncoder passwordEncoder; // Inject PasswordEncoder
     private final VerificationCodeRepository verificationCodeRepository; // Inject PasswordEncoder
+    private final TokenService tokenService;
+    private final GeocodeQueueService geocodeQueueService;
+    private final ChatRoutingService chatRoutingService;
+    private final MeterRegistry meterRegistry;
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Value("${scientist.directory.default-radius-km:100}")
+    private double defaultRadiusKm;
+
+    @Value("${scientist.directory.max-radius-km:500}")
+    private double maxRadiusKm;
+
+    @Value("${scientist.directory.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${scientist.directory.cache.max-entries:200}")
+    private int maxCacheEntries;
+
+    // bounds staleness from writes that bypass this service, e.g. admin status changes
+    @Value("${scientist.directory.cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    // Full listing per specialization, filtered and paged in memory; a few hundred rows at most
+    private Map<String, Listing> listings;
+    // bumped on every eviction so a listing loaded across a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    record Listing(List<ScientistDirectoryEntry> entries, long loadedAtNanos) {
+    }
+
+    @PostConstruct
+    void init() {
+        listings = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Listing> eldest) {
+                return size() > maxCacheEntries;
+            }
+        });
+    }
     
     // --- Existing Service Methods ---
 
@@ -74,12 +134,15 @@ public class ScientistServiceImpl implements ScientistService {
         scientist.setRole(USER_ROLE.ROLE_SCIENTIST);
         scientist.setAccountStatus(AccountStatus.ACTIVE); // Default to active for simplicity
         
-        return scientistRepository.save(scientist);
+        Scientist saved = scientistRepository.save(scientist);
+        evictListing(saved.getSpecialization());
+        return saved;
     }
 
     @Override
     public Scientist updateScientist(Long scientistId, ScientistRequest req) throws Exception {
         Scientist scientist = findScientistById(scientistId);
+        String previousSpecialization = scientist.getSpecialization();
         
         if (req.getScientistName() != null) {
             scientist.setScientistName(req.getScientistName());
@@ -93,20 +156,30 @@ public class ScientistServiceImpl implements ScientistService {
         if (req.getInstitution() != null) {
             scientist.setInstitution(req.getInstitution());
         }
+        if (req.getAvailable() != null) {
+            scientist.setAvailable(req.getAvailable());
+        }
         if (req.getOfficeAddress() != null) {
-            // Assuming Address is handled as a separate entity/embedded
-            Address updatedAddress = req.getOfficeAddress();
-            Address existingAddress = scientist.getOfficeAddress();
-            
-            // Logic to update existing address fields
-            if (existingAddress != null) {
-                // Update fields one by one (assuming Address modal fields are set via getters/setters)
-                // For brevity, we are just replacing the object. In production, you'd update fields.
-                scientist.setOfficeAddress(updatedAddress);
-            }
+            // copy the editable fields only; the id and coordinates are never taken from the client
+            Address office = scientist.getOfficeAddress() != null ? scientist.getOfficeAddress() : new Address();
+            Address updated = req.getOfficeAddress();
+            office.setFirstName(updated.getFirstName());
+            office.setLastName(updated.getLastName());
+            office.setStreetAddress(updated.getStreetAddress());
+            office.setCity(updated.getCity());
+            office.setState(updated.getState());
+            office.setZipCode(updated.getZipCode());
+            office.setMobile(updated.getMobile());
+            // located in the background so the directory can search by distance
+            geocodeQueueService.enqueue(office);
+            scientist.setOfficeAddress(office);
         }
         
-        return scientistRepository.save(scientist);
+        Scientist saved = scientistRepository.save(scientist);
+        evictListing(previousSpecialization);
+        evictListing(saved.getSpecialization());
+        chatRoutingService.refreshScientist(saved);
+        return saved;
     }
 
        @Override
@@ -114,7 +187,13 @@ public class ScientistServiceImpl implements ScientistService {
         if (scientist.getPassword() == null || rawPassword == null) {
             return false;
         }
-        return passwordEncoder.matches(rawPassword, scientist.getPassword());
+        boolean matches = passwordEncoder.matches(rawPassword, scientist.getPassword());
+        if (matches && passwordEncoder.upgradeEncoding(scientist.getPassword())) {
+            // rehash with the current cost now that we have the raw password
+            scientist.setPassword(passwordEncoder.encode(rawPassword));
+            scientistRepository.save(scientist);
+        }
+        return matches;
     }
 
     @Override
@@ -122,10 +201,94 @@ public class ScientistServiceImpl implements ScientistService {
         return scientistRepository.findAll();
     }
 
+    @Override
+    public Page<ScientistDirectoryEntry> searchDirectory(String specialization, String institution, Double latitude,
+            Double longitude, Double radiusKm, boolean availableOnly, int pageNumber, int pageSize) {
+        specialization = blankToNull(specialization);
+        institution = blankToNull(institution);
+        Pageable pageable = PageRequest.of(Math.max(0, pageNumber), Math.max(1, Math.min(pageSize, maxPageSize)));
+        boolean aroundPoint = latitude != null && longitude != null;
+
+        List<ScientistDirectoryEntry> candidates;
+        if (specialization != null) {
+            candidates = listing(specialization);
+        } else if (aroundPoint) {
+            double radius = radius(radiusKm);
+            double latDelta = radius / KM_PER_DEGREE;
+            double lonDelta = radius / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+            candidates = scientistRepository.findDirectoryWithin(AccountStatus.LISTED, latitude - latDelta,
+                    latitude + latDelta, longitude - lonDelta, longitude + lonDelta);
+        } else {
+            meterRegistry.counter("scientist.directory.lookups", "source", "database").increment();
+            return scientistRepository.searchDirectory(AccountStatus.LISTED, null, institution, availableOnly, pageable);
+        }
+
+        List<ScientistDirectoryEntry> matches = new ArrayList<>();
+        for (ScientistDirectoryEntry entry : candidates) {
+            if (institution != null && !institution.equalsIgnoreCase(entry.institution())) continue;
+            if (availableOnly && !entry.available()) continue;
+            if (aroundPoint) {
+                if (entry.latitude() == null || entry.longitude() == null) continue;
+                double km = LocationUtil.calculateDistanceInKilometers(latitude, longitude, entry.latitude(),
+                        entry.longitude());
+                if (km > radius(radiusKm)) continue;
+                entry = entry.withDistance(km);
+            }
+            matches.add(entry);
+        }
+        if (aroundPoint) {
+            // stable, so equally distant scientists keep their order by name
+            matches.sort(Comparator.comparingDouble(ScientistDirectoryEntry::distanceKm));
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    private List<ScientistDirectoryEntry> listing(String specialization) {
+        String key = specialization.trim().toLowerCase(Locale.ROOT);
+        Listing cached = listings.get(key);
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < cacheTtl.toNanos()) {
+            meterRegistry.counter("scientist.directory.lookups", "source", "cache").increment();
+            return cached.entries();
+        }
+
+        meterRegistry.counter("scientist.directory.lookups", "source", "database").increment();
+        long seen = generation.get();
+        long loadedAt = System.nanoTime();
+        List<ScientistDirectoryEntry> entries = List.copyOf(scientistRepository
+                .searchDirectory(AccountStatus.LISTED, specialization, null, false, Pageable.unpaged()).getContent());
+        synchronized (listings) {
+            if (generation.get() == seen) {
+                listings.put(key, new Listing(entries, loadedAt));
+            }
+        }
+        return entries;
+    }
+
+    private void evictListing(String specialization) {
+        if (specialization == null) return;
+        synchronized (listings) {
+            generation.incrementAndGet();
+            listings.remove(specialization.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private double radius(Double radiusKm) {
+        return radiusKm == null ? defaultRadiusKm : Math.max(0, Math.min(radiusKm, maxRadiusKm));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     @Override
     public void deleteScientist(Long scientistId) throws Exception {
         Scientist scientist = findScientistById(scientistId);        
         scientistRepository.delete(scientist);
+        evictListing(scientist.getSpecialization());
+        tokenService.revokeAllTokens(scientist.getEmail());
     }
 
    @Override
@@ -156,7 +319,9 @@ public class ScientistServiceImpl implements ScientistService {
         // 3. Clean up the used OTP
         verificationCodeRepository.delete(verificationCode);
         
-        return scientistRepository.save(scientist);
+        Scientist saved = scientistRepository.save(scientist);
+        evictListing(saved.getSpecialization());
+        return saved;
     }
 
     @Override
@@ -0,0 +1,100 @@
+package com.pesticides.service.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.pesticides.domain.AnalyticsGranularity;
+import com.pesticides.dto.AnalyticsPoint;
+import com.pesticides.dto.DailyUnits;
+import com.pesticides.dto.SellerAnalytics;
+import com.pesticides.exception.CustomException;
+import com.pesticides.modal.Seller;
+import com.pesticides.modal.SellerDailyReport;
+import com.pesticides.repository.SellerDailyReportRepository;
+import com.pesticides.repository.SellerProductDailyRollupRepository;
+import com.pesticides.service.SellerAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Time series over the daily rollup rows. A query reads at most one row per day plus one per
+ * product and day, so its cost depends on the range and the catalogue, not on how many orders
+ * the seller had. Weeks start on Monday.
+ */
+@Service
+@RequiredArgsConstructor
+public class SellerAnalyticsServiceImpl implements SellerAnalyticsService {
+
+    private static final int TOP_PRODUCTS = 10;
+
+    private final SellerDailyReportRepository dailyReportRepository;
+    private final SellerProductDailyRollupRepository productRollupRepository;
+
+    @Override
+    public SellerAnalytics getAnalytics(Seller seller, LocalDate from, LocalDate to, AnalyticsGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new CustomException("'from' must not be after 'to'.");
+        }
+        int maxDays = maxDays(granularity);
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new CustomException("Range cannot exceed " + maxDays + " days at " + granularity + " granularity.");
+        }
+
+        // orders, revenue, units, canceled orders, canceled units, refunds
+        Map<LocalDate, long[]> periods = new TreeMap<>();
+        for (LocalDate day = periodStart(from, granularity); !day.isAfter(to); day = next(day, granularity)) {
+            periods.put(day, new long[6]);
+        }
+        for (SellerDailyReport row : dailyReportRepository.findBySellerIdAndDayBetweenOrderByDayAsc(seller.getId(), from, to)) {
+            long[] p = periods.get(periodStart(row.getDay(), granularity));
+            p[0] += row.getTotalOrders();
+            p[1] += row.getTotalEarnings();
+            p[3] += row.getCanceledOrders();
+            p[5] += row.getTotalRefunds();
+        }
+        for (DailyUnits units : productRollupRepository.sumUnitsByDay(seller.getId(), from, to)) {
+            long[] p = periods.get(periodStart(units.day(), granularity));
+            p[2] += units.unitsSold();
+            p[4] += units.canceledUnits();
+        }
+
+        List<AnalyticsPoint> series = new ArrayList<>(periods.size());
+        periods.forEach((start, p) -> series.add(new AnalyticsPoint(start, p[0], p[1], p[2], p[3], p[4], p[5])));
+
+        return new SellerAnalytics(seller.getId(), from, to, granularity, series,
+                productRollupRepository.findTopProducts(seller.getId(), from, to, PageRequest.of(0, TOP_PRODUCTS)));
+    }
+
+    private static int maxDays(AnalyticsGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> 366;
+            case WEEK -> 2 * 366;
+            case MONTH -> 5 * 366;
+        };
+    }
+
+    static LocalDate periodStart(LocalDate day, AnalyticsGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate next(LocalDate periodStart, AnalyticsGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+}
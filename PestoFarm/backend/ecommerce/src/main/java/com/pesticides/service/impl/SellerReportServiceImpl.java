@@ -1,19 +1,108 @@
 package com.pesticides.service.impl;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.pesticides.domain.OrderStatus;
+import com.pesticides.domain.PaymentStatus;
+import com.pesticides.domain.SellerLedgerEventType;
+import com.pesticides.dto.LedgerItem;
+import com.pesticides.dto.OrderItemFact;
+import com.pesticides.dto.SellerReportSummary;
+import com.pesticides.dto.SettledOrder;
+import com.pesticides.exception.CustomException;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.Order;
 import com.pesticides.modal.Seller;
+import com.pesticides.modal.SellerDailyReport;
+import com.pesticides.modal.SellerLedgerEntry;
+import com.pesticides.modal.SellerProductDailyRollup;
 import com.pesticides.modal.SellerReport;
+import com.pesticides.repository.OrderRepository;
+import com.pesticides.repository.SellerDailyReportRepository;
+import com.pesticides.repository.SellerLedgerEntryRepository;
+import com.pesticides.repository.SellerProductDailyRollupRepository;
 import com.pesticides.repository.SellerReportRepository;
+import com.pesticides.repository.SellerRepository;
 import com.pesticides.service.SellerReportService;
+import com.pesticides.utils.ReportAccumulator;
+import com.pesticides.utils.ReportAccumulator.Delta;
+import com.pesticides.utils.ReportAccumulator.Drained;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Seller numbers are derived from the seller ledger. Writers only append ledger rows; after
+ * their transaction commits the amounts go into an in-memory {@link ReportAccumulator}, and
+ * a scheduled flush adds them to {@link SellerReport}, the day's {@link SellerDailyReport} and
+ * the day's {@link SellerProductDailyRollup} rows with in-place increments, one statement per
+ * row rather than one per order.
+ *
+ * The flush marks the entries it applied as rolled up in the same transaction. Entries that were
+ * committed but not flushed when the process stopped are loaded back on startup, which assumes a
+ * single node writes to these tables.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SellerReportServiceImpl implements SellerReportService {
 
-    private final  SellerReportRepository sellerReportRepository;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int ID_CHUNK = 1000;
+
+    private record SellerDay(Long sellerId, LocalDate day) {
+    }
+
+    private record ProductDay(Long sellerId, LocalDate day, Long productId) {
+    }
+
+    private final SellerReportRepository sellerReportRepository;
+    private final SellerDailyReportRepository dailyReportRepository;
+    private final SellerLedgerEntryRepository ledgerRepository;
+    private final SellerRepository sellerRepository;
+    private final SellerProductDailyRollupRepository productRollupRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // orders, earnings, sales, canceled, refunds per seller and day
+    private final ReportAccumulator<SellerDay> accumulator = new ReportAccumulator<>(5);
+
+    @Value("${seller-report.replay-batch-size:1000}")
+    private int replayBatchSize;
+
+    @PostConstruct
+    void replayUnflushed() {
+        int replayed = 0;
+        for (int page = 0; ; page++) {
+            List<SellerLedgerEntry> entries = ledgerRepository.findByRolledUpFalseOrderByIdAsc(
+                    PageRequest.of(page, replayBatchSize));
+            accumulate(entries);
+            replayed += entries.size();
+            if (entries.size() < replayBatchSize) break;
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} seller ledger entries that were not flushed before shutdown", replayed);
+        }
+    }
 
     @Override
     public SellerReport getSellerReport(Seller seller) {
@@ -21,14 +110,252 @@ public class SellerReportServiceImpl implements SellerReportService {
 
         if(sr==null){
             SellerReport newReport = new SellerReport();
+            newReport.setSeller(seller);
             return sellerReportRepository.save(newReport);
         }
         return sr;
-    }  
+    }
 
     @Override
-    public SellerReport updateSellerReport(SellerReport sellerReport) {
-        return sellerReportRepository.save(sellerReport);
+    public SellerReportSummary getSellerReport(Seller seller, LocalDate from, LocalDate to) throws Exception {
+        if (from.isAfter(to)) {
+            throw new CustomException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new CustomException("Report range cannot exceed " + MAX_RANGE_DAYS + " days.");
+        }
+        return new SellerReportSummary(seller.getId(), from, to,
+                dailyReportRepository.sumRange(seller.getId(), from, to),
+                dailyReportRepository.findBySellerIdAndDayBetweenOrderByDayAsc(seller.getId(), from, to));
+    }
+
+    @Override
+    public void recordOrdersPaid(Collection<SettledOrder> orders) {
+        List<SellerLedgerEntry> entries = new ArrayList<>(orders.size());
+        for (SettledOrder order : orders) {
+            if (order.sellerId() == null) continue;
+            entries.add(entry(order.sellerId(), order.orderId(), SellerLedgerEventType.ORDER_PAID,
+                    order.totalSellingPrice(), order.itemCount() != null ? order.itemCount() : 0));
+        }
+        append(SellerLedgerEventType.ORDER_PAID, entries);
+    }
+
+    @Override
+    public void recordOrderCanceled(Order order) {
+        if (order.getSellerId() == null) return;
+        append(SellerLedgerEventType.ORDER_CANCELED, List.of(entry(order.getSellerId(), order.getId(),
+                SellerLedgerEventType.ORDER_CANCELED, order.getTotalSellingPrice(), 0)));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${seller-report.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        return Math.max(0, tryFlush());
+    }
+
+    // entries applied, or -1 if the flush failed and its window was put back for the next run
+    private int tryFlush() {
+        Drained<SellerDay> drained = accumulator.drain();
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(drained));
+            return drained.entryIds().size();
+        } catch (RuntimeException e) {
+            accumulator.restore(drained);
+            log.warn("Seller report flush of {} entries failed, retrying on the next run: {}",
+                    drained.entryIds().size(), e.getMessage());
+            return -1;
+        }
+    }
+
+    private void apply(Drained<SellerDay> drained) {
+        // orders, earnings, sales, canceled, refunds
+        Map<Long, long[]> perSeller = new HashMap<>();
+        for (Delta<SellerDay> delta : drained.deltas()) {
+            Long sellerId = delta.key().sellerId();
+            long[] d = delta.counts();
+            int updated = dailyReportRepository.addToDay(sellerId, delta.key().day(), d[0], d[1], d[2], d[3], d[4]);
+            if (updated == 0) {
+                // flushes are serialized, so nobody else can be inserting this row
+                dailyReportRepository.save(new SellerDailyReport(null, sellerId, delta.key().day(), d[0], d[1], d[2],
+                        d[3], d[4]));
+            }
+
+            long[] totals = perSeller.computeIfAbsent(sellerId, id -> new long[5]);
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += d[i];
+            }
+        }
+
+        perSeller.forEach((sellerId, totals) -> {
+            int updated = sellerReportRepository.addTotals(sellerId, (int) totals[0], totals[1], totals[2],
+                    (int) totals[3], totals[4]);
+            if (updated == 0 && sellerRepository.existsById(sellerId)) {
+                SellerReport report = new SellerReport();
+                report.setSeller(sellerRepository.getReferenceById(sellerId));
+                report.setTotalOrders((int) totals[0]);
+                report.setTotalEarnings(totals[1]);
+                report.setTotalSales(totals[2]);
+                report.setCanceledOrders((int) totals[3]);
+                report.setTotalRefunds(totals[4]);
+                sellerReportRepository.save(report);
+            }
+        });
+
+        // orders, units, revenue, canceled units, refunds
+        Map<ProductDay, long[]> perProduct = new HashMap<>();
+        List<Long> ids = drained.entryIds();
+        for (int i = 0; i < ids.size(); i += ID_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + ID_CHUNK));
+            for (LedgerItem item : ledgerRepository.findItems(chunk)) {
+                long[] totals = perProduct.computeIfAbsent(
+                        new ProductDay(item.sellerId(), item.occurredAt().toLocalDate(), item.productId()),
+                        k -> new long[5]);
+                long price = item.sellingPrice() != null ? item.sellingPrice() : 0;
+                if (item.type() == SellerLedgerEventType.ORDER_PAID) {
+                    totals[0]++;
+                    totals[1] += item.quantity();
+                    totals[2] += price;
+                } else {
+                    totals[3] += item.quantity();
+                    totals[4] += price;
+                }
+            }
+            ledgerRepository.markRolledUp(chunk);
+        }
+        perProduct.forEach((key, totals) -> {
+            int updated = productRollupRepository.addToDay(key.sellerId(), key.day(), key.productId(), totals[0],
+                    totals[1], totals[2], totals[3], totals[4]);
+            if (updated == 0) {
+                productRollupRepository.save(productRow(key, totals));
+            }
+        });
+    }
+
+    @Override
+    public synchronized int backfill(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new CustomException("'from' must not be after 'to'.");
+        }
+        if (!to.isBefore(LocalDate.now())) {
+            // today's rows are still being incremented by the flush
+            throw new CustomException("Backfill can only rebuild days before today.");
+        }
+        // a window put back by a failed flush would be added again on top of the rebuilt days
+        if (tryFlush() < 0) {
+            throw new ServiceBusyException("Seller reports could not be flushed, try the backfill again later.");
+        }
+        return transactionTemplate.execute(status -> rebuild(from, to));
+    }
+
+    /**
+     * Replaces the daily rows for the given days with totals recomputed from the orders, read as
+     * one stream so memory is bounded by the number of (seller, product, day) rows, not orders.
+     * Orders are bucketed by order date, cancellations included, since orders do not record when
+     * they were canceled.
+     */
+    private int rebuild(LocalDate from, LocalDate to) {
+        // orders, earnings, sales, canceled, refunds
+        Map<SellerDay, long[]> perDay = new HashMap<>();
+        // orders, units, revenue, canceled units, refunds
+        Map<ProductDay, long[]> perProduct = new HashMap<>();
+        int lines = 0;
+        Long lastOrderId = null;
+
+        try (Stream<OrderItemFact> facts = orderRepository.streamItemFacts(from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay())) {
+            for (Iterator<OrderItemFact> it = facts.iterator(); it.hasNext(); ) {
+                OrderItemFact fact = it.next();
+                lines++;
+                boolean firstLine = !fact.orderId().equals(lastOrderId);
+                lastOrderId = fact.orderId();
+                boolean paid = fact.paymentStatus() == PaymentStatus.COMPLETED;
+                boolean canceled = fact.orderStatus() == OrderStatus.CANCELLED;
+                if (!paid && !canceled) continue;
+
+                LocalDate day = fact.orderDate().toLocalDate();
+                long price = fact.sellingPrice() != null ? fact.sellingPrice() : 0;
+                long[] daily = perDay.computeIfAbsent(new SellerDay(fact.sellerId(), day),
+                        k -> new long[5]);
+                long[] product = perProduct.computeIfAbsent(new ProductDay(fact.sellerId(), day, fact.productId()),
+                        k -> new long[5]);
+                if (paid) {
+                    if (firstLine) daily[0]++;
+                    daily[1] += price;
+                    daily[2]++;
+                    product[0]++;
+                    product[1] += fact.quantity();
+                    product[2] += price;
+                }
+                if (canceled) {
+                    if (firstLine) daily[3]++;
+                    daily[4] += price;
+                    product[3] += fact.quantity();
+                    product[4] += price;
+                }
+            }
+        }
+
+        dailyReportRepository.deleteDays(from, to);
+        productRollupRepository.deleteDays(from, to);
+        List<SellerDailyReport> dailyRows = new ArrayList<>(perDay.size());
+        perDay.forEach((key, t) -> dailyRows.add(
+                new SellerDailyReport(null, key.sellerId(), key.day(), t[0], t[1], t[2], t[3], t[4])));
+        dailyReportRepository.saveAll(dailyRows);
+        productRollupRepository.saveAll(perProduct.entrySet().stream()
+                .map(e -> productRow(e.getKey(), e.getValue())).toList());
+
+        log.info("Rebuilt seller rollups for {}..{} from {} order lines", from, to, lines);
+        return lines;
+    }
+
+    private static SellerProductDailyRollup productRow(ProductDay key, long[] totals) {
+        return new SellerProductDailyRollup(null, key.sellerId(), key.day(), key.productId(), totals[0], totals[1],
+                totals[2], totals[3], totals[4]);
+    }
+
+    private void append(SellerLedgerEventType type, List<SellerLedgerEntry> entries) {
+        if (entries.isEmpty()) return;
+
+        Set<Long> recorded = new HashSet<>(ledgerRepository.findRecordedOrderIds(type,
+                entries.stream().map(SellerLedgerEntry::getOrderId).toList()));
+        List<SellerLedgerEntry> fresh = entries.stream().filter(e -> !recorded.contains(e.getOrderId())).toList();
+        if (fresh.isEmpty()) return;
+
+        List<SellerLedgerEntry> saved = ledgerRepository.saveAll(fresh);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(saved);
+                }
+            });
+        } else {
+            accumulate(saved);
+        }
+    }
+
+    private void accumulate(List<SellerLedgerEntry> entries) {
+        for (SellerLedgerEntry e : entries) {
+            SellerDay key = new SellerDay(e.getSellerId(), e.getOccurredAt().toLocalDate());
+            if (e.getType() == SellerLedgerEventType.ORDER_PAID) {
+                accumulator.add(key, e.getId(), 1, e.getAmount(), e.getItems(), 0, 0);
+            } else {
+                accumulator.add(key, e.getId(), 0, 0, 0, 1, e.getAmount());
+            }
+        }
+    }
+
+    private static SellerLedgerEntry entry(Long sellerId, Long orderId, SellerLedgerEventType type, Integer amount,
+            int items) {
+        SellerLedgerEntry entry = new SellerLedgerEntry();
+        entry.setSellerId(sellerId);
+        entry.setOrderId(orderId);
+        entry.setType(type);
+        entry.setAmount(amount != null ? amount : 0);
+        entry.setItems(items);
+        return entry;
     }
-    
 }
@@ -17,8 +17,9 @@ import com.pesticides.modal.VerificationCode;
 import com.pesticides.repository.AddressRepository;
 import com.pesticides.repository.SellerRepository;
 import com.pesticides.repository.VerificationCodeRepository;
-import com.pesticides.service.GeocodingService;
+import com.pesticides.service.GeocodeQueueService;
 import com.pesticides.service.SellerService;
+import com.pesticides.service.TokenService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,8 +31,9 @@ public class SellerServiceImpl implements SellerService {
     private final JwtProvider jwtProvider;
     private final PasswordEncoder passwordEncoder;
     private final AddressRepository addressRepository;
-    private final GeocodingService geocodingService;
+    private final GeocodeQueueService geocodeQueueService;
     private final VerificationCodeRepository verificationCodeRepository;
+    private final TokenService tokenService;
 
     @Override
     public Seller getSellerProfile(String jwt) throws Exception {
@@ -49,7 +51,7 @@ public class SellerServiceImpl implements SellerService {
         Address pickupAddress = seller.getPickupAddress();
 
         if(pickupAddress != null) {
-            geocodingService.geocodeAddress(pickupAddress);
+            geocodeQueueService.enqueue(pickupAddress);
         }
 
         Address savedAddress = null;
@@ -167,8 +169,7 @@ public class SellerServiceImpl implements SellerService {
         }
 
         if (addressChanged) {
-            Address updatedAddress = geocodingService.geocodeAddress(existingSeller.getPickupAddress());
-            existingSeller.setPickupAddress(updatedAddress);
+            geocodeQueueService.enqueue(existingSeller.getPickupAddress());
         }
 
         return sellerRepository.save(existingSeller);
@@ -178,6 +179,7 @@ public class SellerServiceImpl implements SellerService {
     public void deleteSeller(Long id) throws SellerException {
         Seller seller = getSellerById(id);
         sellerRepository.delete(seller);
+        tokenService.revokeAllTokens(seller.getEmail());
 
     }
 
@@ -220,7 +222,13 @@ public class SellerServiceImpl implements SellerService {
         if (seller.getPassword() == null || rawPassword == null) {
             return false;
         }
-        return passwordEncoder.matches(rawPassword, seller.getPassword());
+        boolean matches = passwordEncoder.matches(rawPassword, seller.getPassword());
+        if (matches && passwordEncoder.upgradeEncoding(seller.getPassword())) {
+            // rehash with the current cost now that we have the raw password
+            seller.setPassword(passwordEncoder.encode(rawPassword));
+            sellerRepository.save(seller);
+        }
+        return matches;
     }
 
     @Override
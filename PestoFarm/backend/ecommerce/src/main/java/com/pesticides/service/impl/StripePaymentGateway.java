@@ -0,0 +1,95 @@
+package com.pesticides.service.impl;
+
+import java.time.Duration;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.modal.User;
+import com.pesticides.response.PaymentLinkResponse;
+import com.pesticides.service.PaymentGateway;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+
+public class StripePaymentGateway implements PaymentGateway {
+
+    private final String secretKey;
+    private final String callbackBaseUrl;
+    private final int timeoutMillis;
+
+    public StripePaymentGateway(String secretKey, String callbackBaseUrl, Duration timeout) {
+        this.secretKey = secretKey;
+        this.callbackBaseUrl = callbackBaseUrl;
+        this.timeoutMillis = (int) timeout.toMillis();
+    }
+
+    @Override
+    public PaymentMethod getMethod() {
+        return PaymentMethod.STRIPE;
+    }
+
+    @Override
+    public PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) throws StripeException {
+        SessionCreateParams params = SessionCreateParams.builder()
+        .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
+        .setMode(SessionCreateParams.Mode.PAYMENT)
+        .setSuccessUrl(callbackBaseUrl + "/payment-success/")
+        .setCancelUrl(callbackBaseUrl + "/payment-cancel/")
+        .addLineItem(SessionCreateParams.LineItem.builder()
+        .setQuantity(1L)
+        .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
+        .setCurrency("usd")
+        .setUnitAmount(amount*100)
+        .setProductData(
+            SessionCreateParams.LineItem.PriceData.ProductData.builder().setName("pestofarm payment")
+            .build()
+        ).build()
+        ).build()
+        ).build();
+
+        // the same order always maps to the same session, so a retried create cannot charge twice
+        Session session = Session.create(params, options("payment-order-" + orderId));
+
+        PaymentLinkResponse res = new PaymentLinkResponse();
+        res.setPayment_link_id(session.getId());
+        res.setPayment_link_url(session.getUrl());
+        return res;
+    }
+
+    @Override
+    public PaymentOrderStatus fetchPaymentLinkStatus(String sessionId) throws StripeException {
+        Session session = Session.retrieve(sessionId, options(null));
+        return sessionStatus(session.getStatus(), session.getPaymentStatus());
+    }
+
+    // connection failures have no status code and count against the provider
+    @Override
+    public boolean isClientError(Exception e) {
+        Integer status = e instanceof StripeException stripe ? stripe.getStatusCode() : null;
+        return status != null && status >= 400 && status < 500;
+    }
+
+    static PaymentOrderStatus sessionStatus(String status, String paymentStatus) {
+        if ("paid".equals(paymentStatus) || "no_payment_required".equals(paymentStatus)) {
+            return PaymentOrderStatus.SUCCESS;
+        }
+        if ("expired".equals(status)) {
+            return PaymentOrderStatus.FAILED;
+        }
+        return PaymentOrderStatus.PENDING;
+    }
+
+    // per-request key and timeouts instead of the global Stripe.apiKey, which every request used to overwrite
+    private RequestOptions options(String idempotencyKey) {
+        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder()
+                .setApiKey(secretKey)
+                .setConnectTimeout(timeoutMillis)
+                .setReadTimeout(timeoutMillis)
+                .setMaxNetworkRetries(0);
+        if (idempotencyKey != null) {
+            builder.setIdempotencyKey(idempotencyKey);
+        }
+        return builder.build();
+    }
+}
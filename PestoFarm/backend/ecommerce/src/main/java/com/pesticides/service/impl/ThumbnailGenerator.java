@@ -0,0 +1,165 @@
+package com.pesticides.service.impl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.pesticides.service.FileStorage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a JPEG thumbnail next to each uploaded image, off the request thread.
+ *
+ * Work runs on a small pool with a bounded queue; when it is full the thumbnail is skipped and
+ * counted rather than queued without limit, and the client falls back to the original. Large
+ * photos are decoded with source subsampling so a 12 MP image never becomes a 48 MB raster, and
+ * anything above {@link #MAX_PIXELS} is not decoded at all.
+ */
+@Slf4j
+public class ThumbnailGenerator implements DisposableBean {
+
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final FileStorage storage;
+    private final int width;
+    private final ThreadPoolExecutor executor;
+    private final Counter skipped;
+    // keys queued or being generated, so a thumbnail URL can be handed out before the file exists
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailGenerator(FileStorage storage, int width, int threads, int queueCapacity, MeterRegistry registry) {
+        this.storage = storage;
+        this.width = width;
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "thumbnail-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.skipped = Counter.builder("file.thumbnail.skipped").register(registry);
+        Gauge.builder("file.thumbnail.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+    }
+
+    /** {@code chat/<sha256>.png} becomes {@code chat/<sha256>.thumb.jpg}. */
+    public static String thumbnailKey(String key) {
+        return key.substring(0, key.lastIndexOf('.')) + ".thumb.jpg";
+    }
+
+    /** Queues a thumbnail for {@code key}; false when none will be written (no reader for the type, queue full). */
+    public boolean submit(String key) {
+        if (!supports(key)) return false;
+        if (!pending.add(key)) return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } catch (Exception e) {
+                    log.warn("Thumbnail for {} failed: {}", key, e.getMessage());
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            skipped.increment();
+            return false;
+        }
+    }
+
+    /**
+     * True when the thumbnail of {@code key} exists or is still being generated. An image that turns
+     * out to exceed {@link #MAX_PIXELS} is only found out when it is decoded.
+     */
+    public boolean hasThumbnail(String key) {
+        return pending.contains(key) || storage.exists(thumbnailKey(key));
+    }
+
+    // WebP has no reader in the JDK
+    static boolean supports(String key) {
+        return ImageIO.getImageReadersBySuffix(key.substring(key.lastIndexOf('.') + 1)).hasNext();
+    }
+
+    /** Synchronous generation; returns false when the image type or size is not supported. */
+    public boolean generate(String key) throws IOException {
+        String thumbKey = thumbnailKey(key);
+        if (storage.exists(thumbKey)) return true;
+
+        BufferedImage source;
+        try (InputStream in = storage.open(key); ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return false; // e.g. webp, no reader in the JDK
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int w = reader.getWidth(0);
+                int h = reader.getHeight(0);
+                if ((long) w * h > MAX_PIXELS) return false;
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, w / (width * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round(source.getHeight() * (targetWidth / (float) source.getWidth())));
+        BufferedImage thumb = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+
+        Path staging = storage.createStagingFile();
+        try {
+            try (OutputStream out = Files.newOutputStream(staging)) {
+                ImageIO.write(thumb, "jpg", out);
+            }
+            storage.put(thumbKey, staging);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
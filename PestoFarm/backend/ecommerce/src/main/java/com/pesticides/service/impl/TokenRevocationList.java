@@ -0,0 +1,159 @@
+package com.pesticides.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory revocation list for access tokens, checked by {@link JwtTokenValidator} on every
+ * request without touching the database.
+ *
+ * Two things can be revoked: a single token (by its {@code jti}) and every token of a subject
+ * issued before a cut-off (account deleted, role changed, logout everywhere). Both go into a
+ * Bloom filter backed by an exact map. The common case, a token that was never revoked, is
+ * answered by the Bloom filter alone; only filter hits consult the exact maps.
+ *
+ * Entries only need to live as long as the access tokens they cover, so expired entries are
+ * pruned on a schedule and the filter is rebuilt from what is left (Bloom filters cannot delete).
+ * The list is per node and not persisted: after a restart, tokens revoked earlier stay usable
+ * until they expire, which the short access-token lifetime bounds.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int EXPECTED_ENTRIES = 100_000;
+    private static final int HASHES = 7;
+    // ~9.6 bits per entry gives ~1% false positives at the expected size with 7 hashes
+    private static final int BITS = EXPECTED_ENTRIES * 10;
+
+    // jti -> epoch millis at which the token expires anyway
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // subject -> epoch millis; tokens issued before it are revoked
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+
+    private volatile Bloom bloom = new Bloom(BITS);
+
+    @Value("${jwt.access-token-ttl:15m}")
+    private Duration accessTokenTtl;
+
+    public synchronized void revokeToken(String jti, long expiresAtMillis) {
+        if (jti == null) return;
+        revokedTokens.merge(jti, expiresAtMillis, Math::max);
+        bloom.put(tokenKey(jti));
+    }
+
+    public synchronized void revokeSubject(String subject, long cutoffMillis) {
+        if (subject == null) return;
+        revokedSubjects.merge(subject, cutoffMillis, Math::max);
+        bloom.put(subjectKey(subject));
+    }
+
+    /**
+     * @param issuedAtMillis when the token was issued, to the millisecond; a token issued after a
+     *                       subject revocation, even within the same second, is not revoked
+     */
+    public boolean isRevoked(String jti, String subject, long issuedAtMillis) {
+        Bloom current = bloom;
+        if (jti != null && current.mightContain(tokenKey(jti)) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (subject != null && current.mightContain(subjectKey(subject))) {
+            Long cutoff = revokedSubjects.get(subject);
+            return cutoff != null && issuedAtMillis <= cutoff;
+        }
+        return false;
+    }
+
+    /**
+     * Drops entries whose tokens have expired on their own and rebuilds the filter from the rest.
+     * @param maxTokenAgeMillis lifetime of an access token; a subject cut-off older than this
+     *                          cannot match any live token
+     */
+    public synchronized void prune(long nowMillis, long maxTokenAgeMillis) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < nowMillis);
+        revokedSubjects.values().removeIf(cutoff -> cutoff + maxTokenAgeMillis < nowMillis);
+
+        Bloom rebuilt = new Bloom(BITS);
+        revokedTokens.keySet().forEach(jti -> rebuilt.put(tokenKey(jti)));
+        revokedSubjects.keySet().forEach(subject -> rebuilt.put(subjectKey(subject)));
+        bloom = rebuilt;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation-prune-interval-ms:300000}")
+    void scheduledPrune() {
+        prune(System.currentTimeMillis(), accessTokenTtl.toMillis());
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedSubjects.size();
+    }
+
+    private static String tokenKey(String jti) {
+        return "j:" + jti;
+    }
+
+    private static String subjectKey(String subject) {
+        return "s:" + subject;
+    }
+
+    /** Fixed-size Bloom filter over a lock-free bit array, using double hashing of a 64-bit FNV-1a hash. */
+    static final class Bloom {
+
+        private final AtomicLongArray words;
+        private final int bits;
+
+        Bloom(int bits) {
+            this.bits = bits;
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        void put(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                int word = bit >>> 6;
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                    if ((old & mask) != 0) break;
+                } while (!words.compareAndSet(word, old, old | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash64(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            // final avalanche so the two 32-bit halves are independent enough for double hashing
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
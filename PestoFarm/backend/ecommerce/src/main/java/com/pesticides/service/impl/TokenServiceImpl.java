@@ -0,0 +1,141 @@
+package com.pesticides.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pesticides.config.JwtProvider;
+import com.pesticides.domain.USER_ROLE;
+import com.pesticides.exception.CustomException;
+import com.pesticides.modal.RefreshToken;
+import com.pesticides.repository.RefreshTokenRepository;
+import com.pesticides.response.AuthResponse;
+import com.pesticides.service.TokenService;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class TokenServiceImpl implements TokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtProvider jwtProvider;
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.refresh-token-ttl:14d}")
+    private Duration refreshTokenTtl;
+
+    @Override
+    @Transactional
+    public String issueRefreshToken(String email, USER_ROLE role) {
+        return createRefreshToken(email, role, UUID.randomUUID().toString());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = CustomException.class)
+    public AuthResponse refresh(String refreshToken) throws Exception {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new CustomException("Refresh token is required.");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+        if (stored == null) {
+            throw new CustomException("Invalid refresh token.");
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new CustomException("Refresh token has expired. Please log in again.");
+        }
+        if (stored.isRevoked() || refreshTokenRepository.markRotated(stored.getId()) == 0) {
+            // a retired token came back: someone else holds a copy, so end the whole session
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            throw new CustomException("Refresh token has already been used. Please log in again.");
+        }
+
+        AuthResponse res = new AuthResponse();
+        res.setJwt(generateAccessToken(stored.getEmail(), stored.getRole()));
+        res.setRefreshToken(createRefreshToken(stored.getEmail(), stored.getRole(), stored.getFamilyId()));
+        res.setRole(stored.getRole());
+        res.setMessage("Token refreshed");
+        return res;
+    }
+
+    @Override
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null && !accessToken.isBlank()) {
+            try {
+                Claims claims = jwtProvider.getClaims(accessToken);
+                revocationList.revokeToken(claims.getId(), claims.getExpiration().getTime());
+            } catch (Exception e) {
+                // an expired or malformed access token has nothing left to revoke
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+            if (stored != null) {
+                refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllTokens(String email) {
+        revocationList.revokeSubject(email, System.currentTimeMillis());
+        refreshTokenRepository.revokeAllByEmail(email);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-token-cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteExpiredRefreshTokens() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String createRefreshToken(String email, USER_ROLE role, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setEmail(email);
+        refreshToken.setRole(role);
+        refreshToken.setCreatedAt(LocalDateTime.now());
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(refreshTokenTtl));
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    private String generateAccessToken(String email, USER_ROLE role) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role.toString()));
+        return jwtProvider.generateToken(new UsernamePasswordAuthenticationToken(email, null, authorities));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.pesticides.service.impl;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.pesticides.modal.Order;
@@ -17,6 +20,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
     
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
     private final SellerRepository sellerRepository;
     
@@ -33,8 +38,9 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
-    public List<Transaction> getTransactionsBySellerId(Seller seller) {
-        return transactionRepository.findBySellerId(seller.getId());
+    public Page<Transaction> getTransactionsBySellerId(Seller seller, int pageNumber, int pageSize) {
+        return transactionRepository.findBySellerId(seller.getId(),
+                PageRequest.of(pageNumber, Math.min(pageSize, MAX_PAGE_SIZE), Sort.by(Sort.Direction.DESC, "date")));
     }
 
     @Override
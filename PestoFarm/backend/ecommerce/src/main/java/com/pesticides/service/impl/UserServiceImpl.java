@@ -1,20 +1,17 @@
 package com.pesticides.service.impl;
 
-import javax.crypto.SecretKey;
-
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.pesticides.config.JWT_CONSTANT;
+import com.pesticides.config.JwtProvider;
 import com.pesticides.domain.USER_ROLE;
 import com.pesticides.exception.UserException;
 import com.pesticides.modal.User;
 import com.pesticides.repository.UserRepository;
+import com.pesticides.service.TokenService;
 import com.pesticides.service.UserService;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -23,6 +20,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final JwtProvider jwtProvider;
 
     @Override
     public User findUserByJwtToken(String jwt) {
@@ -34,8 +33,7 @@ public class UserServiceImpl implements UserService {
             }
 
             // Extract email from JWT token
-            SecretKey key = Keys.hmacShaKeyFor(JWT_CONSTANT.SECRET_KEY.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            Claims claims = jwtProvider.getClaims(token);
 
             String email = String.valueOf(claims.get("email"));
 
@@ -70,7 +68,13 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean checkPassword(User user, String rawPassword) {
         // Fixed: Matches raw password against the user's encoded password
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        boolean matches = passwordEncoder.matches(rawPassword, user.getPassword());
+        if (matches && passwordEncoder.upgradeEncoding(user.getPassword())) {
+            // rehash with the current cost now that we have the raw password
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+        }
+        return matches;
     }
 
     @Override
@@ -97,6 +101,7 @@ public class UserServiceImpl implements UserService {
         try {
             User user = findUserById(userId);
             userRepository.delete(user);
+            tokenService.revokeAllTokens(user.getEmail());
         } catch (UserException e) {
             throw new RuntimeException(e.getMessage());
         }
@@ -115,6 +120,8 @@ public class UserServiceImpl implements UserService {
             } else {
                 user.setRole(USER_ROLE.ROLE_USER);
             }
+            // tokens carry the old role; make the user sign in again to pick up the new one
+            tokenService.revokeAllTokens(user.getEmail());
             return userRepository.save(user);
 
         } catch (UserException e) {
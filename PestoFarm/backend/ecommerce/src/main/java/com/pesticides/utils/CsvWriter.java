@@ -0,0 +1,60 @@
+package com.pesticides.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 rows straight to a {@link Writer}; nothing is kept between rows.
+ *
+ * Text that a spreadsheet would run as a formula (leading =, +, - or @) is prefixed with a quote,
+ * because these exports are usually opened in Excel. Numbers are written as they are.
+ */
+public class CsvWriter {
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            writeValue(values[i]);
+        }
+        out.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) return;
+        if (value instanceof Number) {
+            out.write(value.toString());
+            return;
+        }
+
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,323 @@
+package com.pesticides.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.pesticides.dto.GeoPoint;
+
+/**
+ * In-memory centroids of Indian PIN codes, and of districts derived from them.
+ *
+ * PINs live in an open-addressing table of primitive arrays: an {@code int} key and a
+ * {@code long} holding the latitude and longitude as two packed floats, about 12 bytes per
+ * PIN against the ~80 of a boxed HashMap entry. Float precision (~1 m) is far finer than a
+ * PIN centroid is accurate.
+ *
+ * The loader reads India Post's "All India Pincode Directory" CSV as published on
+ * data.gov.in (one row per post office, averaged per PIN) or any CSV with
+ * {@code pincode,latitude,longitude} and optional {@code district,statename} columns.
+ * Rows without usable coordinates, or with coordinates outside India, are skipped.
+ *
+ * A grid of 0.1 degree cells over the same box, stored as two int arrays (cell offsets and the
+ * PINs sorted by cell), answers {@link #nearestPin} for buyers who only share a GPS fix.
+ */
+public final class PostalCodeIndex {
+
+    // India's bounding box, generously; the directory has swapped and zeroed coordinates in places
+    private static final double MIN_LAT = 6, MAX_LAT = 38, MIN_LON = 68, MAX_LON = 98;
+
+    private static final double CELL_DEGREES = 0.1;
+    private static final int ROWS = (int) Math.round((MAX_LAT - MIN_LAT) / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round((MAX_LON - MIN_LON) / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private static final PostalCodeIndex EMPTY = new PostalCodeIndex(new int[1], new long[1], 0, Map.of(),
+            new int[ROWS * COLUMNS + 1], new int[0]);
+
+    private final int[] keys;
+    private final long[] values;
+    private final int size;
+    private final Map<String, Long> places;
+    // PINs of cell c are cellPins[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellPins;
+
+    private PostalCodeIndex(int[] keys, long[] values, int size, Map<String, Long> places, int[] cellStart,
+            int[] cellPins) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+        this.places = places;
+        this.cellStart = cellStart;
+        this.cellPins = cellPins;
+    }
+
+    public static PostalCodeIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int placeCount() {
+        return places.size();
+    }
+
+    /** Centroid of a six-digit PIN code, or null if it is not in the index. */
+    public GeoPoint find(int pin) {
+        if (pin <= 0) return null;
+        int mask = keys.length - 1;
+        for (int slot = mix(pin) & mask; ; slot = (slot + 1) & mask) {
+            int key = keys[slot];
+            if (key == pin) return unpack(values[slot]);
+            if (key == 0) return null;
+        }
+    }
+
+    /** Parses a PIN out of free text such as "411 001"; returns -1 unless it is exactly six digits. */
+    public static int parsePin(String zipCode) {
+        if (zipCode == null) return -1;
+        int pin = 0;
+        int digits = 0;
+        for (int i = 0; i < zipCode.length(); i++) {
+            char c = zipCode.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 6) return -1;
+                pin = pin * 10 + (c - '0');
+            } else if (c != ' ' && c != '-') {
+                return -1;
+            }
+        }
+        return digits == 6 && pin >= 100000 ? pin : -1;
+    }
+
+    /**
+     * PIN whose centroid is closest to the point, searching only the grid cells that can hold one
+     * within maxKm. Returns -1 when none is that close or the point is outside India.
+     */
+    public int nearestPin(double lat, double lon, double maxKm) {
+        if (!(lat >= MIN_LAT && lat <= MAX_LAT && lon >= MIN_LON && lon <= MAX_LON)) return -1;
+        int row = row(lat);
+        int column = column(lon);
+        double lonScale = Math.cos(Math.toRadians(lat));
+        int rowReach = (int) Math.ceil(maxKm / (KM_PER_DEGREE * CELL_DEGREES));
+        int columnReach = (int) Math.ceil(maxKm / (KM_PER_DEGREE * CELL_DEGREES * lonScale));
+
+        int best = -1;
+        double bestKm = maxKm;
+        for (int r = Math.max(0, row - rowReach); r <= Math.min(ROWS - 1, row + rowReach); r++) {
+            for (int c = Math.max(0, column - columnReach); c <= Math.min(COLUMNS - 1, column + columnReach); c++) {
+                int cell = r * COLUMNS + c;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    GeoPoint point = find(cellPins[i]);
+                    // equirectangular distance is well within a PIN centroid's accuracy at these ranges
+                    double dLat = point.latitude() - lat;
+                    double dLon = (point.longitude() - lon) * lonScale;
+                    double km = Math.sqrt(dLat * dLat + dLon * dLon) * KM_PER_DEGREE;
+                    if (km <= bestKm) {
+                        bestKm = km;
+                        best = cellPins[i];
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Centroid of a district matched by city name, within the given state when there is one.
+     * A name found in several states only matches together with its state.
+     */
+    public GeoPoint findPlace(String city, String state) {
+        String district = placeKey(city);
+        if (district.isEmpty()) return null;
+        Long packed = places.get(district + '|' + placeKey(state));
+        if (packed == null) {
+            packed = places.get(district);
+        }
+        return packed == null ? null : unpack(packed);
+    }
+
+    public static PostalCodeIndex load(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int pinCol = -1, latCol = -1, lonCol = -1, districtCol = -1, stateCol = -1;
+
+        Map<Integer, double[]> pins = new HashMap<>();
+        Map<String, double[]> districts = new HashMap<>();
+        Map<String, String> districtState = new HashMap<>();
+        String line;
+        boolean header = true;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            List<String> fields = split(line);
+            if (header) {
+                for (int i = 0; i < fields.size(); i++) {
+                    switch (fields.get(i).trim().toLowerCase(Locale.ROOT)) {
+                        case "pincode", "pin", "postal_code" -> pinCol = i;
+                        case "latitude", "lat" -> latCol = i;
+                        case "longitude", "lon", "lng" -> lonCol = i;
+                        case "district", "city" -> districtCol = i;
+                        case "statename", "state" -> stateCol = i;
+                        default -> { }
+                    }
+                }
+                if (pinCol < 0 || latCol < 0 || lonCol < 0) {
+                    throw new IOException("Postal code file needs pincode, latitude and longitude columns");
+                }
+                header = false;
+                continue;
+            }
+
+            int pin = parsePin(field(fields, pinCol));
+            double lat = parseCoordinate(field(fields, latCol));
+            double lon = parseCoordinate(field(fields, lonCol));
+            if (pin < 0 || !(lat >= MIN_LAT && lat <= MAX_LAT && lon >= MIN_LON && lon <= MAX_LON)) continue;
+
+            accumulate(pins.computeIfAbsent(pin, p -> new double[3]), lat, lon);
+            String district = placeKey(field(fields, districtCol));
+            if (!district.isEmpty()) {
+                String state = placeKey(field(fields, stateCol));
+                accumulate(districts.computeIfAbsent(district + '|' + state, k -> new double[3]), lat, lon);
+                accumulate(districts.computeIfAbsent(district, k -> new double[3]), lat, lon);
+                // a district name seen under two states is ambiguous without the state
+                String seen = districtState.putIfAbsent(district, state);
+                if (seen != null && !seen.equals(state)) {
+                    districtState.put(district, null);
+                }
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(2, pins.size() * 2 - 1)) << 1;
+        int[] keys = new int[capacity];
+        long[] values = new long[capacity];
+        int mask = capacity - 1;
+        for (Map.Entry<Integer, double[]> entry : pins.entrySet()) {
+            int slot = mix(entry.getKey()) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = entry.getKey();
+            values[slot] = pack(entry.getValue());
+        }
+
+        Map<String, Long> places = new HashMap<>(districts.size() * 2);
+        for (Map.Entry<String, double[]> entry : districts.entrySet()) {
+            String key = entry.getKey();
+            if (key.indexOf('|') < 0 && districtState.get(key) == null) continue;
+            places.put(key, pack(entry.getValue()));
+        }
+
+        // counting sort of the PINs by grid cell
+        int[] cellStart = new int[ROWS * COLUMNS + 1];
+        int[] pinCells = new int[pins.size()];
+        int[] pinKeys = new int[pins.size()];
+        int n = 0;
+        for (Map.Entry<Integer, double[]> entry : pins.entrySet()) {
+            double[] sum = entry.getValue();
+            int cell = row(sum[0] / sum[2]) * COLUMNS + column(sum[1] / sum[2]);
+            pinKeys[n] = entry.getKey();
+            pinCells[n++] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < ROWS * COLUMNS; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = cellStart.clone();
+        int[] cellPins = new int[pins.size()];
+        for (int i = 0; i < n; i++) {
+            cellPins[fill[pinCells[i]]++] = pinKeys[i];
+        }
+        return new PostalCodeIndex(keys, values, pins.size(), Map.copyOf(places), cellStart, cellPins);
+    }
+
+    private static int row(double lat) {
+        return Math.min(ROWS - 1, (int) ((lat - MIN_LAT) / CELL_DEGREES));
+    }
+
+    private static int column(double lon) {
+        return Math.min(COLUMNS - 1, (int) ((lon - MIN_LON) / CELL_DEGREES));
+    }
+
+    private static void accumulate(double[] sum, double lat, double lon) {
+        sum[0] += lat;
+        sum[1] += lon;
+        sum[2]++;
+    }
+
+    private static long pack(double[] sum) {
+        float lat = (float) (sum[0] / sum[2]);
+        float lon = (float) (sum[1] / sum[2]);
+        return ((long) Float.floatToRawIntBits(lat) << 32) | (Float.floatToRawIntBits(lon) & 0xFFFFFFFFL);
+    }
+
+    // rounded to 6 decimals so that 18.52f comes back as 18.52 rather than 18.520000457763672
+    private static GeoPoint unpack(long packed) {
+        return new GeoPoint(round(Float.intBitsToFloat((int) (packed >>> 32))), round(Float.intBitsToFloat((int) packed)));
+    }
+
+    private static double round(float value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+
+    // PINs are dense within postal regions, so spread them before masking
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static double parseCoordinate(String value) {
+        try {
+            return value == null ? Double.NaN : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String placeKey(String name) {
+        if (name == null) return "";
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if (Character.isLetterOrDigit(c)) key.append(c);
+        }
+        return key.toString();
+    }
+
+    private static String field(List<String> fields, int col) {
+        return col >= 0 && col < fields.size() ? fields.get(col) : null;
+    }
+
+    // CSV line split honouring double quotes; the directory quotes office names that contain commas
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
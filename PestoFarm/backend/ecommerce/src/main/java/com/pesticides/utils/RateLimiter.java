@@ -0,0 +1,103 @@
+package com.pesticides.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Lock-free token-bucket limiter keyed by route and client.
+ *
+ * Each bucket is a single AtomicLong holding the bucket's "theoretical arrival time"
+ * (the GCRA form of a token bucket), so taking a token is one CAS and no bucket is ever
+ * locked. A bucket whose arrival time is in the past is full, which makes idle buckets
+ * safe to drop: a recreated bucket behaves exactly like the evicted one.
+ */
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // one shared bucket per route, used once the per-client map is full so that
+    // spraying new client keys cannot bypass the limit
+    private final ConcurrentHashMap<String, AtomicLong> overflow = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
+    private final int maxKeys;
+    private final long idleEvictionNanos;
+    private final LongSupplier clock;
+
+    public RateLimiter(int maxKeys, Duration idleEviction) {
+        this(maxKeys, idleEviction, System::nanoTime);
+    }
+
+    RateLimiter(int maxKeys, Duration idleEviction, LongSupplier clock) {
+        this.maxKeys = maxKeys;
+        this.idleEvictionNanos = idleEviction.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token from the bucket of the given route and client.
+     * The bucket holds {@code capacity} tokens and refills {@code capacity} tokens per {@code period}.
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String route, String client, int capacity, Duration period) {
+        long interval = Math.max(1L, period.toNanos() / capacity);
+        long tolerance = interval * (capacity - 1);
+        AtomicLong bucket = bucketFor(route, client);
+
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = bucket.get();
+            long base = Math.max(tat, now);
+            long wait = base - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, base + interval)) {
+                return 0L;
+            }
+        }
+    }
+
+    private AtomicLong bucketFor(String route, String client) {
+        String key = route + '|' + client;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictIdle();
+            if (buckets.size() >= maxKeys) {
+                return overflow.computeIfAbsent(route, r -> new AtomicLong(clock.getAsLong()));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(clock.getAsLong()));
+    }
+
+    /**
+     * Drops buckets that have been full for longer than the idle window.
+     * Runs on a schedule and inline when the map hits its size bound; concurrent callers skip
+     * the sweep instead of queueing behind it.
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long cutoff = clock.getAsLong() - idleEvictionNanos;
+            buckets.values().removeIf(tat -> tat.get() < cutoff);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,121 @@
+package com.pesticides.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory report deltas between flushes, a fixed number of counts per key.
+ *
+ * Writers add from request threads after their transaction commits; each key holds a set of
+ * {@link LongAdder}s, so a busy seller or scientist updates striped cells instead of one database
+ * row. {@link #drain()} swaps in an empty window and hands back the old one: the write lock is held
+ * only for the swap and guarantees no add is still writing into the returned window, so its deltas
+ * and entry ids describe exactly the same writes.
+ *
+ * @param <K> the report row the counts belong to
+ */
+public class ReportAccumulator<K> {
+
+    /** The summed counts of one key, in the order they were passed to {@link ReportAccumulator#add}. */
+    public record Delta<K>(K key, long[] counts) {
+    }
+
+    /** A drained window: the per-key deltas and the ids of the source entries they came from. */
+    public record Drained<K>(List<Delta<K>> deltas, List<Long> entryIds) {
+
+        public boolean isEmpty() {
+            return deltas.isEmpty() && entryIds.isEmpty();
+        }
+    }
+
+    private final class Window {
+        final Map<K, LongAdder[]> buckets = new ConcurrentHashMap<>();
+        final Queue<Long> entryIds = new ConcurrentLinkedQueue<>();
+
+        LongAdder[] counters(K key) {
+            return buckets.computeIfAbsent(key, k -> {
+                LongAdder[] counters = new LongAdder[width];
+                for (int i = 0; i < width; i++) {
+                    counters[i] = new LongAdder();
+                }
+                return counters;
+            });
+        }
+    }
+
+    private final int width;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Window current = new Window();
+
+    /** @param width the number of counts kept per key */
+    public ReportAccumulator(int width) {
+        this.width = width;
+    }
+
+    /**
+     * @param entryId the source entry these counts came from, or null if the caller does not track them
+     * @param counts exactly {@code width} amounts to add
+     */
+    public void add(K key, Long entryId, long... counts) {
+        if (counts.length != width) {
+            throw new IllegalArgumentException("Expected " + width + " counts, got " + counts.length);
+        }
+        lock.readLock().lock();
+        try {
+            addTo(current.counters(key), counts);
+            if (entryId != null) {
+                current.entryIds.add(entryId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Drained<K> drain() {
+        Window drained;
+        lock.writeLock().lock();
+        try {
+            drained = current;
+            current = new Window();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Delta<K>> deltas = new ArrayList<>(drained.buckets.size());
+        drained.buckets.forEach((key, counters) -> {
+            long[] counts = new long[width];
+            for (int i = 0; i < width; i++) {
+                counts[i] = counters[i].sum();
+            }
+            deltas.add(new Delta<>(key, counts));
+        });
+        return new Drained<>(deltas, new ArrayList<>(drained.entryIds));
+    }
+
+    /** Puts back a window whose flush failed so that the next flush retries it. */
+    public void restore(Drained<K> drained) {
+        lock.readLock().lock();
+        try {
+            for (Delta<K> delta : drained.deltas()) {
+                addTo(current.counters(delta.key()), delta.counts());
+            }
+            current.entryIds.addAll(drained.entryIds());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addTo(LongAdder[] counters, long[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                counters[i].add(counts[i]);
+            }
+        }
+    }
+}
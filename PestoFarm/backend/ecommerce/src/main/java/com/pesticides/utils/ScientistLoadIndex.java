@@ -0,0 +1,126 @@
+package com.pesticides.utils;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Open-chat load per scientist, ordered so the least loaded scientist of a specialization is
+ * found in O(log n).
+ *
+ * Each routable scientist has one entry in a tree for its specialization and one in a tree of
+ * all scientists. A change of load removes the entry and inserts it again with the new count
+ * (both O(log n); a binary heap would need a linear search to find the entry it is changing).
+ * Ties go to whoever was assigned least recently, so equally idle scientists take turns.
+ *
+ * Scientists who are unavailable or have no specialization keep a count but are not routable.
+ * All methods are synchronized; each holds the lock for a few tree operations.
+ */
+public final class ScientistLoadIndex {
+
+    private static final Comparator<Slot> LEAST_LOADED = Comparator.comparingInt(Slot::load)
+            .thenComparingLong(Slot::lastAssigned)
+            .thenComparingLong(Slot::scientistId);
+
+    private record Slot(long scientistId, String specialization, int load, long lastAssigned) {
+    }
+
+    private final Map<Long, Integer> loads = new HashMap<>();
+    private final Map<Long, Slot> slots = new HashMap<>();
+    private final Map<String, NavigableSet<Slot>> bySpecialization = new HashMap<>();
+    private final NavigableSet<Slot> all = new TreeSet<>(LEAST_LOADED);
+    private long assignments;
+
+    /** Adds or updates a scientist; a null specialization makes the scientist unroutable. */
+    public synchronized void put(long scientistId, String specialization, boolean routable) {
+        Slot old = slots.remove(scientistId);
+        if (old != null) unlink(old);
+        String key = key(specialization);
+        if (routable && key != null) {
+            link(new Slot(scientistId, key, load(scientistId), old != null ? old.lastAssigned() : 0));
+        }
+    }
+
+    public synchronized int load(long scientistId) {
+        return loads.getOrDefault(scientistId, 0);
+    }
+
+    /** Adjusts a scientist's load by delta, never below zero. */
+    public synchronized void adjust(long scientistId, int delta) {
+        setLoad(scientistId, Math.max(0, load(scientistId) + delta));
+    }
+
+    /** Replaces every load, e.g. with counts from the database; scientists not in the map drop to zero. */
+    public synchronized void resetLoads(Map<Long, Integer> counts) {
+        for (Long scientistId : Map.copyOf(loads).keySet()) {
+            if (!counts.containsKey(scientistId)) setLoad(scientistId, 0);
+        }
+        counts.forEach(this::setLoad);
+    }
+
+    /**
+     * Takes the least loaded routable scientist, of the given specialization or of any when it is
+     * null, and adds one to their load.
+     * @return the scientist's id, -1 if none is routable, or -2 if all have maxLoad or more
+     */
+    public synchronized long assign(String specialization, int maxLoad) {
+        NavigableSet<Slot> candidates = specialization == null ? all : bySpecialization.get(key(specialization));
+        if (candidates == null || candidates.isEmpty()) return -1;
+        Slot least = candidates.first();
+        if (least.load() >= maxLoad) return -2;
+
+        unlink(least);
+        loads.put(least.scientistId(), least.load() + 1);
+        link(new Slot(least.scientistId(), least.specialization(), least.load() + 1, ++assignments));
+        return least.scientistId();
+    }
+
+    public synchronized Map<Long, Integer> loads() {
+        return Map.copyOf(loads);
+    }
+
+    /** Every scientist that is routable or has a load. */
+    public synchronized Set<Long> scientistIds() {
+        Set<Long> ids = new HashSet<>(slots.keySet());
+        ids.addAll(loads.keySet());
+        return ids;
+    }
+
+    private void setLoad(long scientistId, int load) {
+        if (load == 0) {
+            loads.remove(scientistId);
+        } else {
+            loads.put(scientistId, load);
+        }
+        Slot old = slots.remove(scientistId);
+        if (old != null) {
+            unlink(old);
+            link(new Slot(scientistId, old.specialization(), load, old.lastAssigned()));
+        }
+    }
+
+    private void link(Slot slot) {
+        slots.put(slot.scientistId(), slot);
+        all.add(slot);
+        bySpecialization.computeIfAbsent(slot.specialization(), k -> new TreeSet<>(LEAST_LOADED)).add(slot);
+    }
+
+    private void unlink(Slot slot) {
+        all.remove(slot);
+        NavigableSet<Slot> group = bySpecialization.get(slot.specialization());
+        if (group != null) {
+            group.remove(slot);
+            if (group.isEmpty()) bySpecialization.remove(slot.specialization());
+        }
+    }
+
+    private static String key(String specialization) {
+        if (specialization == null || specialization.isBlank()) return null;
+        return specialization.trim().toLowerCase(Locale.ROOT);
+    }
+}
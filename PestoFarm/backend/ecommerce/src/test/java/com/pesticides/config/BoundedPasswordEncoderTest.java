@@ -0,0 +1,94 @@
+package com.pesticides.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.pesticides.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+
+    private PasswordEncoder delegating(int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+
+    @Test
+    public void legacyAndLowCostHashes_MatchAndAreFlaggedForRehash() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegating(5), 2, 8, Duration.ofSeconds(5), registry);
+
+        String legacy = new BCryptPasswordEncoder(4).encode("pw");
+        assertTrue(encoder.matches("pw", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String lowCost = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("pw");
+        assertTrue(encoder.matches("pw", lowCost));
+        assertTrue(encoder.upgradeEncoding(lowCost));
+
+        String current = encoder.encode("pw");
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertTrue(encoder.matches("pw", current));
+        assertFalse(encoder.upgradeEncoding(current));
+
+        assertEquals(3, registry.get("password.hash.duration").tag("op", "matches").timer().count());
+        encoder.destroy();
+    }
+
+    @Test
+    public void saturatedPool_ShedsCallsInsteadOfQueueingThem() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                return raw.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 2, Duration.ofSeconds(10), registry);
+
+        // one running plus two queued fills the pool
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        for (int i = 0; i < 3; i++) {
+            callers.submit(() -> encoder.matches("a", "a"));
+        }
+        while (registry.get("password.hash.queue.depth").gauge().value() < 2) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(ServiceBusyException.class, () -> encoder.matches("a", "a"));
+        assertEquals(1.0, registry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+        encoder.destroy();
+    }
+}
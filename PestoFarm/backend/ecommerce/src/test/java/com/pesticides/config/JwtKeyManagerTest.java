@@ -0,0 +1,161 @@
+package com.pesticides.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+public class JwtKeyManagerTest {
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static JwtProvider provider(JwtKeyManager keyManager) {
+        JwtProvider provider = new JwtProvider(keyManager);
+        ReflectionTestUtils.setField(provider, "accessTokenTtl", Duration.ofMinutes(15));
+        return provider;
+    }
+
+    private static String token(JwtProvider provider) {
+        return provider.generateToken(new UsernamePasswordAuthenticationToken("farmer@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @Test
+    public void rotatedKeys_VerifyUntilRetentionPasses() {
+        MutableClock clock = new MutableClock();
+        JwtKeyManager keyManager = new JwtKeyManager(Duration.ofMinutes(16), true, clock);
+        JwtProvider provider = provider(keyManager);
+
+        String beforeRotation = token(provider);
+        keyManager.rotate();
+        String afterRotation = token(provider);
+
+        assertEquals("farmer@example.com", provider.getEmailFromJwtToken(beforeRotation));
+        assertEquals("farmer@example.com", provider.getEmailFromJwtToken(afterRotation));
+        assertEquals(2, keyManager.verificationKeyCount());
+
+        // once the retired key has outlived every token it signed, it is dropped on the next rotation
+        clock.now = clock.now.plus(Duration.ofMinutes(17));
+        keyManager.rotate();
+        assertEquals(2, keyManager.verificationKeyCount());
+        assertThrows(SignatureException.class, () -> keyManager.resolveSigningKey(
+                Jwts.jwsHeader().setKeyId(keyIdOf(beforeRotation)).setAlgorithm("ES256"), (io.jsonwebtoken.Claims) null));
+    }
+
+    @Test
+    public void legacyHmacTokens_AcceptedOnlyWhileEnabled() {
+        String legacy = Jwts.builder()
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .claim("email", "farmer@example.com")
+                .signWith(Keys.hmacShaKeyFor(JWT_CONSTANT.SECRET_KEY.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals("farmer@example.com",
+                provider(new JwtKeyManager(Duration.ofMinutes(16), true, Clock.systemUTC())).getEmailFromJwtToken(legacy));
+        assertThrows(SignatureException.class,
+                () -> provider(new JwtKeyManager(Duration.ofMinutes(16), false, Clock.systemUTC())).getEmailFromJwtToken(legacy));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void jwks_PublishesEveryVerificationKey() {
+        JwtKeyManager keyManager = new JwtKeyManager(Duration.ofMinutes(16), true, Clock.systemUTC());
+        keyManager.rotate();
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyManager.jwks().get("keys");
+        assertEquals(2, keys.size());
+        for (Map<String, Object> jwk : keys) {
+            assertEquals("EC", jwk.get("kty"));
+            assertEquals("ES256", jwk.get("alg"));
+            assertEquals(43, ((String) jwk.get("x")).length());
+            assertEquals(43, ((String) jwk.get("y")).length());
+        }
+    }
+
+    @Test
+    public void keyStoreKeys_AreSharedAcrossInstancesAndNeedAnUnambiguousSigningKey(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-keys.p12");
+        keytool(file, "2026-09");
+        keytool(file, "2026-10");
+        char[] password = "changeit".toCharArray();
+
+        // two nodes (or one node before and after a restart) loading the same keystore
+        JwtProvider node1 = provider(new JwtKeyManager(Duration.ofMinutes(16), false, Clock.systemUTC(),
+                keyStore(file, password), password, "2026-10"));
+        JwtKeyManager node2Keys = new JwtKeyManager(Duration.ofMinutes(16), false, Clock.systemUTC(),
+                keyStore(file, password), password, "2026-10");
+
+        String token = token(node1);
+        assertEquals("2026-10", keyIdOf(token));
+        assertEquals("farmer@example.com", provider(node2Keys).getEmailFromJwtToken(token));
+        assertEquals(2, ((List<?>) node2Keys.jwks().get("keys")).size());
+        assertThrows(IllegalStateException.class, node2Keys::rotate);
+
+        assertThrows(IllegalStateException.class, () -> new JwtKeyManager(Duration.ofMinutes(16), false,
+                Clock.systemUTC(), keyStore(file, password), password, ""));
+    }
+
+    private static void keytool(Path file, String alias) throws Exception {
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-keyalg", "EC", "-groupname", "secp256r1", "-alias", alias, "-dname", "CN=test",
+                "-storetype", "PKCS12", "-keystore", file.toString(), "-storepass", "changeit")
+                .redirectErrorStream(true).start();
+        process.getInputStream().readAllBytes();
+        assertEquals(0, process.waitFor());
+    }
+
+    private static KeyStore keyStore(Path file, char[] password) throws Exception {
+        try (InputStream in = Files.newInputStream(file)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            return keyStore;
+        }
+    }
+
+    private static String keyIdOf(String jwt) {
+        String header = new String(java.util.Base64.getUrlDecoder().decode(jwt.substring(0, jwt.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+    }
+}
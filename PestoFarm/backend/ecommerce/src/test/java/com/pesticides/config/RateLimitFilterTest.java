@@ -0,0 +1,131 @@
+package com.pesticides.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pesticides.utils.RateLimiter;
+
+import jakarta.servlet.FilterChain;
+
+public class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private RateLimitFilter filter(RateLimiter limiter, RateLimitProperties props) {
+        return new RateLimitFilter(limiter, props, objectMapper);
+    }
+
+    private MockHttpServletRequest login(String ip) {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/api/users/auth/login");
+        req.setRemoteAddr(ip);
+        return req;
+    }
+
+    @Test
+    public void bruteForceLogin_BcryptWorkStaysBoundedByBucket() throws Exception {
+        RateLimitProperties props = new RateLimitProperties();
+        RateLimiter limiter = new RateLimiter(props.getMaxKeys(), props.getIdleEviction());
+        RateLimitFilter filter = filter(limiter, props);
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        String hash = encoder.encode("secret");
+        AtomicInteger bcryptChecks = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        FilterChain loginHandler = (rq, rs) -> {
+            bcryptChecks.incrementAndGet();
+            encoder.matches("guess", hash);
+        };
+
+        int threads = 32;
+        int attemptsPerThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        long began = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    MockHttpServletResponse res = new MockHttpServletResponse();
+                    filter.doFilter(login("203.0.113.7"), res, loginHandler);
+                    if (res.getStatus() == 429) {
+                        throttled.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        long elapsedNanos = System.nanoTime() - began;
+
+        // burst capacity plus whatever refilled while the attack ran (10 per minute)
+        RateLimitProperties.Route route = props.getRoutes().get(0);
+        long refilled = elapsedNanos / (route.getPeriod().toNanos() / route.getCapacity());
+        long allowed = route.getCapacity() + refilled;
+
+        assertTrue(bcryptChecks.get() <= allowed,
+                "bcrypt ran " + bcryptChecks.get() + " times, limit was " + allowed);
+        assertEquals(threads * attemptsPerThread, bcryptChecks.get() + throttled.get());
+    }
+
+    @Test
+    public void throttledResponse_Is429WithRetryAfter() throws Exception {
+        RateLimitProperties props = new RateLimitProperties();
+        RateLimitFilter filter = filter(new RateLimiter(1000, Duration.ofMinutes(10)), props);
+        FilterChain chain = (rq, rs) -> { };
+
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse ok = new MockHttpServletResponse();
+            filter.doFilter(login("198.51.100.1"), ok, chain);
+            assertEquals(200, ok.getStatus());
+        }
+
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(login("198.51.100.1"), limited, chain);
+        assertEquals(429, limited.getStatus());
+        assertNotNull(limited.getHeader("Retry-After"));
+        assertTrue(Long.parseLong(limited.getHeader("Retry-After")) >= 1);
+
+        // a different client has its own bucket
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(login("198.51.100.2"), other, chain);
+        assertEquals(200, other.getStatus());
+    }
+
+    @Test
+    public void unmatchedRoutes_AreNotLimited() throws Exception {
+        RateLimitProperties props = new RateLimitProperties();
+        RateLimiter limiter = new RateLimiter(1000, Duration.ofMinutes(10));
+        RateLimitFilter filter = filter(limiter, props);
+
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/products");
+            MockHttpServletResponse res = new MockHttpServletResponse();
+            filter.doFilter(req, res, (rq, rs) -> { });
+            assertEquals(200, res.getStatus());
+        }
+        assertEquals(0, limiter.size());
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.lang.NonNull;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pesticides.modal.User;
 import com.pesticides.domain.USER_ROLE;
-import com.pesticides.modal.UserLocation;
+import com.pesticides.modal.UserCurrentLocation;
 import com.pesticides.modal.UserLocationPreference;
 import com.pesticides.service.LocationService;
 import com.pesticides.service.UserService;
@@ -55,10 +55,10 @@ public class LocationControllerTest {
 
         Mockito.when(userService.findUserByJwtToken(Mockito.anyString())).thenReturn(fakeUser);
 
-        UserLocation saved = new UserLocation();
+        UserCurrentLocation saved = new UserCurrentLocation();
         saved.setLatitude(28.6139);
         saved.setLongitude(77.2090);
-        saved.setId(1L);
+        saved.setUserId(1L);
 
         Mockito.when(locationService.saveLocation(any(User.class), any(Double.class), any(Double.class), any(Long.class))).thenReturn(saved); 
 
@@ -82,8 +82,8 @@ public class LocationControllerTest {
         User fakeUser = new User();
         fakeUser.setEmail("test@example.com");
 
-        UserLocation loc = new UserLocation();
-        loc.setId(2L);
+        UserCurrentLocation loc = new UserCurrentLocation();
+        loc.setUserId(2L);
         loc.setLatitude(12.34);
         loc.setLongitude(56.78);
 
@@ -0,0 +1,110 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.pesticides.domain.OrderStatus;
+import com.pesticides.domain.PaymentStatus;
+import com.pesticides.dto.TransactionExportRow;
+
+import jakarta.persistence.EntityManager;
+
+public class ExportServiceImplTest {
+
+    private static final long ROWS = 1_000_000;
+    private static final String HEAP = "-Xmx32m";
+
+    @Test
+    public void transactionRow_IsEscaped() throws Exception {
+        StringWriter out = new StringWriter();
+        ExportServiceImpl.writeTransactions(Stream.of(new TransactionExportRow(1L,
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), 10L, "ORD-1", 7L, "Green \"Agro\", Pune", 3L,
+                "=HYPERLINK(\"x\")", 499, PaymentStatus.COMPLETED, OrderStatus.DELIVERED)), out, () -> { });
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals("1,2025-01-02T03:04:05,10,ORD-1,7,\"Green \"\"Agro\"\", Pune\",3,"
+                + "\"'=HYPERLINK(\"\"x\"\")\",499,COMPLETED,DELIVERED", lines[1]);
+    }
+
+    /**
+     * Runs the export of a million synthetic rows in a separate JVM with a 32 MB heap. Anything
+     * that kept rows or the output around would need several times that and fail with an OOM.
+     */
+    @Test
+    public void millionRows_ExportInConstantMemory() throws Exception {
+        Path log = Files.createTempFile("export-heap", ".log");
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                HEAP, "-cp", childClassPath(),
+                ExportServiceImplTest.class.getName(), Long.toString(ROWS))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        assertTrue(process.waitFor(2, TimeUnit.MINUTES), "export did not finish");
+
+        List<String> output = Files.readAllLines(log);
+        Files.deleteIfExists(log);
+        assertEquals(0, process.exitValue(), String.join("\n", output));
+        // header plus one line per row
+        assertEquals("lines=" + (ROWS + 1), output.get(output.size() - 1));
+    }
+
+    // some runners load test classes through their own class loader rather than java.class.path
+    private static String childClassPath() throws Exception {
+        StringBuilder cp = new StringBuilder(System.getProperty("java.class.path"));
+        for (Class<?> c : List.of(ExportServiceImplTest.class, ExportServiceImpl.class, EntityManager.class)) {
+            cp.append(File.pathSeparator)
+                    .append(Path.of(c.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        }
+        return cp.toString();
+    }
+
+    /** Child process entry point: exports synthetic rows to a sink that only counts lines. */
+    public static void main(String[] args) throws IOException {
+        long rows = Long.parseLong(args[0]);
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Stream<TransactionExportRow> synthetic = LongStream.range(0, rows).mapToObj(i -> new TransactionExportRow(
+                i, date.plusSeconds(i), i, "ORD-" + i, i % 500, "Seller " + (i % 500), i % 10_000,
+                "customer" + (i % 10_000) + "@example.com", (int) (i % 5_000), PaymentStatus.COMPLETED,
+                OrderStatus.DELIVERED));
+
+        LineCounter sink = new LineCounter();
+        Writer writer = new OutputStreamWriter(sink, StandardCharsets.UTF_8);
+        ExportServiceImpl.writeTransactions(synthetic, writer, () -> { });
+        System.out.println("lines=" + sink.lines);
+    }
+
+    private static final class LineCounter extends OutputStream {
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+    }
+}
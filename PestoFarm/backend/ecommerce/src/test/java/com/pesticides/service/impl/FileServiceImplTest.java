@@ -0,0 +1,103 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.pesticides.exception.CustomException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FileServiceImplTest {
+
+    private final InMemoryObjectStorage storage;
+    private final ThumbnailGenerator thumbnails;
+    private final FileServiceImpl fileService;
+
+    public FileServiceImplTest() throws Exception {
+        storage = new InMemoryObjectStorage();
+        thumbnails = new ThumbnailGenerator(storage, 64, 1, 4, new SimpleMeterRegistry());
+        fileService = new FileServiceImpl(storage, thumbnails);
+        ReflectionTestUtils.setField(fileService, "maxUploadSize", DataSize.ofKilobytes(64));
+        ReflectionTestUtils.setField(fileService, "publicUrlPrefix", "/images");
+    }
+
+    @Test
+    public void sameImageTwice_IsStoredOnceUnderItsHash() throws Exception {
+        byte[] png = png(400, 300);
+        String first = fileService.uploadFile(new MockMultipartFile("image", "leaf.png", "image/png", png), "chat");
+        // different name and claimed type, same bytes
+        String second = fileService.uploadFile(new MockMultipartFile("image", "x.jpg", "image/jpeg", png), "chat");
+
+        assertEquals(first, second);
+        assertTrue(first.matches("/images/chat/[0-9a-f]{64}\\.png"), first);
+        assertEquals(1, storage.objects.size() - (storage.exists(thumbKey(first)) ? 1 : 0));
+        assertEquals(0, Files.list(storage.staging).count(), "staging file left behind");
+
+        assertTrue(thumbnails.generate(first.substring("/images/".length())));
+        BufferedImage thumb = ImageIO.read(storage.open(thumbKey(first)));
+        assertNotNull(thumb);
+        assertEquals(64, thumb.getWidth());
+        assertEquals(48, thumb.getHeight());
+    }
+
+    @Test
+    public void thumbnailUrl_FallsBackToTheOriginalWhenNoThumbnailIsWritten() throws Exception {
+        String png = fileService.uploadFile(new MockMultipartFile("image", "leaf.png", "image/png", png(40, 30)), "chat");
+        assertEquals(png.replace(".png", ".thumb.jpg"), fileService.thumbnailUrl(png));
+
+        // accepted for upload, but the JDK cannot decode it into a thumbnail
+        byte[] webp = new byte[64];
+        System.arraycopy("RIFF\0\0\0\0WEBP".getBytes(), 0, webp, 0, 12);
+        String url = fileService.uploadFile(new MockMultipartFile("image", "leaf.webp", "image/webp", webp), "reviews");
+        assertTrue(url.endsWith(".webp"), url);
+        assertEquals(url, fileService.thumbnailUrl(url));
+        assertNull(fileService.thumbnailUrl(null));
+    }
+
+    @Test
+    public void nonImagesAndOversizedFiles_AreRejected() throws Exception {
+        MockMultipartFile script = new MockMultipartFile("image", "photo.png", "image/png",
+                "<script>alert(1)</script>".getBytes());
+        assertThrows(CustomException.class, () -> fileService.uploadFile(script, "reviews"));
+
+        // the declared size is checked first, so hide it to exercise the streaming check
+        byte[] big = new byte[200 * 1024];
+        System.arraycopy(png(8, 8), 0, big, 0, 8);
+        MockMultipartFile oversized = new MockMultipartFile("image", "big.png", "image/png", big) {
+            @Override
+            public long getSize() {
+                return 1;
+            }
+        };
+        assertThrows(CustomException.class, () -> fileService.uploadFile(oversized, "reviews"));
+
+        assertTrue(storage.objects.isEmpty());
+        assertEquals(0, Files.list(storage.staging).count(), "staging file left behind");
+    }
+
+    private static String thumbKey(String url) {
+        return ThumbnailGenerator.thumbnailKey(url.substring("/images/".length()));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(out.toByteArray())));
+        return out.toByteArray();
+    }
+}
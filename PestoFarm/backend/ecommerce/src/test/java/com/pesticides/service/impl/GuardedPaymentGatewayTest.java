@@ -0,0 +1,147 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.User;
+import com.pesticides.response.PaymentLinkResponse;
+import com.pesticides.service.PaymentGateway;
+import com.pesticides.utils.CircuitBreaker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GuardedPaymentGatewayTest {
+
+    private static CircuitBreaker breaker() {
+        return new CircuitBreaker(10, 5, 50, Duration.ofMillis(200), 1);
+    }
+
+    @Test
+    public void slowProvider_OnlyBulkheadCapacityWaits_RestRejectedFast() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GuardedPaymentGateway gateway = new GuardedPaymentGateway(
+                new FakePaymentGateway(PaymentMethod.RAZORPAY, Duration.ofMillis(300), 0.0),
+                breaker(), 2, 2, Duration.ofSeconds(5), registry);
+
+        int callers = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            long orderId = i;
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    PaymentLinkResponse link = gateway.createPaymentLink(new User(), 100L, orderId);
+                    return link.getPayment_link_id() != null;
+                } catch (ServiceBusyException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) succeeded++;
+        }
+        pool.shutdown();
+
+        // 2 running + 2 queued; everyone else is turned away instead of holding a request thread
+        assertEquals(4, succeeded);
+        assertEquals(callers - 4, (long) registry.get("payment.gateway.duration")
+                .tag("outcome", "rejected").timer().count());
+        gateway.destroy();
+    }
+
+    @Test
+    public void failingProvider_OpensBreaker_ThenRecoversThroughHalfOpen() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        boolean[] failing = {true};
+        PaymentGateway flaky = new PaymentGateway() {
+            @Override
+            public PaymentMethod getMethod() {
+                return PaymentMethod.STRIPE;
+            }
+
+            @Override
+            public PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public PaymentOrderStatus fetchPaymentLinkStatus(String paymentLinkId) {
+                calls.incrementAndGet();
+                if (failing[0]) throw new IllegalStateException("provider down");
+                return PaymentOrderStatus.SUCCESS;
+            }
+        };
+        CircuitBreaker breaker = breaker();
+        GuardedPaymentGateway gateway = new GuardedPaymentGateway(flaky, breaker, 2, 0, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalStateException.class, () -> gateway.fetchPaymentLinkStatus("plink"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // open: callers fail fast and the provider is not touched
+        assertThrows(ServiceBusyException.class, () -> gateway.fetchPaymentLinkStatus("plink"));
+        assertEquals(5, calls.get());
+
+        failing[0] = false;
+        Thread.sleep(250);
+        assertEquals(PaymentOrderStatus.SUCCESS, gateway.fetchPaymentLinkStatus("plink"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        gateway.destroy();
+    }
+
+    @Test
+    public void rejectedRequests_DoNotOpenBreaker() throws Exception {
+        PaymentGateway strict = new PaymentGateway() {
+            @Override
+            public PaymentMethod getMethod() {
+                return PaymentMethod.RAZORPAY;
+            }
+
+            @Override
+            public PaymentLinkResponse createPaymentLink(User user, Long amount, Long orderId) {
+                throw new IllegalArgumentException("amount must be at least 1");
+            }
+
+            @Override
+            public PaymentOrderStatus fetchPaymentLinkStatus(String paymentLinkId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean isClientError(Exception e) {
+                return e instanceof IllegalArgumentException;
+            }
+        };
+        CircuitBreaker breaker = breaker();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GuardedPaymentGateway gateway = new GuardedPaymentGateway(strict, breaker, 2, 0, Duration.ofSeconds(1), registry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalArgumentException.class, () -> gateway.createPaymentLink(new User(), 0L, 1L));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(10, registry.get("payment.gateway.duration").tag("outcome", "client_error").timer().count());
+        gateway.destroy();
+    }
+}
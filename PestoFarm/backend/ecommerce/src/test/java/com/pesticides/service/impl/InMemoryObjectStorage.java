@@ -0,0 +1,49 @@
+package com.pesticides.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.pesticides.service.FileStorage;
+
+/**
+ * Object-store stand-in for tests, shaped like an S3/MinIO bucket: whole objects by key, put
+ * once. Staging files go to a temp directory that tests can check is left empty.
+ */
+public class InMemoryObjectStorage implements FileStorage {
+
+    final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    final Path staging;
+
+    public InMemoryObjectStorage() throws IOException {
+        this.staging = Files.createTempDirectory("object-staging");
+    }
+
+    @Override
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile(staging, "upload-", ".part");
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return objects.containsKey(key);
+    }
+
+    @Override
+    public void put(String key, Path stagingFile) throws IOException {
+        objects.putIfAbsent(key, Files.readAllBytes(stagingFile));
+        Files.deleteIfExists(stagingFile);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        byte[] bytes = objects.get(key);
+        if (bytes == null) throw new FileNotFoundException(key);
+        return new ByteArrayInputStream(bytes);
+    }
+}
@@ -0,0 +1,163 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.pesticides.exception.ServiceBusyException;
+import com.pesticides.modal.Chat;
+import com.pesticides.modal.Message;
+import com.pesticides.service.ChatEventHub;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InProcessChatEventHubTest {
+
+    private static final long CHAT = 1L;
+
+    @Test
+    public void slowSubscriber_IsEvictedWithoutHoldingUpTheOthers() throws Exception {
+        InProcessChatEventHub hub = new InProcessChatEventHub(2, 4, 100, 60_000, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        RecordingSink fast = new RecordingSink(null);
+        hub.subscribe(CHAT, slow);
+        hub.subscribe(CHAT, fast);
+        hub.subscribe(2L, new RecordingSink(null));
+
+        for (int i = 1; i <= 20; i++) {
+            hub.publish(message(i));
+            int published = i;
+            // the fast client keeps up, the blocked one only fills its queue
+            waitFor(() -> fast.received.size() == published);
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L,
+                19L, 20L), fast.received);
+        assertEquals(2, hub.getSubscriberCount());
+        // the sink is closed by its own delivery thread once the blocked send returns
+        assertFalse(slow.closed.await(0, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS), "slow subscriber was not evicted");
+        assertTrue(slow.evicted);
+        hub.destroy();
+    }
+
+    @Test
+    public void stalledSends_AreAbandonedSoOtherChatsKeepReceiving() throws Exception {
+        InProcessChatEventHub hub = new InProcessChatEventHub(1, 4, 100, 20, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink stalled = new RecordingSink(release);
+        RecordingSink other = new RecordingSink(null);
+        hub.subscribe(CHAT, stalled);
+        hub.subscribe(2L, other);
+
+        // the only delivery thread blocks on the stalled client, so chat 2 has to wait for it
+        hub.publish(message(1));
+        hub.publish(message(2L, 2));
+        Thread.sleep(50);
+        assertTrue(other.received.isEmpty());
+
+        hub.abandonStalled();
+        waitFor(() -> other.received.size() == 1);
+        assertEquals(1, hub.getSubscriberCount());
+        assertEquals(2, hub.getDeliveryThreads());
+
+        // once the stuck send returns, its thread closes the sink and hands the spare back
+        assertFalse(stalled.closed.await(0, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(stalled.closed.await(5, TimeUnit.SECONDS));
+        assertTrue(stalled.evicted);
+        waitFor(() -> hub.getDeliveryThreads() == 1);
+        hub.destroy();
+    }
+
+    @Test
+    public void cancelledSubscription_StopsDeliveryAndFreesItsSlot() throws Exception {
+        InProcessChatEventHub hub = new InProcessChatEventHub(1, 4, 1, 60_000, new SimpleMeterRegistry());
+        RecordingSink sink = new RecordingSink(null);
+        ChatEventHub.Subscription subscription = hub.subscribe(CHAT, sink);
+        assertThrows(ServiceBusyException.class, () -> hub.subscribe(CHAT, new RecordingSink(null)));
+
+        hub.publish(message(1));
+        waitFor(() -> sink.received.size() == 1);
+        subscription.cancel();
+        subscription.cancel();
+        hub.publish(message(2));
+
+        assertEquals(0, hub.getSubscriberCount());
+        hub.subscribe(CHAT, new RecordingSink(null));
+        Thread.sleep(50);
+        assertEquals(List.of(1L), sink.received);
+        assertFalse(sink.closed.await(0, TimeUnit.MILLISECONDS));
+        hub.destroy();
+    }
+
+    private static Message message(long id) {
+        return message(CHAT, id);
+    }
+
+    private static Message message(long chatId, long id) {
+        Chat chat = new Chat();
+        chat.setId(chatId);
+        Message message = new Message();
+        message.setId(id);
+        message.setChat(chat);
+        return message;
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class RecordingSink implements ChatEventHub.MessageSink {
+        final List<Long> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+        final CountDownLatch blockUntil;
+        volatile boolean evicted;
+
+        RecordingSink(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(Message message) throws java.io.IOException {
+            boolean interrupted = false;
+            // a client whose socket buffer is full; like a socket write, interrupts do not free it
+            while (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(message.getId());
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close(boolean evicted) {
+            this.evicted = evicted;
+            closed.countDown();
+        }
+    }
+}
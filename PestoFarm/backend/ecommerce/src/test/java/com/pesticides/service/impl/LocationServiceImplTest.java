@@ -0,0 +1,192 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pesticides.dto.LocationHistoryPoint;
+import com.pesticides.modal.User;
+import com.pesticides.modal.UserCurrentLocation;
+import com.pesticides.repository.UserCurrentLocationRepository;
+import com.pesticides.repository.UserLocationPreferenceRepository;
+import com.pesticides.repository.UserLocationRepository;
+import com.pesticides.request.LocationPingRequest;
+import com.pesticides.response.LocationBatchResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LocationServiceImplTest {
+
+    private static final double LAT = 18.5204;
+    private static final double LON = 73.8567;
+    // about 11 m and 1.1 km north of LAT/LON
+    private static final double NEAR_LAT = LAT + 0.0001;
+    private static final double FAR_LAT = LAT + 0.01;
+
+    private UserLocationRepository history;
+    private UserCurrentLocationRepository current;
+    private JdbcTemplate jdbcTemplate;
+    private LocationServiceImpl service;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        history = mock(UserLocationRepository.class);
+        current = mock(UserCurrentLocationRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(current.updateIfNewer(anyLong(), anyDouble(), anyDouble(), anyLong(), any())).thenReturn(1);
+        service = new LocationServiceImpl(history, current, mock(UserLocationPreferenceRepository.class),
+                jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "dedupDistanceMeters", 25);
+        ReflectionTestUtils.setField(service, "dedupInterval", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "maxBatchPoints", 500);
+        ReflectionTestUtils.setField(service, "bufferCapacity", 100);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "retention", Duration.ofDays(90));
+        ReflectionTestUtils.setField(service, "downsampleAfter", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "downsampleBucket", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "downsampleWindow", Duration.ofDays(3));
+        service.init();
+
+        user = new User();
+        user.setId(7L);
+    }
+
+    @Test
+    public void nearDuplicatePings_AreSkippedUntilTheIntervalPasses() throws Exception {
+        UserCurrentLocation stored = new UserCurrentLocation(7L, LAT, LON, 1_000L,
+                LocalDateTime.now().minusSeconds(10));
+        when(current.findById(7L)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, service.saveLocation(user, NEAR_LAT, LON, 2_000L));
+        verify(current, never()).updateIfNewer(anyLong(), anyDouble(), anyDouble(), anyLong(), any());
+
+        assertEquals(FAR_LAT, service.saveLocation(user, FAR_LAT, LON, 3_000L).getLatitude());
+
+        // the same spot is recorded again once the dedup interval has passed
+        stored.setUpdatedAt(LocalDateTime.now().minusSeconds(61));
+        assertEquals(NEAR_LAT, service.saveLocation(user, NEAR_LAT, LON, 4_000L).getLatitude());
+        verify(current, times(2)).updateIfNewer(anyLong(), anyDouble(), anyDouble(), anyLong(), any());
+        verify(current, never()).save(any());
+    }
+
+    @Test
+    public void batch_DoesNotOverwriteANewerPingStoredWhileItRan() throws Exception {
+        long now = System.currentTimeMillis();
+        UserCurrentLocation newer = new UserCurrentLocation(7L, LAT, LON, now, LocalDateTime.now());
+        // no row when the batch starts; a single ping creates a newer one before the batch writes
+        when(current.findById(7L)).thenReturn(Optional.empty(), Optional.of(newer));
+        when(current.updateIfNewer(anyLong(), anyDouble(), anyDouble(), anyLong(), any())).thenReturn(0);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new DuplicateKeyException("user_id"));
+
+        LocationBatchResponse response = service.saveLocations(user, List.of(ping(FAR_LAT, now - 30_000)));
+
+        assertEquals(1, response.getAccepted());
+        assertSame(newer, response.getCurrent());
+        verify(current, times(2)).updateIfNewer(anyLong(), anyDouble(), anyDouble(), anyLong(), any());
+        verify(current, never()).save(any());
+    }
+
+    @Test
+    public void batchedPoints_AreDeduplicatedAgainstTheLastKeptOne() throws Exception {
+        when(current.findById(7L)).thenReturn(Optional.empty());
+        long now = System.currentTimeMillis();
+
+        LocationBatchResponse response = service.saveLocations(user, List.of(
+                ping(LAT, now - 50_000),
+                ping(NEAR_LAT, now - 40_000),   // near and 10 s later: dropped
+                ping(FAR_LAT, now - 30_000),
+                ping(FAR_LAT, now + 30_000),    // same place, 60 s after the kept one: kept
+                ping(LAT, now + 3_600_000)));   // too far in the future: rejected
+
+        assertEquals(3, response.getAccepted());
+        assertEquals(1, response.getDeduplicated());
+        assertEquals(1, response.getRejected());
+        assertEquals(FAR_LAT, response.getCurrent().getLatitude());
+    }
+
+    @Test
+    public void maintenance_KeepsTheFirstPointPerBucketInTheDownsampleWindow() {
+        LocalDateTime hour = LocalDateTime.now().minusDays(8).withMinute(0).withSecond(0).withNano(0);
+        when(history.findUserIdsWithHistoryBetween(any(), any())).thenReturn(List.of(7L));
+        when(history.findHistoryPoints(any(), any(), any())).thenReturn(List.of(
+                new LocationHistoryPoint(1L, hour),
+                new LocationHistoryPoint(2L, hour.plusMinutes(20)),
+                new LocationHistoryPoint(3L, hour.plusMinutes(50)),
+                new LocationHistoryPoint(4L, hour.plusMinutes(65)),
+                new LocationHistoryPoint(5L, hour.plusMinutes(90))));
+        when(history.findIdsCreatedBefore(any(), any())).thenReturn(List.of());
+        when(history.deleteByIdIn(any())).thenAnswer(inv -> inv.<Collection<?>>getArgument(0).size());
+
+        assertEquals(3, service.maintainHistory());
+
+        ArgumentCaptor<Collection<Long>> deleted = deletedIds();
+        verify(history, times(2)).deleteByIdIn(deleted.capture());
+        assertEquals(List.of(List.of(2L, 3L), List.of(5L)), deleted.getAllValues());
+
+        // the window ends downsample-after ago and both ends sit on an hour boundary
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(history).findHistoryPoints(any(), from.capture(), to.capture());
+        assertEquals(Duration.ofDays(3), Duration.between(from.getValue(), to.getValue()));
+        assertEquals(0, to.getValue().getMinute());
+        assertTrue(to.getValue().isAfter(LocalDateTime.now().minusDays(7).minusHours(1)));
+    }
+
+    @Test
+    public void maintenance_PurgesHistoryPastRetentionInBatches() {
+        when(history.findUserIdsWithHistoryBetween(any(), any())).thenReturn(List.of());
+        when(history.findIdsCreatedBefore(any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(history.deleteByIdIn(any())).thenAnswer(inv -> inv.<Collection<?>>getArgument(0).size());
+
+        assertEquals(3, service.maintainHistory());
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(history, times(3)).findIdsCreatedBefore(cutoff.capture(), any());
+        long retainedDays = Duration.between(cutoff.getValue(), LocalDateTime.now()).toDays();
+        assertEquals(90, retainedDays);
+        verify(history, times(2)).deleteByIdIn(any());
+        verify(current, never()).save(any());
+        verify(history, never()).findHistoryPoints(anyLong(), any(), any());
+    }
+
+    private static LocationPingRequest ping(double latitude, long timestamp) {
+        LocationPingRequest ping = new LocationPingRequest();
+        ping.setLatitude(latitude);
+        ping.setLongitude(LON);
+        ping.setTimestamp(timestamp);
+        return ping;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<Long>> deletedIds() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+}
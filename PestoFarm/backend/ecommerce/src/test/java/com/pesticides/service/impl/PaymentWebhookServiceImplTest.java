@@ -0,0 +1,139 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pesticides.config.PaymentGatewayProperties;
+import com.pesticides.domain.PaymentMethod;
+import com.pesticides.domain.PaymentOrderStatus;
+import com.pesticides.exception.CustomException;
+import com.pesticides.modal.PaymentOrder;
+import com.pesticides.modal.PaymentWebhookEvent;
+import com.pesticides.repository.PaymentOrderRepository;
+import com.pesticides.repository.PaymentWebhookEventRepository;
+import com.pesticides.service.PaymentGateway;
+import com.pesticides.service.PaymentSettlementService;
+
+public class PaymentWebhookServiceImplTest {
+
+    private static final String RAZORPAY_SECRET = "rzp_whsec";
+    private static final String STRIPE_SECRET = "whsec_test";
+
+    private PaymentWebhookEventRepository events;
+    private PaymentOrderRepository paymentOrders;
+    private PaymentSettlementService settlement;
+    private PaymentGateway razorpay;
+    private PaymentWebhookServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        events = mock(PaymentWebhookEventRepository.class);
+        paymentOrders = mock(PaymentOrderRepository.class);
+        settlement = mock(PaymentSettlementService.class);
+        razorpay = mock(PaymentGateway.class);
+        when(razorpay.getMethod()).thenReturn(PaymentMethod.RAZORPAY);
+        PaymentGatewayProperties props = new PaymentGatewayProperties();
+        props.setRazorpayWebhookSecret(RAZORPAY_SECRET);
+        props.setStripeWebhookSecret(STRIPE_SECRET);
+        service = new PaymentWebhookServiceImpl(events, paymentOrders, settlement, props, List.of(razorpay),
+                new ObjectMapper(), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "pendingMinAge", Duration.ofMinutes(15));
+    }
+
+    @Test
+    public void razorpayPaidLink_IsStoredOnce() throws Exception {
+        String payload = "{\"event\":\"payment_link.paid\",\"payload\":{\"payment_link\":{\"entity\":{\"id\":\"plink_1\",\"status\":\"paid\"}}}}";
+        String signature = PaymentWebhookServiceImpl.hmacSha256Hex(RAZORPAY_SECRET, payload);
+
+        assertTrue(service.receive(PaymentMethod.RAZORPAY, payload, signature, "evt_Rzp1"));
+
+        ArgumentCaptor<PaymentWebhookEvent> saved = ArgumentCaptor.forClass(PaymentWebhookEvent.class);
+        verify(events).save(saved.capture());
+        assertEquals("evt_Rzp1", saved.getValue().getEventId());
+        assertEquals("plink_1", saved.getValue().getPaymentLinkId());
+        assertEquals(PaymentOrderStatus.SUCCESS, saved.getValue().getOutcome());
+
+        // the provider retries with the same event id header
+        when(events.existsByProviderAndEventId(PaymentMethod.RAZORPAY, "evt_Rzp1")).thenReturn(true);
+        assertFalse(service.receive(PaymentMethod.RAZORPAY, payload, signature, "evt_Rzp1"));
+    }
+
+    @Test
+    public void stripeSignature_CheckedAgainstTimestampAndSecret() throws Exception {
+        String payload = "{\"id\":\"evt_1\",\"type\":\"checkout.session.expired\",\"data\":{\"object\":{\"object\":\"checkout.session\",\"id\":\"cs_1\",\"status\":\"expired\"}}}";
+        long now = System.currentTimeMillis() / 1000;
+        String valid = "t=" + now + ",v1=" + PaymentWebhookServiceImpl.hmacSha256Hex(STRIPE_SECRET, now + "." + payload);
+        long old = now - 3600;
+        String replayed = "t=" + old + ",v1=" + PaymentWebhookServiceImpl.hmacSha256Hex(STRIPE_SECRET, old + "." + payload);
+        String forged = "t=" + now + ",v1=" + PaymentWebhookServiceImpl.hmacSha256Hex("guess", now + "." + payload);
+
+        assertThrows(CustomException.class, () -> service.receive(PaymentMethod.STRIPE, payload, replayed, null));
+        assertThrows(CustomException.class, () -> service.receive(PaymentMethod.STRIPE, payload, forged, null));
+        verify(events, never()).save(any());
+
+        assertTrue(service.receive(PaymentMethod.STRIPE, payload, valid, null));
+        ArgumentCaptor<PaymentWebhookEvent> saved = ArgumentCaptor.forClass(PaymentWebhookEvent.class);
+        verify(events).save(saved.capture());
+        assertEquals("evt_1", saved.getValue().getEventId());
+        assertEquals("cs_1", saved.getValue().getPaymentLinkId());
+        assertEquals(PaymentOrderStatus.FAILED, saved.getValue().getOutcome());
+    }
+
+    @Test
+    public void sweep_ReachesNewerOrdersPastAFullBatchOfAbandonedOnes() throws Exception {
+        // 250 stale orders still pending at the provider, then one whose paid webhook was lost
+        List<PaymentOrder> pending = new ArrayList<>();
+        for (long id = 1; id <= 251; id++) {
+            PaymentOrder order = new PaymentOrder();
+            order.setId(id);
+            order.setPaymentLinkId("plink_" + id);
+            pending.add(order);
+        }
+        // the repository query: never checked first, then least recently checked, then by id
+        when(paymentOrders.findPendingCreatedBefore(any(), any(Pageable.class))).thenAnswer(inv -> pending.stream()
+                .sorted(Comparator.comparing(PaymentOrder::getLastCheckedAt,
+                        Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                        .thenComparing(PaymentOrder::getId))
+                .limit(inv.<Pageable>getArgument(1).getPageSize())
+                .toList());
+        when(paymentOrders.markChecked(any(), any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            pending.stream().filter(o -> ids.contains(o.getId()))
+                    .forEach(o -> o.setLastCheckedAt(inv.getArgument(1)));
+            return ids.size();
+        });
+        when(razorpay.fetchPaymentLinkStatus(anyString())).thenReturn(PaymentOrderStatus.PENDING);
+        when(razorpay.fetchPaymentLinkStatus("plink_251")).thenReturn(PaymentOrderStatus.SUCCESS);
+
+        assertEquals(200, service.sweepPendingOrders());
+        verify(settlement).settle(List.of(), List.of());
+
+        assertEquals(200, service.sweepPendingOrders());
+        verify(settlement).settle(List.of(251L), List.of());
+    }
+}
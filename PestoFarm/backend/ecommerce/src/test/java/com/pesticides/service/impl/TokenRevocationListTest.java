@@ -0,0 +1,58 @@
+package com.pesticides.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenRevocationListTest {
+
+    private static final long TTL = 15 * 60_000L;
+
+    @Test
+    public void revokedTokenAndSubject_AreRefusedUntilPruned() {
+        TokenRevocationList list = new TokenRevocationList();
+        long now = 1_000_000_000L;
+
+        list.revokeToken("jti-1", now + TTL);
+        list.revokeSubject("farmer@example.com", now);
+
+        assertTrue(list.isRevoked("jti-1", "other@example.com", now));
+        assertFalse(list.isRevoked("jti-2", "other@example.com", now));
+
+        // tokens issued up to the cut-off are refused; a login a millisecond later is not
+        assertTrue(list.isRevoked("jti-3", "farmer@example.com", now - 1));
+        assertTrue(list.isRevoked("jti-3", "farmer@example.com", now));
+        assertFalse(list.isRevoked("jti-4", "farmer@example.com", now + 1));
+
+        list.revokeSubject("seller@example.com", now + 500);
+        assertTrue(list.isRevoked("jti-5", "seller@example.com", now));
+        assertFalse(list.isRevoked("jti-5", "seller@example.com", now + 501));
+
+        list.prune(now + TTL / 2, TTL);
+        assertEquals(3, list.size());
+        assertTrue(list.isRevoked("jti-1", null, now));
+
+        list.prune(now + TTL + 501, TTL);
+        assertEquals(0, list.size());
+        assertFalse(list.isRevoked("jti-1", "farmer@example.com", now - 1));
+    }
+
+    @Test
+    public void bloomFilter_HasNoFalseNegativesAndFewFalsePositives() {
+        TokenRevocationList.Bloom bloom = new TokenRevocationList.Bloom(1_000_000);
+        for (int i = 0; i < 100_000; i++) {
+            bloom.put("j:" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(bloom.mightContain("j:" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (bloom.mightContain("j:" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
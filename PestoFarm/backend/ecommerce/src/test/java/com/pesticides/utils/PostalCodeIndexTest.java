@@ -0,0 +1,123 @@
+package com.pesticides.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.pesticides.dto.GeoPoint;
+
+public class PostalCodeIndexTest {
+
+    private static final String DIRECTORY = """
+            circlename,regionname,divisionname,officename,pincode,officetype,delivery,district,statename,latitude,longitude
+            Maharashtra,Pune,Pune City,"Shivajinagar, Pune",411005,S.O,Delivery,PUNE,MAHARASHTRA,18.50,73.80
+            Maharashtra,Pune,Pune City,Model Colony,411005,B.O,Delivery,PUNE,MAHARASHTRA,18.54,73.84
+            Maharashtra,Pune,Pune City,Camp,411001,H.O,Delivery,PUNE,MAHARASHTRA,NA,NA
+            Maharashtra,Pune,Pune City,Swapped,411002,B.O,Delivery,PUNE,MAHARASHTRA,73.85,18.51
+            Karnataka,Belagavi,Belagavi,Aurangabad,591301,B.O,Delivery,Aurangabad,KARNATAKA,16.00,74.50
+            Bihar,Patna,Aurangabad,Aurangabad,824101,H.O,Delivery,Aurangabad,BIHAR,24.75,84.37
+            """;
+
+    @Test
+    public void directoryRows_AreAveragedPerPinAndDistrict() throws Exception {
+        PostalCodeIndex index = load(DIRECTORY);
+
+        assertEquals(3, index.size());
+        assertPoint(18.52, 73.82, index.find(411005));
+        // rows without coordinates or outside India are dropped
+        assertNull(index.find(411001));
+        assertNull(index.find(411002));
+        assertNull(index.find(999999));
+
+        assertPoint(18.52, 73.82, index.findPlace("Pune", "Maharashtra"));
+        assertPoint(18.52, 73.82, index.findPlace(" pune ", null));
+        // the same district name in two states needs the state
+        assertPoint(24.75, 84.37, index.findPlace("Aurangabad", "Bihar"));
+        assertNull(index.findPlace("Aurangabad", null));
+    }
+
+    @Test
+    public void manyPins_RoundTripThroughPackedTable() throws Exception {
+        Random random = new Random(42);
+        Map<Integer, float[]> expected = new HashMap<>();
+        StringBuilder csv = new StringBuilder("pincode,latitude,longitude\n");
+        while (expected.size() < 20_000) {
+            int pin = 110000 + random.nextInt(745000);
+            float lat = 8 + random.nextInt(28_000) / 1000f;
+            float lon = 70 + random.nextInt(25_000) / 1000f;
+            if (expected.putIfAbsent(pin, new float[] { lat, lon }) == null) {
+                csv.append(pin).append(',').append(lat).append(',').append(lon).append('\n');
+            }
+        }
+
+        PostalCodeIndex index = load(csv.toString());
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<Integer, float[]> entry : expected.entrySet()) {
+            GeoPoint point = index.find(entry.getKey());
+            assertEquals(entry.getValue()[0], point.latitude(), 1e-5);
+            assertEquals(entry.getValue()[1], point.longitude(), 1e-5);
+        }
+    }
+
+    @Test
+    public void nearestPin_MatchesBruteForce() throws Exception {
+        Random random = new Random(7);
+        Map<Integer, float[]> pins = new HashMap<>();
+        StringBuilder csv = new StringBuilder("pincode,latitude,longitude\n");
+        while (pins.size() < 5_000) {
+            int pin = 110000 + random.nextInt(745000);
+            float lat = 18 + random.nextInt(2_000) / 1000f;
+            float lon = 73 + random.nextInt(2_000) / 1000f;
+            if (pins.putIfAbsent(pin, new float[] { lat, lon }) == null) {
+                csv.append(pin).append(',').append(lat).append(',').append(lon).append('\n');
+            }
+        }
+        PostalCodeIndex index = load(csv.toString());
+
+        for (int i = 0; i < 500; i++) {
+            double lat = 17.8 + random.nextDouble() * 2.4;
+            double lon = 72.8 + random.nextDouble() * 2.4;
+            double bestKm = 5;
+            int expected = -1;
+            for (Map.Entry<Integer, float[]> entry : pins.entrySet()) {
+                GeoPoint point = index.find(entry.getKey());
+                double dLat = point.latitude() - lat;
+                double dLon = (point.longitude() - lon) * Math.cos(Math.toRadians(lat));
+                double km = Math.sqrt(dLat * dLat + dLon * dLon) * 111.32;
+                if (km <= bestKm) {
+                    bestKm = km;
+                    expected = entry.getKey();
+                }
+            }
+            assertEquals(expected, index.nearestPin(lat, lon, 5));
+        }
+        assertEquals(-1, index.nearestPin(51.5, -0.1, 5));
+    }
+
+    @Test
+    public void parsePin_AcceptsSpacedSixDigitCodesOnly() {
+        assertEquals(411001, PostalCodeIndex.parsePin("411 001"));
+        assertEquals(411001, PostalCodeIndex.parsePin("411001"));
+        assertEquals(-1, PostalCodeIndex.parsePin("41100"));
+        assertEquals(-1, PostalCodeIndex.parsePin("4110011"));
+        assertEquals(-1, PostalCodeIndex.parsePin("011001"));
+        assertEquals(-1, PostalCodeIndex.parsePin("PUNE-1"));
+        assertEquals(-1, PostalCodeIndex.parsePin(null));
+    }
+
+    private static PostalCodeIndex load(String csv) throws Exception {
+        return PostalCodeIndex.load(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertPoint(double lat, double lon, GeoPoint point) {
+        assertEquals(lat, point.latitude(), 1e-4);
+        assertEquals(lon, point.longitude(), 1e-4);
+    }
+}
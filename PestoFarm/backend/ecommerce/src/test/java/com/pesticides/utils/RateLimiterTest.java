@@ -0,0 +1,48 @@
+package com.pesticides.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+    @Test
+    public void bucketMap_StaysBoundedAndEvictsIdleKeys() {
+        long[] now = {0L};
+        RateLimiter limiter = new RateLimiter(100, Duration.ofSeconds(30), () -> now[0]);
+        Duration period = Duration.ofSeconds(10);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("login", "10.0.0." + i, 5, period);
+            assertTrue(limiter.size() <= 100);
+        }
+
+        // clients beyond the bound share one overflow bucket instead of getting fresh ones
+        assertTrue(limiter.tryAcquire("login", "spray-x", 5, period) > 0);
+
+        now[0] += Duration.ofMinutes(1).toNanos();
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+        assertEquals(0L, limiter.tryAcquire("login", "10.0.0.1", 5, period));
+    }
+
+    @Test
+    public void refill_GrantsTokensAtConfiguredRate() {
+        long[] now = {0L};
+        RateLimiter limiter = new RateLimiter(10, Duration.ofMinutes(1), () -> now[0]);
+        Duration period = Duration.ofSeconds(10);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire("otp", "c", 5, period));
+        }
+        long wait = limiter.tryAcquire("otp", "c", 5, period);
+        assertEquals(Duration.ofSeconds(2).toNanos(), wait);
+
+        now[0] += wait;
+        assertEquals(0L, limiter.tryAcquire("otp", "c", 5, period));
+        assertTrue(limiter.tryAcquire("otp", "c", 5, period) > 0);
+    }
+}
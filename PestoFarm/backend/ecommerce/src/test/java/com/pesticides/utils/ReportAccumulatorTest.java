@@ -0,0 +1,87 @@
+package com.pesticides.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.pesticides.utils.ReportAccumulator.Delta;
+import com.pesticides.utils.ReportAccumulator.Drained;
+
+public class ReportAccumulatorTest {
+
+    @Test
+    public void drainsWhileWritersRun_EveryEntryCountedExactlyOnce() throws Exception {
+        ReportAccumulator<Long> accumulator = new ReportAccumulator<>(2);
+        int writers = 8;
+        int perWriter = 20_000;
+        AtomicLong ids = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int w = 0; w < writers; w++) {
+            // half the writers share each key, the contended case
+            long key = w % 2;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perWriter; i++) {
+                    accumulator.add(key, ids.incrementAndGet(), 1, 100);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        long[] counts = new long[2];
+        long amount = 0;
+        Set<Long> seen = new HashSet<>();
+        pool.shutdown();
+        boolean done = false;
+        while (!done) {
+            done = pool.awaitTermination(1, TimeUnit.MILLISECONDS);
+            Drained<Long> drained = accumulator.drain();
+            long drainedCount = 0;
+            for (Delta<Long> delta : drained.deltas()) {
+                counts[delta.key().intValue()] += delta.counts()[0];
+                amount += delta.counts()[1];
+                drainedCount += delta.counts()[0];
+            }
+            for (Long id : drained.entryIds()) {
+                assertTrue(seen.add(id), "entry drained twice");
+            }
+            // a window's deltas always match the entries it reports
+            assertEquals(drained.entryIds().size(), drainedCount);
+        }
+
+        assertEquals((long) writers / 2 * perWriter, counts[0]);
+        assertEquals((long) writers / 2 * perWriter, counts[1]);
+        assertEquals((long) writers * perWriter * 100, amount);
+        assertEquals(writers * perWriter, seen.size());
+    }
+
+    @Test
+    public void restoredWindow_IsMergedIntoTheNextDrain() {
+        ReportAccumulator<Long> accumulator = new ReportAccumulator<>(3);
+        accumulator.add(7L, 1L, 1, 3, 0);
+        Drained<Long> failed = accumulator.drain();
+
+        accumulator.add(7L, 2L, 0, 1, 1);
+        // untracked writes add to the counts without an entry id
+        accumulator.add(7L, null, 0, 0, -1);
+        accumulator.restore(failed);
+
+        Drained<Long> retried = accumulator.drain();
+        assertEquals(1, retried.deltas().size());
+        assertArrayEquals(new long[] { 1, 4, 0 }, retried.deltas().get(0).counts());
+        assertEquals(Set.of(1L, 2L), new HashSet<>(retried.entryIds()));
+        assertTrue(accumulator.drain().isEmpty());
+    }
+}
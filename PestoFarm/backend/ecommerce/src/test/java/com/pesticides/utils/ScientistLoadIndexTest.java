@@ -0,0 +1,69 @@
+package com.pesticides.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ScientistLoadIndexTest {
+
+    @Test
+    public void assign_PicksLeastLoadedAndRotatesTies() {
+        ScientistLoadIndex index = new ScientistLoadIndex();
+        index.put(1, "Plant Pathology", true);
+        index.put(2, "plant pathology ", true);
+        index.put(3, "Entomology", true);
+        index.adjust(1, 2);
+
+        assertEquals(2, index.assign("PLANT PATHOLOGY", 10));
+        assertEquals(2, index.assign("Plant Pathology", 10));
+        // both at 2 now; 1 has waited longer
+        assertEquals(1, index.assign("Plant Pathology", 10));
+        assertEquals(2, index.assign("Plant Pathology", 10));
+        assertEquals(3, index.load(1));
+        assertEquals(3, index.load(2));
+
+        assertEquals(3, index.assign(null, 10));
+        assertEquals(-1, index.assign("Soil Science", 10));
+    }
+
+    @Test
+    public void assign_SkipsUnroutableAndFullScientists() {
+        ScientistLoadIndex index = new ScientistLoadIndex();
+        index.put(1, "Entomology", true);
+        index.put(2, "Entomology", false);
+
+        assertEquals(1, index.assign("Entomology", 2));
+        assertEquals(1, index.assign("Entomology", 2));
+        assertEquals(-2, index.assign("Entomology", 2));
+
+        // a closed chat frees a slot; an unroutable scientist still keeps a count
+        index.adjust(1, -1);
+        index.adjust(2, 1);
+        assertEquals(1, index.assign("Entomology", 2));
+        assertEquals(1, index.load(2));
+
+        index.put(1, "Entomology", false);
+        assertEquals(-1, index.assign("Entomology", 2));
+        assertEquals(2, index.load(1));
+    }
+
+    @Test
+    public void resetLoads_ReplacesCountsAndReorders() {
+        ScientistLoadIndex index = new ScientistLoadIndex();
+        index.put(1, "Entomology", true);
+        index.put(2, "Entomology", true);
+        index.adjust(1, 5);
+
+        index.resetLoads(Map.of(2L, 4, 9L, 1));
+        assertEquals(0, index.load(1));
+        assertEquals(4, index.load(2));
+        assertEquals(1, index.load(9));
+        assertEquals(Map.of(2L, 4, 9L, 1), index.loads());
+        assertEquals(1, index.assign("Entomology", 10));
+
+        index.adjust(2, -10);
+        assertEquals(0, index.load(2));
+    }
+}
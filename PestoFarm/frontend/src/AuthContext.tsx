@@ -1,4 +1,9 @@
 import React, { createContext, useContext, useState, useEffect, ReactNode } from 'react';
+import axios from 'axios';
+import { sessionService } from './services/authService';
+
+// refresh this long before the access token expires
+const REFRESH_MARGIN_MS = 60 * 1000;
 
 export interface User {
   id?: string;
@@ -6,6 +11,7 @@ export interface User {
   fullName: string;
   role: string;
   jwt?: string;
+  refreshToken?: string;
 }
 
 interface AuthContextType {
@@ -18,6 +24,55 @@ interface AuthContextType {
 
 const AuthContext = createContext<AuthContextType | undefined>(undefined);
 
+const clearSession = () => {
+  localStorage.removeItem('user');
+  localStorage.removeItem('jwt');
+  localStorage.removeItem('refreshToken');
+};
+
+// set by AuthProvider so a refresh outside React still updates the signed-in user
+let onSessionChange: ((jwt: string | null, refreshToken?: string) => void) | null = null;
+
+// Swaps the stored refresh token for a new access token; a rejected refresh token ends the session
+const refreshStoredSession = async (): Promise<string | null> => {
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (!refreshToken) return null;
+  try {
+    const response = await sessionService.refresh(refreshToken);
+    localStorage.setItem('jwt', response.jwt);
+    if (response.refreshToken) {
+      localStorage.setItem('refreshToken', response.refreshToken);
+    }
+    onSessionChange?.(response.jwt, response.refreshToken);
+    return response.jwt;
+  } catch (error: any) {
+    if (error.response && error.response.status < 500) {
+      clearSession();
+      onSessionChange?.(null);
+    }
+    return null;
+  }
+};
+
+// Timers are throttled in background tabs, so axios requests also refresh an expiring token first.
+// Installed on import, before any component's first request.
+axios.interceptors.request.use(async (config) => {
+  const auth = config.headers?.Authorization;
+  if (typeof auth !== 'string' || !auth.startsWith('Bearer ')) {
+    return config;
+  }
+  let jwt = localStorage.getItem('jwt');
+  const expiresAt = jwt ? sessionService.expiresAt(jwt) : null;
+  if (expiresAt !== null && expiresAt - REFRESH_MARGIN_MS / 2 < Date.now()) {
+    jwt = (await refreshStoredSession()) || jwt;
+  }
+  // callers may hold a token captured before the last refresh
+  if (jwt) {
+    config.headers.Authorization = `Bearer ${jwt}`;
+  }
+  return config;
+});
+
 export const useAuth = () => {
   const context = useContext(AuthContext);
   if (!context) {
@@ -42,30 +97,52 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     if (storedUser && storedJwt) {
       try {
         const parsedUser = JSON.parse(storedUser);
-        setUser({ ...parsedUser, jwt: storedJwt });
+        setUser({ ...parsedUser, jwt: storedJwt, refreshToken: localStorage.getItem('refreshToken') || undefined });
       } catch (error) {
         console.error('Error parsing stored user data:', error);
-        localStorage.removeItem('user');
-        localStorage.removeItem('jwt');
+        clearSession();
       }
     }
     setIsLoading(false);
+
+    onSessionChange = (jwt, refreshToken) =>
+      setUser((current) => (jwt === null ? null : current && { ...current, jwt, refreshToken: refreshToken || current.refreshToken }));
+    return () => {
+      onSessionChange = null;
+    };
   }, []);
 
+  // Refresh shortly before the access token expires, for fetch() callers as well as axios ones
+  useEffect(() => {
+    if (!user?.jwt || !user.refreshToken) return;
+    const expiresAt = sessionService.expiresAt(user.jwt);
+    if (expiresAt === null) return;
+    const timer = setTimeout(refreshStoredSession, Math.max(0, expiresAt - REFRESH_MARGIN_MS - Date.now()));
+    return () => clearTimeout(timer);
+  }, [user?.jwt, user?.refreshToken]);
+
   const login = (userData: User) => {
     const jwt = userData.jwt || localStorage.getItem('jwt') || undefined;
-    const userWithJwt: User = { ...userData, jwt };
+    const refreshToken = userData.refreshToken || localStorage.getItem('refreshToken') || undefined;
+    const userWithJwt: User = { ...userData, jwt, refreshToken };
     setUser(userWithJwt);
     localStorage.setItem('user', JSON.stringify(userWithJwt));
     if (jwt) {
       localStorage.setItem('jwt', jwt);
     }
+    if (refreshToken) {
+      localStorage.setItem('refreshToken', refreshToken);
+    }
   };
 
   const logout = () => {
+    const jwt = localStorage.getItem('jwt') || undefined;
+    const refreshToken = localStorage.getItem('refreshToken') || undefined;
+    if (refreshToken) {
+      sessionService.logout(jwt, refreshToken).catch((error) => console.warn('Server logout failed:', error));
+    }
     setUser(null);
-    localStorage.removeItem('user');
-    localStorage.removeItem('jwt');
+    clearSession();
   };
 
   const isAuthenticated = user !== null;
@@ -1,5 +1,6 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import { adminService, AdminUser } from '../../services/adminService';
+import Pagination from './Pagination';
 
 // Types
 interface User {
@@ -267,56 +268,42 @@ const DeleteConfirmationModal: React.FC<DeleteConfirmationModalProps> = ({ user,
   );
 };
 
+const PAGE_SIZE = 20;
+
 // Main Account Management Component
 const AccountManagement: React.FC = () => {
   const [users, setUsers] = useState<User[]>([]);
-  const [filteredUsers, setFilteredUsers] = useState<User[]>([]);
   const [selectedRole, setSelectedRole] = useState<string>('all');
   const [searchTerm, setSearchTerm] = useState('');
+  const [query, setQuery] = useState('');
+  const [pageNumber, setPageNumber] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalElements, setTotalElements] = useState(0);
   const [editModalOpen, setEditModalOpen] = useState(false);
   const [deleteModalOpen, setDeleteModalOpen] = useState(false);
   const [selectedUser, setSelectedUser] = useState<User | null>(null);
 
-  const filterUsers = useCallback(() => {
-    let filtered = users;
-
-    if (selectedRole !== 'all') {
-      filtered = filtered.filter(user => user.role === selectedRole);
-    }
-
-    if (searchTerm) {
-      filtered = filtered.filter(user =>
-        user.fullName.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        user.email.toLowerCase().includes(searchTerm.toLowerCase())
-      );
-    }
-
-    setFilteredUsers(filtered);
-  }, [users, selectedRole, searchTerm]);
-
+  // Search runs on the server, so wait for typing to pause and start again from the first page
   useEffect(() => {
-    loadUsers();
-  }, []);
-
-  useEffect(() => {
-    filterUsers();
-  }, [users, selectedRole, searchTerm, filterUsers]);
-
-  const loadUsers = async () => {
+    const timer = setTimeout(() => {
+      setQuery(searchTerm.trim());
+      setPageNumber(0);
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  const loadUsers = useCallback(async () => {
     try {
-      const [allUsers, sellers, scientists] = await Promise.all([
-        adminService.getAllUsers(),
-        adminService.getAllSellers(),
-        adminService.getAllScientists(),
-      ]);
-
-      // Combine all users and remove duplicates
-      const combinedUsers = [...allUsers, ...sellers, ...scientists];
-      const uniqueUsers = combinedUsers.filter((user, index, self) =>
-        index === self.findIndex(u => u.id === user.id)
-      );
-
-      setUsers(uniqueUsers);
+      const page = await adminService.getUsers({
+        query,
+        role: selectedRole === 'all' ? undefined : selectedRole,
+        pageNumber,
+        pageSize: PAGE_SIZE,
+      });
+
+      setUsers(page.content);
+      setTotalPages(page.totalPages);
+      setTotalElements(page.totalElements);
     } catch (error) {
       console.error('Failed to load users:', error);
       // Fallback to mock data if API fails
@@ -370,8 +357,14 @@ const AccountManagement: React.FC = () => {
         },
       ];
       setUsers(mockUsers);
+      setTotalPages(1);
+      setTotalElements(mockUsers.length);
     }
-  };
+  }, [query, selectedRole, pageNumber]);
+
+  useEffect(() => {
+    loadUsers();
+  }, [loadUsers]);
 
   const handleEditUser = (user: User) => {
     setSelectedUser(user);
@@ -401,6 +394,7 @@ const AccountManagement: React.FC = () => {
     if (selectedUser) {
       const updatedUsers = users.filter(user => user.id !== selectedUser.id);
       setUsers(updatedUsers);
+      setTotalElements(total => total - 1);
       // In real app: API call to delete user
       console.log('User deleted:', selectedUser);
       setDeleteModalOpen(false);
@@ -436,7 +430,7 @@ const AccountManagement: React.FC = () => {
             <label className="block text-sm font-medium text-gray-700 mb-1">Search Users</label>
             <input
               type="text"
-              placeholder="Search by name or email..."
+              placeholder="Search by name or email prefix..."
               value={searchTerm}
               onChange={(e) => setSearchTerm(e.target.value)}
               className="w-full p-3 border border-gray-300 rounded-lg focus:ring-green-500 focus:border-green-500"
@@ -446,7 +440,10 @@ const AccountManagement: React.FC = () => {
             <label className="block text-sm font-medium text-gray-700 mb-1">Filter by Role</label>
             <select
               value={selectedRole}
-              onChange={(e) => setSelectedRole(e.target.value)}
+              onChange={(e) => {
+                setSelectedRole(e.target.value);
+                setPageNumber(0);
+              }}
               className="w-full p-3 border border-gray-300 rounded-lg focus:ring-green-500 focus:border-green-500"
             >
               <option value="all">All Roles</option>
@@ -462,7 +459,7 @@ const AccountManagement: React.FC = () => {
       <div className="bg-white rounded-xl shadow-lg overflow-hidden">
         <div className="px-6 py-4 border-b border-gray-200">
           <h2 className="text-xl font-bold text-gray-800">
-            Users ({filteredUsers.length})
+            Users ({totalElements})
           </h2>
         </div>
 
@@ -488,7 +485,7 @@ const AccountManagement: React.FC = () => {
               </tr>
             </thead>
             <tbody className="bg-white divide-y divide-gray-200">
-              {filteredUsers.map((user) => (
+              {users.map((user) => (
                 <tr key={user.id} className="hover:bg-gray-50">
                   <td className="px-6 py-4 whitespace-nowrap">
                     <div className="flex items-center">
@@ -544,7 +541,14 @@ const AccountManagement: React.FC = () => {
           </table>
         </div>
 
-        {filteredUsers.length === 0 && (
+        <Pagination
+          pageNumber={pageNumber}
+          totalPages={totalPages}
+          totalElements={totalElements}
+          onPageChange={setPageNumber}
+        />
+
+        {users.length === 0 && (
           <div className="text-center py-12">
             <svg className="mx-auto h-12 w-12 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24">
               <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M17 20h5v-2a3 3 0 00-5.356-1.857M17 20H7m10 0v-2c0-.656-.126-1.283-.356-1.857M7 20H2v-2a3 3 0 015.356-1.857M7 20v-2c0-.656.126-1.283.356-1.857m0 0a5.002 5.002 0 019.288 0M15 7a3 3 0 11-6 0 3 3 0 016 0zm6 3a2 2 0 11-4 0 2 2 0 014 0zM7 10a2 2 0 11-4 0 2 2 0 014 0z" />
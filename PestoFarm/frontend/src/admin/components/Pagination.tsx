@@ -0,0 +1,41 @@
+import React from 'react';
+
+interface PaginationProps {
+  pageNumber: number; // zero-based, as the backend pages
+  totalPages: number;
+  totalElements: number;
+  onPageChange: (pageNumber: number) => void;
+}
+
+// Previous / Next controls for the server-paged admin tables
+const Pagination: React.FC<PaginationProps> = ({ pageNumber, totalPages, totalElements, onPageChange }) => {
+  if (totalPages <= 1) {
+    return null;
+  }
+
+  return (
+    <div className="flex items-center justify-between px-6 py-4 border-t border-gray-200">
+      <p className="text-sm text-gray-600">
+        Page {pageNumber + 1} of {totalPages} ({totalElements} total)
+      </p>
+      <div className="flex space-x-2">
+        <button
+          onClick={() => onPageChange(pageNumber - 1)}
+          disabled={pageNumber === 0}
+          className="px-4 py-2 bg-gray-200 text-gray-700 rounded-lg hover:bg-gray-300 disabled:opacity-50 disabled:cursor-not-allowed"
+        >
+          Previous
+        </button>
+        <button
+          onClick={() => onPageChange(pageNumber + 1)}
+          disabled={pageNumber + 1 >= totalPages}
+          className="px-4 py-2 bg-gray-200 text-gray-700 rounded-lg hover:bg-gray-300 disabled:opacity-50 disabled:cursor-not-allowed"
+        >
+          Next
+        </button>
+      </div>
+    </div>
+  );
+};
+
+export default Pagination;
@@ -3,6 +3,7 @@ import { adminService, AdminProduct } from '../../services/adminService';
 import { productService } from '../../services/productService';
 import { ProductDetail } from '../../customer/data/productData';
 import { transformBackendProductToAdmin } from '../../services/adminService';
+import Pagination from './Pagination';
 
 // Types
 interface Product {
@@ -286,6 +287,8 @@ const DeleteConfirmationModal: React.FC<DeleteConfirmationModalProps> = ({ produ
   );
 };
 
+const PAGE_SIZE = 20;
+
 // Main Product Management Component
 const ProductManagement: React.FC = () => {
   const [products, setProducts] = useState<Product[]>([]);
@@ -294,23 +297,37 @@ const ProductManagement: React.FC = () => {
   const [selectedCategory, setSelectedCategory] = useState<string>('all');
   const [selectedStatus, setSelectedStatus] = useState<string>('all');
   const [searchTerm, setSearchTerm] = useState('');
+  const [query, setQuery] = useState('');
+  const [pageNumber, setPageNumber] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalElements, setTotalElements] = useState(0);
   const [editModalOpen, setEditModalOpen] = useState(false);
   const [deleteModalOpen, setDeleteModalOpen] = useState(false);
   const [selectedProduct, setSelectedProduct] = useState<Product | null>(null);
 
   useEffect(() => {
-    loadProducts();
     loadAuditLogs();
   }, []);
 
+  // Search runs on the server, so wait for typing to pause and start again from the first page
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      setQuery(searchTerm.trim());
+      setPageNumber(0);
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   useEffect(() => {
     filterProducts();
-  }, [products, selectedCategory, selectedStatus, searchTerm]);
+  }, [products, selectedCategory, selectedStatus]);
 
-  const loadProducts = async () => {
+  const loadProducts = useCallback(async () => {
     try {
-      const apiProducts = await adminService.getAllProducts();
-      setProducts(apiProducts);
+      const page = await adminService.getProducts({ query, pageNumber, pageSize: PAGE_SIZE });
+      setProducts(page.content);
+      setTotalPages(page.totalPages);
+      setTotalElements(page.totalElements);
     } catch (error) {
       console.error('Failed to load products:', error);
       // Fallback to mock data if API fails
@@ -368,8 +385,14 @@ const ProductManagement: React.FC = () => {
         },
       ];
       setProducts(mockProducts);
+      setTotalPages(1);
+      setTotalElements(mockProducts.length);
     }
-  };
+  }, [query, pageNumber]);
+
+  useEffect(() => {
+    loadProducts();
+  }, [loadProducts]);
 
   const loadAuditLogs = () => {
     // Mock audit logs
@@ -403,6 +426,7 @@ const ProductManagement: React.FC = () => {
     setAuditLogs(mockLogs);
   };
 
+  // Category and status narrow the current page; the search is applied by the server
   const filterProducts = useCallback(() => {
     let filtered = products;
 
@@ -414,16 +438,8 @@ const ProductManagement: React.FC = () => {
       filtered = filtered.filter(product => product.status === selectedStatus);
     }
 
-    if (searchTerm) {
-      filtered = filtered.filter(product =>
-        product.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        product.brand.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        product.sellerName.toLowerCase().includes(searchTerm.toLowerCase())
-      );
-    }
-
     setFilteredProducts(filtered);
-  }, [products, selectedCategory, selectedStatus, searchTerm]);
+  }, [products, selectedCategory, selectedStatus]);
 
   const handleEditProduct = (product: Product) => {
     setSelectedProduct(product);
@@ -531,7 +547,7 @@ const ProductManagement: React.FC = () => {
             <label className="block text-sm font-medium text-gray-700 mb-1">Search Products</label>
             <input
               type="text"
-              placeholder="Search by name, brand, or seller..."
+              placeholder="Search by product name..."
               value={searchTerm}
               onChange={(e) => setSearchTerm(e.target.value)}
               className="w-full p-3 border border-gray-300 rounded-lg focus:ring-green-500 focus:border-green-500"
@@ -585,7 +601,7 @@ const ProductManagement: React.FC = () => {
       <div className="bg-white rounded-xl shadow-lg overflow-hidden">
         <div className="px-6 py-4 border-b border-gray-200">
           <h2 className="text-xl font-bold text-gray-800">
-            Products ({filteredProducts.length})
+            Products ({totalElements})
           </h2>
         </div>
 
@@ -686,6 +702,13 @@ const ProductManagement: React.FC = () => {
           </table>
         </div>
 
+        <Pagination
+          pageNumber={pageNumber}
+          totalPages={totalPages}
+          totalElements={totalElements}
+          onPageChange={setPageNumber}
+        />
+
         {filteredProducts.length === 0 && (
           <div className="text-center py-12">
             <svg className="mx-auto h-12 w-12 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24">
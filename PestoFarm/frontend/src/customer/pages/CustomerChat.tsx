@@ -4,8 +4,10 @@ import { MessageSquare, Send, Mic, MicOff, Camera, ArrowLeft } from 'lucide-reac
 import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../../AuthContext';
 import axios from 'axios';
+import { openChatStream } from '../../services/chatStream';
 
 interface Message {
+  id?: number;
   text: string;
   sender: string;
   timestamp: string;
@@ -22,6 +24,16 @@ interface Chat {
   messages: Message[];
 }
 
+// page size of GET /api/chats/{chatId}/messages
+const HISTORY_PAGE_SIZE = 50;
+
+const toMessage = (m: any): Message => ({
+  id: m.id,
+  text: m.message,
+  sender: m.senderName || (m.user ? m.user.fullname : 'User'),
+  timestamp: m.createdAt || ''
+});
+
 const CustomerChat: React.FC = () => {
   const { user } = useAuth();
   const navigate = useNavigate();
@@ -31,7 +43,14 @@ const CustomerChat: React.FC = () => {
   const [chatId, setChatId] = useState<string | null>(null);
   const [selectedScientistId, setSelectedScientistId] = useState<string | null>(null);
   const [selectedScientistName, setSelectedScientistName] = useState<string>('Scientist');
+  const [hasOlder, setHasOlder] = useState(false);
+  const [loadingOlder, setLoadingOlder] = useState(false);
   const messagesEndRef = useRef<HTMLDivElement>(null);
+  const messagesContainerRef = useRef<HTMLDivElement>(null);
+  // scrollHeight before older messages were prepended, so the view can stay where it was
+  const prependAnchorRef = useRef<number | null>(null);
+  // id of the newest message we hold; polls only ask the backend for messages after it
+  const watermarkRef = useRef<number | null>(null);
   const recognitionRef = useRef<any>(null);
   const accumulatedTranscriptRef = useRef<string>('');
 
@@ -88,8 +107,9 @@ const CustomerChat: React.FC = () => {
             // fetch messages for this chat
             const msgsRes = await axios.get(`http://localhost:5454/api/chats/${chat.id}/messages`, { headers: { Authorization: `${jwt}` } });
             const msgs = msgsRes.data || [];
-            const mapped = msgs.map((m: any) => ({ text: m.message, sender: m.senderName || (m.user ? m.user.fullname : 'User'), timestamp: m.createdAt || '' }));
-            setMessages(mapped);
+            watermarkRef.current = msgs.length ? msgs[msgs.length - 1].id : null;
+            setMessages(msgs.map(toMessage));
+            setHasOlder(msgs.length === HISTORY_PAGE_SIZE);
             return;
           }
         }
@@ -114,44 +134,65 @@ const CustomerChat: React.FC = () => {
     initChat();
   }, [customerName, selectedScientistId, user]);
 
-  // Poll for new messages from scientist (reduced frequency to prevent thread exhaustion)
+  // Receive new messages over the chat's server-sent event stream
   useEffect(() => {
-    const interval = setInterval(async () => {
-      if (!chatId || !user) return;
-
-      try {
-        const jwt = (user as any).jwt || localStorage.getItem('jwt');
-        if (jwt) {
-          const msgsRes = await axios.get(`http://localhost:5454/api/chats/${chatId}/messages`, {
-            headers: { Authorization: `${jwt}` },
-            timeout: 5000 // 5 second timeout
-          });
-          const msgs = msgsRes.data || [];
-          const mapped = msgs.map((m: any) => ({
-            text: m.message,
-            sender: m.senderName || (m.user ? m.user.fullname : 'User'),
-            timestamp: m.createdAt || ''
-          }));
-
-          // Only update if we have new messages
-          if (mapped.length > messages.length) {
-            setMessages(mapped);
-          }
-        }
-      } catch (err) {
-        // Silently handle polling errors to prevent console spam
-        console.warn('Failed to poll for new messages:', err);
-      }
-    }, 5000); // Poll every 5 seconds instead of 1
+    if (!chatId || !user) return;
+    const jwt = (user as any).jwt || localStorage.getItem('jwt');
+    if (!jwt) return;
+
+    const append = (msgs: any[]) => {
+      const fresh = msgs.filter((m: any) => watermarkRef.current == null || m.id > watermarkRef.current);
+      if (fresh.length === 0) return;
+      const isFirstSync = watermarkRef.current == null;
+      watermarkRef.current = fresh[fresh.length - 1].id;
+      const mapped = fresh.map(toMessage);
+      setMessages(prev => (isFirstSync ? mapped : [...prev, ...mapped]));
+      // the chat is on screen, so everything received so far has been seen
+      axios.post(`http://localhost:5454/api/chats/${chatId}/read`, null, {
+        headers: { Authorization: `${jwt}` },
+        params: { upTo: watermarkRef.current }
+      }).catch(err => console.warn('Failed to send read receipt:', err));
+    };
 
-    return () => clearInterval(interval);
-  }, [chatId, messages.length, user]);
+    return openChatStream(chatId, jwt, () => watermarkRef.current, append);
+  }, [chatId, user]);
 
-  // Scroll to bottom when new messages arrive
+  // Scroll to bottom when new messages arrive; keep the position when older ones are prepended
   useEffect(() => {
+    const container = messagesContainerRef.current;
+    if (prependAnchorRef.current != null && container) {
+      container.scrollTop = container.scrollHeight - prependAnchorRef.current;
+      prependAnchorRef.current = null;
+      return;
+    }
     messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' });
   }, [messages]);
 
+  // Fetch the page of history before the oldest message we hold
+  const loadOlderMessages = async () => {
+    if (!chatId || !user || loadingOlder || !hasOlder) return;
+    const oldestId = messages.length ? messages[0].id : undefined;
+    if (oldestId == null) return;
+    const jwt = (user as any).jwt || localStorage.getItem('jwt');
+    if (!jwt) return;
+
+    setLoadingOlder(true);
+    try {
+      const res = await axios.get(`http://localhost:5454/api/chats/${chatId}/messages`, {
+        headers: { Authorization: `${jwt}` },
+        params: { before: oldestId, limit: HISTORY_PAGE_SIZE }
+      });
+      const older = res.data || [];
+      prependAnchorRef.current = messagesContainerRef.current?.scrollHeight ?? null;
+      setMessages(prev => [...older.map(toMessage), ...prev]);
+      setHasOlder(older.length === HISTORY_PAGE_SIZE);
+    } catch (err) {
+      console.warn('Failed to load older messages:', err);
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
   // Initialize speech recognition
   useEffect(() => {
     // Check for Web Speech API support
@@ -231,8 +272,11 @@ const CustomerChat: React.FC = () => {
         // After sending, fetch messages
         const msgsRes = await axios.get(`http://localhost:5454/api/chats/${chatId}/messages`, { headers: { Authorization: `${jwt}` } });
         const msgs = msgsRes.data || [];
-        const mapped = msgs.map((m: any) => ({ text: m.message, sender: m.senderName || (m.user ? m.user.fullname : 'User'), timestamp: m.createdAt || '' }));
-        setMessages(mapped);
+        watermarkRef.current = msgs.length ? msgs[msgs.length - 1].id : null;
+        const mapped = msgs.map(toMessage);
+        // keep any older history already paged in above the latest page
+        const firstId = mapped.length ? mapped[0].id : undefined;
+        setMessages(prev => [...prev.filter(m => m.id != null && firstId != null && m.id < firstId), ...mapped]);
         setMessageText('');
       }
     } catch (err) {
@@ -362,7 +406,21 @@ const CustomerChat: React.FC = () => {
         {/* Chat Area */}
         <div className="bg-white rounded-xl shadow-lg flex flex-col h-[70vh]">
           {/* Messages */}
-          <div className="flex-1 overflow-y-auto p-4 space-y-4">
+          <div
+            ref={messagesContainerRef}
+            className="flex-1 overflow-y-auto p-4 space-y-4"
+          >
+            {hasOlder && (
+              <div className="text-center">
+                <button
+                  onClick={loadOlderMessages}
+                  disabled={loadingOlder}
+                  className="text-sm text-green-700 hover:underline disabled:opacity-50"
+                >
+                  {loadingOlder ? 'Loading…' : 'Load older messages'}
+                </button>
+              </div>
+            )}
             {messages.length === 0 ? (
               <div className="text-center text-gray-500 mt-8">
                 <MessageSquare size={48} className="mx-auto mb-4 text-gray-300" />
@@ -371,7 +429,7 @@ const CustomerChat: React.FC = () => {
             ) : (
               messages.map((msg, index) => (
                 <div
-                  key={index}
+                  key={msg.id ?? index}
                   className={`flex ${msg.sender === customerName ? 'justify-end' : 'justify-start'}`}
                 >
                   <div
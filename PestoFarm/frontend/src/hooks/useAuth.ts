@@ -30,6 +30,7 @@ export const useAuth = () => {
         role: response.role,
         password: data.password,
         jwt: response.jwt,
+        refreshToken: response.refreshToken,
       };
       // Provide jwt to AuthContext so API-enabled features work immediately
       contextLogin(user);
@@ -99,6 +100,7 @@ export const useAuth = () => {
         role: response.role,
         password: data.password,
         jwt: response.jwt,
+        refreshToken: response.refreshToken,
         fullName: (response as any).fullName || (response as any).fullname || undefined,
       };
       // Save JWT and basic user info into AuthContext so downstream APIs work
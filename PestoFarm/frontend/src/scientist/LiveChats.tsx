@@ -1,6 +1,7 @@
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import axios from 'axios';
 import { useAuth } from '../AuthContext';
+import { openChatStream } from '../services/chatStream';
 import { motion } from 'framer-motion';
 import { MessageSquare } from 'lucide-react';
 
@@ -22,6 +23,15 @@ interface Profile {
   description: string;
 }
 
+const toChatMessage = (m: any) => ({
+  text: m.message,
+  sender: m.senderName || (m.user ? m.user.fullname : 'User'),
+  timestamp: m.createdAt || ''
+});
+
+// backend chats have numeric ids; the localStorage fallback uses chat_<timestamp>
+const isBackendChat = (chatId: string) => /^\d+$/.test(chatId);
+
 const LiveChats: React.FC = () => {
   const { user } = useAuth();
   const [profile] = useState<Profile>(() => {
@@ -39,6 +49,9 @@ const LiveChats: React.FC = () => {
   const [activeChat, setActiveChat] = useState<Chat | null>(null);
   const [messageText, setMessageText] = useState('');
   const [loading, setLoading] = useState(true);
+  // id of the newest message held for the open chat; stream reconnects catch up from it
+  const watermarkRef = useRef<number | null>(null);
+  const activeChatId = activeChat?.id;
 
   // Load chats from backend when possible, otherwise fallback to localStorage
   useEffect(() => {
@@ -46,18 +59,18 @@ const LiveChats: React.FC = () => {
       try {
         const jwt = (user as any)?.jwt || localStorage.getItem('jwt');
         if (jwt) {
-          const res = await axios.get('http://localhost:5454/api/chats/scientist', {
+          const res = await axios.get('http://localhost:5454/api/chats/scientist/inbox', {
             headers: { Authorization: `${jwt}` },
           });
           const backendChats = res.data || [];
-          // Map backend chat structure to our Chat interface
+          // Map inbox rows (already sorted by last activity) to our Chat interface
           const mapped = backendChats.map((c: any) => ({
-            id: String(c.id),
-            customerName: c.user?.fullname || c.user?.email || 'Customer',
-            lastMessage: c.lastMessage || '',
-            lastMessageAt: c.lastMessageAt || '',
-            hasNewMessageForScientist: false,
-            status: c.status || 'active',
+            id: String(c.chatId),
+            customerName: c.counterpartName || 'Customer',
+            lastMessage: c.lastMessage || (c.lastMessageImageUrl ? 'Photo' : ''),
+            lastMessageAt: c.updatedAt || '',
+            hasNewMessageForScientist: c.unreadCount > 0,
+            status: 'active',
             messages: [],
           } as Chat));
           setChats(mapped);
@@ -91,6 +104,40 @@ const LiveChats: React.FC = () => {
     }
   }, [chats, activeChat]);
 
+  // Load the open chat's latest messages, then receive new ones over its event stream
+  useEffect(() => {
+    if (!activeChatId || !isBackendChat(activeChatId)) return;
+    const jwt = (user as any)?.jwt || localStorage.getItem('jwt');
+    if (!jwt) return;
+
+    watermarkRef.current = null;
+    const append = (msgs: any[]) => {
+      const fresh = msgs.filter((m: any) => watermarkRef.current == null || m.id > watermarkRef.current);
+      if (fresh.length === 0) return;
+      const isFirstSync = watermarkRef.current == null;
+      watermarkRef.current = fresh[fresh.length - 1].id;
+      const mapped = fresh.map(toChatMessage);
+      const last = mapped[mapped.length - 1];
+      setChats(prev => prev.map(chat => chat.id === activeChatId ? {
+        ...chat,
+        lastMessage: last.text || chat.lastMessage,
+        lastMessageAt: last.timestamp || chat.lastMessageAt,
+        messages: isFirstSync ? mapped : [...(chat.messages || []), ...mapped],
+      } : chat));
+      // the chat is on screen, so everything received so far has been seen
+      axios.post(`http://localhost:5454/api/chats/${activeChatId}/read`, null, {
+        headers: { Authorization: `${jwt}` },
+        params: { upTo: watermarkRef.current }
+      }).then(res => {
+        setChats(prev => prev.map(chat => chat.id === activeChatId
+          ? { ...chat, hasNewMessageForScientist: res.data?.unreadCount > 0 }
+          : chat));
+      }).catch(err => console.warn('Failed to send read receipt:', err));
+    };
+
+    return openChatStream(activeChatId, jwt, () => watermarkRef.current, append);
+  }, [activeChatId, user]);
+
   // Send message (use backend when available)
   const handleSendMessage = useCallback(async () => {
     if (!activeChat || !messageText.trim()) return;
@@ -101,12 +148,10 @@ const LiveChats: React.FC = () => {
         const form = new FormData();
         form.append('chatId', activeChat.id);
         form.append('message', messageText);
-        const res = await axios.post('http://localhost:5454/api/chats/scientist/send', form, {
+        await axios.post('http://localhost:5454/api/chats/scientist/send', form, {
           headers: { Authorization: `${jwt}` },
         });
-        const sentMsg = res.data;
-        // Append to chat messages locally (we'll fetch messages on select)
-        setChats(prev => prev.map(chat => chat.id === activeChat.id ? { ...chat, lastMessage: sentMsg.text || messageText, lastMessageAt: new Date().toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' }), messages: [...(chat.messages || []), { text: sentMsg.text || messageText, sender: profile.fullName, timestamp: sentMsg.createdAt || new Date().toLocaleTimeString() }] } : chat));
+        // the chat's stream delivers the sent message like any other
         setMessageText('');
         return;
       }
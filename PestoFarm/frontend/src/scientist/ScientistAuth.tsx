@@ -175,7 +175,8 @@ const ScientistAuth = () => {
                         role: 'scientist',
                         password: password || '',
                         fullName: (response as any).fullName || (response as any).fullname || '',
-                        jwt: response.jwt
+                        jwt: response.jwt,
+                        refreshToken: response.refreshToken
                     } as any);
                     // Redirect scientist to profile to complete details
                     navigate('/scientist-profile');
@@ -195,7 +196,8 @@ const ScientistAuth = () => {
                         fullName,
                         role: 'scientist',
                         password,
-                        jwt: signupResponse.jwt
+                        jwt: signupResponse.jwt,
+                        refreshToken: signupResponse.refreshToken
                     } as any);
                     // Redirect to profile for completing scientist details
                     navigate('/scientist-profile');
@@ -175,7 +175,8 @@ const SellerAuth = () => {
                         role: 'seller',
                         password: password || '',
                         fullName: (response as any).fullName || (response as any).fullname || '',
-                        jwt: response.jwt
+                        jwt: response.jwt,
+                        refreshToken: response.refreshToken
                     } as any);
                     // Redirect seller to profile to complete details
                     navigate('/seller-profile');
@@ -195,7 +196,8 @@ const SellerAuth = () => {
                         fullName,
                         role: 'seller',
                         password,
-                        jwt: signupResponse.jwt
+                        jwt: signupResponse.jwt,
+                        refreshToken: signupResponse.refreshToken
                     } as any);
                     // Redirect to profile for completing seller details
                     navigate('/seller-profile');
@@ -96,6 +96,59 @@ export interface AdminUser {
   createdAt?: string;
 }
 
+// Spring page as returned by the admin list endpoints
+export interface PageResult<T> {
+  content: T[];
+  pageNumber: number;
+  pageSize: number;
+  totalElements: number;
+  totalPages: number;
+}
+
+export interface AdminPageQuery {
+  query?: string;
+  pageNumber?: number;
+  pageSize?: number;
+}
+
+// Backend role names for the role filter
+export const USER_ROLE_PARAM: Record<string, string> = {
+  customer: 'ROLE_USER',
+  seller: 'ROLE_SELLER',
+  scientist: 'ROLE_SCIENTIST',
+  admin: 'ROLE_ADMIN',
+};
+
+// Backend User interface (matches Java entity)
+interface BackendUser {
+  id: number;
+  email: string;
+  fullname?: string;
+  mobile?: string;
+  role: string;
+  createdAt?: string;
+}
+
+const transformBackendUserToAdmin = (backendUser: BackendUser): AdminUser => {
+  const role = Object.keys(USER_ROLE_PARAM).find(key => USER_ROLE_PARAM[key] === backendUser.role) || 'customer';
+  return {
+    id: backendUser.id.toString(),
+    fullName: backendUser.fullname || backendUser.email,
+    email: backendUser.email,
+    role: role,
+    contactNumber: backendUser.mobile,
+    createdAt: backendUser.createdAt,
+  };
+};
+
+const toPageResult = <B, T>(page: PageResult<B>, transform: (item: B) => T): PageResult<T> => ({
+  content: page.content.map(transform),
+  pageNumber: page.pageNumber,
+  pageSize: page.pageSize,
+  totalElements: page.totalElements,
+  totalPages: page.totalPages,
+});
+
 export interface UpdateProductRequest {
   name?: string;
   brand?: string;
@@ -128,17 +181,19 @@ export interface UpdateUserRequest {
 
 export const adminService = {
   // Product Management APIs
-  getAllProducts: async (): Promise<AdminProduct[]> => {
+  // One page of products; query matches the start of the title
+  getProducts: async ({ query, pageNumber = 0, pageSize = 20 }: AdminPageQuery = {}): Promise<PageResult<AdminProduct>> => {
     try {
-      const response = await axios.get<BackendProduct[]>(`${API_BASE_URL}/api/admin/products`, {
+      const response = await axios.get<PageResult<BackendProduct>>(`${API_BASE_URL}/api/admin/products`, {
+        params: { query: query || undefined, pageNumber, pageSize },
         headers: {
           'Authorization': `Bearer ${localStorage.getItem('jwt')}`,
         },
       });
       // Transform backend products to AdminProduct format
-      return response.data.map(transformBackendProductToAdmin);
+      return toPageResult(response.data, transformBackendProductToAdmin);
     } catch (error) {
-      console.error('Error fetching all products:', error);
+      console.error('Error fetching products:', error);
       throw error;
     }
   },
@@ -188,16 +243,18 @@ export const adminService = {
   },
 
   // User Management APIs
-  getAllUsers: async (): Promise<AdminUser[]> => {
+  // One page of users; query matches the start of the name or email, role is a USER_ROLE_PARAM key
+  getUsers: async ({ query, role, pageNumber = 0, pageSize = 20 }: AdminPageQuery & { role?: string } = {}): Promise<PageResult<AdminUser>> => {
     try {
-      const response = await axios.get<AdminUser[]>(`${API_BASE_URL}/api/admin/users`, {
+      const response = await axios.get<PageResult<BackendUser>>(`${API_BASE_URL}/api/admin/users`, {
+        params: { query: query || undefined, role: role ? USER_ROLE_PARAM[role] : undefined, pageNumber, pageSize },
         headers: {
           'Authorization': `Bearer ${localStorage.getItem('jwt')}`,
         },
       });
-      return response.data;
+      return toPageResult(response.data, transformBackendUserToAdmin);
     } catch (error) {
-      console.error('Error fetching all users:', error);
+      console.error('Error fetching users:', error);
       throw error;
     }
   },
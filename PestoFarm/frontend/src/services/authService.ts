@@ -23,6 +23,7 @@ export interface LoginRequest {
 
 export interface AuthResponse {
   jwt: string;
+  refreshToken?: string;
   message: string;
   role: 'ROLE_CUSTOMER' | 'ROLE_SELLER' | 'ROLE_SCIENTIST' | 'ROLE_ADMIN';
 }
@@ -105,3 +106,37 @@ export const scientistAuthService = {
     return response.data;
   },
 };
+
+// Session tokens: access tokens are short-lived, the refresh token is rotated on every use
+let pendingRefresh: Promise<AuthResponse> | null = null;
+
+export const sessionService = {
+  // concurrent callers share one request, since a refresh token can only be used once
+  refresh: (refreshToken: string): Promise<AuthResponse> => {
+    if (!pendingRefresh) {
+      pendingRefresh = axios
+        .post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+        .then((response) => response.data)
+        .finally(() => {
+          pendingRefresh = null;
+        });
+    }
+    return pendingRefresh;
+  },
+
+  logout: async (jwt?: string, refreshToken?: string): Promise<void> => {
+    await axios.post(`${API_BASE_URL}/auth/logout`, { refreshToken }, {
+      headers: jwt ? { Authorization: `Bearer ${jwt}` } : undefined
+    });
+  },
+
+  // epoch millis at which the access token expires, or null if it cannot be read
+  expiresAt: (jwt: string): number | null => {
+    try {
+      const payload = JSON.parse(atob(jwt.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')));
+      return typeof payload.exp === 'number' ? payload.exp * 1000 : null;
+    } catch (error) {
+      return null;
+    }
+  },
+};
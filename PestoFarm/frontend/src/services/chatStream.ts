@@ -0,0 +1,63 @@
+import axios from 'axios';
+
+const API_BASE_URL = 'http://localhost:5454';
+
+// Receives a chat's messages over its server-sent event stream. EventSource cannot send the
+// Authorization header, so the stream is read with fetch. On every (re)connect we first catch up
+// from the watermark (the latest page when there is none), then hand over pushed messages; the
+// server drops clients that fall behind, and they reconnect after a short pause.
+// Returns a function that closes the stream.
+export const openChatStream = (
+  chatId: string,
+  jwt: string,
+  getWatermark: () => number | null,
+  onMessages: (messages: any[]) => void
+): (() => void) => {
+  const controller = new AbortController();
+  let reconnectTimer: ReturnType<typeof setTimeout> | undefined;
+
+  const connect = async () => {
+    try {
+      const res = await fetch(`${API_BASE_URL}/api/chats/${chatId}/stream`, {
+        headers: { Authorization: `${jwt}`, Accept: 'text/event-stream' },
+        signal: controller.signal
+      });
+      if (!res.ok || !res.body) throw new Error(`stream failed: ${res.status}`);
+
+      const watermark = getWatermark();
+      const deltaRes = await axios.get(`${API_BASE_URL}/api/chats/${chatId}/messages/since`, {
+        headers: { Authorization: `${jwt}` },
+        params: watermark != null ? { since: watermark } : {}
+      });
+      onMessages(deltaRes.data?.messages || []);
+
+      const reader = res.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const event = buffer.slice(0, boundary);
+          buffer = buffer.slice(boundary + 2);
+          const data = event.split('\n').filter(l => l.startsWith('data:')).map(l => l.slice(5)).join('\n');
+          if (data) onMessages([JSON.parse(data)]);
+        }
+      }
+    } catch (err) {
+      if (controller.signal.aborted) return;
+      console.warn('Chat stream interrupted, reconnecting:', err);
+    }
+    if (!controller.signal.aborted) {
+      reconnectTimer = setTimeout(connect, 3000);
+    }
+  };
+
+  connect();
+  return () => {
+    controller.abort();
+    clearTimeout(reconnectTimer);
+  };
+};
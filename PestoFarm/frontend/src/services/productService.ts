@@ -160,8 +160,8 @@ export const productService = {
     return productService.getProducts({ category, pageNumber });
   },
 
-  // Get products by location (using coordinates)
+  // Get products by location (using coordinates), nearest sellers first
   getProductsByLocation: async (userLat: number, userLon: number, pageNumber: number = 0): Promise<ProductDetail[]> => {
-    return productService.getProducts({ userLat, userLon, pageNumber });
+    return productService.getProducts({ userLat, userLon, pageNumber, sort: 'distance' });
   }
 };